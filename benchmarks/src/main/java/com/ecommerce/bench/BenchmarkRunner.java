@@ -0,0 +1,44 @@
+package com.ecommerce.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the standard JMH command line, but unless told otherwise
+ * writes results as JSON to {@code jmh-result.json} and enables the GC profiler, so every run records
+ * allocation rates alongside timings.
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the selected benchmarks, or all of them if no pattern is given.
+     *
+     * @param args standard JMH options, e.g. {@code ProductMapping -f 1}.
+     * @throws Exception if the options are invalid or a benchmark fails to run.
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (cli.getIncludes().isEmpty()) {
+            options.include("com\\.ecommerce\\..*Benchmark");
+        }
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        if (cli.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.bench;
+
+import com.ecommerce.dao.InMemoryProductRepository;
+import com.ecommerce.model.Product;
+import com.ecommerce.service.ProductService;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link ProductService#browseProducts} over the in-memory engine, with console output discarded.
+ * {@link #pageOnly} walks the same keyset pages without formatting; the difference is the cost of
+ * building and printing the product lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Decommerce.search.enabled=false")
+public class BrowseBenchmark {
+    private static final int PAGE_SIZE = Integer.getInteger("ecommerce.browse.pageSize", 100);
+
+    @Param({"1000", "100000"})
+    public int catalogSize;
+
+    private InMemoryProductRepository repository;
+    private ProductService service;
+    private PrintStream originalOut;
+
+    /**
+     * Fills the catalog and silences {@code System.out}.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = new InMemoryProductRepository();
+        List<Product> products = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(BigDecimal.valueOf(100 + i % 10_000, 2));
+            product.setQuantity(i % 50);
+            product.setSellerId(1 + i % 20);
+            products.add(product);
+        }
+        repository.addProducts(products);
+        service = new ProductService(repository);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Restores {@code System.out}.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Browses the whole catalog through the service, formatting and printing every line.
+     */
+    @Benchmark
+    public void browseProducts() {
+        service.browseProducts();
+    }
+
+    /**
+     * Walks the same pages without formatting.
+     *
+     * @param blackhole sink for the products.
+     */
+    @Benchmark
+    public void pageOnly(Blackhole blackhole) {
+        int afterId = 0;
+        List<Product> page;
+        do {
+            page = repository.getProductsPage(afterId, PAGE_SIZE);
+            for (Product product : page) {
+                blackhole.consume(product);
+                afterId = product.getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.bench;
+
+import com.ecommerce.util.PasswordUtil;
+import java.util.concurrent.TimeUnit;
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PasswordUtil#checkPassword} through the hashing executor against a direct
+ * {@code BCrypt.checkpw} on the caller thread, for stored hashes of different costs. The difference
+ * is the executor hand-off. The new-hash cost is pinned so no calibration runs in the fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Decommerce.bcrypt.cost=10")
+public class PasswordBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"4", "10"})
+    public int cost;
+
+    private String hash;
+
+    /**
+     * Hashes the password once at the benchmarked cost.
+     */
+    @Setup
+    public void setUp() {
+        hash = BCrypt.hashpw(PASSWORD, BCrypt.gensalt(cost));
+    }
+
+    /**
+     * Verifies through {@link PasswordUtil}.
+     *
+     * @return the verification result.
+     */
+    @Benchmark
+    public boolean checkPassword() {
+        return PasswordUtil.checkPassword(PASSWORD, hash);
+    }
+
+    /**
+     * Verifies inline with BCrypt.
+     *
+     * @return the verification result.
+     */
+    @Benchmark
+    public boolean checkPasswordInline() {
+        return BCrypt.checkpw(PASSWORD, hash);
+    }
+}
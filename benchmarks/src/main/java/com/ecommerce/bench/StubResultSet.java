@@ -0,0 +1,93 @@
+package com.ecommerce.bench;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A read-only, in-memory {@link ResultSet} over fixed rows, so JDBC mapping code can be benchmarked without
+ * a database. Supports forward iteration, {@code beforeFirst()} for reuse across invocations, and the
+ * by-label getters the DAOs use.
+ * <p>
+ * It is a dynamic proxy, so every call carries some reflection and boxing cost of its own. Benchmarks that
+ * use it include a baseline that only reads the columns, to be subtracted from the mapping results.
+ */
+public final class StubResultSet {
+    private final Object[][] rows;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int cursor = -1;
+    private boolean lastWasNull;
+
+    private StubResultSet(String[] columnLabels, Object[][] rows) {
+        this.rows = rows;
+        for (int i = 0; i < columnLabels.length; i++) {
+            columns.put(columnLabels[i], i);
+        }
+    }
+
+    /**
+     * Creates a result set.
+     *
+     * @param columnLabels the column labels, in row order.
+     * @param rows         the rows; each holds one value per column.
+     * @return the result set, positioned before the first row.
+     */
+    public static ResultSet of(String[] columnLabels, Object[][] rows) {
+        StubResultSet state = new StubResultSet(columnLabels, rows);
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> state.invoke(method.getName(), args));
+    }
+
+    private Object invoke(String method, Object[] args) throws SQLException {
+        return switch (method) {
+            case "next" -> ++cursor < rows.length;
+            case "beforeFirst" -> {
+                cursor = -1;
+                yield null;
+            }
+            case "close" -> null;
+            case "isClosed" -> false;
+            case "wasNull" -> lastWasNull;
+            case "getInt" -> {
+                Object value = value(args[0]);
+                yield value == null ? 0 : ((Number) value).intValue();
+            }
+            case "getLong" -> {
+                Object value = value(args[0]);
+                yield value == null ? 0L : ((Number) value).longValue();
+            }
+            case "getString" -> {
+                Object value = value(args[0]);
+                yield value == null ? null : value.toString();
+            }
+            case "getBigDecimal" -> (BigDecimal) value(args[0]);
+            case "getObject" -> value(args[0]);
+            case "hashCode" -> System.identityHashCode(this);
+            case "equals" -> false;
+            case "toString" -> "StubResultSet[" + rows.length + " rows]";
+            default -> throw new SQLException("StubResultSet does not support " + method);
+        };
+    }
+
+    private Object value(Object column) throws SQLException {
+        if (cursor < 0 || cursor >= rows.length) {
+            throw new SQLException("Cursor is not on a row");
+        }
+        int index;
+        if (column instanceof Integer position) {
+            index = position - 1;
+        } else {
+            Integer found = columns.get(column);
+            if (found == null) {
+                throw new SQLException("Unknown column: " + column);
+            }
+            index = found;
+        }
+        Object value = rows[cursor][index];
+        lastWasNull = value == null;
+        return value;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.bench.StubResultSet;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link ProductDAO#mapToProduct} over a stub result set of {@code rows} products.
+ * {@link #readColumnsOnly} reads the same columns without building products and is the baseline
+ * for the stub's own cost.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductMappingBenchmark {
+    private static final String[] COLUMNS = {"id", "name", "price", "quantity", "seller_id"};
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private ResultSet resultSet;
+
+    /**
+     * Builds the stub rows.
+     */
+    @Setup
+    public void setUp() {
+        Object[][] data = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            data[i] = new Object[]{i + 1, "Product " + i, BigDecimal.valueOf(100 + i, 2), i % 50, 1 + i % 20};
+        }
+        resultSet = StubResultSet.of(COLUMNS, data);
+    }
+
+    /**
+     * Maps every row to a product.
+     *
+     * @param blackhole sink for the products.
+     * @throws SQLException never; the stub does not fail.
+     */
+    @Benchmark
+    public void mapToProduct(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(ProductDAO.mapToProduct(resultSet));
+        }
+    }
+
+    /**
+     * Reads every column of every row without mapping.
+     *
+     * @param blackhole sink for the values.
+     * @throws SQLException never; the stub does not fail.
+     */
+    @Benchmark
+    public void readColumnsOnly(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(resultSet.getInt("id"));
+            blackhole.consume(resultSet.getString("name"));
+            blackhole.consume(resultSet.getBigDecimal("price"));
+            blackhole.consume(resultSet.getInt("quantity"));
+            blackhole.consume(resultSet.getInt("seller_id"));
+        }
+    }
+}
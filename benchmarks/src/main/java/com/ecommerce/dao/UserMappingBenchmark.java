@@ -0,0 +1,76 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.bench.StubResultSet;
+import com.ecommerce.model.User;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the row loop of {@link UserDAO#getAllUsers}: role dispatch to the {@code User} subclasses
+ * through {@link UserDAO#mapToUser}. With {@code mixedRoles} the call sites see all three subclasses,
+ * as they do in production; without it every row is a buyer, which lets the JIT specialise them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserMappingBenchmark {
+    private static final String[] COLUMNS = {"id", "username", "password", "email", "role"};
+    private static final String[] ROLES = {"buyer", "seller", "admin"};
+
+    @Param({"1000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean mixedRoles;
+
+    private ResultSet resultSet;
+
+    /**
+     * Builds the stub rows.
+     */
+    @Setup
+    public void setUp() {
+        Object[][] data = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            String role = mixedRoles ? ROLES[i % ROLES.length] : "buyer";
+            data[i] = new Object[]{i + 1, "user" + i, "$2a$10$abcdefghijklmnopqrstuv", "user" + i + "@example.com", role};
+        }
+        resultSet = StubResultSet.of(COLUMNS, data);
+    }
+
+    /**
+     * Maps every row into a list, as {@code getAllUsers} does.
+     *
+     * @return the users, so the work is not eliminated.
+     * @throws SQLException never; the stub does not fail.
+     */
+    @Benchmark
+    public List<User> mapAllUsers() throws SQLException {
+        resultSet.beforeFirst();
+        List<User> users = new ArrayList<>();
+        while (resultSet.next()) {
+            User user = UserDAO.mapToUser(resultSet);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+}
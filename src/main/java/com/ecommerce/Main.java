@@ -1,10 +1,31 @@
 package com.ecommerce;
 
+import com.ecommerce.api.ApiServer;
+import com.ecommerce.dao.Repositories;
+import com.ecommerce.dao.StorageEngine;
+import com.ecommerce.importer.CatalogImporter;
+import com.ecommerce.importer.ImportOptions;
+import com.ecommerce.importer.ImportReport;
+import com.ecommerce.migration.IndexReport;
+import com.ecommerce.migration.Migration;
+import com.ecommerce.migration.MigrationException;
+import com.ecommerce.migration.MigrationRunner;
 import com.ecommerce.model.*;
+import com.ecommerce.service.DashboardService;
+import com.ecommerce.service.OrderService;
 import com.ecommerce.service.ProductService;
 import com.ecommerce.service.UserService;
+import com.ecommerce.session.Session;
+import com.ecommerce.util.PasswordHashingRejectedException;
+import com.ecommerce.util.Database;
+import com.ecommerce.util.PasswordUtil;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -15,18 +36,55 @@ import java.util.Scanner;
 
 public class Main {
 
-    private static final UserService userService = new UserService();
-    private static final ProductService productService = new ProductService();
+    // Created when the console starts, so non-interactive modes don't build the search index.
+    private static UserService userService;
+    private static ProductService productService;
+    private static OrderService orderService;
 
 
     /**
      * The main method serves as the entry point to the application.
      * It displays the main menu and handles user choices for registration, login, and exit.
+     * When started as {@code import <file> [options]} it imports a catalog file instead and exits;
+     * when started as {@code serve [port]} it runs the HTTP API until the process is stopped.
+     * {@code migrate} applies pending schema migrations and exits, and {@code index-report} prints the
+     * unused and missing indexes and exits.
+     * <p>
+     * With the JDBC storage engine, every other mode first applies pending schema migrations, unless
+     * {@code ecommerce.migrations.enabled} is {@code false}, and exits with status 1 if that fails.
      *
-     * @param args command-line arguments (not used in this application).
+     * @param args command-line arguments; empty to start the console.
      */
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("migrate")) {
+            System.exit(migrateSchema() ? 0 : 1);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("index-report")) {
+            printIndexReport();
+            return;
+        }
+        if (Repositories.engine() == StorageEngine.JDBC
+                && Boolean.parseBoolean(System.getProperty("ecommerce.migrations.enabled", "true"))
+                && !migrateSchema()) {
+            System.exit(1);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("import")) {
+            importCatalog(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            serve(args.length > 1 ? Integer.parseInt(args[1]) : Integer.getInteger("ecommerce.api.port", 8080));
+            return;
+        }
+
+        userService = new UserService();
+        productService = new ProductService();
+        orderService = new OrderService(productService);
+        // Loading PasswordUtil calibrates the BCrypt cost, so do it now rather than during the first login.
+        System.out.println("Password hashing cost: " + PasswordUtil.getCost());
         Scanner scanner = new Scanner(System.in);
         boolean running = true;
 
@@ -45,6 +103,7 @@ public class Main {
                 case 2 -> login(scanner);
                 case 3 -> {
                     System.out.println("Exiting the application. Goodbye!");
+                    orderService.close();
                     running = false;
                 }
                 default -> System.out.println("Invalid option. Please try again.");
@@ -52,6 +111,105 @@ public class Main {
         }
     }
 
+    /**
+     * Runs the HTTP/JSON API server until the JVM shuts down.
+     *
+     * @param port the TCP port to listen on.
+     */
+
+    private static void serve(int port) {
+        userService = new UserService();
+        productService = new ProductService();
+        orderService = new OrderService(productService);
+        ApiServer server;
+        try {
+            server = new ApiServer(port, userService, productService, orderService, new DashboardService());
+        } catch (IOException e) {
+            System.err.println("Error starting API server: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            orderService.close();
+        }, "api-shutdown"));
+        server.start();
+        System.out.println("Marketplace API listening on port " + server.getPort()
+                + " (password hashing cost " + PasswordUtil.getCost() + ")");
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Imports a catalog file non-interactively and prints the final report.
+     * Exits with status 1 if the arguments are invalid or the import stops early.
+     *
+     * @param args {@code <file> [--format csv|jsonl] [--seller id] [--workers n] [--chunk n] [--queue n] [--restart]}.
+     */
+
+    private static void importCatalog(String[] args) {
+        ImportOptions options;
+        try {
+            options = ImportOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: import <file> [--format csv|jsonl] [--seller id] [--workers n] [--chunk n] "
+                    + "[--queue n] [--restart]");
+            System.exit(1);
+            return;
+        }
+
+        try {
+            ImportReport report = new CatalogImporter(Repositories.products(), options).run();
+            System.out.println("Import " + (report.isCompleted() ? "finished" : "stopped") + ": " + report);
+            if (report.getRowsRejected() > 0) {
+                System.out.println("Rejected rows were written to " + options.getFile() + ".errors");
+            }
+            if (!report.isCompleted()) {
+                System.exit(1);
+            }
+        } catch (IOException e) {
+            System.err.println("Error importing catalog: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Applies pending schema migrations and prints the ones applied.
+     *
+     * @return {@code true} if the schema is now current.
+     */
+
+    private static boolean migrateSchema() {
+        try {
+            List<Migration> applied = new MigrationRunner().migrate();
+            if (!applied.isEmpty()) {
+                System.out.println("Applied " + applied.size() + " schema migration(s): " + applied);
+            }
+            return true;
+        } catch (MigrationException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Prints the indexes that look unused or missing according to the database statistics.
+     * Exits with status 1 if the statistics cannot be read.
+     */
+
+    private static void printIndexReport() {
+        try (Connection conn = Database.openDirectConnection()) {
+            System.out.println(IndexReport.generate(conn));
+        } catch (SQLException e) {
+            System.err.println("Error reading index statistics: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
     /**
      * Handles user registration by prompting for details such as username, email, password, and role.
      *
@@ -89,7 +247,13 @@ public class Main {
             return;
         }
 
-        boolean success = userService.registerUser(username, email, password, role);
+        boolean success;
+        try {
+            success = userService.registerUser(username, email, password, role);
+        } catch (PasswordHashingRejectedException e) {
+            System.out.println("The system is busy. Please try again shortly.");
+            return;
+        }
         if (success) {
             System.out.println("User registered successfully!");
         } else {
@@ -112,11 +276,19 @@ public class Main {
         System.out.print("Enter Password: ");
         String password = scanner.nextLine();
 
-        User user = userService.login(email, password);
+        Session session;
+        try {
+            session = userService.startSession(email, password);
+        } catch (PasswordHashingRejectedException e) {
+            System.out.println("The system is busy. Please try again shortly.");
+            return;
+        }
 
-        if (user != null) {
+        if (session != null) {
+            User user = session.getUser();
             System.out.println("Login successful! Welcome, " + user.getUsername());
             displayUserMenu(user, scanner);
+            userService.logout(session.getToken());
         } else {
             System.out.println("Invalid email or password.");
         }
@@ -140,12 +312,14 @@ public class Main {
                 System.out.println("1. Browse Products");
                 System.out.println("2. Search Product by Name");
                 System.out.println("3. View Product Details");
-                System.out.println("4. Logout");
+                System.out.println("4. Purchase a Product");
+                System.out.println("5. View My Orders");
+                System.out.println("6. Logout");
                 System.out.print("Enter your choice: ");
                 int choice = scanner.nextInt();
                 scanner.nextLine();
                 handleBuyerMenu((Buyer) user, choice, scanner);
-                if (choice == 4) {
+                if (choice == 6) {
                     System.out.println("You have successfully logged out.");
                     loggedIn = false;
                 }
@@ -154,12 +328,13 @@ public class Main {
                 System.out.println("2. Update Product");
                 System.out.println("3. Delete Product");
                 System.out.println("4. View My Products");
-                System.out.println("5. Logout");
+                System.out.println("5. View My Sales Summary");
+                System.out.println("6. Logout");
                 System.out.print("Enter your choice: ");
                 int choice = scanner.nextInt();
                 scanner.nextLine();
                 handleSellerMenu((Seller) user, choice, scanner);
-                if (choice == 5) {
+                if (choice == 6) {
                     System.out.println("You have successfully logged out.");
                     loggedIn = false;
                 }
@@ -167,12 +342,13 @@ public class Main {
                 System.out.println("1. View All Users");
                 System.out.println("2. Delete User");
                 System.out.println("3. View All Products");
-                System.out.println("4. Logout");
+                System.out.println("4. Seller Report");
+                System.out.println("5. Logout");
                 System.out.print("Enter your choice: ");
                 int choice = scanner.nextInt();
                 scanner.nextLine();
                 handleAdminMenu((Admin) user, choice, scanner);
-                if (choice == 4) {
+                if (choice == 5) {
                     System.out.println("You have successfully logged out.");
                     loggedIn = false;
                 }
@@ -193,12 +369,31 @@ public class Main {
                 productService.searchProduct(productName);
             }
             case 3 -> {
-                System.out.print("Enter product ID to view details: ");
+                System.out.print("Enter product ID(s) to view details, separated by commas: ");
+                int[] productIds;
+                try {
+                    productIds = Arrays.stream(scanner.nextLine().split(",")).map(String::trim)
+                            .mapToInt(Integer::parseInt).toArray();
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid product ID.");
+                    return;
+                }
+                if (productIds.length == 1) {
+                    productService.viewProductDetails(productIds[0]);
+                } else {
+                    productService.viewProductsDetails(productIds);
+                }
+            }
+            case 4 -> {
+                System.out.print("Enter product ID to purchase: ");
                 int productId = scanner.nextInt();
+                System.out.print("Enter quantity: ");
+                int quantity = scanner.nextInt();
                 scanner.nextLine();
-                productService.viewProductDetails(productId);
+                orderService.purchaseProduct(buyer.getId(), productId, quantity);
             }
-            case 4 -> System.out.println("Logging out...");
+            case 5 -> orderService.viewBuyerOrders(buyer.getId());
+            case 6 -> System.out.println("Logging out...");
             default -> System.out.println("Invalid option. Try again.");
         }
     }
@@ -247,7 +442,8 @@ public class Main {
                 productService.deleteProduct(productId);
             }
             case 4 -> productService.viewSellerProducts(seller.getId());
-            case 5 -> System.out.println("Logging out...");
+            case 5 -> productService.viewSellerStats(seller.getId());
+            case 6 -> System.out.println("Logging out...");
             default -> System.out.println("Invalid option. Try again.");
         }
     }
@@ -262,7 +458,8 @@ public class Main {
                 userService.deleteUser(userId);
             }
             case 3 -> productService.viewAllProductsWithSellers();
-            case 4 -> System.out.println("Logging out...");
+            case 4 -> productService.viewSellerReport();
+            case 5 -> System.out.println("Logging out...");
             default -> System.out.println("Invalid option. Try again.");
         }
     }
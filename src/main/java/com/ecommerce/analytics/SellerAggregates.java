@@ -0,0 +1,344 @@
+package com.ecommerce.analytics;
+
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.CatalogSnapshotManager;
+import com.ecommerce.dao.CatalogEvents;
+import com.ecommerce.dao.CatalogListener;
+import com.ecommerce.dao.ProductRepository;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.IntObjectMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Materialized per-seller totals: product count, total stock, inventory value and min/max/average price.
+ * <p>
+ * The totals are computed once from a {@link CatalogSnapshot} with a fork-join pass that splits the rows
+ * across the common pool and merges the partial totals. After that, each change reported through
+ * {@link CatalogEvents} adjusts the two affected sellers' totals directly: counts, stock, value and the
+ * price sum in constant time, and the per-seller price histogram that backs min/max in O(log n), so a
+ * deleted cheapest product does not force a rescan. Each seller's totals also hold the IDs of their products,
+ * so deleting a seller's whole catalog touches only their rows. Reading a seller's totals never touches the catalog.
+ */
+public class SellerAggregates implements CatalogListener {
+    private static final int SPLIT_THRESHOLD = 16_384;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IntObjectMap<Totals> sellers = new IntObjectMap<>();
+    // The last known seller, price and quantity of every product, to subtract when it changes.
+    private IntObjectMap<Row> products = new IntObjectMap<>();
+
+    // Guarded by lock: changes that arrive while attach() is computing, replayed once it is done.
+    private List<Runnable> changesDuringBuild;
+
+    /**
+     * Computes the totals of a repository without following later changes, e.g. for a one-off report.
+     *
+     * @param repository the product source.
+     * @return the aggregates.
+     */
+    public static SellerAggregates compute(ProductRepository repository) {
+        SellerAggregates aggregates = new SellerAggregates();
+        aggregates.load(CatalogSnapshot.load(repository));
+        return aggregates;
+    }
+
+    /**
+     * Subscribes to catalog changes and computes the totals from a repository.
+     * Changes that arrive while the repository is being read are applied afterwards; every change carries
+     * the product's new state, so applying one the read already reflects is harmless.
+     *
+     * @param repository the product source.
+     */
+    public void attach(ProductRepository repository) {
+        startBuffering();
+        load(CatalogSnapshot.load(repository));
+    }
+
+    /**
+     * Subscribes to catalog changes and computes the totals from a snapshot manager's current snapshot,
+     * so the catalog is not read a second time. The manager's collected changes are applied to it first;
+     * changes that arrive afterwards are buffered and applied once the totals are computed.
+     *
+     * @param snapshots the attached snapshot manager.
+     */
+    public void attach(CatalogSnapshotManager snapshots) {
+        startBuffering();
+        // Everything reported before this subscription is now either in the snapshot or collected by the manager.
+        snapshots.refresh();
+        load(snapshots.current());
+    }
+
+    /**
+     * Gets one seller's totals.
+     *
+     * @param sellerId the seller's user ID.
+     * @return the totals; all zero if the seller has no products.
+     */
+    public SellerStats getStats(int sellerId) {
+        lock.readLock().lock();
+        try {
+            Totals totals = sellers.get(sellerId);
+            return totals == null ? new SellerStats(sellerId, 0, 0, 0, 0, 0, 0) : totals.toStats(sellerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the totals of every seller with at least one product.
+     *
+     * @return the totals, highest inventory value first.
+     */
+    public List<SellerStats> getAllStats() {
+        List<SellerStats> stats = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            sellers.forEach((sellerId, totals) -> stats.add(totals.toStats(sellerId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.sort(Comparator.comparing(SellerStats::getInventoryValue).reversed()
+                .thenComparingInt(SellerStats::getSellerId));
+        return stats;
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        int id = product.getId();
+        int sellerId = product.getSellerId();
+        long price = CatalogSnapshot.toCents(product.getPrice());
+        int quantity = product.getQuantity();
+        apply(() -> put(id, sellerId, price, quantity));
+    }
+
+    @Override
+    public void productUpdated(Product product) {
+        int id = product.getId();
+        long price = CatalogSnapshot.toCents(product.getPrice());
+        int quantity = product.getQuantity();
+        apply(() -> {
+            // Updates only carry name, price and quantity; keep the seller we already know.
+            Row row = products.get(id);
+            if (row != null) {
+                put(id, row.sellerId, price, quantity);
+            }
+        });
+    }
+
+    @Override
+    public void stockChanged(int productId, int quantity) {
+        apply(() -> {
+            Row row = products.get(productId);
+            if (row != null) {
+                put(productId, row.sellerId, row.priceCents, quantity);
+            }
+        });
+    }
+
+    @Override
+    public void productDeleted(int productId) {
+        apply(() -> {
+            Row row = products.remove(productId);
+            if (row != null) {
+                subtract(productId, row);
+            }
+        });
+    }
+
+    @Override
+    public void sellerProductsDeleted(int sellerId) {
+        apply(() -> {
+            Totals totals = sellers.remove(sellerId);
+            if (totals != null) {
+                totals.productIds.forEach((id, present) -> products.remove(id));
+            }
+        });
+    }
+
+    private void startBuffering() {
+        CatalogEvents.register(this);
+        lock.writeLock().lock();
+        try {
+            changesDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a change under the write lock, or queues it while the initial computation is running.
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringBuild != null) {
+                changesDuringBuild.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load(CatalogSnapshot snapshot) {
+        IntObjectMap<Totals> computed = ForkJoinPool.commonPool().invoke(new BuildTask(snapshot, 0, snapshot.size()));
+        IntObjectMap<Row> rows = new IntObjectMap<>(snapshot.size());
+        for (int position = 0; position < snapshot.size(); position++) {
+            rows.put(snapshot.getId(position), new Row(snapshot.getSellerId(position),
+                    snapshot.getPriceCents(position), snapshot.getQuantity(position)));
+        }
+        lock.writeLock().lock();
+        try {
+            sellers = computed;
+            products = rows;
+            if (changesDuringBuild != null) {
+                changesDuringBuild.forEach(Runnable::run);
+                changesDuringBuild = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a product's current state, replacing whatever was known about it.
+     */
+    private void put(int productId, int sellerId, long priceCents, int quantity) {
+        Row previous = products.put(productId, new Row(sellerId, priceCents, quantity));
+        if (previous != null) {
+            subtract(productId, previous);
+        }
+        Totals totals = sellers.get(sellerId);
+        if (totals == null) {
+            totals = new Totals();
+            sellers.put(sellerId, totals);
+        }
+        totals.add(productId, priceCents, quantity);
+    }
+
+    private void subtract(int productId, Row row) {
+        Totals totals = sellers.get(row.sellerId);
+        if (totals != null) {
+            totals.remove(productId, row.priceCents, row.quantity);
+            if (totals.count == 0) {
+                sellers.remove(row.sellerId);
+            }
+        }
+    }
+
+    /**
+     * A product's seller, price in cents and quantity.
+     */
+    private static final class Row {
+        private final int sellerId;
+        private final long priceCents;
+        private final int quantity;
+
+        private Row(int sellerId, long priceCents, int quantity) {
+            this.sellerId = sellerId;
+            this.priceCents = priceCents;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Running totals for one seller. Prices are counted in a sorted histogram so min and max survive removals;
+     * the product IDs let a seller's rows be dropped without scanning everyone else's.
+     */
+    private static final class Totals {
+        private int count;
+        private long stock;
+        private long valueCents;
+        private long priceSumCents;
+        private final TreeMap<Long, Integer> prices = new TreeMap<>();
+        private final IntObjectMap<Boolean> productIds = new IntObjectMap<>();
+
+        private void add(int productId, long priceCents, int quantity) {
+            productIds.put(productId, Boolean.TRUE);
+            count++;
+            stock += quantity;
+            valueCents += priceCents * quantity;
+            priceSumCents += priceCents;
+            prices.merge(priceCents, 1, Integer::sum);
+        }
+
+        private void remove(int productId, long priceCents, int quantity) {
+            productIds.remove(productId);
+            count--;
+            stock -= quantity;
+            valueCents -= priceCents * quantity;
+            priceSumCents -= priceCents;
+            prices.computeIfPresent(priceCents, (price, n) -> n == 1 ? null : n - 1);
+        }
+
+        private void merge(Totals other) {
+            count += other.count;
+            stock += other.stock;
+            valueCents += other.valueCents;
+            priceSumCents += other.priceSumCents;
+            for (Map.Entry<Long, Integer> entry : other.prices.entrySet()) {
+                prices.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+            other.productIds.forEach((id, present) -> productIds.put(id, present));
+        }
+
+        private SellerStats toStats(int sellerId) {
+            return new SellerStats(sellerId, count, stock, valueCents,
+                    prices.isEmpty() ? 0 : prices.firstKey(), prices.isEmpty() ? 0 : prices.lastKey(), priceSumCents);
+        }
+    }
+
+    /**
+     * Totals a range of snapshot rows, splitting it in half until the pieces are small enough.
+     */
+    private static final class BuildTask extends RecursiveTask<IntObjectMap<Totals>> {
+        private final CatalogSnapshot snapshot;
+        private final int from;
+        private final int to;
+
+        private BuildTask(CatalogSnapshot snapshot, int from, int to) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntObjectMap<Totals> compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                IntObjectMap<Totals> totals = new IntObjectMap<>();
+                for (int position = from; position < to; position++) {
+                    int sellerId = snapshot.getSellerId(position);
+                    Totals seller = totals.get(sellerId);
+                    if (seller == null) {
+                        seller = new Totals();
+                        totals.put(sellerId, seller);
+                    }
+                    seller.add(snapshot.getId(position), snapshot.getPriceCents(position), snapshot.getQuantity(position));
+                }
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask right = new BuildTask(snapshot, middle, to);
+            right.fork();
+            IntObjectMap<Totals> left = new BuildTask(snapshot, from, middle).compute();
+            IntObjectMap<Totals> rightTotals = right.join();
+            rightTotals.forEach((sellerId, totals) -> {
+                Totals existing = left.get(sellerId);
+                if (existing == null) {
+                    left.put(sellerId, totals);
+                } else {
+                    existing.merge(totals);
+                }
+            });
+            return left;
+        }
+    }
+}
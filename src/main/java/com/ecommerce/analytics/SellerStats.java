@@ -0,0 +1,51 @@
+package com.ecommerce.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Point-in-time totals over one seller's products, as kept by {@link SellerAggregates}.
+ */
+
+public class SellerStats {
+    private final int sellerId;
+    private final int productCount;
+    private final long totalStock;
+    private final BigDecimal inventoryValue;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final BigDecimal averagePrice;
+
+    SellerStats(int sellerId, int productCount, long totalStock, long inventoryValueCents,
+                long minPriceCents, long maxPriceCents, long priceSumCents) {
+        this.sellerId = sellerId;
+        this.productCount = productCount;
+        this.totalStock = totalStock;
+        this.inventoryValue = BigDecimal.valueOf(inventoryValueCents, 2);
+        this.minPrice = productCount == 0 ? null : BigDecimal.valueOf(minPriceCents, 2);
+        this.maxPrice = productCount == 0 ? null : BigDecimal.valueOf(maxPriceCents, 2);
+        this.averagePrice = productCount == 0 ? null
+                : BigDecimal.valueOf(priceSumCents).divide(BigDecimal.valueOf(productCount * 100L), 2, RoundingMode.HALF_UP);
+    }
+
+    /** @return the seller's user ID. */
+    public int getSellerId() { return sellerId; }
+    /** @return the number of products the seller offers. */
+    public int getProductCount() { return productCount; }
+    /** @return the units in stock across all of the seller's products. */
+    public long getTotalStock() { return totalStock; }
+    /** @return the sum of price times quantity over the seller's products. */
+    public BigDecimal getInventoryValue() { return inventoryValue; }
+    /** @return the lowest product price, or null if the seller has no products. */
+    public BigDecimal getMinPrice() { return minPrice; }
+    /** @return the highest product price, or null if the seller has no products. */
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    /** @return the mean product price, rounded to cents, or null if the seller has no products. */
+    public BigDecimal getAveragePrice() { return averagePrice; }
+
+    @Override
+    public String toString() {
+        return "Seller " + sellerId + ": " + productCount + " products, " + totalStock + " units in stock, inventory value $"
+                + inventoryValue + (productCount == 0 ? "" : ", price $" + minPrice + " - $" + maxPrice + " (avg $" + averagePrice + ")");
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.api;
+
+/**
+ * A request failure that maps to an HTTP status and a JSON error body.
+ */
+class ApiException extends RuntimeException {
+    private final int status;
+
+    /**
+     * Creates the exception.
+     *
+     * @param status  the HTTP status to respond with.
+     * @param message the error message returned to the client.
+     */
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /** @return the HTTP status to respond with. */
+    int getStatus() { return status; }
+}
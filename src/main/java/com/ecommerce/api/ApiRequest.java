@@ -0,0 +1,195 @@
+package com.ecommerce.api;
+
+import com.ecommerce.util.Json;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One HTTP exchange as seen by the route handlers: method, path segments, query parameters,
+ * a JSON body and helpers for writing the JSON response.
+ */
+class ApiRequest {
+    private final HttpExchange exchange;
+    private final String[] segments;
+    private final Map<String, String> query;
+    private final int maxBodyBytes;
+    private boolean responded;
+
+    ApiRequest(HttpExchange exchange, int maxBodyBytes) {
+        this.exchange = exchange;
+        this.maxBodyBytes = maxBodyBytes;
+        String path = exchange.getRequestURI().getPath();
+        String trimmed = path.replaceAll("^/+|/+$", "");
+        this.segments = trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+        this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+    }
+
+    /** @return the request method, e.g. {@code GET}. */
+    String method() { return exchange.getRequestMethod(); }
+
+    /**
+     * Checks the method and path against a route pattern whose {@code {}} segments match anything.
+     *
+     * @param method  the expected method.
+     * @param pattern the path pattern, e.g. {@code api/products/{}}.
+     * @return true if the request matches.
+     */
+    boolean matches(String method, String pattern) {
+        if (!method().equals(method)) {
+            return false;
+        }
+        String[] parts = pattern.split("/");
+        if (parts.length != segments.length) {
+            return false;
+        }
+        for (int i = 0; i < parts.length; i++) {
+            if (!parts[i].equals("{}") && !parts[i].equals(segments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets a path segment as an ID.
+     *
+     * @param index the zero-based segment index.
+     * @return the ID.
+     * @throws ApiException with status 404 if the segment is not a number.
+     */
+    int pathId(int index) {
+        try {
+            return Integer.parseInt(segments[index]);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    /**
+     * Gets a query parameter.
+     *
+     * @param name the parameter name.
+     * @return the decoded value, or null if absent.
+     */
+    String query(String name) {
+        return query.get(name);
+    }
+
+    /**
+     * Gets an integer query parameter.
+     *
+     * @param name         the parameter name.
+     * @param defaultValue the value to use when the parameter is absent.
+     * @return the value.
+     * @throws ApiException with status 400 if the value is not a number.
+     */
+    int queryInt(String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Query parameter '" + name + "' must be a number");
+        }
+    }
+
+    /**
+     * Gets the bearer token from the {@code Authorization} header.
+     *
+     * @return the token, or null if there is none.
+     */
+    String bearerToken() {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return null;
+        }
+        return header.substring(7).trim();
+    }
+
+    /**
+     * Reads the request body as a JSON object.
+     *
+     * @return the object's members.
+     * @throws ApiException with status 400 if the body is missing or malformed, or 413 if it is too large.
+     * @throws IOException if the body cannot be read.
+     */
+    Map<String, Object> body() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (bytes.size() + n > maxBodyBytes) {
+                    throw new ApiException(413, "Request body is larger than " + maxBodyBytes + " bytes");
+                }
+                bytes.write(buffer, 0, n);
+            }
+        }
+        try {
+            return Json.parseObject(bytes.toString(StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Invalid JSON body: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a JSON response.
+     *
+     * @param status the HTTP status.
+     * @param body   the value to serialize, or null for an empty 204-style response.
+     * @throws IOException if the response cannot be written.
+     */
+    void respond(int status, Object body) throws IOException {
+        responded = true;
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Starts a chunked JSON response for bodies too large to build in memory.
+     *
+     * @param status the HTTP status.
+     * @return the response body stream; the caller must close it.
+     * @throws IOException if the headers cannot be written.
+     */
+    OutputStream respondStreaming(int status) throws IOException {
+        responded = true;
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        return exchange.getResponseBody();
+    }
+
+    /** @return true once a response has been started. */
+    boolean hasResponded() { return responded; }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
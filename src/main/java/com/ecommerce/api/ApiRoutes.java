@@ -0,0 +1,571 @@
+package com.ecommerce.api;
+
+import com.ecommerce.analytics.SellerStats;
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.ProductQuery;
+import com.ecommerce.catalog.ProductSort;
+import com.ecommerce.metrics.Metrics;
+import com.ecommerce.metrics.OperationMetrics;
+import com.ecommerce.model.Admin;
+import com.ecommerce.model.Buyer;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Seller;
+import com.ecommerce.model.User;
+import com.ecommerce.service.AdminDashboard;
+import com.ecommerce.service.CheckoutException;
+import com.ecommerce.service.DashboardService;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.SellerDeletionJob;
+import com.ecommerce.service.UserService;
+import com.ecommerce.session.Session;
+import com.ecommerce.util.Database;
+import com.ecommerce.util.PasswordUtil;
+import com.ecommerce.util.Json;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The JSON endpoints, mirroring the console menus.
+ *
+ * <pre>
+ * POST   /api/users                 register a buyer or seller       (public),
+ *                                    or an admin                      (admin)
+ * GET    /api/users/exists?email=   whether an email is already registered (public)
+ * POST   /api/sessions              log in, returns a bearer token   (public)
+ * DELETE /api/sessions              log out                          (any user)
+ * GET    /api/products?after=&amp;limit= browse one keyset page          (any user)
+ * GET    /api/products/search?q=    search by name                   (any user)
+ * GET    /api/products/filter?minPrice=&amp;maxPrice=&amp;seller=&amp;inStock=&amp;sort=&amp;limit=
+ *                                    filter and sort by price, seller and stock (any user)
+ * GET    /api/products/batch?ids=1,2,3 several products in one call, at most 500 (any user)
+ * GET    /api/products/{id}         product details                  (any user)
+ * POST   /api/products/{id}/purchase buy one product: {"quantity": n} (buyer)
+ * POST   /api/orders                place an order: {"items": [{"productId": id, "quantity": n}]} (buyer)
+ * GET    /api/orders                the caller's orders, newest first (buyer)
+ * GET    /api/seller/products       the caller's products            (seller)
+ * GET    /api/seller/stats          the caller's product and stock totals (seller)
+ * POST   /api/seller/products       add a product                    (seller)
+ * PUT    /api/seller/products/{id}  update one of the caller's products (seller)
+ * DELETE /api/seller/products/{id}  delete one of the caller's products (seller)
+ * GET    /api/admin/users           all users                        (admin)
+ * DELETE /api/admin/users/{id}      delete a user and their products; 202 with the job if
+ *                                    a large seller is deleted in the background (admin)
+ * GET    /api/admin/users/{id}/deletion progress of a background deletion (admin)
+ * GET    /api/admin/products        all products with seller IDs, streamed (admin)
+ * GET    /api/admin/sellers/stats   every seller's totals, highest inventory value first (admin)
+ * GET    /api/admin/dashboard?timeoutMillis= users, catalog size and products per seller (admin)
+ * GET    /api/health                pool and hashing statistics      (public)
+ * GET    /api/metrics               per-operation latency and errors (admin)
+ * </pre>
+ */
+class ApiRoutes {
+    // The largest price a DECIMAL(10,2) column holds, as the importer checks it.
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private final UserService userService;
+    private final ProductService productService;
+    private final OrderService orderService;
+    private final DashboardService dashboardService;
+
+    ApiRoutes(UserService userService, ProductService productService, OrderService orderService,
+              DashboardService dashboardService) {
+        this.userService = userService;
+        this.productService = productService;
+        this.orderService = orderService;
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * Dispatches a request to its endpoint.
+     *
+     * @param request the request.
+     * @throws ApiException if the request fails in a way the client should see.
+     * @throws IOException  if the exchange cannot be read or written.
+     */
+    void handle(ApiRequest request) throws IOException {
+        if (request.matches("POST", "api/users")) {
+            register(request);
+        } else if (request.matches("GET", "api/users/exists")) {
+            String email = request.query("email");
+            if (email == null || email.isBlank()) {
+                throw new ApiException(400, "Query parameter 'email' is required");
+            }
+            request.respond(200, Map.of("registered", userService.isEmailRegistered(email)));
+        } else if (request.matches("POST", "api/sessions")) {
+            login(request);
+        } else if (request.matches("DELETE", "api/sessions")) {
+            authenticate(request);
+            userService.logout(request.bearerToken());
+            request.respond(204, null);
+        } else if (request.matches("GET", "api/health")) {
+            request.respond(200, Map.of("pool", Database.getPoolStats().toString(),
+                    "passwordHashing", PasswordUtil.getStats().toString()));
+        } else if (request.matches("GET", "api/metrics")) {
+            requireRole(request, Admin.class);
+            request.respond(200, metricsJson());
+        } else if (request.matches("GET", "api/products")) {
+            authenticate(request);
+            browse(request);
+        } else if (request.matches("GET", "api/products/search")) {
+            authenticate(request);
+            String query = request.query("q");
+            if (query == null || query.isBlank()) {
+                throw new ApiException(400, "Query parameter 'q' is required");
+            }
+            request.respond(200, toJson(productService.findProducts(query, Math.min(request.queryInt("limit", 10), 100))));
+        } else if (request.matches("GET", "api/products/filter")) {
+            authenticate(request);
+            request.respond(200, toJson(productService.queryProducts(readProductQuery(request))));
+        } else if (request.matches("GET", "api/products/batch")) {
+            authenticate(request);
+            request.respond(200, toJson(productService.getProducts(readIds(request.query("ids")))));
+        } else if (request.matches("GET", "api/products/{}")) {
+            authenticate(request);
+            request.respond(200, toJson(requireProduct(request.pathId(2))));
+        } else if (request.matches("POST", "api/products/{}/purchase")) {
+            User buyer = requireRole(request, Buyer.class);
+            BigDecimal quantity = requireNumber(request.body(), "quantity");
+            request.respond(201, toJson(placeOrder(buyer, Map.of(request.pathId(2), requireQuantity(quantity)))));
+        } else if (request.matches("POST", "api/orders")) {
+            User buyer = requireRole(request, Buyer.class);
+            request.respond(201, toJson(placeOrder(buyer, readOrderLines(request.body()))));
+        } else if (request.matches("GET", "api/orders")) {
+            User buyer = requireRole(request, Buyer.class);
+            List<Object> json = new ArrayList<>();
+            for (Order order : orderService.getBuyerOrders(buyer.getId())) {
+                json.add(toJson(order));
+            }
+            request.respond(200, json);
+        } else if (request.matches("GET", "api/seller/products")) {
+            User seller = requireRole(request, Seller.class);
+            request.respond(200, toJson(productService.getSellerProducts(seller.getId())));
+        } else if (request.matches("GET", "api/seller/stats")) {
+            User seller = requireRole(request, Seller.class);
+            request.respond(200, toJson(productService.getSellerStats(seller.getId())));
+        } else if (request.matches("POST", "api/seller/products")) {
+            User seller = requireRole(request, Seller.class);
+            Product product = readProduct(request.body());
+            product.setSellerId(seller.getId());
+            if (!productService.createProduct(product)) {
+                throw new ApiException(500, "Failed to add product");
+            }
+            request.respond(201, toJson(product));
+        } else if (request.matches("PUT", "api/seller/products/{}")) {
+            User seller = requireRole(request, Seller.class);
+            Product existing = requireOwnProduct(seller, request.pathId(3));
+            Product product = readProduct(request.body());
+            product.setId(existing.getId());
+            product.setSellerId(seller.getId());
+            if (!productService.changeProduct(product)) {
+                throw new ApiException(404, "Product not found");
+            }
+            request.respond(200, toJson(product));
+        } else if (request.matches("DELETE", "api/seller/products/{}")) {
+            User seller = requireRole(request, Seller.class);
+            Product existing = requireOwnProduct(seller, request.pathId(3));
+            if (!productService.removeProduct(existing.getId())) {
+                throw new ApiException(404, "Product not found");
+            }
+            request.respond(204, null);
+        } else if (request.matches("GET", "api/admin/users")) {
+            requireRole(request, Admin.class);
+            List<Object> users = new ArrayList<>();
+            for (User user : userService.getAllUsers()) {
+                users.add(toJson(user));
+            }
+            request.respond(200, users);
+        } else if (request.matches("DELETE", "api/admin/users/{}")) {
+            requireRole(request, Admin.class);
+            int userId = request.pathId(3);
+            if (!userService.removeUser(userId)) {
+                throw new ApiException(404, "User not found");
+            }
+            SellerDeletionJob job = userService.getDeletionJob(userId);
+            if (job != null && !job.isFinished()) {
+                request.respond(202, toJson(job));
+            } else {
+                request.respond(204, null);
+            }
+        } else if (request.matches("GET", "api/admin/users/{}/deletion")) {
+            requireRole(request, Admin.class);
+            SellerDeletionJob job = userService.getDeletionJob(request.pathId(3));
+            if (job == null) {
+                throw new ApiException(404, "No background deletion for this user");
+            }
+            request.respond(200, toJson(job));
+        } else if (request.matches("GET", "api/admin/products")) {
+            requireRole(request, Admin.class);
+            streamAllProducts(request);
+        } else if (request.matches("GET", "api/admin/dashboard")) {
+            requireRole(request, Admin.class);
+            request.respond(200, toJson(loadDashboard(Math.min(request.queryInt("timeoutMillis", 5_000), 60_000))));
+        } else if (request.matches("GET", "api/admin/sellers/stats")) {
+            requireRole(request, Admin.class);
+            List<Object> json = new ArrayList<>();
+            for (SellerStats stats : productService.getSellerReport()) {
+                json.add(toJson(stats));
+            }
+            request.respond(200, json);
+        } else {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private void register(ApiRequest request) throws IOException {
+        Map<String, Object> body = request.body();
+        String username = requireString(body, "username");
+        String email = requireString(body, "email");
+        String password = requireString(body, "password");
+        String role = requireString(body, "role").toLowerCase(Locale.ROOT);
+        if (!role.equals("buyer") && !role.equals("seller") && !role.equals("admin")) {
+            throw new ApiException(400, "role must be buyer, seller or admin");
+        }
+        if (role.equals("admin")) {
+            // Only an existing admin may create another one; anyone can sign up as a buyer or seller.
+            requireRole(request, Admin.class);
+        }
+        if (!userService.registerUser(username, email, password, role)) {
+            throw new ApiException(409, "Email already registered");
+        }
+        request.respond(201, Map.of("email", email));
+    }
+
+    private void login(ApiRequest request) throws IOException {
+        Map<String, Object> body = request.body();
+        Session session = userService.startSession(requireString(body, "email"), requireString(body, "password"));
+        if (session == null) {
+            throw new ApiException(401, "Invalid email or password");
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("token", session.getToken());
+        json.put("user", toJson(session.getUser()));
+        request.respond(200, json);
+    }
+
+    private Order placeOrder(User buyer, Map<Integer, Integer> lines) {
+        try {
+            return orderService.placeOrder(buyer.getId(), lines);
+        } catch (CheckoutException e) {
+            int status = switch (e.getStatus()) {
+                case INSUFFICIENT_STOCK -> 409;
+                case NOT_FOUND -> 404;
+                default -> 503;
+            };
+            throw new ApiException(status, e.getMessage());
+        }
+    }
+
+    private static Map<Integer, Integer> readOrderLines(Map<String, Object> body) {
+        if (!(body.get("items") instanceof List<?> items) || items.isEmpty()) {
+            throw new ApiException(400, "items must be a non-empty array");
+        }
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        for (Object entry : items) {
+            if (!(entry instanceof Map<?, ?> line) || !(line.get("productId") instanceof BigDecimal productId)
+                    || !(line.get("quantity") instanceof BigDecimal quantity)) {
+                throw new ApiException(400, "each item needs a productId and a quantity");
+            }
+            lines.merge(requireQuantity(productId), requireQuantity(quantity), Math::addExact);
+        }
+        return lines;
+    }
+
+    private static int requireQuantity(BigDecimal value) {
+        if (value.signum() <= 0 || value.stripTrailingZeros().scale() > 0 || value.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+            throw new ApiException(400, "productId and quantity must be positive whole numbers");
+        }
+        return value.intValue();
+    }
+
+    private static int[] readIds(String value) {
+        if (value == null || value.isBlank()) {
+            throw new ApiException(400, "Query parameter 'ids' is required");
+        }
+        String[] parts = value.split(",");
+        if (parts.length > 500) {
+            throw new ApiException(400, "At most 500 ids can be requested at once");
+        }
+        int[] ids = new int[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                ids[i] = Integer.parseInt(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "ids must be a comma-separated list of numbers");
+        }
+        return ids;
+    }
+
+    private static ProductQuery readProductQuery(ApiRequest request) {
+        ProductQuery query = new ProductQuery();
+        query.setMinPriceCents(readPriceCents(request, "minPrice", 0));
+        query.setMaxPriceCents(readPriceCents(request, "maxPrice", Long.MAX_VALUE));
+        query.setSellerId(request.queryInt("seller", 0));
+        query.setInStockOnly(Boolean.parseBoolean(request.query("inStock")));
+        query.setLimit(Math.min(request.queryInt("limit", 100), 1000));
+        try {
+            query.setSort(ProductSort.parse(request.query("sort")));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "sort must be id, price, -price or -quantity");
+        }
+        return query;
+    }
+
+    private static long readPriceCents(ApiRequest request, String name, long defaultValue) {
+        String value = request.query(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return CatalogSnapshot.toCents(new BigDecimal(value.trim()));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new ApiException(400, "Query parameter '" + name + "' must be an amount");
+        }
+    }
+
+    private void browse(ApiRequest request) throws IOException {
+        int after = request.queryInt("after", 0);
+        List<Product> page = productService.getProductsPage(after, request.queryInt("limit", 100));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("products", toJson(page));
+        json.put("next", page.isEmpty() ? null : page.get(page.size() - 1).getId());
+        request.respond(200, json);
+    }
+
+    /**
+     * Writes the whole catalog as one JSON array, a product at a time, straight from the database cursor.
+     */
+    private void streamAllProducts(ApiRequest request) throws IOException {
+        try (OutputStream out = request.respondStreaming(200)) {
+            StringBuilder buffer = new StringBuilder(16 * 1024);
+            boolean[] first = {true};
+            buffer.append('[');
+            try {
+                productService.forEachProduct(product -> {
+                    if (!first[0]) {
+                        buffer.append(',');
+                    }
+                    first[0] = false;
+                    Json.write(toJson(product), buffer);
+                    if (buffer.length() >= 8 * 1024) {
+                        flush(buffer, out);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffer.append(']');
+            flush(buffer, out);
+        }
+    }
+
+    private static void flush(StringBuilder buffer, OutputStream out) {
+        try {
+            out.write(buffer.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.setLength(0);
+    }
+
+    private User authenticate(ApiRequest request) {
+        User user = userService.resolveSession(request.bearerToken());
+        if (user == null) {
+            throw new ApiException(401, "A valid bearer token is required");
+        }
+        return user;
+    }
+
+    private User requireRole(ApiRequest request, Class<? extends User> role) {
+        User user = authenticate(request);
+        if (!role.isInstance(user)) {
+            throw new ApiException(403, "This operation requires the " + role.getSimpleName().toLowerCase(Locale.ROOT) + " role");
+        }
+        return user;
+    }
+
+    private Product requireProduct(int productId) {
+        Product product = productService.getProduct(productId);
+        if (product == null) {
+            throw new ApiException(404, "Product not found");
+        }
+        return product;
+    }
+
+    private Product requireOwnProduct(User seller, int productId) {
+        Product product = requireProduct(productId);
+        if (product.getSellerId() != seller.getId()) {
+            throw new ApiException(403, "Product belongs to another seller");
+        }
+        return product;
+    }
+
+    private static Product readProduct(Map<String, Object> body) {
+        String name = requireString(body, "name");
+        if (name.length() > 100) {
+            throw new ApiException(400, "name is longer than 100 characters");
+        }
+        BigDecimal price = requireNumber(body, "price");
+        if (price.signum() < 0 || price.scale() > 2) {
+            throw new ApiException(400, "price must be a non-negative amount with at most two decimals");
+        }
+        if (price.compareTo(MAX_PRICE) > 0) {
+            throw new ApiException(400, "price must be at most " + MAX_PRICE);
+        }
+        BigDecimal quantity = requireNumber(body, "quantity");
+        if (quantity.signum() < 0 || quantity.stripTrailingZeros().scale() > 0
+                || quantity.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+            throw new ApiException(400, "quantity must be a non-negative whole number up to " + Integer.MAX_VALUE);
+        }
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        product.setQuantity(quantity.intValue());
+        return product;
+    }
+
+    private static String requireString(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof String value) || value.isBlank()) {
+            throw new ApiException(400, field + " is required");
+        }
+        return value.trim();
+    }
+
+    private static BigDecimal requireNumber(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof BigDecimal value)) {
+            throw new ApiException(400, field + " must be a number");
+        }
+        return value;
+    }
+
+    private static List<Object> toJson(List<Product> products) {
+        List<Object> json = new ArrayList<>(products.size());
+        for (Product product : products) {
+            json.add(toJson(product));
+        }
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Product product) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", product.getId());
+        json.put("name", product.getName());
+        json.put("price", product.getPrice());
+        json.put("quantity", product.getQuantity());
+        json.put("sellerId", product.getSellerId());
+        return json;
+    }
+
+    private AdminDashboard loadDashboard(int timeoutMillis) {
+        try {
+            return dashboardService.loadAdminDashboard(Math.max(1, timeoutMillis)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ApiException(504, "Dashboard queries did not finish within " + timeoutMillis + "ms");
+            }
+            throw new ApiException(500, "Failed to load dashboard");
+        }
+    }
+
+    private static Map<String, Object> toJson(AdminDashboard dashboard) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        List<Object> users = new ArrayList<>();
+        for (User user : dashboard.getUsers()) {
+            users.add(toJson(user));
+        }
+        json.put("users", users);
+        json.put("productCount", dashboard.getProducts().size());
+        json.put("totalStock", dashboard.getTotalStock());
+        List<Object> sellers = new ArrayList<>();
+        dashboard.getProductsBySeller().forEach((sellerId, products) -> {
+            Map<String, Object> seller = new LinkedHashMap<>();
+            seller.put("sellerId", sellerId);
+            seller.put("productCount", products.size());
+            sellers.add(seller);
+        });
+        json.put("sellers", sellers);
+        return json;
+    }
+
+    private static Map<String, Object> toJson(SellerStats stats) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("sellerId", stats.getSellerId());
+        json.put("productCount", stats.getProductCount());
+        json.put("totalStock", stats.getTotalStock());
+        json.put("inventoryValue", stats.getInventoryValue());
+        json.put("minPrice", stats.getMinPrice());
+        json.put("maxPrice", stats.getMaxPrice());
+        json.put("averagePrice", stats.getAveragePrice());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(SellerDeletionJob job) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("sellerId", job.getSellerId());
+        json.put("status", job.getStatus().name());
+        json.put("deletedProducts", job.getDeletedProducts());
+        json.put("chunks", job.getChunks());
+        json.put("queuedAt", job.getQueuedAtMillis());
+        json.put("finishedAt", job.getFinishedAtMillis() == 0 ? null : job.getFinishedAtMillis());
+        json.put("error", job.getError());
+        return json;
+    }
+
+    private static List<Object> metricsJson() {
+        List<Object> json = new ArrayList<>();
+        for (OperationMetrics operation : Metrics.all()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", operation.getName());
+            entry.put("calls", operation.getCalls());
+            entry.put("errors", operation.getErrors());
+            entry.put("meanMillis", operation.getMeanMillis());
+            entry.put("p50Millis", operation.getP50Millis());
+            entry.put("p95Millis", operation.getP95Millis());
+            entry.put("p99Millis", operation.getP99Millis());
+            entry.put("maxMillis", operation.getMaxMillis());
+            json.add(entry);
+        }
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Order order) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", order.getId());
+        json.put("status", order.getStatus());
+        json.put("total", order.getTotal());
+        json.put("createdAt", order.getCreatedAt() == null ? null : order.getCreatedAt().toString());
+        List<Object> items = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("productId", item.getProductId());
+            line.put("name", item.getProductName());
+            line.put("unitPrice", item.getUnitPrice());
+            line.put("quantity", item.getQuantity());
+            items.add(line);
+        }
+        json.put("items", items);
+        return json;
+    }
+
+    private static Map<String, Object> toJson(User user) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", user.getId());
+        json.put("username", user.getUsername());
+        json.put("email", user.getEmail());
+        json.put("role", user.getRole());
+        return json;
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.api;
+
+import com.ecommerce.service.DashboardService;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.util.Json;
+import com.ecommerce.util.PasswordHashingRejectedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded HTTP/JSON front end for the marketplace, built on the JDK's {@code com.sun.net.httpserver}.
+ * <p>
+ * Every request runs on its own virtual thread, so blocking on the database or on password hashing does not
+ * tie up a platform thread. At most {@code ecommerce.api.maxConcurrency} requests are processed at once;
+ * a request that cannot get a slot within {@code ecommerce.api.queueTimeoutMillis} is answered with 503.
+ * Connections are kept alive between requests (HTTP/1.1) and closed after
+ * {@code ecommerce.api.keepAliveSeconds} of idleness; reading a request and writing a response are limited
+ * to {@code ecommerce.api.requestTimeoutSeconds} and {@code ecommerce.api.responseTimeoutSeconds}.
+ * See {@link ApiRoutes} for the endpoints.
+ */
+public class ApiServer implements AutoCloseable {
+    private static final int MAX_BODY_BYTES = Integer.getInteger("ecommerce.api.maxBodyBytes", 1024 * 1024);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final long queueTimeoutMillis;
+    private final ApiRoutes routes;
+
+    /**
+     * Creates a server bound to a port. Call {@link #start()} to begin accepting requests.
+     *
+     * @param port           the TCP port, or 0 for any free port.
+     * @param userService    the user operations to expose.
+     * @param productService the product operations to expose.
+     * @param orderService     the order operations to expose.
+     * @param dashboardService the composite views to expose.
+     * @throws IOException if the port cannot be bound.
+     */
+    public ApiServer(int port, UserService userService, ProductService productService, OrderService orderService,
+                     DashboardService dashboardService) throws IOException {
+        configureTimeouts();
+        this.routes = new ApiRoutes(userService, productService, orderService, dashboardService);
+        this.slots = new Semaphore(Math.max(1, Integer.getInteger("ecommerce.api.maxConcurrency", 256)));
+        this.queueTimeoutMillis = Long.getLong("ecommerce.api.queueTimeoutMillis", 1_000L);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), Integer.getInteger("ecommerce.api.backlog", 1024));
+        this.server.createContext("/", this::dispatch);
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Starts accepting requests in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     *
+     * @return the port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections, gives in-flight requests up to five seconds to finish, and shuts down.
+     */
+    @Override
+    public void close() {
+        server.stop(5);
+        executor.shutdown();
+    }
+
+    /**
+     * The httpserver implementation reads its timeouts from system properties once, when it is first used,
+     * so they are set here from the application's own properties unless already given explicitly.
+     */
+    private static void configureTimeouts() {
+        setDefault("sun.net.httpserver.maxReqTime", System.getProperty("ecommerce.api.requestTimeoutSeconds", "30"));
+        setDefault("sun.net.httpserver.maxRspTime", System.getProperty("ecommerce.api.responseTimeoutSeconds", "30"));
+        setDefault("sun.net.httpserver.idleInterval", System.getProperty("ecommerce.api.keepAliveSeconds", "30"));
+        setDefault("sun.net.httpserver.maxIdleConnections", System.getProperty("ecommerce.api.maxIdleConnections", "200"));
+    }
+
+    private static void setDefault(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Parsed before taking a slot, so a malformed request cannot fail between acquire and release.
+            ApiRequest request;
+            try {
+                request = new ApiRequest(exchange, MAX_BODY_BYTES);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, "Malformed request URI");
+                return;
+            }
+            if (!slots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                sendError(exchange, 503, "Server is busy");
+                return;
+            }
+            try {
+                routes.handle(request);
+            } catch (ApiException e) {
+                respondWithError(request, exchange, e.getStatus(), e.getMessage());
+            } catch (PasswordHashingRejectedException e) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respondWithError(request, exchange, 503, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e);
+                respondWithError(request, exchange, 500, "Internal server error");
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respondWithError(ApiRequest request, HttpExchange exchange, int status, String message) throws IOException {
+        // Once a streamed body has started the status is already sent; the client sees a truncated body.
+        if (!request.hasResponded()) {
+            sendError(exchange, status, message);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = Json.write(Map.of("error", message)).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
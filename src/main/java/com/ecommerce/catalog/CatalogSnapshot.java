@@ -0,0 +1,502 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dao.ProductRepository;
+import com.ecommerce.model.Product;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, column-oriented copy of the product catalog.
+ * <p>
+ * Rows are stored in ascending ID order across parallel primitive arrays: IDs, prices in cents, quantities
+ * and seller IDs, with every name packed as UTF-8 into one byte arena. A snapshot of a million products is a
+ * handful of arrays instead of a million {@link Product} and {@link BigDecimal} objects, so scanning, filtering
+ * and sorting it creates no garbage per row. Rows are addressed by position, {@code 0 <= position < size()};
+ * {@link #toProduct(int)} materializes one when an object is really needed.
+ * <p>
+ * Each snapshot also carries two sorted secondary indexes: the rows ordered by price and by quantity
+ * (largest first), both with ties in ID order. Price ranges are found by binary search on the price index,
+ * and sorted queries walk an index and stop at the limit instead of sorting the catalog. When a narrow price
+ * range must be returned in another order, a bounded heap keeps the best {@code limit} rows.
+ * <p>
+ * Snapshots are never modified; {@link CatalogSnapshotManager} builds new ones and swaps them in.
+ */
+public final class CatalogSnapshot {
+    /** A snapshot with no products. */
+    public static final CatalogSnapshot EMPTY = new Builder(0).build();
+    // Below this fraction of the catalog, a price range is ranked with a heap instead of walking another order.
+    private static final int SELECTIVE_RANGE_DIVISOR = 8;
+
+    private final int size;
+    private final int[] ids;
+    private final long[] priceCents;
+    private final int[] quantities;
+    private final int[] sellerIds;
+    private final int[] nameOffsets;
+    private final byte[] names;
+    // Positions ordered by (price, position) and by (quantity descending, position).
+    private final int[] priceOrder;
+    private final int[] quantityOrder;
+
+    private CatalogSnapshot(int size, int[] ids, long[] priceCents, int[] quantities, int[] sellerIds,
+                            int[] nameOffsets, byte[] names, int[] priceOrder, int[] quantityOrder) {
+        this.size = size;
+        this.ids = ids;
+        this.priceCents = priceCents;
+        this.quantities = quantities;
+        this.sellerIds = sellerIds;
+        this.nameOffsets = nameOffsets;
+        this.names = names;
+        this.priceOrder = priceOrder;
+        this.quantityOrder = quantityOrder;
+    }
+
+    /**
+     * Builds a snapshot by streaming every product from a repository.
+     *
+     * @param repository the product source; must deliver products in ascending ID order.
+     * @return the snapshot.
+     */
+    public static CatalogSnapshot load(ProductRepository repository) {
+        Builder builder = new Builder(1024);
+        repository.forEachProduct(product -> builder.add(product.getId(), product.getName(),
+                toCents(product.getPrice()), product.getQuantity(), product.getSellerId()));
+        return builder.build();
+    }
+
+    /**
+     * Converts a price to whole cents, rounding half up.
+     *
+     * @param price the price, or null.
+     * @return the price in cents, or 0 if it is null.
+     */
+    public static long toCents(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /** @return the number of products. */
+    public int size() { return size; }
+
+    /** @param position the row. @return its product ID. */
+    public int getId(int position) { return ids[position]; }
+
+    /** @param position the row. @return its price in cents. */
+    public long getPriceCents(int position) { return priceCents[position]; }
+
+    /** @param position the row. @return its quantity in stock. */
+    public int getQuantity(int position) { return quantities[position]; }
+
+    /** @param position the row. @return its seller ID. */
+    public int getSellerId(int position) { return sellerIds[position]; }
+
+    /**
+     * Decodes a row's name.
+     *
+     * @param position the row.
+     * @return the product name.
+     */
+    public String getName(int position) {
+        return new String(names, nameOffsets[position], nameOffsets[position + 1] - nameOffsets[position], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies a row's UTF-8 encoded name into a buffer.
+     *
+     * @param position the row.
+     * @param target   the buffer; must have room for {@link #getNameLength(int)} bytes from {@code offset}.
+     * @param offset   where to start writing.
+     * @return the number of bytes written.
+     */
+    public int copyName(int position, byte[] target, int offset) {
+        int length = getNameLength(position);
+        System.arraycopy(names, nameOffsets[position], target, offset, length);
+        return length;
+    }
+
+    /**
+     * Gets the length of a row's name in UTF-8 bytes.
+     *
+     * @param position the row.
+     * @return the encoded length.
+     */
+    public int getNameLength(int position) {
+        return nameOffsets[position + 1] - nameOffsets[position];
+    }
+
+    /**
+     * Finds the row of a product.
+     *
+     * @param productId the product ID.
+     * @return the row, or -1 if the product is not in the snapshot.
+     */
+    public int indexOf(int productId) {
+        int position = Arrays.binarySearch(ids, 0, size, productId);
+        return position >= 0 ? position : -1;
+    }
+
+    /**
+     * Finds where a keyset page starts.
+     *
+     * @param afterId the last ID of the previous page, or 0 for the first page.
+     * @return the row of the first product with a greater ID; {@link #size()} if there is none.
+     */
+    public int firstAfter(int afterId) {
+        int position = Arrays.binarySearch(ids, 0, size, afterId);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    /**
+     * Materializes a row as a {@link Product}.
+     *
+     * @param position the row.
+     * @return a new product object.
+     */
+    public Product toProduct(int position) {
+        Product product = new Product();
+        product.setId(ids[position]);
+        product.setName(getName(position));
+        product.setPrice(BigDecimal.valueOf(priceCents[position], 2));
+        product.setQuantity(quantities[position]);
+        product.setSellerId(sellerIds[position]);
+        return product;
+    }
+
+    /**
+     * Materializes one keyset page.
+     *
+     * @param afterId the last ID of the previous page, or 0 for the first page.
+     * @param limit   the maximum number of products.
+     * @return up to {@code limit} products with IDs greater than {@code afterId}, in ID order.
+     */
+    public List<Product> page(int afterId, int limit) {
+        int from = firstAfter(afterId);
+        int to = (int) Math.min(size, (long) from + Math.max(0, limit));
+        List<Product> page = new ArrayList<>(to - from);
+        for (int position = from; position < to; position++) {
+            page.add(toProduct(position));
+        }
+        return page;
+    }
+
+    /**
+     * Finds the rows matching a query, in the requested order.
+     * Only the result array is allocated; rows are compared in place.
+     *
+     * @param query the filters, ordering and limit.
+     * @return the positions of up to {@code query.getLimit()} matching rows.
+     */
+    public int[] query(ProductQuery query) {
+        int limit = Math.min(query.getLimit(), size);
+        int from = lowerBound(query.getMinPriceCents());
+        int to = upperBound(query.getMaxPriceCents());
+        if (limit == 0 || from >= to) {
+            return new int[0];
+        }
+        int[] result = new int[limit];
+        int count = 0;
+        switch (query.getSort()) {
+            case PRICE_ASC -> {
+                for (int i = from; i < to && count < limit; i++) {
+                    if (query.matches(this, priceOrder[i])) {
+                        result[count++] = priceOrder[i];
+                    }
+                }
+            }
+            case PRICE_DESC -> {
+                // Walk equal-price runs from the top, each run forwards, so ties stay in ID order.
+                int runEnd = to;
+                while (runEnd > from && count < limit) {
+                    long price = priceCents[priceOrder[runEnd - 1]];
+                    int runStart = runEnd - 1;
+                    while (runStart > from && priceCents[priceOrder[runStart - 1]] == price) {
+                        runStart--;
+                    }
+                    for (int i = runStart; i < runEnd && count < limit; i++) {
+                        if (query.matches(this, priceOrder[i])) {
+                            result[count++] = priceOrder[i];
+                        }
+                    }
+                    runEnd = runStart;
+                }
+            }
+            case ID, QUANTITY_DESC -> {
+                if ((long) (to - from) * SELECTIVE_RANGE_DIVISOR < size) {
+                    // A narrow price range: rank its rows with a bounded heap rather than walk the whole order.
+                    TopK top = new TopK(this, query.getSort(), limit);
+                    for (int i = from; i < to; i++) {
+                        if (query.matches(this, priceOrder[i])) {
+                            top.offer(priceOrder[i]);
+                        }
+                    }
+                    return top.toSortedArray();
+                }
+                int[] order = query.getSort() == ProductSort.QUANTITY_DESC ? quantityOrder : null;
+                for (int i = 0; i < size && count < limit; i++) {
+                    int position = order == null ? i : order[i];
+                    if (query.matches(this, position)) {
+                        result[count++] = position;
+                    }
+                }
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Finds the first entry of the price index with a price of at least {@code cents}.
+     */
+    private int lowerBound(long cents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (priceCents[priceOrder[middle]] < cents) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first entry of the price index with a price above {@code cents}.
+     */
+    private int upperBound(long cents) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (priceCents[priceOrder[middle]] <= cents) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares two rows by an ordering, then by position (which is ID order).
+     *
+     * @return a negative number if {@code left} comes first.
+     */
+    int compare(int left, int right, ProductSort sort) {
+        int result = switch (sort) {
+            case PRICE_ASC -> Long.compare(priceCents[left], priceCents[right]);
+            case PRICE_DESC -> Long.compare(priceCents[right], priceCents[left]);
+            case QUANTITY_DESC -> Integer.compare(quantities[right], quantities[left]);
+            case ID -> 0;
+        };
+        return result != 0 ? result : Integer.compare(left, right);
+    }
+
+    /**
+     * Sorts positions by an ordering.
+     */
+    private void sort(int[] positions, int count, ProductSort sort) {
+        quickSort(positions, 0, count - 1, sort);
+    }
+
+    /**
+     * Merges two position lists that are each sorted by an ordering.
+     */
+    private int[] mergeSorted(int[] left, int leftCount, int[] right, int rightCount, ProductSort sort) {
+        int[] merged = new int[leftCount + rightCount];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < leftCount && j < rightCount) {
+            merged[k++] = compare(left[i], right[j], sort) <= 0 ? left[i++] : right[j++];
+        }
+        while (i < leftCount) {
+            merged[k++] = left[i++];
+        }
+        while (j < rightCount) {
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+    /**
+     * Maps a previous snapshot's index onto this snapshot and merges the changed rows into it.
+     */
+    private int[] mergeIndex(int[] previousOrder, int[] carried, int[] changed, int changedCount, ProductSort sort) {
+        int[] kept = new int[previousOrder.length];
+        int keptCount = 0;
+        for (int previousPosition : previousOrder) {
+            int position = carried[previousPosition];
+            if (position >= 0) {
+                kept[keptCount++] = position;
+            }
+        }
+        int[] added = Arrays.copyOf(changed, changedCount);
+        sort(added, changedCount, sort);
+        return mergeSorted(kept, keptCount, added, changedCount, sort);
+    }
+
+    private void quickSort(int[] a, int low, int high, ProductSort sort) {
+        while (high - low > 16) {
+            int middle = (low + high) >>> 1;
+            // Median of three as the pivot keeps sorted input from degrading to quadratic time.
+            if (compare(a[middle], a[low], sort) < 0) swap(a, middle, low);
+            if (compare(a[high], a[low], sort) < 0) swap(a, high, low);
+            if (compare(a[high], a[middle], sort) < 0) swap(a, high, middle);
+            int pivot = a[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(a[i], pivot, sort) < 0) i++;
+                while (compare(a[j], pivot, sort) > 0) j--;
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            // Recurse into the smaller half and loop on the larger one to bound the stack depth.
+            if (j - low < high - i) {
+                quickSort(a, low, j, sort);
+                low = i;
+            } else {
+                quickSort(a, i, high, sort);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int value = a[i];
+            int j = i - 1;
+            while (j >= low && compare(a[j], value, sort) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int value = a[i];
+        a[i] = a[j];
+        a[j] = value;
+    }
+
+    /**
+     * Accumulates rows, which must arrive in ascending ID order, into growing primitive arrays.
+     */
+    static final class Builder {
+        private int size;
+        private int[] ids;
+        private long[] priceCents;
+        private int[] quantities;
+        private int[] sellerIds;
+        private int[] nameOffsets;
+        private byte[] names;
+        private int namesLength;
+
+        Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            ids = new int[capacity];
+            priceCents = new long[capacity];
+            quantities = new int[capacity];
+            sellerIds = new int[capacity];
+            nameOffsets = new int[capacity + 1];
+            names = new byte[capacity * 24];
+        }
+
+        /**
+         * Appends a row.
+         *
+         * @return the row's position.
+         */
+        int add(int id, String name, long price, int quantity, int sellerId) {
+            byte[] encoded = name == null ? new byte[0] : name.getBytes(StandardCharsets.UTF_8);
+            return addEncoded(id, encoded, 0, encoded.length, price, quantity, sellerId);
+        }
+
+        /**
+         * Copies a row from another snapshot without decoding its name.
+         *
+         * @return the row's position.
+         */
+        int addFrom(CatalogSnapshot source, int position, int quantity) {
+            return addEncoded(source.ids[position], source.names, source.nameOffsets[position], source.getNameLength(position),
+                    source.priceCents[position], quantity, source.sellerIds[position]);
+        }
+
+        private int addEncoded(int id, byte[] name, int nameFrom, int nameLength, long price, int quantity, int sellerId) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                sellerIds = Arrays.copyOf(sellerIds, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+            }
+            if (namesLength + nameLength > names.length) {
+                names = Arrays.copyOf(names, Math.max(namesLength + nameLength, names.length + (names.length >> 1)));
+            }
+            ids[size] = id;
+            priceCents[size] = price;
+            quantities[size] = quantity;
+            sellerIds[size] = sellerId;
+            System.arraycopy(name, nameFrom, names, namesLength, nameLength);
+            namesLength += nameLength;
+            nameOffsets[size + 1] = namesLength;
+            return size++;
+        }
+
+        /**
+         * Builds the snapshot, sorting every row into the secondary indexes.
+         */
+        CatalogSnapshot build() {
+            CatalogSnapshot columns = columns(null, null);
+            int[] byPrice = identity(size);
+            int[] byQuantity = identity(size);
+            columns.sort(byPrice, size, ProductSort.PRICE_ASC);
+            columns.sort(byQuantity, size, ProductSort.QUANTITY_DESC);
+            return columns(byPrice, byQuantity);
+        }
+
+        /**
+         * Builds the snapshot, deriving the secondary indexes from a previous snapshot's.
+         * Carried rows keep their relative index order, so only the changed rows are sorted and then merged in.
+         *
+         * @param previous     the snapshot the carried rows were copied from.
+         * @param carried      for each row of {@code previous}, its position in this builder if it was copied
+         *                     unchanged, otherwise -1; positions must increase with the previous positions.
+         * @param changed      the positions in this builder of the new or changed rows.
+         * @param changedCount the number of entries used in {@code changed}.
+         */
+        CatalogSnapshot build(CatalogSnapshot previous, int[] carried, int[] changed, int changedCount) {
+            CatalogSnapshot columns = columns(null, null);
+            int[] byPrice = columns.mergeIndex(previous.priceOrder, carried, changed, changedCount, ProductSort.PRICE_ASC);
+            int[] byQuantity = columns.mergeIndex(previous.quantityOrder, carried, changed, changedCount, ProductSort.QUANTITY_DESC);
+            return columns(byPrice, byQuantity);
+        }
+
+        private CatalogSnapshot columns(int[] byPrice, int[] byQuantity) {
+            // Trim so a snapshot holds no slack; builders are short-lived, snapshots are not.
+            if (ids.length != size) {
+                ids = Arrays.copyOf(ids, size);
+                priceCents = Arrays.copyOf(priceCents, size);
+                quantities = Arrays.copyOf(quantities, size);
+                sellerIds = Arrays.copyOf(sellerIds, size);
+                nameOffsets = Arrays.copyOf(nameOffsets, size + 1);
+            }
+            if (names.length != namesLength) {
+                names = Arrays.copyOf(names, namesLength);
+            }
+            return new CatalogSnapshot(size, ids, priceCents, quantities, sellerIds, nameOffsets, names, byPrice, byQuantity);
+        }
+
+        private static int[] identity(int size) {
+            int[] positions = new int[size];
+            for (int i = 0; i < size; i++) {
+                positions[i] = i;
+            }
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dao.CatalogEvents;
+import com.ecommerce.dao.CatalogListener;
+import com.ecommerce.dao.ProductRepository;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.IntObjectMap;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a current {@link CatalogSnapshot} for a product repository.
+ * <p>
+ * The snapshot is loaded once by {@link #attach(ProductRepository)}. After that, changes reported through
+ * {@link CatalogEvents} are collected per product and, at most once per refresh interval, merged with the
+ * current snapshot into a new one, which then replaces it with a single volatile write. Readers never wait
+ * and always see a complete snapshot; it may lag the database by up to the refresh interval
+ * ({@code ecommerce.snapshot.refreshMillis}, 200 ms by default).
+ */
+public class CatalogSnapshotManager implements CatalogListener, AutoCloseable {
+    private static final long REFRESH_MILLIS = Math.max(0, Long.getLong("ecommerce.snapshot.refreshMillis", 200));
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-snapshot-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object refreshLock = new Object();
+    private volatile CatalogSnapshot current = CatalogSnapshot.EMPTY;
+    private volatile ProductRepository repository;
+
+    // Guarded by this: the latest change per product and the deleted sellers since the last refresh.
+    private IntObjectMap<Change> pending = new IntObjectMap<>();
+    private IntObjectMap<Boolean> deletedSellers = new IntObjectMap<>();
+    private boolean refreshScheduled;
+    private long refreshes;
+
+    /**
+     * Subscribes to catalog changes and loads the first snapshot from a repository.
+     * Changes made while the repository is being read are applied by the first refresh.
+     *
+     * @param repository the product source.
+     */
+    public void attach(ProductRepository repository) {
+        this.repository = repository;
+        CatalogEvents.register(this);
+        reload();
+    }
+
+    /**
+     * Gets the newest snapshot. It never changes; call again to see later updates.
+     *
+     * @return the current snapshot.
+     */
+    public CatalogSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Replaces the snapshot with a fresh copy of the whole repository, e.g. after changes that bypassed
+     * {@link CatalogEvents}.
+     */
+    public void reload() {
+        ProductRepository source = repository;
+        if (source == null) {
+            return;
+        }
+        synchronized (refreshLock) {
+            current = CatalogSnapshot.load(source);
+        }
+    }
+
+    /**
+     * Applies the changes collected so far right away instead of waiting for the refresh interval.
+     */
+    public void refresh() {
+        synchronized (refreshLock) {
+            IntObjectMap<Change> changes;
+            IntObjectMap<Boolean> sellers;
+            synchronized (this) {
+                changes = pending;
+                sellers = deletedSellers;
+                pending = new IntObjectMap<>();
+                deletedSellers = new IntObjectMap<>();
+                refreshScheduled = false;
+            }
+            if (changes.size() == 0 && sellers.size() == 0) {
+                return;
+            }
+            current = merge(current, changes, sellers);
+            synchronized (this) {
+                refreshes++;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of snapshots built from collected changes.
+     *
+     * @return the refresh count since startup.
+     */
+    public synchronized long getRefreshCount() {
+        return refreshes;
+    }
+
+    /**
+     * Unsubscribes from catalog changes and stops the refresh thread.
+     */
+    @Override
+    public void close() {
+        CatalogEvents.unregister(this);
+        refresher.shutdownNow();
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        synchronized (this) {
+            pending.put(product.getId(), Change.upsert(product, false));
+        }
+        scheduleRefresh();
+    }
+
+    @Override
+    public void productUpdated(Product product) {
+        synchronized (this) {
+            Change previous = pending.get(product.getId());
+            Change change = Change.upsert(product, true);
+            // Updates only carry name, price and quantity; keep the seller of a pending add.
+            if (previous != null && previous.kind == Change.UPSERT) {
+                change.sellerId = previous.sellerId;
+                change.keepSeller = previous.keepSeller;
+            }
+            pending.put(product.getId(), change);
+        }
+        scheduleRefresh();
+    }
+
+    @Override
+    public void stockChanged(int productId, int quantity) {
+        synchronized (this) {
+            Change previous = pending.get(productId);
+            if (previous == null) {
+                Change change = new Change(Change.STOCK);
+                change.quantity = quantity;
+                pending.put(productId, change);
+            } else if (previous.kind != Change.DELETE) {
+                previous.quantity = quantity;
+            }
+        }
+        scheduleRefresh();
+    }
+
+    @Override
+    public void productDeleted(int productId) {
+        synchronized (this) {
+            pending.put(productId, new Change(Change.DELETE));
+        }
+        scheduleRefresh();
+    }
+
+    @Override
+    public void sellerProductsDeleted(int sellerId) {
+        synchronized (this) {
+            deletedSellers.put(sellerId, Boolean.TRUE);
+        }
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        synchronized (this) {
+            if (refreshScheduled) {
+                return;
+            }
+            refreshScheduled = true;
+        }
+        try {
+            refresher.schedule(this::refreshQuietly, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Closed; nobody reads the snapshot any more.
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            System.err.println("Catalog snapshot refresh failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Merge-joins the snapshot's rows with the changed IDs, both in ascending order, into a new snapshot.
+     * Unchanged rows are copied column by column without decoding their names, and keep their places in the
+     * sorted indexes; only the changed rows are sorted into them.
+     */
+    private static CatalogSnapshot merge(CatalogSnapshot snapshot, IntObjectMap<Change> changes,
+                                         IntObjectMap<Boolean> deletedSellers) {
+        int[] changedIds = new int[changes.size()];
+        int[] count = {0};
+        changes.forEach((id, change) -> changedIds[count[0]++] = id);
+        Arrays.sort(changedIds);
+
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder(snapshot.size() + changedIds.length);
+        int[] carried = new int[snapshot.size()];
+        Arrays.fill(carried, -1);
+        int[] changed = new int[changedIds.length];
+        int changedCount = 0;
+        int position = 0;
+        int next = 0;
+        while (position < snapshot.size() || next < changedIds.length) {
+            int rowId = position < snapshot.size() ? snapshot.getId(position) : Integer.MAX_VALUE;
+            int changedId = next < changedIds.length ? changedIds[next] : Integer.MAX_VALUE;
+            if (rowId < changedId) {
+                if (!deletedSellers.containsKey(snapshot.getSellerId(position))) {
+                    carried[position] = builder.addFrom(snapshot, position, snapshot.getQuantity(position));
+                }
+                position++;
+                continue;
+            }
+            Change change = changes.get(changedId);
+            boolean existing = rowId == changedId;
+            int sellerId = existing ? snapshot.getSellerId(position) : change.sellerId;
+            if (change.kind == Change.UPSERT && !change.keepSeller) {
+                sellerId = change.sellerId;
+            }
+            if (!deletedSellers.containsKey(sellerId)) {
+                if (change.kind == Change.UPSERT && (existing || !change.keepSeller)) {
+                    changed[changedCount++] = builder.add(changedId, change.name, change.priceCents, change.quantity, sellerId);
+                } else if (change.kind == Change.STOCK && existing) {
+                    changed[changedCount++] = builder.addFrom(snapshot, position, change.quantity);
+                }
+            }
+            // A stock change or update for a product the snapshot never had is dropped: its add was
+            // either already merged or will never come, and an update alone carries no seller.
+            next++;
+            if (existing) {
+                position++;
+            }
+        }
+        return builder.build(snapshot, carried, changed, changedCount);
+    }
+
+    /**
+     * The latest pending change to one product.
+     */
+    private static final class Change {
+        private static final int UPSERT = 0;
+        private static final int STOCK = 1;
+        private static final int DELETE = 2;
+
+        private final int kind;
+        private String name;
+        private long priceCents;
+        private int quantity;
+        private int sellerId;
+        // True when the seller ID is not known from the change itself and must come from the snapshot.
+        private boolean keepSeller;
+
+        private Change(int kind) {
+            this.kind = kind;
+        }
+
+        private static Change upsert(Product product, boolean keepSeller) {
+            Change change = new Change(UPSERT);
+            change.name = product.getName();
+            change.priceCents = CatalogSnapshot.toCents(product.getPrice());
+            change.quantity = product.getQuantity();
+            change.sellerId = product.getSellerId();
+            change.keepSeller = keepSeller;
+            return change;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.catalog;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Prints snapshot rows as console listing lines such as {@code 42: red wooden lamp - $19.99}.
+ * <p>
+ * When the stream is UTF-8 encoded, lines are assembled from the snapshot's encoded name bytes and digits
+ * in one reusable buffer and written in large blocks, so printing the catalog creates no strings or
+ * {@code BigDecimal}s. Other encodings fall back to building each line as a string.
+ * Not thread-safe; use one writer per listing.
+ */
+public class ListingWriter {
+    private static final byte[] PRICE_SEPARATOR = " - $".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SELLER_PREFIX = " (Seller ID: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SELLER_NAME_PREFIX = " (Seller: ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SELLER_ID_PREFIX = ", ID: ".getBytes(StandardCharsets.US_ASCII);
+    private static final int FLUSH_AT = 8192;
+
+    private final PrintStream out;
+    private final boolean utf8;
+    private byte[] buffer = new byte[FLUSH_AT + 256];
+    private int length;
+
+    /**
+     * Creates a writer.
+     *
+     * @param out the stream to print to.
+     */
+    public ListingWriter(PrintStream out) {
+        this.out = out;
+        this.utf8 = StandardCharsets.UTF_8.equals(out.charset());
+    }
+
+    /**
+     * Prints one row.
+     *
+     * @param snapshot   the snapshot holding the row.
+     * @param position   the row's position.
+     * @param withSeller whether to append the seller ID.
+     */
+    public void write(CatalogSnapshot snapshot, int position, boolean withSeller) {
+        if (!utf8) {
+            String line = snapshot.getId(position) + ": " + snapshot.getName(position) + " - $"
+                    + formatCents(snapshot.getPriceCents(position));
+            out.println(withSeller ? line + " (Seller ID: " + snapshot.getSellerId(position) + ")" : line);
+            return;
+        }
+        ensureCapacity(snapshot.getNameLength(position) + 64);
+        appendInt(snapshot.getId(position));
+        buffer[length++] = ':';
+        buffer[length++] = ' ';
+        length += snapshot.copyName(position, buffer, length);
+        append(PRICE_SEPARATOR);
+        appendCents(snapshot.getPriceCents(position));
+        if (withSeller) {
+            append(SELLER_PREFIX);
+            appendInt(snapshot.getSellerId(position));
+            buffer[length++] = ')';
+        }
+        buffer[length++] = '\n';
+        if (length >= FLUSH_AT) {
+            flush();
+        }
+    }
+
+    /**
+     * Prints one row followed by its seller's name and ID, e.g. {@code 42: red wooden lamp - $19.99 (Seller: ann, ID: 7)}.
+     * Sellers missing from the directory are printed by ID only.
+     *
+     * @param snapshot the snapshot holding the row.
+     * @param position the row's position.
+     * @param sellers  the directory to take seller names from.
+     */
+    public void write(CatalogSnapshot snapshot, int position, SellerDirectory sellers) {
+        byte[] name = sellers.getNameBytes(snapshot.getSellerId(position));
+        if (name == null) {
+            write(snapshot, position, true);
+            return;
+        }
+        if (!utf8) {
+            out.println(snapshot.getId(position) + ": " + snapshot.getName(position) + " - $"
+                    + formatCents(snapshot.getPriceCents(position)) + " (Seller: "
+                    + new String(name, StandardCharsets.UTF_8) + ", ID: " + snapshot.getSellerId(position) + ")");
+            return;
+        }
+        ensureCapacity(snapshot.getNameLength(position) + name.length + 80);
+        appendInt(snapshot.getId(position));
+        buffer[length++] = ':';
+        buffer[length++] = ' ';
+        length += snapshot.copyName(position, buffer, length);
+        append(PRICE_SEPARATOR);
+        appendCents(snapshot.getPriceCents(position));
+        append(SELLER_NAME_PREFIX);
+        append(name);
+        append(SELLER_ID_PREFIX);
+        appendInt(snapshot.getSellerId(position));
+        buffer[length++] = ')';
+        buffer[length++] = '\n';
+        if (length >= FLUSH_AT) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes any buffered lines to the stream.
+     */
+    public void flush() {
+        if (length > 0) {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+        out.flush();
+    }
+
+    /**
+     * Formats a price in cents the way {@code BigDecimal.valueOf(cents, 2)} prints it.
+     *
+     * @param cents the price in cents.
+     * @return the price with two decimal places, e.g. {@code "19.99"}.
+     */
+    public static String formatCents(long cents) {
+        long whole = Math.abs(cents / 100);
+        long fraction = Math.abs(cents % 100);
+        return (cents < 0 ? "-" : "") + whole + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            flush();
+            if (extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, extra);
+            }
+        }
+    }
+
+    private void append(byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void appendCents(long cents) {
+        if (cents < 0) {
+            buffer[length++] = '-';
+        }
+        long whole = Math.abs(cents / 100);
+        int fraction = (int) Math.abs(cents % 100);
+        appendLong(whole);
+        buffer[length++] = '.';
+        buffer[length++] = (byte) ('0' + fraction / 10);
+        buffer[length++] = (byte) ('0' + fraction % 10);
+    }
+
+    private void appendInt(int value) {
+        if (value < 0) {
+            buffer[length++] = '-';
+            appendLong(-(long) value);
+        } else {
+            appendLong(value);
+        }
+    }
+
+    private void appendLong(long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.catalog;
+
+/**
+ * Filter, ordering and limit for {@link CatalogSnapshot#query(ProductQuery)}.
+ * Prices are in cents; every filter is optional and defaults to matching everything.
+ */
+public class ProductQuery {
+    private long minPriceCents;
+    private long maxPriceCents = Long.MAX_VALUE;
+    private int sellerId;
+    private boolean inStockOnly;
+    private ProductSort sort = ProductSort.ID;
+    private int limit = 100;
+
+    /** @return the lowest price matched, in cents. */
+    public long getMinPriceCents() { return minPriceCents; }
+    /** @param minPriceCents the lowest price matched, in cents. */
+    public void setMinPriceCents(long minPriceCents) { this.minPriceCents = minPriceCents; }
+
+    /** @return the highest price matched, in cents. */
+    public long getMaxPriceCents() { return maxPriceCents; }
+    /** @param maxPriceCents the highest price matched, in cents. */
+    public void setMaxPriceCents(long maxPriceCents) { this.maxPriceCents = maxPriceCents; }
+
+    /** @return the only seller matched, or 0 for any seller. */
+    public int getSellerId() { return sellerId; }
+    /** @param sellerId the only seller matched, or 0 for any seller. */
+    public void setSellerId(int sellerId) { this.sellerId = sellerId; }
+
+    /** @return whether products with no stock are left out. */
+    public boolean isInStockOnly() { return inStockOnly; }
+    /** @param inStockOnly whether products with no stock are left out. */
+    public void setInStockOnly(boolean inStockOnly) { this.inStockOnly = inStockOnly; }
+
+    /** @return the order of the results. */
+    public ProductSort getSort() { return sort; }
+    /** @param sort the order of the results. */
+    public void setSort(ProductSort sort) { this.sort = sort == null ? ProductSort.ID : sort; }
+
+    /** @return the maximum number of results. */
+    public int getLimit() { return limit; }
+    /** @param limit the maximum number of results. */
+    public void setLimit(int limit) { this.limit = Math.max(0, limit); }
+
+    /**
+     * Checks one row against the filters.
+     *
+     * @param snapshot the snapshot holding the row.
+     * @param position the row's position.
+     * @return {@code true} if the row matches.
+     */
+    boolean matches(CatalogSnapshot snapshot, int position) {
+        long price = snapshot.getPriceCents(position);
+        return price >= minPriceCents && price <= maxPriceCents
+                && (sellerId == 0 || snapshot.getSellerId(position) == sellerId)
+                && (!inStockOnly || snapshot.getQuantity(position) > 0);
+    }
+}
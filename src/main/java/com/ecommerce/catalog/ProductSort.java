@@ -0,0 +1,35 @@
+package com.ecommerce.catalog;
+
+/**
+ * Orderings supported by {@link CatalogSnapshot#query(ProductQuery)}. Ties are broken by product ID.
+ */
+public enum ProductSort {
+    /** Lowest product ID first, the catalog's natural order. */
+    ID,
+    /** Cheapest first. */
+    PRICE_ASC,
+    /** Most expensive first. */
+    PRICE_DESC,
+    /** Most units in stock first. */
+    QUANTITY_DESC;
+
+    /**
+     * Parses a sort name as used in the API, e.g. {@code price}, {@code -price} or {@code -quantity}.
+     *
+     * @param value the name, or null for {@link #ID}.
+     * @return the ordering.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    public static ProductSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        return switch (value.trim()) {
+            case "id" -> ID;
+            case "price" -> PRICE_ASC;
+            case "-price" -> PRICE_DESC;
+            case "-quantity" -> QUANTITY_DESC;
+            default -> throw new IllegalArgumentException("Unknown sort: " + value);
+        };
+    }
+}
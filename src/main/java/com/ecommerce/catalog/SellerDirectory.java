@@ -0,0 +1,119 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.dao.UserEvents;
+import com.ecommerce.dao.UserListener;
+import com.ecommerce.dao.UserRepository;
+import com.ecommerce.model.User;
+import com.ecommerce.util.IntObjectMap;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory map from seller ID to username, so catalog listings can show seller names without a
+ * user lookup per product.
+ * <p>
+ * Names are kept as UTF-8 bytes in a primitive-keyed map, which is compact and lets {@link ListingWriter}
+ * copy them straight into its output buffer. The directory is loaded once from the user repository and then
+ * kept current by {@link UserEvents}.
+ */
+public class SellerDirectory implements UserListener {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private IntObjectMap<byte[]> names = new IntObjectMap<>();
+    // Non-null while the initial load runs, so a seller deleted meanwhile is not re-added by the load.
+    private IntObjectMap<Boolean> deletedDuringLoad;
+
+    /**
+     * Subscribes to user changes and loads every seller from a repository.
+     *
+     * @param repository the user source.
+     */
+    public void attach(UserRepository repository) {
+        UserEvents.register(this);
+        lock.writeLock().lock();
+        try {
+            deletedDuringLoad = new IntObjectMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        IntObjectMap<byte[]> loaded = new IntObjectMap<>();
+        repository.forEachSeller(seller -> loaded.put(seller.getId(), encode(seller.getUsername())));
+        lock.writeLock().lock();
+        try {
+            names.forEach(loaded::put);
+            deletedDuringLoad.forEach((sellerId, deleted) -> loaded.remove(sellerId));
+            deletedDuringLoad = null;
+            names = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a seller's username.
+     *
+     * @param sellerId the seller's user ID.
+     * @return the username, or null if the seller is unknown.
+     */
+    public String getName(int sellerId) {
+        byte[] name = getNameBytes(sellerId);
+        return name == null ? null : new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the number of sellers in the directory.
+     *
+     * @return the seller count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a seller's username as UTF-8 bytes. The array is shared and must not be modified.
+     */
+    byte[] getNameBytes(int sellerId) {
+        lock.readLock().lock();
+        try {
+            return names.get(sellerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void userRegistered(User user) {
+        if (!"seller".equalsIgnoreCase(user.getRole())) {
+            return;
+        }
+        byte[] name = encode(user.getUsername());
+        lock.writeLock().lock();
+        try {
+            names.put(user.getId(), name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void userDeleted(int userId) {
+        lock.writeLock().lock();
+        try {
+            names.remove(userId);
+            if (deletedDuringLoad != null) {
+                deletedDuringLoad.put(userId, Boolean.TRUE);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static byte[] encode(String username) {
+        return (username == null ? "" : username).getBytes(StandardCharsets.UTF_8);
+    }
+}
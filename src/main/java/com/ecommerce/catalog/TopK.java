@@ -0,0 +1,100 @@
+package com.ecommerce.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the best {@code k} rows of a snapshot offered to it, by one ordering.
+ * The rows live in a binary heap of positions with the worst kept row at the root, so each offer costs
+ * O(log k) and ranking m rows costs O(m log k) instead of sorting all of them.
+ */
+final class TopK {
+    private final CatalogSnapshot snapshot;
+    private final ProductSort sort;
+    private final int[] heap;
+    private int size;
+
+    /**
+     * Creates an empty selection.
+     *
+     * @param snapshot the snapshot the positions refer to.
+     * @param sort     the ordering; rows that come first are best.
+     * @param k        the number of rows to keep.
+     */
+    TopK(CatalogSnapshot snapshot, ProductSort sort, int k) {
+        this.snapshot = snapshot;
+        this.sort = sort;
+        this.heap = new int[k];
+    }
+
+    /**
+     * Offers a row, keeping it if it is among the best {@code k} so far.
+     *
+     * @param position the row's position.
+     */
+    void offer(int position) {
+        if (size < heap.length) {
+            heap[size] = position;
+            siftUp(size++);
+        } else if (size > 0 && snapshot.compare(position, heap[0], sort) < 0) {
+            heap[0] = position;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Gets the kept rows, best first.
+     *
+     * @return the positions in order.
+     */
+    int[] toSortedArray() {
+        int[] sorted = new int[size];
+        // Popping the worst row into the last free slot leaves the array sorted best first.
+        int remaining = size;
+        int[] work = Arrays.copyOf(heap, size);
+        for (int last = size - 1; last >= 0; last--) {
+            sorted[last] = work[0];
+            work[0] = work[--remaining];
+            siftDown(work, remaining, 0);
+        }
+        return sorted;
+    }
+
+    private void siftUp(int index) {
+        int position = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (snapshot.compare(heap[parent], position, sort) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = position;
+    }
+
+    private void siftDown(int index) {
+        siftDown(heap, size, index);
+    }
+
+    /**
+     * Restores the heap property below {@code index}: every parent comes after its children in the ordering.
+     */
+    private void siftDown(int[] array, int length, int index) {
+        int position = array[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= length) {
+                break;
+            }
+            if (child + 1 < length && snapshot.compare(array[child + 1], array[child], sort) > 0) {
+                child++;
+            }
+            if (snapshot.compare(array[child], position, sort) <= 0) {
+                break;
+            }
+            array[index] = array[child];
+            index = child;
+        }
+        array[index] = position;
+    }
+}
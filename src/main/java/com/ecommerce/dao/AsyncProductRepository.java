@@ -0,0 +1,124 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.util.BoundedVirtualExecutor;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking facade over a {@link ProductRepository}.
+ * Each call runs the blocking repository method on a {@link BoundedVirtualExecutor} and returns at once, so
+ * independent queries can be issued together and joined. Calls time out after the facade's timeout;
+ * {@link #withTimeout(long)} derives a facade with a different one.
+ */
+public class AsyncProductRepository {
+    private final ProductRepository delegate;
+    private final BoundedVirtualExecutor executor;
+    private final long timeoutMillis;
+
+    /**
+     * Creates a facade.
+     *
+     * @param delegate      the repository to call.
+     * @param executor      the executor to run calls on.
+     * @param timeoutMillis the deadline of each call; zero or less for none.
+     */
+    public AsyncProductRepository(ProductRepository delegate, BoundedVirtualExecutor executor, long timeoutMillis) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Derives a facade over the same repository and executor with another per-call deadline.
+     *
+     * @param timeoutMillis the deadline of each call; zero or less for none.
+     * @return the new facade.
+     */
+    public AsyncProductRepository withTimeout(long timeoutMillis) {
+        return new AsyncProductRepository(delegate, executor, timeoutMillis);
+    }
+
+    /** @see ProductRepository#addProduct(Product) */
+    public CompletableFuture<Void> addProduct(Product product) {
+        return submit(() -> {
+            delegate.addProduct(product);
+            return null;
+        });
+    }
+
+    /** @see ProductRepository#addProducts(Collection) */
+    public CompletableFuture<int[]> addProducts(Collection<Product> products) {
+        return submit(() -> delegate.addProducts(products));
+    }
+
+    /** @see ProductRepository#getProductById(int) */
+    public CompletableFuture<Product> getProductById(int productId) {
+        return submit(() -> delegate.getProductById(productId));
+    }
+
+    /** @see ProductRepository#getProductsByIds(int[]) */
+    public CompletableFuture<List<Product>> getProductsByIds(int[] productIds) {
+        return submit(() -> delegate.getProductsByIds(productIds));
+    }
+
+    /** @see ProductRepository#getProductByName(String) */
+    public CompletableFuture<Product> getProductByName(String productName) {
+        return submit(() -> delegate.getProductByName(productName));
+    }
+
+    /** @see ProductRepository#updateProduct(Product) */
+    public CompletableFuture<Boolean> updateProduct(Product product) {
+        return submit(() -> delegate.updateProduct(product));
+    }
+
+    /** @see ProductRepository#reserveStock(int, int) */
+    public CompletableFuture<Integer> reserveStock(int productId, int quantity) {
+        return submit(() -> delegate.reserveStock(productId, quantity));
+    }
+
+    /** @see ProductRepository#releaseStock(int, int) */
+    public CompletableFuture<Integer> releaseStock(int productId, int quantity) {
+        return submit(() -> delegate.releaseStock(productId, quantity));
+    }
+
+    /** @see ProductRepository#deleteProduct(int) */
+    public CompletableFuture<Boolean> deleteProduct(int productId) {
+        return submit(() -> delegate.deleteProduct(productId));
+    }
+
+    /** @see ProductRepository#getAllProducts() */
+    public CompletableFuture<List<Product>> getAllProducts() {
+        return submit(delegate::getAllProducts);
+    }
+
+    /**
+     * Streams every product to a consumer, which runs on the executor's thread.
+     *
+     * @see ProductRepository#forEachProduct(Consumer)
+     */
+    public CompletableFuture<Void> forEachProduct(Consumer<Product> action) {
+        return submit(() -> {
+            delegate.forEachProduct(action);
+            return null;
+        });
+    }
+
+    /** @see ProductRepository#getProductsPage(int, int) */
+    public CompletableFuture<List<Product>> getProductsPage(int afterId, int limit) {
+        return submit(() -> delegate.getProductsPage(afterId, limit));
+    }
+
+    /** @see ProductRepository#getProductsBySellerId(int) */
+    public CompletableFuture<List<Product>> getProductsBySellerId(int sellerId) {
+        return submit(() -> delegate.getProductsBySellerId(sellerId));
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> call) {
+        return executor.submit(call, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+}
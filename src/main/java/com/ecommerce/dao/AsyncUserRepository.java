@@ -0,0 +1,82 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.User;
+import com.ecommerce.util.BoundedVirtualExecutor;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking facade over a {@link UserRepository}; see {@link AsyncProductRepository}.
+ */
+public class AsyncUserRepository {
+    private final UserRepository delegate;
+    private final BoundedVirtualExecutor executor;
+    private final long timeoutMillis;
+
+    /**
+     * Creates a facade.
+     *
+     * @param delegate      the repository to call.
+     * @param executor      the executor to run calls on.
+     * @param timeoutMillis the deadline of each call; zero or less for none.
+     */
+    public AsyncUserRepository(UserRepository delegate, BoundedVirtualExecutor executor, long timeoutMillis) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Derives a facade over the same repository and executor with another per-call deadline.
+     *
+     * @param timeoutMillis the deadline of each call; zero or less for none.
+     * @return the new facade.
+     */
+    public AsyncUserRepository withTimeout(long timeoutMillis) {
+        return new AsyncUserRepository(delegate, executor, timeoutMillis);
+    }
+
+    /** @see UserRepository#registerUser(User) */
+    public CompletableFuture<Boolean> registerUser(User user) {
+        return submit(() -> delegate.registerUser(user));
+    }
+
+    /** @see UserRepository#getUserByEmail(String) */
+    public CompletableFuture<User> getUserByEmail(String email) {
+        return submit(() -> delegate.getUserByEmail(email));
+    }
+
+    /**
+     * Streams every email address to a consumer, which runs on the executor's thread.
+     *
+     * @see UserRepository#forEachEmail(Consumer)
+     */
+    public CompletableFuture<Void> forEachEmail(Consumer<String> consumer) {
+        return submit(() -> {
+            delegate.forEachEmail(consumer);
+            return null;
+        });
+    }
+
+    /** @see UserRepository#getAllUsers() */
+    public CompletableFuture<List<User>> getAllUsers() {
+        return submit(delegate::getAllUsers);
+    }
+
+    /** @see UserRepository#updatePassword(int, String) */
+    public CompletableFuture<Boolean> updatePassword(int userId, String hashedPassword) {
+        return submit(() -> delegate.updatePassword(userId, hashedPassword));
+    }
+
+    /** @see UserRepository#deleteUser(int) */
+    public CompletableFuture<Boolean> deleteUser(int userId) {
+        return submit(() -> delegate.deleteUser(userId));
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> call) {
+        return executor.submit(call, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,268 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductWithSeller;
+import com.ecommerce.util.BoundedCache;
+import com.ecommerce.util.IntObjectMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Read-through cache in front of another {@link ProductRepository}.
+ * Lookups by ID and by name are served from bounded {@link BoundedCache}s; entries are dropped
+ * synchronously whenever {@link CatalogEvents} reports a change to the product or its seller.
+ * List queries always go to the underlying repository.
+ */
+public class CachingProductRepository implements ProductRepository, CatalogListener {
+    private final ProductRepository delegate;
+    private final BoundedCache<Integer, Product> byId;
+    private final BoundedCache<String, Product> byName;
+    // Bumped on every invalidation, so a load that raced with a write is not cached.
+    private final AtomicLong generation = new AtomicLong();
+    // The name each product was cached under, so invalidating one product does not scan the name cache.
+    // Entries outlive evictions from the name cache; the map is reset when it grows past twice the cache size.
+    private final ConcurrentHashMap<Integer, String> cachedNames = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    /**
+     * Creates a cache sized from the {@code ecommerce.cache.maxSize} and {@code ecommerce.cache.ttlSeconds}
+     * system properties (10000 entries and 300 seconds by default).
+     *
+     * @param delegate the repository to read through to.
+     */
+    public CachingProductRepository(ProductRepository delegate) {
+        this(delegate, Integer.getInteger("ecommerce.cache.maxSize", 10_000),
+                Long.getLong("ecommerce.cache.ttlSeconds", 300));
+    }
+
+    /**
+     * Creates a cache and subscribes it to {@link CatalogEvents}.
+     *
+     * @param delegate   the repository to read through to.
+     * @param maxSize    the maximum number of entries in each of the ID and name caches.
+     * @param ttlSeconds how long an entry stays valid; zero or less disables expiry.
+     */
+    public CachingProductRepository(ProductRepository delegate, int maxSize, long ttlSeconds) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.byId = new BoundedCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+        this.byName = new BoundedCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+        CatalogEvents.register(this);
+    }
+
+    @Override
+    public void addProduct(Product product) {
+        delegate.addProduct(product);
+    }
+
+    @Override
+    public int[] addProducts(Collection<Product> products) {
+        return delegate.addProducts(products);
+    }
+
+    @Override
+    public Product getProductById(int productId) {
+        Product cached = byId.get(productId);
+        if (cached != null) {
+            return InMemoryProductRepository.copyOf(cached);
+        }
+        long observed = generation.get();
+        Product loaded = delegate.getProductById(productId);
+        if (loaded != null && generation.get() == observed) {
+            byId.put(productId, InMemoryProductRepository.copyOf(loaded));
+            // An invalidation between the check and the put may have missed the new entry.
+            if (generation.get() != observed) {
+                byId.invalidate(productId);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Serves the cached products and fetches only the misses, with one multi-get on the underlying repository.
+     */
+    @Override
+    public List<Product> getProductsByIds(int[] productIds) {
+        int[] distinct = ProductDAO.distinctIds(productIds);
+        IntObjectMap<Product> found = new IntObjectMap<>(distinct.length);
+        int[] misses = new int[distinct.length];
+        int missCount = 0;
+        for (int id : distinct) {
+            Product cached = byId.get(id);
+            if (cached != null) {
+                found.put(id, InMemoryProductRepository.copyOf(cached));
+            } else {
+                misses[missCount++] = id;
+            }
+        }
+        if (missCount > 0) {
+            long observed = generation.get();
+            List<Product> loaded = delegate.getProductsByIds(Arrays.copyOf(misses, missCount));
+            boolean cacheable = generation.get() == observed;
+            for (Product product : loaded) {
+                found.put(product.getId(), product);
+                if (cacheable) {
+                    byId.put(product.getId(), InMemoryProductRepository.copyOf(product));
+                }
+            }
+            if (cacheable && generation.get() != observed) {
+                for (Product product : loaded) {
+                    byId.invalidate(product.getId());
+                }
+            }
+        }
+        return ProductDAO.inRequestOrder(distinct, found);
+    }
+
+    @Override
+    public Product getProductByName(String productName) {
+        Product cached = byName.get(productName);
+        if (cached != null) {
+            return InMemoryProductRepository.copyOf(cached);
+        }
+        long observed = generation.get();
+        Product loaded = delegate.getProductByName(productName);
+        if (loaded != null && generation.get() == observed) {
+            if (cachedNames.size() >= 2 * maxSize) {
+                generation.incrementAndGet();
+                cachedNames.clear();
+                byName.invalidateAll();
+            }
+            // Recorded first, so an invalidation from here on finds the entry.
+            cachedNames.put(loaded.getId(), productName);
+            byName.put(productName, InMemoryProductRepository.copyOf(loaded));
+            // An invalidation or reset between the check and the put may have missed the new entry.
+            if (generation.get() != observed) {
+                byName.invalidate(productName);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public boolean updateProduct(Product product) {
+        return delegate.updateProduct(product);
+    }
+
+    @Override
+    public int reserveStock(int productId, int quantity) {
+        return delegate.reserveStock(productId, quantity);
+    }
+
+    @Override
+    public int releaseStock(int productId, int quantity) {
+        return delegate.releaseStock(productId, quantity);
+    }
+
+    @Override
+    public boolean deleteProduct(int productId) {
+        return delegate.deleteProduct(productId);
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return delegate.getAllProducts();
+    }
+
+    @Override
+    public void forEachProduct(Consumer<Product> action) {
+        delegate.forEachProduct(action);
+    }
+
+    @Override
+    public void forEachProductWithSeller(Consumer<ProductWithSeller> action) {
+        delegate.forEachProductWithSeller(action);
+    }
+
+    @Override
+    public List<Product> getProductsPage(int afterId, int limit) {
+        return delegate.getProductsPage(afterId, limit);
+    }
+
+    @Override
+    public List<Product> getProductsBySellerId(int sellerId) {
+        return delegate.getProductsBySellerId(sellerId);
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        // A new row can become the first match for its name.
+        generation.incrementAndGet();
+        if (product.getName() != null) {
+            byName.invalidate(product.getName());
+        }
+    }
+
+    @Override
+    public void productUpdated(Product product) {
+        invalidateProduct(product.getId());
+        if (product.getName() != null) {
+            byName.invalidate(product.getName());
+        }
+    }
+
+    @Override
+    public void stockChanged(int productId, int quantity) {
+        invalidateProduct(productId);
+    }
+
+    @Override
+    public void productDeleted(int productId) {
+        invalidateProduct(productId);
+    }
+
+    @Override
+    public void sellerProductsDeleted(int sellerId) {
+        generation.incrementAndGet();
+        byId.invalidateIf(product -> product.getSellerId() == sellerId);
+        byName.invalidateIf(product -> product.getSellerId() == sellerId);
+    }
+
+    /**
+     * Drops every cached entry.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        byName.invalidateAll();
+        cachedNames.clear();
+    }
+
+    /**
+     * Gets the cache keyed by product ID, e.g. to read its hit/miss/eviction counters.
+     *
+     * @return the ID cache.
+     */
+    public BoundedCache<Integer, Product> getIdCache() { return byId; }
+
+    /**
+     * Gets the cache keyed by product name, e.g. to read its hit/miss/eviction counters.
+     *
+     * @return the name cache.
+     */
+    public BoundedCache<String, Product> getNameCache() { return byName; }
+
+    /**
+     * Provides the counters of both caches.
+     *
+     * @return a two-part summary of the ID and name caches.
+     */
+    @Override
+    public String toString() {
+        return "ProductCache [byId: " + byId + "; byName: " + byName + "]";
+    }
+
+    private void invalidateProduct(int productId) {
+        generation.incrementAndGet();
+        byId.invalidate(productId);
+        String name = cachedNames.remove(productId);
+        if (name != null) {
+            byName.invalidate(name);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Product;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes product changes from the repositories to registered {@link CatalogListener}s,
+ * so caches and indexes built on top of the catalog stay current.
+ */
+public final class CatalogEvents {
+    private static final List<CatalogListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private CatalogEvents() {}
+
+    /**
+     * Registers a listener for all subsequent changes.
+     *
+     * @param listener the listener to add.
+     */
+    public static void register(CatalogListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Stops delivering changes to a listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public static void unregister(CatalogListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    static void productAdded(Product product) {
+        for (CatalogListener listener : LISTENERS) {
+            try {
+                listener.productAdded(product);
+            } catch (RuntimeException e) {
+                System.err.println("Catalog listener failed on add: " + e.getMessage());
+            }
+        }
+    }
+
+    static void productUpdated(Product product) {
+        for (CatalogListener listener : LISTENERS) {
+            try {
+                listener.productUpdated(product);
+            } catch (RuntimeException e) {
+                System.err.println("Catalog listener failed on update: " + e.getMessage());
+            }
+        }
+    }
+
+    static void stockChanged(int productId, int quantity) {
+        for (CatalogListener listener : LISTENERS) {
+            try {
+                listener.stockChanged(productId, quantity);
+            } catch (RuntimeException e) {
+                System.err.println("Catalog listener failed on stock change: " + e.getMessage());
+            }
+        }
+    }
+
+    static void productDeleted(int productId) {
+        for (CatalogListener listener : LISTENERS) {
+            try {
+                listener.productDeleted(productId);
+            } catch (RuntimeException e) {
+                System.err.println("Catalog listener failed on delete: " + e.getMessage());
+            }
+        }
+    }
+
+    static void sellerProductsDeleted(int sellerId) {
+        for (CatalogListener listener : LISTENERS) {
+            try {
+                listener.sellerProductsDeleted(sellerId);
+            } catch (RuntimeException e) {
+                System.err.println("Catalog listener failed on seller delete: " + e.getMessage());
+            }
+        }
+    }
+}
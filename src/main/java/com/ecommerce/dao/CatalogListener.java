@@ -0,0 +1,47 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Product;
+
+/**
+ * Receives product changes after they have been committed to storage.
+ * Callbacks run synchronously on the writing thread, so they must be quick and must not throw.
+ * Register listeners with {@link CatalogEvents}.
+ */
+public interface CatalogListener {
+
+    /**
+     * Called after a product has been added.
+     *
+     * @param product the new product, including its generated ID.
+     */
+    default void productAdded(Product product) {}
+
+    /**
+     * Called after a product's name, price or quantity has been updated.
+     *
+     * @param product the product with its new details.
+     */
+    default void productUpdated(Product product) {}
+
+    /**
+     * Called after stock was taken from or returned to a product. Name, price and seller are unchanged.
+     *
+     * @param productId the ID of the product.
+     * @param quantity  the quantity now in stock.
+     */
+    default void stockChanged(int productId, int quantity) {}
+
+    /**
+     * Called after a product has been deleted.
+     *
+     * @param productId the ID of the deleted product.
+     */
+    default void productDeleted(int productId) {}
+
+    /**
+     * Called after all products of a seller have been deleted, e.g. when the seller's account is removed.
+     *
+     * @param sellerId the ID of the seller.
+     */
+    default void sellerProductsDeleted(int sellerId) {}
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-local {@link OrderRepository}.
+ * Orders are copied on the way in and out, so callers never share mutable state with the store.
+ */
+public class InMemoryOrderRepository implements OrderRepository {
+    private final ConcurrentHashMap<Integer, Order> orders = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, ConcurrentSkipListSet<Integer>> buyerIndex = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Stores the orders, assigning consecutive IDs.
+     *
+     * @param orders The orders to store.
+     * @return always true.
+     */
+    @Override
+    public boolean addOrders(List<Order> orders) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Order order : orders) {
+            order.setId(nextId.incrementAndGet());
+            order.setCreatedAt(now);
+            this.orders.put(order.getId(), copyOf(order));
+            buyerIndex.computeIfAbsent(order.getBuyerId(), key -> new ConcurrentSkipListSet<>()).add(order.getId());
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves an order with its lines.
+     *
+     * @param orderId The ID of the order.
+     * @return The order if found, or null if not found.
+     */
+    @Override
+    public Order getOrderById(int orderId) {
+        Order stored = orders.get(orderId);
+        return stored == null ? null : copyOf(stored);
+    }
+
+    /**
+     * Retrieves a buyer's orders, newest first.
+     *
+     * @param buyerId The ID of the buyer.
+     * @return The buyer's orders.
+     */
+    @Override
+    public List<Order> getOrdersByBuyerId(int buyerId) {
+        List<Order> result = new ArrayList<>();
+        ConcurrentSkipListSet<Integer> ids = buyerIndex.get(buyerId);
+        if (ids != null) {
+            for (int id : ids.descendingSet()) {
+                Order order = getOrderById(id);
+                if (order != null) {
+                    result.add(order);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Order copyOf(Order source) {
+        Order copy = new Order();
+        copy.setId(source.getId());
+        copy.setBuyerId(source.getBuyerId());
+        copy.setTotal(source.getTotal());
+        copy.setStatus(source.getStatus());
+        copy.setCreatedAt(source.getCreatedAt());
+        List<OrderItem> items = new ArrayList<>(source.getItems().size());
+        for (OrderItem item : source.getItems()) {
+            items.add(new OrderItem(item.getProductId(), item.getProductName(), item.getUnitPrice(), item.getQuantity()));
+        }
+        copy.setItems(items);
+        return copy;
+    }
+}
@@ -0,0 +1,566 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductWithSeller;
+import com.ecommerce.model.User;
+import com.ecommerce.util.IntObjectMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Process-local {@link ProductRepository}.
+ * Rows live in lock-striped, int-keyed maps so concurrent callers touching different products rarely contend;
+ * secondary indexes on name and seller ID turn those lookups into hash probes instead of scans. The seller index
+ * is int-keyed as well, striped by seller and holding primitive ID sets; the name index maps each name to a
+ * sorted {@code int[]} of IDs that is replaced, not changed, on every write, so readers need no lock.
+ * Products are copied on the way in and out, so callers never share mutable state with the store.
+ */
+public class InMemoryProductRepository implements ProductRepository {
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ConcurrentHashMap<String, int[]> nameIndex = new ConcurrentHashMap<>();
+    private final SellerStripe[] sellerStripes = new SellerStripe[STRIPES];
+    private final ConcurrentSkipListSet<Integer> orderedIds = new ConcurrentSkipListSet<>();
+    private final Set<Integer> hiddenSellers = ConcurrentHashMap.newKeySet();
+    // Set by the paired user repository; null while products are used on their own.
+    private volatile InMemoryUserRepository users;
+
+    /**
+     * Creates an empty repository.
+     */
+    public InMemoryProductRepository() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+            sellerStripes[i] = new SellerStripe();
+        }
+    }
+
+    /**
+     * Adds a new product and assigns it the next ID.
+     *
+     * @param product The product to be added.
+     */
+    @Override
+    public void addProduct(Product product) {
+        int id = nextId.incrementAndGet();
+        product.setId(id);
+        Product stored = copyOf(product);
+        Stripe stripe = stripeFor(id);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.rows.put(id, stored);
+            index(stored);
+            orderedIds.add(id);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        CatalogEvents.productAdded(copyOf(stored));
+    }
+
+    /**
+     * Adds many products, assigning each the next free ID.
+     *
+     * @param products The products to be added.
+     * @return The generated IDs in iteration order.
+     */
+    @Override
+    public int[] addProducts(Collection<Product> products) {
+        int[] ids = new int[products.size()];
+        int i = 0;
+        for (Product product : products) {
+            addProduct(product);
+            ids[i++] = product.getId();
+        }
+        return ids;
+    }
+
+    /**
+     * Retrieves a product by its ID.
+     *
+     * @param productId The ID of the product.
+     * @return The product if found, or null if not found.
+     */
+    @Override
+    public Product getProductById(int productId) {
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.readLock().lock();
+        try {
+            Product stored = stripe.rows.get(productId);
+            return stored == null || hiddenSellers.contains(stored.getSellerId()) ? null : copyOf(stored);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves several products by ID.
+     *
+     * @param productIds The IDs of the products; duplicates are allowed.
+     * @return The products found, in the order their IDs first appear; unknown IDs are skipped.
+     */
+    @Override
+    public List<Product> getProductsByIds(int[] productIds) {
+        List<Product> products = new ArrayList<>();
+        for (int id : ProductDAO.distinctIds(productIds)) {
+            Product product = getProductById(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Retrieves the product with the lowest ID among those with the given name.
+     *
+     * @param productName The name of the product.
+     * @return The product if found, or null if not found.
+     */
+    @Override
+    public Product getProductByName(String productName) {
+        int[] ids = nameIndex.get(productName);
+        if (ids == null) {
+            return null;
+        }
+        for (int id : ids) {
+            Product product = getProductById(id);
+            // The index may briefly lag a concurrent rename, so confirm against the row itself.
+            if (product != null && productName.equals(product.getName())) {
+                return product;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Updates the name, price and quantity of an existing product. The seller is left unchanged.
+     *
+     * @param product The product with updated details.
+     * @return true if the product existed and was updated, false otherwise.
+     */
+    @Override
+    public boolean updateProduct(Product product) {
+        Product updated = copyOf(product);
+        Stripe stripe = stripeFor(product.getId());
+        stripe.lock.writeLock().lock();
+        try {
+            Product stored = stripe.rows.get(product.getId());
+            if (stored == null || hiddenSellers.contains(stored.getSellerId())) {
+                return false;
+            }
+            unindex(stored);
+            updated.setSellerId(stored.getSellerId());
+            stripe.rows.put(updated.getId(), updated);
+            index(updated);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        CatalogEvents.productUpdated(copyOf(updated));
+        return true;
+    }
+
+    /**
+     * Takes stock from a product under its stripe's write lock.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The number of units to take.
+     * @return The quantity left, or -1 if the product does not exist or has too little stock.
+     */
+    @Override
+    public int reserveStock(int productId, int quantity) {
+        int remaining;
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.writeLock().lock();
+        try {
+            Product stored = stripe.rows.get(productId);
+            if (stored == null || quantity <= 0 || stored.getQuantity() < quantity
+                    || hiddenSellers.contains(stored.getSellerId())) {
+                return -1;
+            }
+            remaining = stored.getQuantity() - quantity;
+            stored.setQuantity(remaining);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        CatalogEvents.stockChanged(productId, remaining);
+        return remaining;
+    }
+
+    /**
+     * Returns stock to a product under its stripe's write lock.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The number of units to return.
+     * @return The quantity in stock afterwards, or -1 if the product does not exist.
+     */
+    @Override
+    public int releaseStock(int productId, int quantity) {
+        int remaining;
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.writeLock().lock();
+        try {
+            Product stored = stripe.rows.get(productId);
+            if (stored == null || quantity <= 0) {
+                return -1;
+            }
+            remaining = stored.getQuantity() + quantity;
+            stored.setQuantity(remaining);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        CatalogEvents.stockChanged(productId, remaining);
+        return remaining;
+    }
+
+    /**
+     * Deletes a product by its ID.
+     *
+     * @param productId The ID of the product to be deleted.
+     * @return true if the product existed and was deleted, false otherwise.
+     */
+    @Override
+    public boolean deleteProduct(int productId) {
+        if (!remove(productId)) {
+            return false;
+        }
+        CatalogEvents.productDeleted(productId);
+        return true;
+    }
+
+    /**
+     * Retrieves all products, ordered by ID.
+     *
+     * @return A list of all products.
+     */
+    @Override
+    public List<Product> getAllProducts() {
+        List<Product> products = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                stripe.rows.forEach((id, product) -> {
+                    if (!hiddenSellers.contains(product.getSellerId())) {
+                        products.add(copyOf(product));
+                    }
+                });
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        products.sort(Comparator.comparingInt(Product::getId));
+        return products;
+    }
+
+    /**
+     * Streams every product, ordered by ID, reading one row at a time.
+     *
+     * @param action The callback receiving each product.
+     */
+    @Override
+    public void forEachProduct(Consumer<Product> action) {
+        for (int id : orderedIds) {
+            Product product = getProductById(id);
+            if (product != null) {
+                action.accept(product);
+            }
+        }
+    }
+
+    /**
+     * Streams every product, ordered by ID, with its seller looked up in the paired user repository.
+     *
+     * @param action The callback receiving each product and seller.
+     */
+    @Override
+    public void forEachProductWithSeller(Consumer<ProductWithSeller> action) {
+        InMemoryUserRepository sellers = users;
+        forEachProduct(product -> {
+            User seller = sellers == null ? null : sellers.findById(product.getSellerId());
+            action.accept(new ProductWithSeller(product, seller == null ? null : seller.getUsername(),
+                    seller == null ? null : seller.getEmail()));
+        });
+    }
+
+    /**
+     * Pairs this repository with the user repository that owns the sellers.
+     *
+     * @param users the user repository.
+     */
+    void setUsers(InMemoryUserRepository users) {
+        this.users = users;
+    }
+
+    /**
+     * Retrieves one page of products ordered by ID, starting after a given ID.
+     *
+     * @param afterId The last ID of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of products to return.
+     * @return Up to {@code limit} products with IDs greater than {@code afterId}.
+     */
+    @Override
+    public List<Product> getProductsPage(int afterId, int limit) {
+        List<Product> products = new ArrayList<>(Math.max(0, Math.min(limit, 1_000)));
+        for (int id : orderedIds.tailSet(afterId, false)) {
+            if (products.size() >= limit) {
+                break;
+            }
+            Product product = getProductById(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Retrieves products for a specific seller, ordered by ID.
+     *
+     * @param sellerId The ID of the seller.
+     * @return A list of products belonging to the seller.
+     */
+    @Override
+    public List<Product> getProductsBySellerId(int sellerId) {
+        int[] ids = sellerProductIds(sellerId, Integer.MAX_VALUE);
+        Arrays.sort(ids);
+        List<Product> products = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Product product = getProductById(id);
+            if (product != null && product.getSellerId() == sellerId) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Deletes every product that belongs to a seller.
+     *
+     * @param sellerId The ID of the seller.
+     * @return the number of products deleted.
+     */
+    public int deleteProductsBySellerId(int sellerId) {
+        int deleted = 0;
+        for (int id : sellerProductIds(sellerId, Integer.MAX_VALUE)) {
+            if (deleteProduct(id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes up to {@code limit} of a seller's products without publishing events. Callers report the
+     * deletion with one {@code sellerProductsDeleted} event instead, or already did when hiding the seller.
+     *
+     * @param sellerId The ID of the seller.
+     * @param limit    The maximum number of products to delete.
+     * @return the number of products deleted.
+     */
+    int deleteProductsBySellerId(int sellerId, int limit) {
+        int deleted = 0;
+        for (int id : sellerProductIds(sellerId, limit)) {
+            if (remove(id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Counts a seller's products, hidden or not.
+     *
+     * @param sellerId The ID of the seller.
+     * @return the number of products.
+     */
+    int countBySellerId(int sellerId) {
+        SellerStripe stripe = sellerStripeFor(sellerId);
+        stripe.lock.readLock().lock();
+        try {
+            IntObjectMap<Boolean> ids = stripe.products.get(sellerId);
+            return ids == null ? 0 : ids.size();
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hides or shows again all of a seller's products in every read.
+     *
+     * @param sellerId The ID of the seller.
+     * @param hidden   whether the products are hidden.
+     */
+    void setSellerHidden(int sellerId, boolean hidden) {
+        if (hidden) {
+            hiddenSellers.add(sellerId);
+        } else {
+            hiddenSellers.remove(sellerId);
+        }
+    }
+
+    /**
+     * Gets the number of stored products.
+     *
+     * @return the product count.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                size += stripe.rows.size();
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Copies up to {@code limit} of a seller's product IDs, in no particular order.
+     */
+    private int[] sellerProductIds(int sellerId, int limit) {
+        SellerStripe stripe = sellerStripeFor(sellerId);
+        stripe.lock.readLock().lock();
+        try {
+            IntObjectMap<Boolean> ids = stripe.products.get(sellerId);
+            return ids == null ? new int[0] : ids.keys(limit);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    private void index(Product product) {
+        if (product.getName() != null) {
+            // compute() is atomic per name, so a concurrent unindex cannot lose this add.
+            nameIndex.compute(product.getName(), (key, ids) -> withId(ids, product.getId()));
+        }
+        SellerStripe stripe = sellerStripeFor(product.getSellerId());
+        stripe.lock.writeLock().lock();
+        try {
+            IntObjectMap<Boolean> ids = stripe.products.get(product.getSellerId());
+            if (ids == null) {
+                ids = new IntObjectMap<>();
+                stripe.products.put(product.getSellerId(), ids);
+            }
+            ids.put(product.getId(), Boolean.TRUE);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(Product product) {
+        if (product.getName() != null) {
+            nameIndex.computeIfPresent(product.getName(), (key, ids) -> withoutId(ids, product.getId()));
+        }
+        SellerStripe stripe = sellerStripeFor(product.getSellerId());
+        stripe.lock.writeLock().lock();
+        try {
+            IntObjectMap<Boolean> ids = stripe.products.get(product.getSellerId());
+            if (ids != null) {
+                ids.remove(product.getId());
+                if (ids.isEmpty()) {
+                    stripe.products.remove(product.getSellerId());
+                }
+            }
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of a sorted ID array with one ID inserted.
+     */
+    private static int[] withId(int[] ids, int id) {
+        if (ids == null) {
+            return new int[] {id};
+        }
+        int at = Arrays.binarySearch(ids, id);
+        if (at >= 0) {
+            return ids;
+        }
+        at = -at - 1;
+        int[] copy = new int[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    /**
+     * Returns a copy of a sorted ID array with one ID removed, or null if none are left.
+     */
+    private static int[] withoutId(int[] ids, int id) {
+        int at = Arrays.binarySearch(ids, id);
+        if (at < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        int[] copy = new int[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+        return copy;
+    }
+
+    private boolean remove(int productId) {
+        Stripe stripe = stripeFor(productId);
+        stripe.lock.writeLock().lock();
+        try {
+            Product removed = stripe.rows.remove(productId);
+            if (removed == null) {
+                return false;
+            }
+            unindex(removed);
+            orderedIds.remove(productId);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    private Stripe stripeFor(int id) {
+        return stripes[(id ^ (id >>> 16)) & (STRIPES - 1)];
+    }
+
+    private SellerStripe sellerStripeFor(int sellerId) {
+        return sellerStripes[(sellerId ^ (sellerId >>> 16)) & (STRIPES - 1)];
+    }
+
+    static Product copyOf(Product source) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setPrice(source.getPrice());
+        copy.setQuantity(source.getQuantity());
+        copy.setSellerId(source.getSellerId());
+        return copy;
+    }
+
+    /**
+     * One lock and the rows it guards.
+     */
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final IntObjectMap<Product> rows = new IntObjectMap<>();
+    }
+
+    /**
+     * One lock and the product ID sets of the sellers it guards. Always taken after, never before, a row stripe.
+     */
+    private static final class SellerStripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final IntObjectMap<IntObjectMap<Boolean>> products = new IntObjectMap<>();
+    }
+}
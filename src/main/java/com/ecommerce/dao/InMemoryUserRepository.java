@@ -0,0 +1,287 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Admin;
+import com.ecommerce.model.Buyer;
+import com.ecommerce.model.Seller;
+import com.ecommerce.model.User;
+import com.ecommerce.util.IntObjectMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Process-local {@link UserRepository}.
+ * Users are held in lock-striped, int-keyed maps with a unique secondary index on email.
+ * Deleting a user cascades to their products in the paired {@link InMemoryProductRepository}.
+ */
+public class InMemoryUserRepository implements UserRepository {
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final ConcurrentHashMap<String, Integer> emailIndex = new ConcurrentHashMap<>();
+    private final Set<Integer> pendingDeletion = ConcurrentHashMap.newKeySet();
+    private final InMemoryProductRepository products;
+
+    /**
+     * Creates an empty repository.
+     *
+     * @param products the product repository that receives cascading deletes.
+     */
+    public InMemoryUserRepository(InMemoryProductRepository products) {
+        this.products = products;
+        products.setUsers(this);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Registers a new user and assigns it the next ID. Duplicate emails are rejected.
+     *
+     * @param user The user object containing the username, password, email, and role to be registered.
+     * @return true if the user was registered, false if the email is already taken.
+     */
+    @Override
+    public boolean registerUser(User user) {
+        int id = nextId.incrementAndGet();
+        if (emailIndex.putIfAbsent(user.getEmail(), id) != null) {
+            return false;
+        }
+        user.setId(id);
+        User stored = copyOf(user);
+        Stripe stripe = stripeFor(id);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.rows.put(id, stored);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        UserEvents.userRegistered(stored);
+        return true;
+    }
+
+    /**
+     * Retrieves a user by their email address.
+     *
+     * @param email The email address of the user to be retrieved.
+     * @return A User object if the user is found, or null if no user exists with the given email.
+     */
+    @Override
+    public User getUserByEmail(String email) {
+        Integer id = emailIndex.get(email);
+        if (id == null || pendingDeletion.contains(id)) {
+            return null;
+        }
+        Stripe stripe = stripeFor(id);
+        stripe.lock.readLock().lock();
+        try {
+            User stored = stripe.rows.get(id);
+            return stored == null ? null : copyOf(stored);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams every user's email address from the email index.
+     *
+     * @param consumer receives each email address.
+     */
+    @Override
+    public void forEachEmail(Consumer<String> consumer) {
+        emailIndex.keySet().forEach(consumer);
+    }
+
+    /**
+     * Streams every seller's ID, username and email, ordered by ID.
+     *
+     * @param consumer receives each seller.
+     */
+    @Override
+    public void forEachSeller(Consumer<User> consumer) {
+        for (User user : getAllUsers()) {
+            if (user instanceof Seller && !pendingDeletion.contains(user.getId())) {
+                user.setPassword(null);
+                consumer.accept(user);
+            }
+        }
+    }
+
+    /**
+     * Looks a user up by ID, for the product repository's seller join.
+     *
+     * @param userId The ID of the user.
+     * @return A copy of the user, or null if there is none.
+     */
+    User findById(int userId) {
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.readLock().lock();
+        try {
+            User stored = stripe.rows.get(userId);
+            return stored == null ? null : copyOf(stored);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves all users, ordered by ID.
+     *
+     * @return A list of User objects, or an empty list if no users exist.
+     */
+    @Override
+    public List<User> getAllUsers() {
+        List<User> users = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                stripe.rows.forEach((id, user) -> users.add(copyOf(user)));
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        users.sort(Comparator.comparingInt(User::getId));
+        return users;
+    }
+
+    /**
+     * Replaces a user's stored password hash.
+     *
+     * @param userId         The ID of the user.
+     * @param hashedPassword The new password hash.
+     * @return true if the user exists and was updated, false otherwise.
+     */
+    @Override
+    public boolean updatePassword(int userId, String hashedPassword) {
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.writeLock().lock();
+        try {
+            User stored = stripe.rows.get(userId);
+            if (stored == null) {
+                return false;
+            }
+            stored.setPassword(hashedPassword);
+            return true;
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes a user by their unique ID, after deleting the products they sell.
+     *
+     * @param userId The ID of the user to be deleted.
+     * @return true if the user was successfully deleted, false otherwise.
+     */
+    @Override
+    public boolean deleteUser(int userId) {
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.writeLock().lock();
+        try {
+            if (!stripe.rows.containsKey(userId)) {
+                return false;
+            }
+            // No per-product events: the single sellerProductsDeleted below tells listeners, outside the lock.
+            products.deleteProductsBySellerId(userId, Integer.MAX_VALUE);
+            User removed = stripe.rows.remove(userId);
+            emailIndex.remove(removed.getEmail(), userId);
+            products.setSellerHidden(userId, false);
+            pendingDeletion.remove(userId);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        CatalogEvents.sellerProductsDeleted(userId);
+        UserEvents.userDeleted(userId);
+        return true;
+    }
+
+    /**
+     * Marks a user for deletion and hides their products.
+     *
+     * @param userId The ID of the user.
+     * @return true if the user exists and is now marked, false otherwise.
+     */
+    @Override
+    public boolean markForDeletion(int userId) {
+        Stripe stripe = stripeFor(userId);
+        stripe.lock.writeLock().lock();
+        try {
+            if (!stripe.rows.containsKey(userId)) {
+                return false;
+            }
+            pendingDeletion.add(userId);
+            products.setSellerHidden(userId, true);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+        CatalogEvents.sellerProductsDeleted(userId);
+        return true;
+    }
+
+    /**
+     * Deletes up to {@code limit} of a seller's products.
+     *
+     * @param sellerId The ID of the seller.
+     * @param limit    The maximum number of products to delete.
+     * @return The number of products deleted.
+     */
+    @Override
+    public int deleteSellerProducts(int sellerId, int limit) {
+        return products.deleteProductsBySellerId(sellerId, limit);
+    }
+
+    /**
+     * Counts a seller's products, up to a cap.
+     *
+     * @param sellerId The ID of the seller.
+     * @param cap      The count to stop at.
+     * @return The number of products, at most {@code cap}.
+     */
+    @Override
+    public int countSellerProducts(int sellerId, int cap) {
+        return Math.min(cap, products.countBySellerId(sellerId));
+    }
+
+    /**
+     * Gets the users marked for deletion.
+     *
+     * @return The IDs of the marked users, in ascending order.
+     */
+    @Override
+    public int[] getUsersPendingDeletion() {
+        return pendingDeletion.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private Stripe stripeFor(int id) {
+        return stripes[(id ^ (id >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static User copyOf(User source) {
+        String role = source.getRole() == null ? "" : source.getRole().toLowerCase();
+        User copy = switch (role) {
+            case "seller" -> new Seller();
+            case "admin" -> new Admin();
+            default -> new Buyer();
+        };
+        copy.setId(source.getId());
+        copy.setUsername(source.getUsername());
+        copy.setPassword(source.getPassword());
+        copy.setEmail(source.getEmail());
+        copy.setRole(source.getRole());
+        return copy;
+    }
+
+    /**
+     * One lock and the rows it guards.
+     */
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final IntObjectMap<User> rows = new IntObjectMap<>();
+    }
+}
@@ -0,0 +1,192 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.metrics.Metrics;
+import com.ecommerce.metrics.OperationMetrics;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.util.Database;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for orders and their lines.
+ * This is the PostgreSQL-backed {@link OrderRepository}; every operation records its calls, failures and
+ * latency under {@code order.*} in {@link Metrics}.
+ */
+public class OrderDAO implements OrderRepository {
+    private static final OperationMetrics ADD_METRICS = Metrics.operation("order.addBatch");
+    private static final OperationMetrics GET_BY_ID_METRICS = Metrics.operation("order.getById");
+    private static final OperationMetrics BY_BUYER_METRICS = Metrics.operation("order.byBuyer");
+
+    private static final String SELECT_ORDERS = "SELECT o.id, o.buyer_id, o.total, o.status, o.created_at, "
+            + "i.product_id, i.product_name, i.unit_price, i.quantity "
+            + "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id ";
+
+    /**
+     * Stores the orders and all their lines in one transaction, using one JDBC batch for the orders and
+     * one for the lines. Order IDs are reserved from the sequence up front so the lines can reference them
+     * without reading generated keys back.
+     *
+     * @param orders The orders to store.
+     * @return true if the transaction committed, false otherwise.
+     */
+    @Override
+    public boolean addOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return true;
+        }
+        long start = ADD_METRICS.start();
+        String orderSql = "INSERT INTO orders (id, buyer_id, total, status, created_at) VALUES (?, ?, ?, ?, ?)";
+        String itemSql = "INSERT INTO order_items (order_id, line_no, product_id, product_name, unit_price, quantity) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            int[] ids = reserveIds(conn, orders.size());
+            LocalDateTime now = LocalDateTime.now();
+            try (PreparedStatement orderStmt = conn.prepareStatement(orderSql);
+                 PreparedStatement itemStmt = conn.prepareStatement(itemSql)) {
+                for (int i = 0; i < orders.size(); i++) {
+                    Order order = orders.get(i);
+                    orderStmt.setInt(1, ids[i]);
+                    if (order.getBuyerId() > 0) {
+                        orderStmt.setInt(2, order.getBuyerId());
+                    } else {
+                        orderStmt.setNull(2, Types.INTEGER);
+                    }
+                    orderStmt.setBigDecimal(3, order.getTotal());
+                    orderStmt.setString(4, order.getStatus());
+                    orderStmt.setTimestamp(5, Timestamp.valueOf(now));
+                    orderStmt.addBatch();
+                    int line = 0;
+                    for (OrderItem item : order.getItems()) {
+                        itemStmt.setInt(1, ids[i]);
+                        itemStmt.setInt(2, ++line);
+                        itemStmt.setInt(3, item.getProductId());
+                        itemStmt.setString(4, item.getProductName());
+                        itemStmt.setBigDecimal(5, item.getUnitPrice());
+                        itemStmt.setInt(6, item.getQuantity());
+                        itemStmt.addBatch();
+                    }
+                }
+                orderStmt.executeBatch();
+                itemStmt.executeBatch();
+            }
+            conn.commit();
+            for (int i = 0; i < orders.size(); i++) {
+                orders.get(i).setId(ids[i]);
+                orders.get(i).setCreatedAt(now);
+            }
+            return true;
+        } catch (SQLException e) {
+            ADD_METRICS.failed();
+            System.err.println("Error adding orders: " + e.getMessage());
+        } finally {
+            ADD_METRICS.stop(start);
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves an order with its lines.
+     *
+     * @param orderId The ID of the order.
+     * @return The order if found, or null if not found.
+     */
+    @Override
+    public Order getOrderById(int orderId) {
+        long start = GET_BY_ID_METRICS.start();
+        String sql = SELECT_ORDERS + "WHERE o.id = ? ORDER BY i.line_no";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, orderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                List<Order> orders = mapToOrders(rs);
+                return orders.isEmpty() ? null : orders.get(0);
+            }
+        } catch (SQLException e) {
+            GET_BY_ID_METRICS.failed();
+            System.err.println("Error fetching order by ID: " + e.getMessage());
+        } finally {
+            GET_BY_ID_METRICS.stop(start);
+        }
+        return null;
+    }
+
+    /**
+     * Retrieves a buyer's orders with their lines, newest first, in one query.
+     *
+     * @param buyerId The ID of the buyer.
+     * @return The buyer's orders.
+     */
+    @Override
+    public List<Order> getOrdersByBuyerId(int buyerId) {
+        long start = BY_BUYER_METRICS.start();
+        String sql = SELECT_ORDERS + "WHERE o.buyer_id = ? ORDER BY o.id DESC, i.line_no";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, buyerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return mapToOrders(rs);
+            }
+        } catch (SQLException e) {
+            BY_BUYER_METRICS.failed();
+            System.err.println("Error fetching orders by buyer: " + e.getMessage());
+        } finally {
+            BY_BUYER_METRICS.stop(start);
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Reserves a block of IDs from the orders sequence.
+     *
+     * @param conn  The connection to use.
+     * @param count The number of IDs needed.
+     * @return The reserved IDs.
+     * @throws SQLException if an error occurs while reading the sequence.
+     */
+    private int[] reserveIds(Connection conn, int count) throws SQLException {
+        String sql = "SELECT nextval(pg_get_serial_sequence('orders', 'id')) FROM generate_series(1, ?)";
+        int[] ids = new int[count];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    ids[i++] = rs.getInt(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Folds joined order/line rows, grouped by order, into orders.
+     *
+     * @param rs The joined rows.
+     * @return The orders in row order.
+     * @throws SQLException if an error occurs while accessing the ResultSet.
+     */
+    private static List<Order> mapToOrders(ResultSet rs) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        Order current = null;
+        while (rs.next()) {
+            int id = rs.getInt("id");
+            if (current == null || current.getId() != id) {
+                current = new Order();
+                current.setId(id);
+                current.setBuyerId(rs.getInt("buyer_id"));
+                current.setStatus(rs.getString("status"));
+                current.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+                orders.add(current);
+            }
+            if (rs.getString("product_name") != null) {
+                current.getItems().add(new OrderItem(rs.getInt("product_id"), rs.getString("product_name"),
+                        rs.getBigDecimal("unit_price"), rs.getInt("quantity")));
+            }
+            // The stored total is authoritative; it was computed from the lines when the order was placed.
+            current.setTotal(rs.getBigDecimal("total"));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Order;
+import java.util.List;
+
+/**
+ * Storage contract for {@link Order} data.
+ * Implemented by the JDBC-backed {@link OrderDAO} and the in-memory {@link InMemoryOrderRepository}.
+ */
+public interface OrderRepository {
+
+    /**
+     * Stores several orders with their lines as one atomic unit: either all are stored or none is.
+     * On success the generated IDs and creation times are written back to the orders.
+     *
+     * @param orders The orders to store.
+     * @return true if every order was stored, false if none was.
+     */
+    boolean addOrders(List<Order> orders);
+
+    /**
+     * Retrieves an order with its lines.
+     *
+     * @param orderId The ID of the order.
+     * @return The order if found, or null if not found.
+     */
+    Order getOrderById(int orderId);
+
+    /**
+     * Retrieves a buyer's orders with their lines, newest first.
+     *
+     * @param buyerId The ID of the buyer.
+     * @return The buyer's orders, or an empty list if there are none.
+     */
+    List<Order> getOrdersByBuyerId(int buyerId);
+}
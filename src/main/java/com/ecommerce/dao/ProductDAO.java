@@ -1,43 +1,208 @@
 package com.ecommerce.dao;
 
+import com.ecommerce.metrics.Metrics;
+import com.ecommerce.metrics.OperationMetrics;
 import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductWithSeller;
 import com.ecommerce.util.Database;
+import com.ecommerce.util.IntObjectMap;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
 /**
  * The ProductDAO class handles data operations for the Product model,
  * including CRUD operations and retrieval of products based on specific criteria.
+ * This is the PostgreSQL-backed {@link ProductRepository}.
+ * Every operation records its calls, failures and latency under {@code product.*} in {@link Metrics}.
+ * <p>
+ * Products of a seller marked for deletion ({@link UserRepository#markForDeletion(int)}) are invisible to
+ * every read, and can no longer be updated or bought, while the seller's deletion runs.
  */
-public class ProductDAO {
+public class ProductDAO implements ProductRepository {
+    private static final int FETCH_SIZE = Integer.getInteger("ecommerce.db.fetchSize", 500);
+    private static final int BATCH_SIZE = Integer.getInteger("ecommerce.db.batchSize", 500);
+    private static final int COPY_CHUNK_ROWS = 10_000;
+    private static final String VISIBLE =
+            " NOT EXISTS (SELECT 1 FROM users u WHERE u.id = products.seller_id AND u.deleting)";
+    private static final int MULTI_GET_CHUNK = Math.max(1, Integer.getInteger("ecommerce.db.multiGetChunk", 1_000));
+
+    private static final OperationMetrics ADD_METRICS = Metrics.operation("product.add");
+    private static final OperationMetrics ADD_BATCH_METRICS = Metrics.operation("product.addBatch");
+    private static final OperationMetrics COPY_METRICS = Metrics.operation("product.copy");
+    private static final OperationMetrics GET_BY_ID_METRICS = Metrics.operation("product.getById");
+    private static final OperationMetrics GET_BY_IDS_METRICS = Metrics.operation("product.getByIds");
+    private static final OperationMetrics GET_BY_NAME_METRICS = Metrics.operation("product.getByName");
+    private static final OperationMetrics UPDATE_METRICS = Metrics.operation("product.update");
+    private static final OperationMetrics RESERVE_STOCK_METRICS = Metrics.operation("product.reserveStock");
+    private static final OperationMetrics RELEASE_STOCK_METRICS = Metrics.operation("product.releaseStock");
+    private static final OperationMetrics DELETE_METRICS = Metrics.operation("product.delete");
+    private static final OperationMetrics GET_ALL_METRICS = Metrics.operation("product.getAll");
+    private static final OperationMetrics STREAM_METRICS = Metrics.operation("product.forEach");
+    private static final OperationMetrics STREAM_WITH_SELLER_METRICS = Metrics.operation("product.forEachWithSeller");
+    private static final OperationMetrics PAGE_METRICS = Metrics.operation("product.page");
+    private static final OperationMetrics BY_SELLER_METRICS = Metrics.operation("product.bySeller");
 
     /**
-     * Adds a new product to the database.
+     * Adds a new product to the database and writes the generated ID back to it.
      *
      * @param product The product to be added.
      */
+    @Override
     public void addProduct(Product product) {
+        long start = ADD_METRICS.start();
         String sql = "INSERT INTO products (name, price, quantity, seller_id) VALUES (?, ?, ?, ?)";
-        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, product.getName());
             stmt.setBigDecimal(2, product.getPrice());
             stmt.setInt(3, product.getQuantity());
             stmt.setInt(4, product.getSellerId());
             stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    product.setId(keys.getInt(1));
+                }
+            }
+            CatalogEvents.productAdded(product);
         } catch (SQLException e) {
+            ADD_METRICS.failed();
             System.err.println("Error adding product: " + e.getMessage());
+        } finally {
+            ADD_METRICS.stop(start);
         }
     }
 
+    /**
+     * Adds many products in a single transaction using JDBC batching.
+     * Uses the batch size from {@code ecommerce.db.batchSize} (500 by default).
+     *
+     * @param products The products to be added.
+     * @return The generated IDs in iteration order, or an empty array if the insert failed.
+     */
+    @Override
+    public int[] addProducts(Collection<Product> products) {
+        return addProducts(products, BATCH_SIZE);
+    }
+
+    /**
+     * Adds many products in a single transaction, sending {@code batchSize} rows per round trip.
+     * IDs are reserved from the products sequence up front, so no generated keys have to be read back
+     * and the driver is free to rewrite each batch into one multi-row INSERT.
+     *
+     * @param products  The products to be added.
+     * @param batchSize The number of rows per executed batch.
+     * @return The generated IDs in iteration order, or an empty array if the insert failed.
+     */
+    public int[] addProducts(Collection<Product> products, int batchSize) {
+        if (products.isEmpty()) {
+            return new int[0];
+        }
+        long start = ADD_BATCH_METRICS.start();
+        int size = Math.max(1, batchSize);
+        String sql = "INSERT INTO products (id, name, price, quantity, seller_id) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            int[] ids = reserveIds(conn, products.size());
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int i = 0;
+                for (Product product : products) {
+                    stmt.setInt(1, ids[i]);
+                    stmt.setString(2, product.getName());
+                    stmt.setBigDecimal(3, product.getPrice());
+                    stmt.setInt(4, product.getQuantity());
+                    stmt.setInt(5, product.getSellerId());
+                    stmt.addBatch();
+                    if (++i % size == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+                if (i % size != 0) {
+                    stmt.executeBatch();
+                }
+            }
+            conn.commit();
+            publishAdded(products, ids);
+            return ids;
+        } catch (SQLException e) {
+            ADD_BATCH_METRICS.failed();
+            System.err.println("Error adding products: " + e.getMessage());
+        } finally {
+            ADD_BATCH_METRICS.stop(start);
+        }
+        return new int[0];
+    }
+
+    /**
+     * Adds many products through PostgreSQL's {@code COPY ... FROM STDIN}, the fastest path for very large loads.
+     * Rows are streamed in chunks so memory use stays flat; the whole load commits or fails as one transaction.
+     *
+     * @param products The products to be added.
+     * @return The generated IDs in iteration order, or an empty array if the load failed.
+     */
+    public int[] copyProducts(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return new int[0];
+        }
+        long start = COPY_METRICS.start();
+        String sql = "COPY products (id, name, price, quantity, seller_id) FROM STDIN WITH (FORMAT csv)";
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            int[] ids = reserveIds(conn, products.size());
+            CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                StringBuilder chunk = new StringBuilder();
+                int i = 0;
+                for (Product product : products) {
+                    chunk.append(ids[i]).append(',');
+                    appendCsv(chunk, product.getName());
+                    chunk.append(',');
+                    if (product.getPrice() != null) {
+                        chunk.append(product.getPrice().toPlainString());
+                    }
+                    chunk.append(',').append(product.getQuantity())
+                            .append(',').append(product.getSellerId()).append('\n');
+                    if (++i % COPY_CHUNK_ROWS == 0) {
+                        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+                        copyIn.writeToCopy(bytes, 0, bytes.length);
+                        chunk.setLength(0);
+                    }
+                }
+                byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+                copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+            conn.commit();
+            publishAdded(products, ids);
+            return ids;
+        } catch (SQLException e) {
+            COPY_METRICS.failed();
+            System.err.println("Error copying products: " + e.getMessage());
+        } finally {
+            COPY_METRICS.stop(start);
+        }
+        return new int[0];
+    }
+
     /**
      * Retrieves a product by its ID.
      *
      * @param productId The ID of the product.
      * @return The product if found, or null if not found.
      */
+    @Override
     public Product getProductById(int productId) {
-        String sql = "SELECT * FROM products WHERE id = ?";
+        long start = GET_BY_ID_METRICS.start();
+        String sql = "SELECT * FROM products WHERE id = ? AND" + VISIBLE;
         try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, productId);
             ResultSet rs = stmt.executeQuery();
@@ -45,19 +210,106 @@ public class ProductDAO {
                 return mapToProduct(rs);
             }
         } catch (SQLException e) {
+            GET_BY_ID_METRICS.failed();
             System.err.println("Error fetching product by ID: " + e.getMessage());
+        } finally {
+            GET_BY_ID_METRICS.stop(start);
         }
         return null;
     }
 
+    /**
+     * Retrieves several products with one {@code id = ANY(?)} query per chunk of
+     * {@code ecommerce.db.multiGetChunk} IDs (1000 by default), all on one connection.
+     *
+     * @param productIds The IDs of the products; duplicates are allowed.
+     * @return The products found, in the order their IDs first appear; unknown IDs are skipped.
+     */
+    @Override
+    public List<Product> getProductsByIds(int[] productIds) {
+        int[] distinct = distinctIds(productIds);
+        if (distinct.length == 0) {
+            return new ArrayList<>();
+        }
+        long start = GET_BY_IDS_METRICS.start();
+        String sql = "SELECT * FROM products WHERE id = ANY(?) AND" + VISIBLE;
+        IntObjectMap<Product> found = new IntObjectMap<>(distinct.length);
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int from = 0; from < distinct.length; from += MULTI_GET_CHUNK) {
+                int to = Math.min(distinct.length, from + MULTI_GET_CHUNK);
+                Integer[] chunk = new Integer[to - from];
+                for (int i = from; i < to; i++) {
+                    chunk[i - from] = distinct[i];
+                }
+                Array ids = conn.createArrayOf("integer", chunk);
+                try {
+                    stmt.setArray(1, ids);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Product product = mapToProduct(rs);
+                            found.put(product.getId(), product);
+                        }
+                    }
+                } finally {
+                    ids.free();
+                }
+            }
+        } catch (SQLException e) {
+            GET_BY_IDS_METRICS.failed();
+            System.err.println("Error fetching products by ID: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            GET_BY_IDS_METRICS.stop(start);
+        }
+        return inRequestOrder(distinct, found);
+    }
+
+    /**
+     * Removes repeated IDs, keeping the first occurrence of each.
+     *
+     * @param productIds The requested IDs.
+     * @return The distinct IDs in their original order.
+     */
+    static int[] distinctIds(int[] productIds) {
+        IntObjectMap<Boolean> seen = new IntObjectMap<>(productIds.length);
+        int[] distinct = new int[productIds.length];
+        int count = 0;
+        for (int id : productIds) {
+            if (seen.put(id, Boolean.TRUE) == null) {
+                distinct[count++] = id;
+            }
+        }
+        return count == distinct.length ? distinct : Arrays.copyOf(distinct, count);
+    }
+
+    /**
+     * Lists the products found for a multi-get in the order of the request.
+     *
+     * @param distinctIds The requested IDs, without repeats.
+     * @param found       The products found, by ID.
+     * @return The products in request order; IDs without a product are skipped.
+     */
+    static List<Product> inRequestOrder(int[] distinctIds, IntObjectMap<Product> found) {
+        List<Product> products = new ArrayList<>(found.size());
+        for (int id : distinctIds) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
     /**
      * Retrieves a product by its name.
      *
      * @param productName The name of the product.
      * @return The product if found, or null if not found.
      */
+    @Override
     public Product getProductByName(String productName) {
-        String sql = "SELECT * FROM products WHERE name = ?";
+        long start = GET_BY_NAME_METRICS.start();
+        String sql = "SELECT * FROM products WHERE name = ? AND" + VISIBLE;
         try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, productName);
             ResultSet rs = stmt.executeQuery();
@@ -65,7 +317,10 @@ public class ProductDAO {
                 return mapToProduct(rs);
             }
         } catch (SQLException e) {
+            GET_BY_NAME_METRICS.failed();
             System.err.println("Error fetching product by name: " + e.getMessage());
+        } finally {
+            GET_BY_NAME_METRICS.stop(start);
         }
         return null;
     }
@@ -74,37 +329,120 @@ public class ProductDAO {
      * Updates an existing product in the database.
      *
      * @param product The product with updated details.
-     * @return true if the update was successful, false otherwise.
+     * @return true if the product exists and was updated, false otherwise.
      */
+    @Override
     public boolean updateProduct(Product product) {
-        String sql = "UPDATE products SET name = ?, price = ?, quantity = ? WHERE id = ?";
+        long start = UPDATE_METRICS.start();
+        String sql = "UPDATE products SET name = ?, price = ?, quantity = ? WHERE id = ? AND" + VISIBLE;
         try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, product.getName());
             stmt.setBigDecimal(2, product.getPrice());
             stmt.setInt(3, product.getQuantity());
             stmt.setInt(4, product.getId());
-            stmt.executeUpdate();
-            return true;
+            if (stmt.executeUpdate() > 0) {
+                CatalogEvents.productUpdated(product);
+                return true;
+            }
         } catch (SQLException e) {
+            UPDATE_METRICS.failed();
             System.err.println("Error updating product: " + e.getMessage());
+        } finally {
+            UPDATE_METRICS.stop(start);
         }
         return false;
     }
 
+    /**
+     * Takes stock from a product with a single conditional UPDATE, so the check and the decrement
+     * happen atomically under the row lock and concurrent reservations cannot oversell.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The number of units to take.
+     * @return The quantity left, or -1 if the product does not exist or has too little stock.
+     */
+    @Override
+    public int reserveStock(int productId, int quantity) {
+        if (quantity <= 0) {
+            return -1;
+        }
+        long start = RESERVE_STOCK_METRICS.start();
+        String sql = "UPDATE products SET quantity = quantity - ? WHERE id = ? AND quantity >= ? AND" + VISIBLE +
+                " RETURNING quantity";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quantity);
+            stmt.setInt(2, productId);
+            stmt.setInt(3, quantity);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int remaining = rs.getInt(1);
+                    CatalogEvents.stockChanged(productId, remaining);
+                    return remaining;
+                }
+            }
+        } catch (SQLException e) {
+            RESERVE_STOCK_METRICS.failed();
+            System.err.println("Error reserving stock: " + e.getMessage());
+        } finally {
+            RESERVE_STOCK_METRICS.stop(start);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns stock to a product with a single relative UPDATE, so it cannot overwrite concurrent reservations.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The number of units to return.
+     * @return The quantity in stock afterwards, or -1 if the product does not exist.
+     */
+    @Override
+    public int releaseStock(int productId, int quantity) {
+        if (quantity <= 0) {
+            return -1;
+        }
+        long start = RELEASE_STOCK_METRICS.start();
+        String sql = "UPDATE products SET quantity = quantity + ? WHERE id = ? RETURNING quantity";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, quantity);
+            stmt.setInt(2, productId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int remaining = rs.getInt(1);
+                    CatalogEvents.stockChanged(productId, remaining);
+                    return remaining;
+                }
+            }
+        } catch (SQLException e) {
+            RELEASE_STOCK_METRICS.failed();
+            System.err.println("Error releasing stock: " + e.getMessage());
+        } finally {
+            RELEASE_STOCK_METRICS.stop(start);
+        }
+        return -1;
+    }
+
     /**
      * Deletes a product from the database by its ID.
      *
      * @param productId The ID of the product to be deleted.
-     * @return true if the deletion was successful, false otherwise.
+     * @return true if the product existed and was deleted, false otherwise.
      */
+    @Override
     public boolean deleteProduct(int productId) {
-        String sql = "DELETE FROM products WHERE id = ?";
+        long start = DELETE_METRICS.start();
+        String sql = "DELETE FROM products WHERE id = ? AND" + VISIBLE;
         try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, productId);
-            stmt.executeUpdate();
-            return true;
+            if (stmt.executeUpdate() > 0) {
+                CatalogEvents.productDeleted(productId);
+                return true;
+            }
         } catch (SQLException e) {
+            DELETE_METRICS.failed();
             System.err.println("Error deleting product: " + e.getMessage());
+        } finally {
+            DELETE_METRICS.stop(start);
         }
         return false;
     }
@@ -114,27 +452,182 @@ public class ProductDAO {
      *
      * @return A list of all products.
      */
+    @Override
     public List<Product> getAllProducts() {
+        long start = GET_ALL_METRICS.start();
         List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM products";
+        String sql = "SELECT * FROM products WHERE" + VISIBLE;
         try (Connection conn = Database.getConnection(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 products.add(mapToProduct(rs));
             }
         } catch (SQLException e) {
+            GET_ALL_METRICS.failed();
             System.err.println("Error fetching all products: " + e.getMessage());
+        } finally {
+            GET_ALL_METRICS.stop(start);
+        }
+        return products;
+    }
+
+    /**
+     * Streams all products ordered by ID through a server-side cursor.
+     * Autocommit is switched off so the driver honours the fetch size and only
+     * {@code ecommerce.db.fetchSize} rows are held in memory at a time.
+     *
+     * @param action The callback receiving each product.
+     */
+    @Override
+    public void forEachProduct(Consumer<Product> action) {
+        long start = STREAM_METRICS.start();
+        String sql = "SELECT * FROM products WHERE" + VISIBLE + " ORDER BY id";
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(mapToProduct(rs));
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            STREAM_METRICS.failed();
+            System.err.println("Error streaming products: " + e.getMessage());
+        } finally {
+            STREAM_METRICS.stop(start);
+        }
+    }
+
+    /**
+     * Streams all products ordered by ID, joined with their sellers' usernames and emails,
+     * through a server-side cursor in a single query.
+     *
+     * @param action The callback receiving each product and seller.
+     */
+    @Override
+    public void forEachProductWithSeller(Consumer<ProductWithSeller> action) {
+        long start = STREAM_WITH_SELLER_METRICS.start();
+        String sql = "SELECT p.*, u.username AS seller_username, u.email AS seller_email " +
+                "FROM products p LEFT JOIN users u ON u.id = p.seller_id WHERE u.deleting IS NOT TRUE ORDER BY p.id";
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(new ProductWithSeller(mapToProduct(rs), rs.getString("seller_username"), rs.getString("seller_email")));
+                    }
+                }
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            STREAM_WITH_SELLER_METRICS.failed();
+            System.err.println("Error streaming products with sellers: " + e.getMessage());
+        } finally {
+            STREAM_WITH_SELLER_METRICS.stop(start);
+        }
+    }
+
+    /**
+     * Retrieves one page of products ordered by ID using keyset pagination,
+     * so every page costs an index range scan regardless of how deep it is.
+     *
+     * @param afterId The last ID of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of products to return.
+     * @return Up to {@code limit} products with IDs greater than {@code afterId}.
+     */
+    @Override
+    public List<Product> getProductsPage(int afterId, int limit) {
+        long start = PAGE_METRICS.start();
+        List<Product> products = new ArrayList<>(Math.max(0, Math.min(limit, 1_000)));
+        String sql = "SELECT * FROM products WHERE id > ? AND" + VISIBLE + " ORDER BY id LIMIT ?";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapToProduct(rs));
+                }
+            }
+        } catch (SQLException e) {
+            PAGE_METRICS.failed();
+            System.err.println("Error fetching product page: " + e.getMessage());
+        } finally {
+            PAGE_METRICS.stop(start);
         }
         return products;
     }
 
+    /**
+     * Reserves a block of IDs from the products sequence.
+     *
+     * @param conn  The connection to use.
+     * @param count The number of IDs needed.
+     * @return The reserved IDs.
+     * @throws SQLException if an error occurs while reading the sequence.
+     */
+    private int[] reserveIds(Connection conn, int count) throws SQLException {
+        String sql = "SELECT nextval(pg_get_serial_sequence('products', 'id')) FROM generate_series(1, ?)";
+        int[] ids = new int[count];
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, count);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    ids[i++] = rs.getInt(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Writes the reserved IDs back to the products and announces them to catalog listeners.
+     *
+     * @param products The inserted products.
+     * @param ids      Their IDs, in iteration order.
+     */
+    private void publishAdded(Collection<Product> products, int[] ids) {
+        int i = 0;
+        for (Product product : products) {
+            product.setId(ids[i++]);
+            CatalogEvents.productAdded(product);
+        }
+    }
+
+    /**
+     * Appends a value as a quoted CSV field, or as an empty unquoted field, which COPY reads as NULL, if it is null.
+     *
+     * @param out   The buffer to append to.
+     * @param value The field value.
+     */
+    private static void appendCsv(StringBuilder out, String value) {
+        if (value == null) {
+            // Rejected by the NOT NULL column, failing the load as the batch insert would.
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+
     /**
      * Maps a ResultSet row to a Product object.
+     * Package-private so the benchmark module can measure it against a stub ResultSet.
      *
      * @param rs The ResultSet row.
      * @return The Product object.
      * @throws SQLException if an error occurs while accessing the ResultSet.
      */
-    private Product mapToProduct(ResultSet rs) throws SQLException {
+    static Product mapToProduct(ResultSet rs) throws SQLException {
         Product product = new Product();
         product.setId(rs.getInt("id"));
         product.setName(rs.getString("name"));
@@ -150,9 +643,11 @@ public class ProductDAO {
      * @param sellerId The ID of the seller.
      * @return A list of products belonging to the seller.
      */
+    @Override
     public List<Product> getProductsBySellerId(int sellerId) {
+        long start = BY_SELLER_METRICS.start();
         List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM products WHERE seller_id = ?";
+        String sql = "SELECT * FROM products WHERE seller_id = ? AND" + VISIBLE;
         try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, sellerId);
             ResultSet rs = stmt.executeQuery();
@@ -160,7 +655,10 @@ public class ProductDAO {
                 products.add(mapToProduct(rs));
             }
         } catch (SQLException e) {
+            BY_SELLER_METRICS.failed();
             System.err.println("Error fetching products by seller: " + e.getMessage());
+        } finally {
+            BY_SELLER_METRICS.stop(start);
         }
         return products;
     }
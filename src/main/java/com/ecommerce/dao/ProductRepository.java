@@ -0,0 +1,129 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductWithSeller;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage contract for {@link Product} data.
+ * Implemented by the JDBC-backed {@link ProductDAO} and the in-memory {@link InMemoryProductRepository}.
+ */
+public interface ProductRepository {
+
+    /**
+     * Adds a new product. On success the generated ID is written back to {@code product}.
+     *
+     * @param product The product to be added.
+     */
+    void addProduct(Product product);
+
+    /**
+     * Adds many products in one operation. On success the generated IDs are written back to the products.
+     *
+     * @param products The products to be added.
+     * @return The generated IDs in iteration order, or an empty array if nothing was added.
+     */
+    int[] addProducts(Collection<Product> products);
+
+    /**
+     * Retrieves a product by its ID.
+     *
+     * @param productId The ID of the product.
+     * @return The product if found, or null if not found.
+     */
+    Product getProductById(int productId);
+
+    /**
+     * Retrieves several products by ID in one call, e.g. for the lines of a cart or an order.
+     *
+     * @param productIds The IDs of the products; duplicates are allowed.
+     * @return The products found, in the order their IDs first appear; unknown IDs are skipped.
+     */
+    List<Product> getProductsByIds(int[] productIds);
+
+    /**
+     * Retrieves a product by its name.
+     *
+     * @param productName The name of the product.
+     * @return The product if found, or null if not found.
+     */
+    Product getProductByName(String productName);
+
+    /**
+     * Updates the name, price and quantity of an existing product.
+     *
+     * @param product The product with updated details.
+     * @return true if the update was successful, false otherwise.
+     */
+    boolean updateProduct(Product product);
+
+    /**
+     * Atomically takes stock from a product if at least {@code quantity} units remain, so concurrent
+     * purchases can never drive the quantity below zero.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The number of units to take; must be positive.
+     * @return The quantity left after the reservation, or -1 if the product does not exist,
+     *         has fewer than {@code quantity} units, or the reservation failed.
+     */
+    int reserveStock(int productId, int quantity);
+
+    /**
+     * Atomically returns previously reserved units to a product's stock, e.g. when an order cannot be stored.
+     *
+     * @param productId The ID of the product.
+     * @param quantity  The number of units to return; must be positive.
+     * @return The quantity in stock afterwards, or -1 if the product no longer exists or the update failed.
+     */
+    int releaseStock(int productId, int quantity);
+
+    /**
+     * Deletes a product by its ID.
+     *
+     * @param productId The ID of the product to be deleted.
+     * @return true if the deletion was successful, false otherwise.
+     */
+    boolean deleteProduct(int productId);
+
+    /**
+     * Retrieves all products.
+     * This materializes the whole catalog; prefer {@link #forEachProduct(Consumer)} or
+     * {@link #getProductsPage(int, int)} for large catalogs.
+     *
+     * @return A list of all products.
+     */
+    List<Product> getAllProducts();
+
+    /**
+     * Streams every product, ordered by ID, to a callback without holding the catalog in memory.
+     *
+     * @param action The callback receiving each product.
+     */
+    void forEachProduct(Consumer<Product> action);
+
+    /**
+     * Streams every product, ordered by ID, together with its seller's username and email.
+     *
+     * @param action The callback receiving each product and seller.
+     */
+    void forEachProductWithSeller(Consumer<ProductWithSeller> action);
+
+    /**
+     * Retrieves one page of products ordered by ID, starting after a given ID (keyset pagination).
+     *
+     * @param afterId The last ID of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of products to return.
+     * @return Up to {@code limit} products with IDs greater than {@code afterId}.
+     */
+    List<Product> getProductsPage(int afterId, int limit);
+
+    /**
+     * Retrieves products for a specific seller by their ID.
+     *
+     * @param sellerId The ID of the seller.
+     * @return A list of products belonging to the seller.
+     */
+    List<Product> getProductsBySellerId(int sellerId);
+}
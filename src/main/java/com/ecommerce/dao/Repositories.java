@@ -0,0 +1,115 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.util.BoundedVirtualExecutor;
+import com.ecommerce.util.Database;
+
+/**
+ * Hands out the shared repositories for the configured {@link StorageEngine}.
+ * The engine is chosen once, from the {@code ecommerce.storage} system property.
+ * JDBC product reads are fronted by a {@link CachingProductRepository} unless
+ * {@code ecommerce.cache.enabled} is set to {@code false}.
+ * <p>
+ * The asynchronous facades share one {@link BoundedVirtualExecutor}. It runs at most as many calls at once as
+ * the connection pool has connections (or {@code ecommerce.async.maxConcurrency}), and each call times out after
+ * {@code ecommerce.async.timeoutMillis} (5000 by default).
+ */
+public final class Repositories {
+    private static final StorageEngine ENGINE = StorageEngine.fromSystemProperties();
+    private static final ProductRepository PRODUCTS;
+    private static final UserRepository USERS;
+    private static final OrderRepository ORDERS;
+    private static final CachingProductRepository PRODUCT_CACHE;
+
+    static {
+        if (ENGINE == StorageEngine.MEMORY) {
+            InMemoryProductRepository products = new InMemoryProductRepository();
+            PRODUCTS = products;
+            USERS = new InMemoryUserRepository(products);
+            ORDERS = new InMemoryOrderRepository();
+            PRODUCT_CACHE = null;
+        } else {
+            boolean cached = Boolean.parseBoolean(System.getProperty("ecommerce.cache.enabled", "true"));
+            PRODUCT_CACHE = cached ? new CachingProductRepository(new ProductDAO()) : null;
+            PRODUCTS = cached ? PRODUCT_CACHE : new ProductDAO();
+            USERS = new UserDAO();
+            ORDERS = new OrderDAO();
+        }
+    }
+
+    private Repositories() {}
+
+    /**
+     * Created on first use, so the executor and, for JDBC, the pool it is sized from only exist when needed.
+     */
+    private static final class Async {
+        private static final BoundedVirtualExecutor EXECUTOR = new BoundedVirtualExecutor("async-dao",
+                Integer.getInteger("ecommerce.async.maxConcurrency",
+                        ENGINE == StorageEngine.MEMORY ? 256 : Database.getPool().getConfig().getMaxSize()));
+        private static final long TIMEOUT_MILLIS = Long.getLong("ecommerce.async.timeoutMillis", 5_000);
+        private static final AsyncProductRepository PRODUCTS = new AsyncProductRepository(Repositories.PRODUCTS, EXECUTOR, TIMEOUT_MILLIS);
+        private static final AsyncUserRepository USERS = new AsyncUserRepository(Repositories.USERS, EXECUTOR, TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Gets the configured storage engine.
+     *
+     * @return the active {@link StorageEngine}.
+     */
+    public static StorageEngine engine() {
+        return ENGINE;
+    }
+
+    /**
+     * Gets the shared product repository.
+     *
+     * @return the {@link ProductRepository} for the active engine.
+     */
+    public static ProductRepository products() {
+        return PRODUCTS;
+    }
+
+    /**
+     * Gets the shared user repository.
+     *
+     * @return the {@link UserRepository} for the active engine.
+     */
+    public static UserRepository users() {
+        return USERS;
+    }
+
+    /**
+     * Gets the shared order repository.
+     *
+     * @return the {@link OrderRepository} for the active engine.
+     */
+    public static OrderRepository orders() {
+        return ORDERS;
+    }
+
+    /**
+     * Gets the product cache, e.g. to read its hit/miss/eviction counters.
+     *
+     * @return the shared {@link CachingProductRepository}, or null if caching is disabled or not used by the engine.
+     */
+    public static CachingProductRepository productCache() {
+        return PRODUCT_CACHE;
+    }
+
+    /**
+     * Gets the asynchronous facade over the shared product repository.
+     *
+     * @return the {@link AsyncProductRepository} with the default per-call timeout.
+     */
+    public static AsyncProductRepository asyncProducts() {
+        return Async.PRODUCTS;
+    }
+
+    /**
+     * Gets the asynchronous facade over the shared user repository.
+     *
+     * @return the {@link AsyncUserRepository} with the default per-call timeout.
+     */
+    public static AsyncUserRepository asyncUsers() {
+        return Async.USERS;
+    }
+}
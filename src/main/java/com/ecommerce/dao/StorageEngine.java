@@ -0,0 +1,25 @@
+package com.ecommerce.dao;
+
+/**
+ * The storage engines that can back the repositories handed out by {@link Repositories}.
+ */
+public enum StorageEngine {
+    /** PostgreSQL through JDBC ({@link ProductDAO}, {@link UserDAO}). */
+    JDBC,
+    /** Process-local, lock-striped maps ({@link InMemoryProductRepository}, {@link InMemoryUserRepository}). */
+    MEMORY;
+
+    /**
+     * Resolves the engine from the {@code ecommerce.storage} system property ({@code jdbc} or {@code memory}).
+     *
+     * @return the configured engine, {@link #JDBC} by default.
+     */
+    public static StorageEngine fromSystemProperties() {
+        String value = System.getProperty("ecommerce.storage", "jdbc");
+        return switch (value.trim().toLowerCase()) {
+            case "memory", "in-memory" -> MEMORY;
+            case "jdbc", "postgres" -> JDBC;
+            default -> throw new IllegalArgumentException("Unknown storage engine: " + value);
+        };
+    }
+}
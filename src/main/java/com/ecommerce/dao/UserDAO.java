@@ -1,5 +1,7 @@
 package com.ecommerce.dao;
 
+import com.ecommerce.metrics.Metrics;
+import com.ecommerce.metrics.OperationMetrics;
 import com.ecommerce.model.Admin;
 import com.ecommerce.model.Buyer;
 import com.ecommerce.model.Seller;
@@ -8,29 +10,60 @@ import com.ecommerce.util.Database;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object (DAO) for managing User-related database operations.
- * This class provides methods to perform CRUD operations for users.
+ * This class provides methods to perform CRUD operations for users
+ * and is the PostgreSQL-backed {@link UserRepository}.
+ * Every operation records its calls, failures and latency under {@code user.*} in {@link Metrics}.
  */
-public class UserDAO {
+public class UserDAO implements UserRepository {
+    private static final OperationMetrics REGISTER_METRICS = Metrics.operation("user.register");
+    private static final OperationMetrics GET_BY_EMAIL_METRICS = Metrics.operation("user.getByEmail");
+    private static final OperationMetrics GET_ALL_METRICS = Metrics.operation("user.getAll");
+    private static final OperationMetrics FOR_EACH_EMAIL_METRICS = Metrics.operation("user.forEachEmail");
+    private static final OperationMetrics FOR_EACH_SELLER_METRICS = Metrics.operation("user.forEachSeller");
+    private static final int FETCH_SIZE = Integer.getInteger("ecommerce.db.fetchSize", 500);
+    private static final OperationMetrics UPDATE_PASSWORD_METRICS = Metrics.operation("user.updatePassword");
+    private static final OperationMetrics DELETE_METRICS = Metrics.operation("user.delete");
+    private static final OperationMetrics MARK_FOR_DELETION_METRICS = Metrics.operation("user.markForDeletion");
+    private static final OperationMetrics DELETE_PRODUCTS_CHUNK_METRICS = Metrics.operation("user.deleteProductsChunk");
+    private static final OperationMetrics COUNT_PRODUCTS_METRICS = Metrics.operation("user.countProducts");
+    private static final OperationMetrics PENDING_DELETION_METRICS = Metrics.operation("user.pendingDeletion");
 
     /**
-     * Registers a new user in the database.
+     * Registers a new user in the database in a single statement.
+     * A taken email address is detected by the unique constraint itself, so there is no window between
+     * checking for the address and inserting it.
      *
      * @param user The user object containing the username, password, email, and role to be registered.
+     * @return true if the user was registered, false if the email is taken or the insert failed.
      */
-    public void registerUser(User user) {
-        String sql = "INSERT INTO Users (username, password, email, role) VALUES (?, ?, ?, ?)";
+    @Override
+    public boolean registerUser(User user) {
+        long start = REGISTER_METRICS.start();
+        String sql = "INSERT INTO Users (username, password, email, role) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (email) DO NOTHING RETURNING id";
         try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getPassword());
             stmt.setString(3, user.getEmail());
             stmt.setString(4, user.getRole());
-            stmt.executeUpdate();
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    user.setId(rs.getInt(1));
+                    UserEvents.userRegistered(user);
+                    return true;
+                }
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
+            REGISTER_METRICS.failed();
+            System.err.println("Error registering user: " + e.getMessage());
+        } finally {
+            REGISTER_METRICS.stop(start);
         }
+        return false;
     }
 
     /**
@@ -39,8 +72,10 @@ public class UserDAO {
      * @param email The email address of the user to be retrieved.
      * @return A User object if the user is found, or null if no user exists with the given email.
      */
+    @Override
     public User getUserByEmail(String email) {
-        String sql = "SELECT * FROM Users WHERE email = ?";
+        long start = GET_BY_EMAIL_METRICS.start();
+        String sql = "SELECT * FROM Users WHERE email = ? AND NOT deleting";
         try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             ResultSet rs = stmt.executeQuery();
@@ -59,7 +94,10 @@ public class UserDAO {
                 return user;
             }
         } catch (SQLException e) {
+            GET_BY_EMAIL_METRICS.failed();
             e.printStackTrace();
+        } finally {
+            GET_BY_EMAIL_METRICS.stop(start);
         }
         return null;
     }
@@ -69,7 +107,9 @@ public class UserDAO {
      *
      * @return A list of User objects, or an empty list if no users exist.
      */
+    @Override
     public List<User> getAllUsers() {
+        long start = GET_ALL_METRICS.start();
         List<User> users = new ArrayList<>();
         String sql = "SELECT * FROM users";
 
@@ -78,29 +118,106 @@ public class UserDAO {
              ResultSet resultSet = preparedStatement.executeQuery()) {
 
             while (resultSet.next()) {
-                String role = resultSet.getString("role");
-                User user = switch (role.toLowerCase()) {
-                    case "buyer" -> new Buyer();
-                    case "seller" -> new Seller();
-                    case "admin" -> new Admin();
-                    default -> null;
-                };
-
+                User user = mapToUser(resultSet);
                 if (user != null) {
-                    user.setId(resultSet.getInt("id"));
-                    user.setUsername(resultSet.getString("username"));
-                    user.setPassword(resultSet.getString("password"));
-                    user.setEmail(resultSet.getString("email"));
-                    user.setRole(role);
                     users.add(user);
                 }
             }
         } catch (SQLException e) {
+            GET_ALL_METRICS.failed();
             System.out.println("Error fetching all users: " + e.getMessage());
+        } finally {
+            GET_ALL_METRICS.stop(start);
         }
         return users;
     }
 
+    /**
+     * Streams every user's email address from a database cursor.
+     *
+     * @param consumer receives each email address.
+     */
+    @Override
+    public void forEachEmail(Consumer<String> consumer) {
+        long start = FOR_EACH_EMAIL_METRICS.start();
+        String sql = "SELECT email FROM users";
+        try (Connection connection = Database.getConnection()) {
+            // The driver only honours the fetch size inside a transaction.
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        consumer.accept(resultSet.getString(1));
+                    }
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            FOR_EACH_EMAIL_METRICS.failed();
+            System.err.println("Error streaming user emails: " + e.getMessage());
+        } finally {
+            FOR_EACH_EMAIL_METRICS.stop(start);
+        }
+    }
+
+    /**
+     * Streams every seller's ID, username and email from a database cursor.
+     *
+     * @param consumer receives each seller.
+     */
+    @Override
+    public void forEachSeller(Consumer<User> consumer) {
+        long start = FOR_EACH_SELLER_METRICS.start();
+        String sql = "SELECT id, username, email, role FROM users WHERE lower(role) = 'seller' AND NOT deleting ORDER BY id";
+        try (Connection connection = Database.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                preparedStatement.setFetchSize(FETCH_SIZE);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Seller seller = new Seller();
+                        seller.setId(resultSet.getInt("id"));
+                        seller.setUsername(resultSet.getString("username"));
+                        seller.setEmail(resultSet.getString("email"));
+                        seller.setRole(resultSet.getString("role"));
+                        consumer.accept(seller);
+                    }
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            FOR_EACH_SELLER_METRICS.failed();
+            System.err.println("Error streaming sellers: " + e.getMessage());
+        } finally {
+            FOR_EACH_SELLER_METRICS.stop(start);
+        }
+    }
+
+    /**
+     * Replaces a user's stored password hash.
+     *
+     * @param userId         The ID of the user.
+     * @param hashedPassword The new password hash.
+     * @return true if the user exists and was updated, false otherwise.
+     */
+    @Override
+    public boolean updatePassword(int userId, String hashedPassword) {
+        long start = UPDATE_PASSWORD_METRICS.start();
+        String sql = "UPDATE users SET password = ? WHERE id = ?";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, hashedPassword);
+            stmt.setInt(2, userId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            UPDATE_PASSWORD_METRICS.failed();
+            System.err.println("Error updating password: " + e.getMessage());
+        } finally {
+            UPDATE_PASSWORD_METRICS.stop(start);
+        }
+        return false;
+    }
+
     /**
      * Deletes a user from the database by their unique ID.
      * Ensures associated products are handled to avoid foreign key constraint violations.
@@ -108,7 +225,9 @@ public class UserDAO {
      * @param userId The ID of the user to be deleted.
      * @return true if the user was successfully deleted, false otherwise.
      */
+    @Override
     public boolean deleteUser(int userId) {
+        long start = DELETE_METRICS.start();
         String deleteProductsSql = "DELETE FROM products WHERE seller_id = ?";
         String deleteUserSql = "DELETE FROM users WHERE id = ?";
 
@@ -128,16 +247,149 @@ public class UserDAO {
 
                 if (rowsAffected > 0) {
                     connection.commit(); // Commit transaction
+                    CatalogEvents.sellerProductsDeleted(userId);
+                    UserEvents.userDeleted(userId);
                     return true;
                 } else {
                     connection.rollback(); // Rollback if no user was deleted
                 }
             }
         } catch (SQLException e) {
+            DELETE_METRICS.failed();
             System.out.println("Error deleting user: " + e.getMessage());
+        } finally {
+            DELETE_METRICS.stop(start);
         }
         return false;
     }
 
+    /**
+     * Marks a user for deletion in its own transaction. From then on the user's products fail the visibility
+     * check of every {@link ProductDAO} read, so they disappear at once without touching the product rows.
+     *
+     * @param userId The ID of the user.
+     * @return true if the user exists and is now marked, false otherwise.
+     */
+    @Override
+    public boolean markForDeletion(int userId) {
+        long start = MARK_FOR_DELETION_METRICS.start();
+        String sql = "UPDATE users SET deleting = TRUE WHERE id = ?";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            if (stmt.executeUpdate() > 0) {
+                CatalogEvents.sellerProductsDeleted(userId);
+                return true;
+            }
+        } catch (SQLException e) {
+            MARK_FOR_DELETION_METRICS.failed();
+            System.err.println("Error marking user for deletion: " + e.getMessage());
+        } finally {
+            MARK_FOR_DELETION_METRICS.stop(start);
+        }
+        return false;
+    }
+
+    /**
+     * Deletes up to {@code limit} of a seller's products in a single auto-committed statement,
+     * so row locks are held only for one chunk.
+     *
+     * @param sellerId The ID of the seller.
+     * @param limit    The maximum number of products to delete.
+     * @return The number of products deleted, or -1 if the delete failed.
+     */
+    @Override
+    public int deleteSellerProducts(int sellerId, int limit) {
+        long start = DELETE_PRODUCTS_CHUNK_METRICS.start();
+        String sql = "DELETE FROM products WHERE id IN (SELECT id FROM products WHERE seller_id = ? LIMIT ?)";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, sellerId);
+            stmt.setInt(2, limit);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            DELETE_PRODUCTS_CHUNK_METRICS.failed();
+            System.err.println("Error deleting seller products: " + e.getMessage());
+        } finally {
+            DELETE_PRODUCTS_CHUNK_METRICS.stop(start);
+        }
+        return -1;
+    }
+
+    /**
+     * Counts a seller's products, reading at most {@code cap} rows.
+     *
+     * @param sellerId The ID of the seller.
+     * @param cap      The count to stop at.
+     * @return The number of products, at most {@code cap}, or -1 if the count failed.
+     */
+    @Override
+    public int countSellerProducts(int sellerId, int cap) {
+        long start = COUNT_PRODUCTS_METRICS.start();
+        String sql = "SELECT count(*) FROM (SELECT 1 FROM products WHERE seller_id = ? LIMIT ?) capped";
+        try (Connection conn = Database.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, sellerId);
+            stmt.setInt(2, cap);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        } catch (SQLException e) {
+            COUNT_PRODUCTS_METRICS.failed();
+            System.err.println("Error counting seller products: " + e.getMessage());
+        } finally {
+            COUNT_PRODUCTS_METRICS.stop(start);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the users marked for deletion.
+     *
+     * @return The IDs of the marked users, in ascending order.
+     */
+    @Override
+    public int[] getUsersPendingDeletion() {
+        long start = PENDING_DELETION_METRICS.start();
+        String sql = "SELECT id FROM users WHERE deleting ORDER BY id";
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            PENDING_DELETION_METRICS.failed();
+            System.err.println("Error fetching users pending deletion: " + e.getMessage());
+        } finally {
+            PENDING_DELETION_METRICS.stop(start);
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Maps a ResultSet row to the {@link User} subclass for its role.
+     * Package-private so the benchmark module can measure it against a stub ResultSet.
+     *
+     * @param resultSet The ResultSet row.
+     * @return The user, or null if the role is not recognised.
+     * @throws SQLException if an error occurs while accessing the ResultSet.
+     */
+    static User mapToUser(ResultSet resultSet) throws SQLException {
+        String role = resultSet.getString("role");
+        User user = switch (role.toLowerCase()) {
+            case "buyer" -> new Buyer();
+            case "seller" -> new Seller();
+            case "admin" -> new Admin();
+            default -> null;
+        };
+
+        if (user != null) {
+            user.setId(resultSet.getInt("id"));
+            user.setUsername(resultSet.getString("username"));
+            user.setPassword(resultSet.getString("password"));
+            user.setEmail(resultSet.getString("email"));
+            user.setRole(role);
+        }
+        return user;
+    }
 }
 
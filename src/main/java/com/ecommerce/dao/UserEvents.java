@@ -0,0 +1,65 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.User;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Publishes user changes from the repositories to registered {@link UserListener}s,
+ * so directories built on top of the user table stay current.
+ */
+public final class UserEvents {
+    private static final List<UserListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private UserEvents() {}
+
+    /**
+     * Registers a listener for all subsequent changes.
+     *
+     * @param listener the listener to add.
+     */
+    public static void register(UserListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    /**
+     * Stops delivering changes to a listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public static void unregister(UserListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    static void userRegistered(User user) {
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+        User published = new User() {
+            @Override
+            public void displayMenu() {
+            }
+        };
+        published.setId(user.getId());
+        published.setUsername(user.getUsername());
+        published.setEmail(user.getEmail());
+        published.setRole(user.getRole());
+        for (UserListener listener : LISTENERS) {
+            try {
+                listener.userRegistered(published);
+            } catch (RuntimeException e) {
+                System.err.println("User listener failed on register: " + e.getMessage());
+            }
+        }
+    }
+
+    static void userDeleted(int userId) {
+        for (UserListener listener : LISTENERS) {
+            try {
+                listener.userDeleted(userId);
+            } catch (RuntimeException e) {
+                System.err.println("User listener failed on delete: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.User;
+
+/**
+ * Receives user changes after they have been committed to storage.
+ * Callbacks run synchronously on the writing thread, so they must be quick and must not throw.
+ * Register listeners with {@link UserEvents}.
+ */
+public interface UserListener {
+
+    /**
+     * Called after a user has been registered.
+     *
+     * @param user the new user, including its generated ID. The password hash is not included.
+     */
+    default void userRegistered(User user) {}
+
+    /**
+     * Called after a user has been deleted.
+     *
+     * @param userId the ID of the deleted user.
+     */
+    default void userDeleted(int userId) {}
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.User;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage contract for {@link User} data.
+ * Implemented by the JDBC-backed {@link UserDAO} and the in-memory {@link InMemoryUserRepository}.
+ */
+public interface UserRepository {
+
+    /**
+     * Registers a new user unless the email address is already taken.
+     * On success the generated ID is set on {@code user}.
+     *
+     * @param user The user object containing the username, password, email, and role to be registered.
+     * @return true if the user was registered, false if the email is taken or the user could not be stored.
+     */
+    boolean registerUser(User user);
+
+    /**
+     * Retrieves a user by their email address.
+     *
+     * @param email The email address of the user to be retrieved.
+     * @return A User object if the user is found, or null if no user exists with the given email.
+     */
+    User getUserByEmail(String email);
+
+    /**
+     * Streams the email address of every user without loading the users themselves.
+     *
+     * @param consumer receives each email address.
+     */
+    void forEachEmail(Consumer<String> consumer);
+
+    /**
+     * Streams every seller's ID, username and email, ordered by ID, without loading password hashes.
+     *
+     * @param consumer receives each seller.
+     */
+    void forEachSeller(Consumer<User> consumer);
+
+    /**
+     * Retrieves all users.
+     *
+     * @return A list of User objects, or an empty list if no users exist.
+     */
+    List<User> getAllUsers();
+
+    /**
+     * Replaces a user's stored password hash, e.g. after rehashing it at a new cost.
+     *
+     * @param userId         The ID of the user.
+     * @param hashedPassword The new password hash.
+     * @return true if the user exists and was updated, false otherwise.
+     */
+    boolean updatePassword(int userId, String hashedPassword);
+
+    /**
+     * Deletes a user by their unique ID, together with any products they sell.
+     *
+     * @param userId The ID of the user to be deleted.
+     * @return true if the user was successfully deleted, false otherwise.
+     */
+    boolean deleteUser(int userId);
+
+    /**
+     * Marks a user for deletion and hides their products from every product read, ahead of deleting
+     * the products in chunks with {@link #deleteSellerProducts(int, int)} and the user with {@link #deleteUser(int)}.
+     * Marked users can no longer be looked up by email.
+     *
+     * @param userId The ID of the user.
+     * @return true if the user exists and is now marked, false otherwise.
+     */
+    boolean markForDeletion(int userId);
+
+    /**
+     * Deletes up to {@code limit} of a seller's products in one short transaction.
+     *
+     * @param sellerId The ID of the seller.
+     * @param limit    The maximum number of products to delete.
+     * @return The number of products deleted, or -1 if the delete failed.
+     */
+    int deleteSellerProducts(int sellerId, int limit);
+
+    /**
+     * Counts a seller's products, stopping at a cap so large catalogs are not counted in full.
+     *
+     * @param sellerId The ID of the seller.
+     * @param cap      The count to stop at.
+     * @return The number of products, at most {@code cap}, or -1 if they could not be counted.
+     */
+    int countSellerProducts(int sellerId, int cap);
+
+    /**
+     * Gets the users marked for deletion whose deletion has not finished, e.g. after a restart.
+     *
+     * @return The IDs of the marked users, in ascending order.
+     */
+    int[] getUsersPendingDeletion();
+}
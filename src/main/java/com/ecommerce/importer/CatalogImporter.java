@@ -0,0 +1,340 @@
+package com.ecommerce.importer;
+
+import com.ecommerce.dao.ProductRepository;
+import com.ecommerce.model.Product;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Imports a catalog file into a {@link ProductRepository} through a three-stage pipeline.
+ * <ol>
+ *   <li>The calling thread reads the file through memory-mapped windows and cuts it into chunks of lines.</li>
+ *   <li>A fixed pool of workers parses and validates each chunk into products and row errors.</li>
+ *   <li>A single writer thread commits chunks in file order with {@link ProductRepository#addProducts}.</li>
+ * </ol>
+ * Chunks travel from reader to writer through a bounded queue of futures, so the reader blocks once the
+ * writer falls {@code queueCapacity} chunks behind and memory use stays flat however large the file is.
+ * <p>
+ * Rejected rows are written to {@code <file>.errors} with their line numbers. After every committed chunk
+ * the last covered line is recorded in {@code <file>.checkpoint}; a later run over the same file resumes
+ * after that line unless {@link ImportOptions#isRestart()} is set. The checkpoint is removed once the whole
+ * file has been imported.
+ */
+public class CatalogImporter {
+    private static final String CHECKPOINT_LINE = "line";
+    private static final String CHECKPOINT_SIZE = "size";
+
+    private final ProductRepository repository;
+    private final ImportOptions options;
+    private final Path checkpointFile;
+    private final Path errorFile;
+
+    /**
+     * Creates an importer.
+     *
+     * @param repository the repository that receives the products.
+     * @param options    the import settings.
+     */
+    public CatalogImporter(ProductRepository repository, ImportOptions options) {
+        this.repository = repository;
+        this.options = options;
+        this.checkpointFile = options.getFile().resolveSibling(options.getFile().getFileName() + ".checkpoint");
+        this.errorFile = options.getFile().resolveSibling(options.getFile().getFileName() + ".errors");
+    }
+
+    /**
+     * Runs the import to completion or until a chunk cannot be written.
+     * Progress is printed periodically while the import runs.
+     *
+     * @return the final counters.
+     * @throws IOException if the input, checkpoint or error file cannot be read or written.
+     */
+    public ImportReport run() throws IOException {
+        ImportReport report = new ImportReport();
+        if (options.isRestart()) {
+            Files.deleteIfExists(checkpointFile);
+        }
+        long resumeAfter = readCheckpoint();
+        if (resumeAfter > 0) {
+            System.out.println("Resuming " + options.getFile() + " after line " + resumeAfter + ".");
+        }
+
+        ExecutorService parsers = Executors.newFixedThreadPool(options.getWorkers(), runnable -> {
+            Thread thread = new Thread(runnable, "import-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        BlockingQueue<Future<ParsedChunk>> queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        StandardOpenOption mode = resumeAfter > 0 ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+
+        try (MappedLineReader reader = new MappedLineReader(options.getFile());
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            Writer writer = new Writer(queue, errors, report, reader.getSize());
+            Thread writerThread = new Thread(writer, "import-writer");
+            writerThread.start();
+            Thread progressThread = startProgress(report, reader.getSize());
+            try {
+                readChunks(reader, resumeAfter, parsers, queue, writer, report);
+            } finally {
+                queue.put(ParsedChunk.END);
+                writerThread.join();
+                progressThread.interrupt();
+            }
+            if (writer.failure != null) {
+                throw writer.failure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            report.failed("Interrupted");
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        if (report.getFailure() == null) {
+            report.completed();
+            Files.deleteIfExists(checkpointFile);
+        }
+        if (report.getRowsRejected() == 0 && resumeAfter == 0) {
+            Files.deleteIfExists(errorFile);
+        }
+        return report;
+    }
+
+    /**
+     * Reads the file, skips already committed lines and hands chunks to the parse workers.
+     * Stops early if the writer has failed, since nothing after the failed chunk may be committed.
+     */
+    private void readChunks(MappedLineReader reader, long resumeAfter, ExecutorService parsers,
+                            BlockingQueue<Future<ParsedChunk>> queue, Writer writer, ImportReport report)
+            throws IOException, InterruptedException {
+        RowParser parser = null;
+        List<String> lines = new ArrayList<>(options.getChunkSize());
+        long firstLine = 0;
+        String line;
+        while ((line = reader.nextLine()) != null && !writer.stopped) {
+            report.lineRead();
+            long lineNumber = reader.getLineNumber();
+            if (parser == null) {
+                parser = createParser(line);
+                if (parser != null) {
+                    // The first line was a CSV header.
+                    continue;
+                }
+                parser = options.getFormat() == ImportFormat.JSONL
+                        ? new JsonRowParser() : CsvRowParser.withDefaultColumns();
+            }
+            if (lineNumber <= resumeAfter) {
+                report.lineSkipped();
+                continue;
+            }
+            if (lines.isEmpty()) {
+                firstLine = lineNumber;
+            }
+            lines.add(line);
+            if (lines.size() == options.getChunkSize()) {
+                submit(parsers, queue, parser, firstLine, lines);
+                report.bytesRead(reader.getPosition());
+                lines = new ArrayList<>(options.getChunkSize());
+            }
+        }
+        if (!lines.isEmpty() && !writer.stopped) {
+            submit(parsers, queue, parser, firstLine, lines);
+        }
+        report.bytesRead(reader.getPosition());
+    }
+
+    /**
+     * Creates a parser from the first line of a CSV file if that line is a header.
+     *
+     * @return the header-driven parser, or null if the first line is data.
+     */
+    private RowParser createParser(String firstLine) {
+        return options.getFormat() == ImportFormat.CSV ? CsvRowParser.fromHeader(firstLine) : null;
+    }
+
+    private void submit(ExecutorService parsers, BlockingQueue<Future<ParsedChunk>> queue, RowParser parser,
+                        long firstLine, List<String> lines) throws InterruptedException {
+        int sellerId = options.getSellerId();
+        Future<ParsedChunk> parsed = CompletableFuture.supplyAsync(
+                () -> ParsedChunk.parse(parser, firstLine, lines, sellerId), parsers);
+        // Blocks while the writer is queueCapacity chunks behind.
+        queue.put(parsed);
+    }
+
+    private Thread startProgress(ImportReport report, long size) {
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    Thread.sleep(options.getProgressIntervalMillis());
+                    double percent = size == 0 ? 100 : 100.0 * report.getBytesRead() / size;
+                    System.out.printf("Import progress: %.1f%% read, %s%n", percent, report);
+                }
+            } catch (InterruptedException e) {
+                // Import finished.
+            }
+        }, "import-progress");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        Properties checkpoint = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            checkpoint.load(in);
+        }
+        long size = Long.parseLong(checkpoint.getProperty(CHECKPOINT_SIZE, "-1"));
+        if (size != Files.size(options.getFile())) {
+            System.err.println("Ignoring checkpoint " + checkpointFile + ": the input file has changed size.");
+            return 0;
+        }
+        return Long.parseLong(checkpoint.getProperty(CHECKPOINT_LINE, "0"));
+    }
+
+    /**
+     * Records the last committed line. The file is written beside the checkpoint and moved into place,
+     * so a crash mid-write leaves the previous checkpoint intact.
+     */
+    private void writeCheckpoint(long line, long size) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty(CHECKPOINT_LINE, Long.toString(line));
+        checkpoint.setProperty(CHECKPOINT_SIZE, Long.toString(size));
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            checkpoint.store(out, "Catalog import checkpoint for " + options.getFile().getFileName());
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Takes parsed chunks off the queue in file order and commits them.
+     */
+    private final class Writer implements Runnable {
+        private final BlockingQueue<Future<ParsedChunk>> queue;
+        private final BufferedWriter errors;
+        private final ImportReport report;
+        private final long fileSize;
+        private volatile boolean stopped;
+        private IOException failure;
+
+        private Writer(BlockingQueue<Future<ParsedChunk>> queue, BufferedWriter errors, ImportReport report,
+                       long fileSize) {
+            this.queue = queue;
+            this.errors = errors;
+            this.report = report;
+            this.fileSize = fileSize;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Future<ParsedChunk> next = queue.take();
+                    if (next == ParsedChunk.END) {
+                        return;
+                    }
+                    // After a failure keep draining, so the reader is never left blocked on a full queue.
+                    if (stopped) {
+                        continue;
+                    }
+                    try {
+                        write(next.get());
+                    } catch (ExecutionException e) {
+                        stop("Parse worker failed: " + e.getCause());
+                    } catch (IOException e) {
+                        failure = e;
+                        stop(e.getMessage());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop("Interrupted");
+            }
+        }
+
+        private void write(ParsedChunk chunk) throws IOException {
+            if (!chunk.products.isEmpty()) {
+                int[] ids = repository.addProducts(chunk.products);
+                if (ids.length != chunk.products.size()) {
+                    // The chunk was rolled back, so the checkpoint stays at the previous chunk.
+                    stop("Failed to write lines " + chunk.firstLine + "-" + chunk.lastLine);
+                    return;
+                }
+            }
+            for (RowError error : chunk.errors) {
+                errors.write(error.toString());
+                errors.newLine();
+            }
+            errors.flush();
+            writeCheckpoint(chunk.lastLine, fileSize);
+            report.chunkWritten(chunk.products.size(), chunk.errors.size(), chunk.lastLine);
+        }
+
+        private void stop(String message) {
+            stopped = true;
+            report.failed(message);
+            System.err.println("Import stopped: " + message);
+        }
+    }
+
+    /**
+     * The products and errors parsed from one chunk of lines.
+     */
+    private static final class ParsedChunk {
+        private static final Future<ParsedChunk> END = CompletableFuture.completedFuture(null);
+
+        private final long firstLine;
+        private final long lastLine;
+        private final List<Product> products;
+        private final List<RowError> errors;
+
+        private ParsedChunk(long firstLine, long lastLine, List<Product> products, List<RowError> errors) {
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+            this.products = products;
+            this.errors = errors;
+        }
+
+        /**
+         * Parses a chunk of consecutive lines, the first of which has number {@code firstLine}.
+         * Blank lines are dropped without being reported.
+         */
+        private static ParsedChunk parse(RowParser parser, long firstLine, List<String> lines, int sellerId) {
+            List<Product> products = new ArrayList<>(lines.size());
+            List<RowError> errors = new ArrayList<>();
+            long lineNumber = firstLine;
+            for (String line : lines) {
+                if (!line.isBlank()) {
+                    try {
+                        products.add(parser.parse(line, sellerId));
+                    } catch (IllegalArgumentException e) {
+                        errors.add(new RowError(lineNumber, e.getMessage()));
+                    }
+                }
+                lineNumber++;
+            }
+            return new ParsedChunk(firstLine, firstLine + lines.size() - 1, products, errors);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.importer;
+
+import com.ecommerce.model.Product;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses comma-separated rows. Fields may be double-quoted, with {@code ""} standing for a literal quote.
+ * Columns are taken from a header line naming {@code name}, {@code price}, {@code quantity} and optionally
+ * {@code seller_id}; without a header they are expected in that order.
+ */
+class CsvRowParser extends RowParser {
+    private final int nameColumn;
+    private final int priceColumn;
+    private final int quantityColumn;
+    private final int sellerColumn;
+
+    private CsvRowParser(int nameColumn, int priceColumn, int quantityColumn, int sellerColumn) {
+        this.nameColumn = nameColumn;
+        this.priceColumn = priceColumn;
+        this.quantityColumn = quantityColumn;
+        this.sellerColumn = sellerColumn;
+    }
+
+    /**
+     * Creates a parser for the default column order {@code name,price,quantity[,seller_id]}.
+     *
+     * @return the parser.
+     */
+    static CsvRowParser withDefaultColumns() {
+        return new CsvRowParser(0, 1, 2, 3);
+    }
+
+    /**
+     * Creates a parser from a header line if the line is one.
+     *
+     * @param firstLine the first line of the file.
+     * @return the parser, or null if the line is data rather than a header.
+     * @throws IllegalArgumentException if the header lacks a required column.
+     */
+    static CsvRowParser fromHeader(String firstLine) {
+        List<String> columns = split(firstLine);
+        List<String> names = new ArrayList<>();
+        for (String column : columns) {
+            names.add(column.trim().toLowerCase(Locale.ROOT));
+        }
+        if (!names.contains("name")) {
+            return null;
+        }
+        int price = names.indexOf("price");
+        int quantity = names.indexOf("quantity");
+        if (price < 0 || quantity < 0) {
+            throw new IllegalArgumentException("CSV header must contain name, price and quantity columns");
+        }
+        return new CsvRowParser(names.indexOf("name"), price, quantity, names.indexOf("seller_id"));
+    }
+
+    @Override
+    Product parse(String line, int defaultSellerId) {
+        List<String> fields = split(line);
+        return toProduct(field(fields, nameColumn), field(fields, priceColumn), field(fields, quantityColumn),
+                sellerColumn < 0 ? null : field(fields, sellerColumn), defaultSellerId);
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column < fields.size() ? fields.get(column) : null;
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.importer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * The catalog file formats the importer understands.
+ */
+public enum ImportFormat {
+    /** Comma-separated values with an optional header line. */
+    CSV,
+    /** JSON Lines: one JSON object per line. */
+    JSONL;
+
+    /**
+     * Resolves a format from its name, e.g. from a command-line option.
+     *
+     * @param name {@code csv}, {@code json} or {@code jsonl}.
+     * @return the format.
+     * @throws IllegalArgumentException if the name is unknown.
+     */
+    public static ImportFormat fromName(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "json", "jsonl", "ndjson" -> JSONL;
+            default -> throw new IllegalArgumentException("Unknown import format: " + name);
+        };
+    }
+
+    /**
+     * Guesses the format from a file extension, defaulting to CSV.
+     *
+     * @param file the import file.
+     * @return the format.
+     */
+    public static ImportFormat fromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson") ? JSONL : CSV;
+    }
+}
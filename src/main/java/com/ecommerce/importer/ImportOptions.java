@@ -0,0 +1,109 @@
+package com.ecommerce.importer;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for one catalog import run.
+ * Defaults come from {@code ecommerce.import.*} system properties and can be overridden on the command line.
+ */
+public class ImportOptions {
+    private Path file;
+    private ImportFormat format;
+    private int sellerId;
+    private int workers = Integer.getInteger("ecommerce.import.workers", Runtime.getRuntime().availableProcessors());
+    private int chunkSize = Integer.getInteger("ecommerce.import.chunkSize", 1000);
+    private int queueCapacity = Integer.getInteger("ecommerce.import.queueCapacity", 0);
+    private long progressIntervalMillis = Long.getLong("ecommerce.import.progressIntervalMillis", 2000L);
+    private boolean restart;
+
+    /**
+     * Parses the arguments of the {@code import} command:
+     * {@code <file> [--format csv|jsonl] [--seller id] [--workers n] [--chunk n] [--queue n] [--restart]}.
+     *
+     * @param args the arguments following {@code import}.
+     * @return the options.
+     * @throws IllegalArgumentException if the arguments are incomplete or malformed.
+     */
+    public static ImportOptions parse(String[] args) {
+        ImportOptions options = new ImportOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--format" -> options.setFormat(ImportFormat.fromName(value(args, ++i, arg)));
+                case "--seller" -> options.setSellerId(Integer.parseInt(value(args, ++i, arg)));
+                case "--workers" -> options.setWorkers(Integer.parseInt(value(args, ++i, arg)));
+                case "--chunk" -> options.setChunkSize(Integer.parseInt(value(args, ++i, arg)));
+                case "--queue" -> options.setQueueCapacity(Integer.parseInt(value(args, ++i, arg)));
+                case "--restart" -> options.setRestart(true);
+                default -> {
+                    if (arg.startsWith("--") || options.file != null) {
+                        throw new IllegalArgumentException("Unexpected argument: " + arg);
+                    }
+                    options.setFile(Path.of(arg));
+                }
+            }
+        }
+        if (options.file == null) {
+            throw new IllegalArgumentException("No import file given");
+        }
+        if (options.format == null) {
+            options.setFormat(ImportFormat.fromFileName(options.file));
+        }
+        return options;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+
+    /** @return the file to import. */
+    public Path getFile() { return file; }
+
+    /** @param file the file to import. */
+    public void setFile(Path file) { this.file = file; }
+
+    /** @return the file format. */
+    public ImportFormat getFormat() { return format; }
+
+    /** @param format the file format. */
+    public void setFormat(ImportFormat format) { this.format = format; }
+
+    /** @return the seller assigned to rows without a seller_id, or 0 if such rows are rejected. */
+    public int getSellerId() { return sellerId; }
+
+    /** @param sellerId the seller assigned to rows without a seller_id, or 0 to reject such rows. */
+    public void setSellerId(int sellerId) { this.sellerId = sellerId; }
+
+    /** @return the number of parse and validate threads. */
+    public int getWorkers() { return Math.max(1, workers); }
+
+    /** @param workers the number of parse and validate threads. */
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    /** @return the number of lines per chunk; each chunk is written in one transaction. */
+    public int getChunkSize() { return Math.max(1, chunkSize); }
+
+    /** @param chunkSize the number of lines per chunk. */
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    /** @return the number of chunks that may be parsed ahead of the writer; defaults to twice the worker count. */
+    public int getQueueCapacity() { return queueCapacity > 0 ? queueCapacity : 2 * getWorkers(); }
+
+    /** @param queueCapacity the number of chunks that may be parsed ahead of the writer, or 0 for the default. */
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    /** @return the interval between progress lines in milliseconds. */
+    public long getProgressIntervalMillis() { return progressIntervalMillis; }
+
+    /** @param progressIntervalMillis the interval between progress lines in milliseconds. */
+    public void setProgressIntervalMillis(long progressIntervalMillis) { this.progressIntervalMillis = progressIntervalMillis; }
+
+    /** @return true to ignore an existing checkpoint and import the file from the beginning. */
+    public boolean isRestart() { return restart; }
+
+    /** @param restart true to ignore an existing checkpoint and import the file from the beginning. */
+    public void setRestart(boolean restart) { this.restart = restart; }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.importer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters for one import run. Updated by the pipeline threads and safe to read while the import is running.
+ */
+public class ImportReport {
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong linesRead = new AtomicLong();
+    private final AtomicLong linesSkipped = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final AtomicLong chunksWritten = new AtomicLong();
+    private volatile long bytesRead;
+    private volatile long lastCommittedLine;
+    private volatile boolean completed;
+    private volatile String failure;
+
+    void lineRead() { linesRead.incrementAndGet(); }
+
+    void lineSkipped() { linesSkipped.incrementAndGet(); }
+
+    void bytesRead(long position) { bytesRead = position; }
+
+    void chunkWritten(int imported, int rejected, long lastLine) {
+        rowsImported.addAndGet(imported);
+        rowsRejected.addAndGet(rejected);
+        chunksWritten.incrementAndGet();
+        lastCommittedLine = lastLine;
+    }
+
+    void completed() { completed = true; }
+
+    void failed(String message) { failure = message; }
+
+    /** @return the number of lines read from the file, including skipped ones. */
+    public long getLinesRead() { return linesRead.get(); }
+
+    /** @return the number of lines skipped because an earlier run had already committed them. */
+    public long getLinesSkipped() { return linesSkipped.get(); }
+
+    /** @return the number of input bytes handed to the parse workers so far. */
+    public long getBytesRead() { return bytesRead; }
+
+    /** @return the number of products written to the repository. */
+    public long getRowsImported() { return rowsImported.get(); }
+
+    /** @return the number of rows rejected by validation or by the repository. */
+    public long getRowsRejected() { return rowsRejected.get(); }
+
+    /** @return the number of committed chunks. */
+    public long getChunksWritten() { return chunksWritten.get(); }
+
+    /** @return the last line number covered by a committed chunk. */
+    public long getLastCommittedLine() { return lastCommittedLine; }
+
+    /** @return true if the whole file was processed. */
+    public boolean isCompleted() { return completed; }
+
+    /** @return why the import stopped early, or null if it did not fail. */
+    public String getFailure() { return failure; }
+
+    /** @return the time since the import started in seconds. */
+    public double getElapsedSeconds() { return (System.nanoTime() - startNanos) / 1_000_000_000.0; }
+
+    /** @return products imported per second since the import started. */
+    public double getRowsPerSecond() {
+        double seconds = getElapsedSeconds();
+        return seconds > 0 ? getRowsImported() / seconds : 0;
+    }
+
+    /**
+     * Provides a one-line summary of the counters.
+     *
+     * @return the summary.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d imported, %d rejected, %d skipped, %d lines read in %.1f s (%,.0f rows/s)",
+                getRowsImported(), getRowsRejected(), getLinesSkipped(), getLinesRead(), getElapsedSeconds(),
+                getRowsPerSecond());
+    }
+}
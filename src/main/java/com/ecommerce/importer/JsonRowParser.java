@@ -0,0 +1,18 @@
+package com.ecommerce.importer;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.util.Json;
+import java.util.Map;
+
+/**
+ * Parses JSON Lines rows: one object per line with {@code name}, {@code price}, {@code quantity}
+ * and optionally {@code seller_id} members.
+ */
+class JsonRowParser extends RowParser {
+
+    @Override
+    Product parse(String line, int defaultSellerId) {
+        Map<String, Object> row = Json.parseObject(line);
+        return toProduct(row.get("name"), row.get("price"), row.get("quantity"), row.get("seller_id"), defaultSellerId);
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.importer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a UTF-8 text file line by line through memory-mapped windows.
+ * The file is mapped {@code WINDOW_SIZE} bytes at a time, so files larger than 2 GB work and the
+ * page cache is read without copying through a stream buffer. Lines may end in LF or CRLF.
+ */
+class MappedLineReader implements AutoCloseable {
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private long nextWindowStart;
+    private MappedByteBuffer window;
+    private byte[] line = new byte[256];
+    private long lineNumber;
+
+    /**
+     * Opens a file for reading.
+     *
+     * @param file the file to read.
+     * @throws IOException if the file cannot be opened.
+     */
+    MappedLineReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    /**
+     * Reads the next line.
+     *
+     * @return the line without its terminator, or null at the end of the file.
+     * @throws IOException if the file cannot be mapped.
+     */
+    String nextLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (window == null || !window.hasRemaining()) {
+                if (!mapNextWindow()) {
+                    return length > 0 ? finish(length) : null;
+                }
+            }
+            byte b = window.get();
+            if (b == '\n') {
+                return finish(length);
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = b;
+        }
+    }
+
+    /**
+     * Gets the 1-based number of the line most recently returned.
+     *
+     * @return the current line number.
+     */
+    long getLineNumber() { return lineNumber; }
+
+    /**
+     * Gets the number of bytes consumed so far, for progress reporting.
+     *
+     * @return the read position in the file.
+     */
+    long getPosition() {
+        return window == null ? 0 : nextWindowStart - window.remaining();
+    }
+
+    /**
+     * Gets the file size in bytes.
+     *
+     * @return the file size.
+     */
+    long getSize() { return size; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private boolean mapNextWindow() throws IOException {
+        if (nextWindowStart >= size) {
+            return false;
+        }
+        long length = Math.min(WINDOW_SIZE, size - nextWindowStart);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, nextWindowStart, length);
+        nextWindowStart += length;
+        return true;
+    }
+
+    private String finish(int length) {
+        lineNumber++;
+        int start = 0;
+        // Skip a UTF-8 byte order mark at the start of the file.
+        if (lineNumber == 1 && length >= 3 && (line[0] & 0xFF) == 0xEF && (line[1] & 0xFF) == 0xBB && (line[2] & 0xFF) == 0xBF) {
+            start = 3;
+        }
+        if (length > start && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, start, length - start, StandardCharsets.UTF_8);
+    }
+}
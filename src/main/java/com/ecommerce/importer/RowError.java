@@ -0,0 +1,36 @@
+package com.ecommerce.importer;
+
+/**
+ * A rejected import row and the reason it was rejected.
+ */
+public class RowError {
+    private final long lineNumber;
+    private final String message;
+
+    /**
+     * Creates a row error.
+     *
+     * @param lineNumber the 1-based line number in the import file.
+     * @param message    why the row was rejected.
+     */
+    public RowError(long lineNumber, String message) {
+        this.lineNumber = lineNumber;
+        this.message = message;
+    }
+
+    /** @return the 1-based line number in the import file. */
+    public long getLineNumber() { return lineNumber; }
+
+    /** @return why the row was rejected. */
+    public String getMessage() { return message; }
+
+    /**
+     * Provides the error as a report line.
+     *
+     * @return the line number and message.
+     */
+    @Override
+    public String toString() {
+        return "line " + lineNumber + ": " + message;
+    }
+}
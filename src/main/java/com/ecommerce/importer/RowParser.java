@@ -0,0 +1,89 @@
+package com.ecommerce.importer;
+
+import com.ecommerce.model.Product;
+import java.math.BigDecimal;
+
+/**
+ * Turns one line of an import file into a validated {@link Product}.
+ * Implementations must be thread-safe: the importer calls them from several parse workers at once.
+ */
+abstract class RowParser {
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    /**
+     * Parses one data line.
+     *
+     * @param line            the raw line.
+     * @param defaultSellerId the seller used when the row does not name one, or 0 if there is none.
+     * @return the product described by the line.
+     * @throws IllegalArgumentException with a user-facing message if the line is malformed or invalid.
+     */
+    abstract Product parse(String line, int defaultSellerId);
+
+    /**
+     * Builds and validates a product from its raw field values, matching the constraints of the products table.
+     *
+     * @param name            the product name.
+     * @param price           the price, as text or a number.
+     * @param quantity        the quantity, as text or a number.
+     * @param sellerId        the seller ID, as text or a number; may be null or blank.
+     * @param defaultSellerId the seller to use when {@code sellerId} is missing, or 0 if there is none.
+     * @return the validated product.
+     * @throws IllegalArgumentException if a value is missing or out of range.
+     */
+    static Product toProduct(Object name, Object price, Object quantity, Object sellerId, int defaultSellerId) {
+        String productName = text(name);
+        if (productName.isEmpty()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (productName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+
+        BigDecimal productPrice;
+        try {
+            productPrice = new BigDecimal(text(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number: '" + text(price) + "'");
+        }
+        if (productPrice.signum() < 0 || productPrice.compareTo(MAX_PRICE) > 0) {
+            throw new IllegalArgumentException("price is out of range: " + productPrice);
+        }
+        if (productPrice.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("price has more than two decimal places: " + productPrice);
+        }
+
+        int productQuantity = parseInt(quantity, "quantity");
+        if (productQuantity < 0) {
+            throw new IllegalArgumentException("quantity must not be negative: " + productQuantity);
+        }
+
+        int productSeller = text(sellerId).isEmpty() ? defaultSellerId : parseInt(sellerId, "seller_id");
+        if (productSeller <= 0) {
+            throw new IllegalArgumentException("seller_id is required");
+        }
+
+        Product product = new Product();
+        product.setName(productName);
+        product.setPrice(productPrice.setScale(2));
+        product.setQuantity(productQuantity);
+        product.setSellerId(productSeller);
+        return product;
+    }
+
+    private static int parseInt(Object value, String field) {
+        try {
+            return new BigDecimal(text(value)).intValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: '" + text(value) + "'");
+        }
+    }
+
+    private static String text(Object value) {
+        if (value instanceof BigDecimal number) {
+            return number.toPlainString();
+        }
+        return value == null ? "" : value.toString().trim();
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.loadtest;
+
+import java.util.List;
+
+/**
+ * The users and products created by a {@link DatasetGenerator}, which the load clients pick their targets from.
+ */
+public class Dataset {
+    private final List<Credentials> buyers;
+    private final List<Credentials> sellers;
+    private final List<Credentials> admins;
+    private final int[] productIds;
+    private final int[] productSellerIds;
+    private final String[] searchTerms;
+
+    Dataset(List<Credentials> buyers, List<Credentials> sellers, List<Credentials> admins, int[] productIds,
+            int[] productSellerIds, String[] searchTerms) {
+        this.buyers = buyers;
+        this.sellers = sellers;
+        this.admins = admins;
+        this.productIds = productIds;
+        this.productSellerIds = productSellerIds;
+        this.searchTerms = searchTerms;
+    }
+
+    /** @return the generated buyers. */
+    public List<Credentials> getBuyers() { return buyers; }
+
+    /** @return the generated sellers. */
+    public List<Credentials> getSellers() { return sellers; }
+
+    /** @return the generated admins. */
+    public List<Credentials> getAdmins() { return admins; }
+
+    /** @return the IDs of the generated products. */
+    public int[] getProductIds() { return productIds; }
+
+    /** @return the seller ID of each generated product, parallel to {@link #getProductIds()}. */
+    public int[] getProductSellerIds() { return productSellerIds; }
+
+    /** @return words and prefixes that occur in the generated product names. */
+    public String[] getSearchTerms() { return searchTerms; }
+
+    /**
+     * Login details of one generated user.
+     */
+    public static final class Credentials {
+        private final int id;
+        private final String email;
+        private final String password;
+
+        Credentials(int id, String email, String password) {
+            this.id = id;
+            this.email = email;
+            this.password = password;
+        }
+
+        /** @return the user ID. */
+        public int getId() { return id; }
+
+        /** @return the email address. */
+        public String getEmail() { return email; }
+
+        /** @return the plain-text password. */
+        public String getPassword() { return password; }
+    }
+}
@@ -0,0 +1,191 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.util.PasswordHashingRejectedException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+
+/**
+ * Creates a deterministic marketplace population: the same seed always yields the same users, product
+ * names, prices, quantities and seller assignments, so runs can be compared with each other.
+ * <p>
+ * Users are tagged with the seed in their email address, so re-running against a persistent database
+ * reuses the existing accounts instead of failing on duplicate emails. Products are always added afresh.
+ */
+public class DatasetGenerator {
+    private static final int PRODUCT_BATCH = 1_000;
+    private static final String[] ADJECTIVES = {
+            "red", "blue", "green", "black", "white", "vintage", "modern", "compact", "deluxe", "portable",
+            "wireless", "organic", "classic", "premium", "rugged", "smart", "silent", "heavy", "light", "mini"};
+    private static final String[] MATERIALS = {
+            "wooden", "steel", "leather", "cotton", "ceramic", "glass", "bamboo", "wool", "plastic", "copper"};
+    private static final String[] NOUNS = {
+            "lamp", "chair", "table", "backpack", "kettle", "speaker", "headphones", "jacket", "mug", "notebook",
+            "blender", "monitor", "keyboard", "camera", "bicycle", "tent", "watch", "sofa", "rug", "guitar",
+            "drill", "skillet", "pillow", "mirror", "printer", "scarf", "boots", "helmet", "shelf", "router"};
+
+    private final long seed;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed the seed for every random choice.
+     */
+    public DatasetGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Registers the users and adds the products through the services.
+     *
+     * @param userService    the user service to register users with.
+     * @param productService the product service to add products with.
+     * @param buyers         the number of buyers.
+     * @param sellers        the number of sellers; at least one.
+     * @param admins         the number of admins.
+     * @param products       the number of products.
+     * @return the created dataset.
+     * @throws IllegalStateException if users or products could not be created.
+     */
+    public Dataset populate(UserService userService, ProductService productService,
+                            int buyers, int sellers, int admins, int products) {
+        Map<String, String> passwords = new HashMap<>();
+        List<String[]> accounts = new ArrayList<>();
+        addAccounts(accounts, passwords, "buyer", buyers);
+        addAccounts(accounts, passwords, "seller", Math.max(1, sellers));
+        addAccounts(accounts, passwords, "admin", admins);
+        register(userService, accounts);
+
+        List<Dataset.Credentials> buyerList = new ArrayList<>();
+        List<Dataset.Credentials> sellerList = new ArrayList<>();
+        List<Dataset.Credentials> adminList = new ArrayList<>();
+        for (User user : userService.getAllUsers()) {
+            String password = passwords.get(user.getEmail());
+            if (password == null) {
+                continue;
+            }
+            Dataset.Credentials credentials = new Dataset.Credentials(user.getId(), user.getEmail(), password);
+            switch (user.getRole().toLowerCase()) {
+                case "buyer" -> buyerList.add(credentials);
+                case "seller" -> sellerList.add(credentials);
+                default -> adminList.add(credentials);
+            }
+        }
+        if (sellerList.isEmpty()) {
+            throw new IllegalStateException("No load-test sellers could be registered");
+        }
+
+        int[] sellerIds = sellerList.stream().mapToInt(Dataset.Credentials::getId).sorted().toArray();
+        List<Product> generated = generateProducts(products, sellerIds);
+        int[] productIds = new int[generated.size()];
+        int[] productSellerIds = new int[generated.size()];
+        for (int from = 0; from < generated.size(); from += PRODUCT_BATCH) {
+            List<Product> batch = generated.subList(from, Math.min(generated.size(), from + PRODUCT_BATCH));
+            int[] ids = productService.addProducts(batch);
+            if (ids.length != batch.size()) {
+                throw new IllegalStateException("Failed to add load-test products");
+            }
+            for (int i = 0; i < ids.length; i++) {
+                productIds[from + i] = ids[i];
+                productSellerIds[from + i] = batch.get(i).getSellerId();
+            }
+        }
+        return new Dataset(buyerList, sellerList, adminList, productIds, productSellerIds, searchTerms());
+    }
+
+    /**
+     * Generates products without storing them. The same seed, count and sellers always yield the same products.
+     *
+     * @param count     the number of products.
+     * @param sellerIds the sellers to assign products to.
+     * @return the products, without IDs.
+     */
+    public List<Product> generateProducts(int count, int[] sellerIds) {
+        Random random = new Random(seed);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(randomProduct(random, sellerIds[random.nextInt(sellerIds.length)]));
+        }
+        return products;
+    }
+
+    /**
+     * Creates one more random product, e.g. for a seller's "add product" operation.
+     *
+     * @param random   the caller's random source.
+     * @param sellerId the seller.
+     * @return the product, without an ID.
+     */
+    static Product randomProduct(RandomGenerator random, int sellerId) {
+        Product product = new Product();
+        product.setName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                + MATERIALS[random.nextInt(MATERIALS.length)] + " "
+                + NOUNS[random.nextInt(NOUNS.length)]);
+        product.setPrice(BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+        product.setQuantity(random.nextInt(101));
+        product.setSellerId(sellerId);
+        return product;
+    }
+
+    /**
+     * Words from the product vocabulary plus three-letter prefixes of the nouns, to exercise both exact
+     * and prefix search.
+     */
+    private static String[] searchTerms() {
+        List<String> terms = new ArrayList<>(List.of(NOUNS));
+        terms.addAll(List.of(ADJECTIVES));
+        for (String noun : NOUNS) {
+            terms.add(noun.substring(0, 3));
+        }
+        terms.add("red lamp");
+        terms.add("wooden cha");
+        return terms.toArray(new String[0]);
+    }
+
+    private void addAccounts(List<String[]> accounts, Map<String, String> passwords, String role, int count) {
+        for (int i = 0; i < count; i++) {
+            String email = "lt" + seed + "-" + role + i + "@loadtest.example";
+            String password = "pw-" + seed + "-" + role + i;
+            passwords.put(email, password);
+            accounts.add(new String[]{role + i, email, password, role});
+        }
+    }
+
+    /**
+     * Registers accounts concurrently; password hashing dominates, and the hashing executor bounds the
+     * parallelism. Rejections are retried, and accounts that already exist are kept.
+     */
+    private static void register(UserService userService, List<String[]> accounts) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (String[] account : accounts) {
+                futures.add(executor.submit(() -> {
+                    while (true) {
+                        try {
+                            userService.registerUser(account[0], account[1], account[2], account[3]);
+                            return null;
+                        } catch (PasswordHashingRejectedException e) {
+                            Thread.sleep(50);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to register load-test users", e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.util.LatencyHistogram;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@link UserService} and {@link ProductService} from many virtual-thread clients.
+ * <p>
+ * In closed-loop mode each of {@code clients} threads issues a request, waits for it, then thinks for an
+ * exponentially distributed time before the next one. In open-loop mode requests arrive as a Poisson process
+ * at the configured rate, each on its own virtual thread, with at most {@code clients} in flight; arrivals
+ * beyond that are counted as dropped. Open-loop latency is measured from the scheduled arrival time rather
+ * than from when the request actually started, so queueing delay is not hidden (coordinated omission).
+ * <p>
+ * Latencies recorded during the warm-up period are discarded.
+ */
+public class LoadGenerator {
+    private static final int BROWSE_PAGE_SIZE = 20;
+    private static final int SEARCH_LIMIT = 10;
+
+    private final LoadTestOptions options;
+    private final Dataset dataset;
+    private final UserService userService;
+    private final ProductService productService;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    private volatile long measureFromNanos;
+    private volatile long measureToNanos;
+
+    /**
+     * Creates a generator.
+     *
+     * @param options        the run settings.
+     * @param dataset        the users and products to pick targets from.
+     * @param userService    the user service under test.
+     * @param productService the product service under test.
+     */
+    public LoadGenerator(LoadTestOptions options, Dataset dataset, UserService userService, ProductService productService) {
+        this.options = options;
+        this.dataset = dataset;
+        this.userService = userService;
+        this.productService = productService;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs the warm-up and the measured period, then waits for outstanding requests.
+     *
+     * @return the per-operation results of the measured period.
+     * @throws InterruptedException if interrupted while running.
+     */
+    public LoadTestReport run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureFromNanos = start + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        measureToNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (options.getMode() == LoadTestOptions.Mode.CLOSED) {
+                for (int client = 0; client < options.getClients(); client++) {
+                    SplittableRandom random = new SplittableRandom(options.getSeed() * 31 + client);
+                    executor.execute(() -> closedLoop(random));
+                }
+            } else {
+                openLoop(executor);
+            }
+        }
+        return new LoadTestReport(options, latencies, errors, dropped.sum(),
+                TimeUnit.SECONDS.toNanos(options.getDurationSeconds()));
+    }
+
+    private void closedLoop(SplittableRandom random) {
+        double meanThinkNanos = TimeUnit.MILLISECONDS.toNanos(options.getThinkTimeMillis());
+        while (System.nanoTime() < measureToNanos) {
+            Operation operation = options.getMix().next(random);
+            execute(operation, random, System.nanoTime());
+            if (meanThinkNanos > 0) {
+                LockSupport.parkNanos(exponential(random, meanThinkNanos));
+            }
+        }
+    }
+
+    private void openLoop(ExecutorService executor) throws InterruptedException {
+        SplittableRandom arrivals = new SplittableRandom(options.getSeed());
+        Semaphore inFlight = new Semaphore(options.getClients());
+        double meanGapNanos = 1_000_000_000.0 / options.getRate();
+        long next = System.nanoTime();
+        while (next < measureToNanos) {
+            next += exponential(arrivals, meanGapNanos);
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (!inFlight.tryAcquire()) {
+                if (next >= measureFromNanos) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            long scheduled = next;
+            SplittableRandom random = arrivals.split();
+            Operation operation = options.getMix().next(random);
+            executor.execute(() -> {
+                try {
+                    execute(operation, random, scheduled);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Performs one operation and records its latency from {@code startNanos}.
+     */
+    private void execute(Operation operation, SplittableRandom random, long startNanos) {
+        boolean ok;
+        try {
+            ok = perform(operation, random);
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        long end = System.nanoTime();
+        if (startNanos >= measureFromNanos && startNanos < measureToNanos) {
+            latencies.get(operation).record(end - startNanos);
+            if (!ok) {
+                errors.get(operation).increment();
+            }
+        }
+    }
+
+    private boolean perform(Operation operation, SplittableRandom random) {
+        int[] productIds = dataset.getProductIds();
+        switch (operation) {
+            case BROWSE -> {
+                int after = productIds.length == 0 ? 0 : productIds[random.nextInt(productIds.length)];
+                productService.getProductsPage(after, BROWSE_PAGE_SIZE);
+                return true;
+            }
+            case SEARCH -> {
+                String[] terms = dataset.getSearchTerms();
+                productService.findProducts(terms[random.nextInt(terms.length)], SEARCH_LIMIT);
+                return true;
+            }
+            case VIEW -> {
+                return productIds.length == 0 || productService.getProduct(productIds[random.nextInt(productIds.length)]) != null;
+            }
+            case ADD -> {
+                Dataset.Credentials seller = dataset.getSellers().get(random.nextInt(dataset.getSellers().size()));
+                return productService.createProduct(DatasetGenerator.randomProduct(random, seller.getId()));
+            }
+            case UPDATE -> {
+                if (productIds.length == 0) {
+                    return true;
+                }
+                int index = random.nextInt(productIds.length);
+                Product product = DatasetGenerator.randomProduct(random, dataset.getProductSellerIds()[index]);
+                product.setId(productIds[index]);
+                return productService.changeProduct(product);
+            }
+            case LIST_USERS -> {
+                userService.getAllUsers();
+                return true;
+            }
+            case LOGIN -> {
+                Dataset.Credentials user = dataset.getBuyers().isEmpty()
+                        ? dataset.getSellers().get(random.nextInt(dataset.getSellers().size()))
+                        : dataset.getBuyers().get(random.nextInt(dataset.getBuyers().size()));
+                return userService.login(user.getEmail(), user.getPassword()) != null;
+            }
+            default -> throw new IllegalStateException("Unhandled operation " + operation);
+        }
+    }
+
+    private static long exponential(SplittableRandom random, double mean) {
+        return (long) (-Math.log(1.0 - random.nextDouble()) * mean);
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.util.Database;
+import com.ecommerce.util.PasswordUtil;
+
+/**
+ * Command-line load test: generates a seeded dataset, drives the services with concurrent virtual-thread
+ * clients and prints per-operation throughput and latency percentiles.
+ *
+ * <pre>
+ * java com.ecommerce.loadtest.LoadTest [--mode closed|open] [--clients 32] [--rate 500] [--think 0]
+ *      [--duration 30] [--warmup 5] [--mix browse=35,search=30,view=20,add=5,update=5,listUsers=3,login=2]
+ *      [--seed 42] [--buyers 100] [--sellers 20] [--admins 2] [--products 10000]
+ * </pre>
+ * Runs against whichever storage engine {@code ecommerce.storage} selects. Registering the dataset hashes
+ * every password, so {@code -Decommerce.bcrypt.cost=4} shortens setup when login cost is not under test.
+ */
+public class LoadTest {
+
+    /**
+     * Runs a load test.
+     *
+     * @param args the options described in the class documentation.
+     * @throws InterruptedException if interrupted while running.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        UserService userService = new UserService();
+        ProductService productService = new ProductService();
+        System.out.println("Generating dataset (seed " + options.getSeed() + ", password hashing cost "
+                + PasswordUtil.getCost() + ")...");
+        long start = System.nanoTime();
+        Dataset dataset = new DatasetGenerator(options.getSeed()).populate(userService, productService,
+                options.getBuyers(), options.getSellers(), options.getAdmins(), options.getProducts());
+        System.out.printf("Dataset ready in %.1f s: %d buyers, %d sellers, %d admins, %d products.%n",
+                (System.nanoTime() - start) / 1e9, dataset.getBuyers().size(), dataset.getSellers().size(),
+                dataset.getAdmins().size(), dataset.getProductIds().length);
+
+        LoadTestReport report = new LoadGenerator(options, dataset, userService, productService).run();
+        report.print(System.out);
+        System.out.println(Database.getPoolStats());
+        System.out.println(PasswordUtil.getStats());
+    }
+}
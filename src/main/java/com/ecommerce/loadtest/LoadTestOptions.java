@@ -0,0 +1,117 @@
+package com.ecommerce.loadtest;
+
+/**
+ * Settings for one load-test run, parsed from the command line.
+ */
+public class LoadTestOptions {
+    /**
+     * How clients issue requests.
+     */
+    public enum Mode {
+        /** Each client waits for its response and the think time before sending the next request. */
+        CLOSED,
+        /** Requests arrive at a fixed average rate regardless of how quickly earlier ones complete. */
+        OPEN
+    }
+
+    private Mode mode = Mode.CLOSED;
+    private int clients = 32;
+    private double rate = 500;
+    private long thinkTimeMillis = 0;
+    private int durationSeconds = 30;
+    private int warmupSeconds = 5;
+    private OperationMix mix = OperationMix.parse("browse=35,search=30,view=20,add=5,update=5,listUsers=3,login=2");
+    private long seed = 42;
+    private int buyers = 100;
+    private int sellers = 20;
+    private int admins = 2;
+    private int products = 10_000;
+
+    /**
+     * Parses {@code [--mode closed|open] [--clients n] [--rate opsPerSecond] [--think millis] [--duration s]
+     * [--warmup s] [--mix op=w,...] [--seed n] [--buyers n] [--sellers n] [--admins n] [--products n]}.
+     *
+     * @param args the command-line arguments.
+     * @return the options.
+     * @throws IllegalArgumentException if an argument is unknown or malformed.
+     */
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--mode" -> options.mode = Mode.valueOf(value.toUpperCase());
+                case "--clients" -> options.clients = Integer.parseInt(value);
+                case "--rate" -> options.rate = Double.parseDouble(value);
+                case "--think" -> options.thinkTimeMillis = Long.parseLong(value);
+                case "--duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "--warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "--mix" -> options.mix = OperationMix.parse(value);
+                case "--seed" -> options.seed = Long.parseLong(value);
+                case "--buyers" -> options.buyers = Integer.parseInt(value);
+                case "--sellers" -> options.sellers = Integer.parseInt(value);
+                case "--admins" -> options.admins = Integer.parseInt(value);
+                case "--products" -> options.products = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (options.clients < 1 || options.rate <= 0 || options.durationSeconds < 1) {
+            throw new IllegalArgumentException("clients, rate and duration must be positive");
+        }
+        return options;
+    }
+
+    /** @return the client mode. */
+    public Mode getMode() { return mode; }
+
+    /** @return the number of closed-loop clients, or the maximum requests in flight in open mode. */
+    public int getClients() { return clients; }
+
+    /** @return the open-loop arrival rate in requests per second. */
+    public double getRate() { return rate; }
+
+    /** @return the mean think time between a closed-loop client's requests; exponentially distributed. */
+    public long getThinkTimeMillis() { return thinkTimeMillis; }
+
+    /** @return the measured duration in seconds. */
+    public int getDurationSeconds() { return durationSeconds; }
+
+    /** @return the unmeasured warm-up before the measured duration, in seconds. */
+    public int getWarmupSeconds() { return warmupSeconds; }
+
+    /** @return the operation mix. */
+    public OperationMix getMix() { return mix; }
+
+    /** @return the seed for the dataset and every client's random choices. */
+    public long getSeed() { return seed; }
+
+    /** @return the number of buyers to generate. */
+    public int getBuyers() { return buyers; }
+
+    /** @return the number of sellers to generate. */
+    public int getSellers() { return sellers; }
+
+    /** @return the number of admins to generate. */
+    public int getAdmins() { return admins; }
+
+    /** @return the number of products to generate. */
+    public int getProducts() { return products; }
+
+    /**
+     * Describes the run settings.
+     *
+     * @return a one-line summary.
+     */
+    @Override
+    public String toString() {
+        String load = mode == Mode.CLOSED
+                ? clients + " clients, think " + thinkTimeMillis + " ms"
+                : rate + " ops/s, max " + clients + " in flight";
+        return mode + " loop, " + load + ", " + warmupSeconds + " s warm-up + " + durationSeconds
+                + " s, mix " + mix + ", seed " + seed;
+    }
+}
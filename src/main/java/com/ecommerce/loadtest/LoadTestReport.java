@@ -0,0 +1,87 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.util.LatencyHistogram;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput and latency percentiles per operation for the measured period of a load test.
+ */
+public class LoadTestReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestOptions options;
+    private final Map<Operation, LatencyHistogram> latencies;
+    private final Map<Operation, LongAdder> errors;
+    private final long dropped;
+    private final long measuredNanos;
+
+    LoadTestReport(LoadTestOptions options, Map<Operation, LatencyHistogram> latencies,
+                   Map<Operation, LongAdder> errors, long dropped, long measuredNanos) {
+        this.options = options;
+        this.latencies = latencies;
+        this.errors = errors;
+        this.dropped = dropped;
+        this.measuredNanos = measuredNanos;
+    }
+
+    /**
+     * Gets the latency histogram of one operation.
+     *
+     * @param operation the operation.
+     * @return its histogram.
+     */
+    public LatencyHistogram getLatency(Operation operation) { return latencies.get(operation); }
+
+    /**
+     * Gets the number of failed requests of one operation.
+     *
+     * @param operation the operation.
+     * @return the error count.
+     */
+    public long getErrors(Operation operation) { return errors.get(operation).sum(); }
+
+    /** @return open-loop arrivals that were not issued because too many requests were in flight. */
+    public long getDropped() { return dropped; }
+
+    /**
+     * Prints a table with one row per issued operation and a total row. Latencies are in milliseconds.
+     *
+     * @param out where to print.
+     */
+    public void print(PrintStream out) {
+        double seconds = measuredNanos / 1_000_000_000.0;
+        out.println("Load test: " + options);
+        out.printf("%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50", "p90", "p99", "p99.9", "max");
+        long totalCount = 0;
+        long totalErrors = 0;
+        LatencyHistogram all = new LatencyHistogram();
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            long count = histogram.getCount();
+            if (count == 0) {
+                continue;
+            }
+            long failed = errors.get(entry.getKey()).sum();
+            totalCount += count;
+            totalErrors += failed;
+            printRow(out, entry.getKey().getKey(), count, failed, count / seconds, histogram);
+            all.merge(histogram);
+        }
+        printRow(out, "total", totalCount, totalErrors, totalCount / seconds, all);
+        if (dropped > 0) {
+            out.println(dropped + " arrivals dropped because " + options.getClients() + " requests were already in flight.");
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, long count, long failed, double throughput,
+                                 LatencyHistogram histogram) {
+        out.printf("%-10s %10d %8d %10.1f", name, count, failed, throughput);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.2f", histogram.getPercentileNanos(percentile) / 1e6);
+        }
+        out.printf(" %9.2f%n", histogram.getMaxNanos() / 1e6);
+    }
+}
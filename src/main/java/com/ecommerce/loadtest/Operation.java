@@ -0,0 +1,50 @@
+package com.ecommerce.loadtest;
+
+/**
+ * The kinds of request the load generator issues, each mirroring a console menu action.
+ */
+public enum Operation {
+    /** A buyer reads one keyset page of the catalog. */
+    BROWSE("browse"),
+    /** A buyer searches product names. */
+    SEARCH("search"),
+    /** A buyer opens one product's details. */
+    VIEW("view"),
+    /** A seller adds a product. */
+    ADD("add"),
+    /** A seller updates one of their products. */
+    UPDATE("update"),
+    /** An admin lists all users. */
+    LIST_USERS("listUsers"),
+    /** A user logs in, paying for a full password check. */
+    LOGIN("login");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the name used for this operation in mix specifications and reports.
+     *
+     * @return the key, e.g. {@code listUsers}.
+     */
+    public String getKey() { return key; }
+
+    /**
+     * Resolves an operation from its key.
+     *
+     * @param key the key, case-insensitive.
+     * @return the operation.
+     * @throws IllegalArgumentException if no operation has that key.
+     */
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Relative weights of the operations in a workload, e.g. {@code browse=40,search=30,view=20,add=5,update=5}.
+ * Operations left out of the specification are never issued.
+ */
+public class OperationMix {
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+    private final Map<Operation, Integer> weights;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Parses a mix specification of comma-separated {@code operation=weight} pairs.
+     *
+     * @param spec the specification.
+     * @return the mix.
+     * @throws IllegalArgumentException if the specification is malformed or all weights are zero.
+     */
+    public static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got '" + part + "'");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight must not be negative: " + part);
+            }
+            if (weight > 0) {
+                weights.put(Operation.fromKey(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The operation mix is empty");
+        }
+        return new OperationMix(weights);
+    }
+
+    /**
+     * Picks the next operation at random according to the weights.
+     *
+     * @param random the caller's random source.
+     * @return the operation.
+     */
+    public Operation next(SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Provides the mix in specification form.
+     *
+     * @return the mix, e.g. {@code browse=40,search=30}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (out.length() > 0) {
+                out.append(',');
+            }
+            out.append(operation.getKey()).append('=').append(weight);
+        });
+        return out.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.metrics;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of {@link OperationMetrics}.
+ * <p>
+ * Each operation is published as a platform MXBean under {@code com.ecommerce:type=Operation,name=<name>},
+ * so it can be read with JConsole, VisualVM or any JMX client. When {@code ecommerce.metrics.dumpIntervalSeconds}
+ * is positive, every operation that has been called is also written as text at that interval, to the file
+ * named by {@code ecommerce.metrics.dumpFile} (appended) or to standard error.
+ */
+public class Metrics {
+    private static final ConcurrentHashMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+
+    static {
+        long interval = Long.getLong("ecommerce.metrics.dumpIntervalSeconds", 0L);
+        if (interval > 0) {
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reporter.scheduleAtFixedRate(Metrics::dumpToConfiguredTarget, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the metrics of an operation, creating and publishing them on first use.
+     *
+     * @param name the operation name, e.g. {@code product.getById}.
+     * @return the operation's metrics.
+     */
+    public static OperationMetrics operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, Metrics::register);
+    }
+
+    /**
+     * Gets every registered operation, ordered by name.
+     *
+     * @return the operations.
+     */
+    public static List<OperationMetrics> all() {
+        List<OperationMetrics> operations = new ArrayList<>(OPERATIONS.values());
+        operations.sort(Comparator.comparing(OperationMetrics::getName));
+        return operations;
+    }
+
+    /**
+     * Writes one line per operation that has been called.
+     *
+     * @param out where to write.
+     */
+    public static void dump(PrintStream out) {
+        out.println("--- metrics " + LocalDateTime.now() + " ---");
+        for (OperationMetrics operation : all()) {
+            if (operation.getCalls() > 0) {
+                out.println(operation);
+            }
+        }
+        out.flush();
+    }
+
+    private static void dumpToConfiguredTarget() {
+        String file = System.getProperty("ecommerce.metrics.dumpFile");
+        if (file == null) {
+            dump(System.err);
+            return;
+        }
+        try (PrintStream out = new PrintStream(new FileOutputStream(file, true), false, StandardCharsets.UTF_8)) {
+            dump(out);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static OperationMetrics register(String name) {
+        OperationMetrics operation = new OperationMetrics(name);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("com.ecommerce:type=Operation,name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(operation, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Error publishing metrics for " + name + ": " + e.getMessage());
+        }
+        return operation;
+    }
+}
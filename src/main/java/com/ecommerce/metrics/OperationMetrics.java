@@ -0,0 +1,111 @@
+package com.ecommerce.metrics;
+
+import com.ecommerce.util.LatencyHistogram;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram of one operation.
+ * Recording uses only {@link LongAdder}s and the fixed-size {@link LatencyHistogram}, so it never allocates
+ * and never blocks. Instrumented code follows this pattern:
+ * <pre>
+ * long start = METRICS.start();
+ * try {
+ *     ...
+ * } catch (SQLException e) {
+ *     METRICS.failed();
+ *     ...
+ * } finally {
+ *     METRICS.stop(start);
+ * }
+ * </pre>
+ * Instances are obtained from {@link Metrics#operation(String)} and are best held in static final fields.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Marks the start of a call.
+     *
+     * @return the start timestamp to pass to {@link #stop(long)}.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a call, successful or not, and records its latency.
+     *
+     * @param startNanos the value returned by {@link #start()}.
+     */
+    public void stop(long startNanos) {
+        latency.recordSince(startNanos);
+        calls.increment();
+    }
+
+    /**
+     * Counts the current call as failed. Call before {@link #stop(long)}.
+     */
+    public void failed() {
+        errors.increment();
+    }
+
+    /**
+     * Gets the latency histogram, e.g. to include in another statistics snapshot.
+     *
+     * @return the live histogram.
+     */
+    public LatencyHistogram getLatency() { return latency; }
+
+    @Override
+    public String getName() { return name; }
+
+    @Override
+    public long getCalls() { return calls.sum(); }
+
+    @Override
+    public long getErrors() { return errors.sum(); }
+
+    @Override
+    public double getMeanMillis() { return latency.getMeanNanos() / 1e6; }
+
+    @Override
+    public double getP50Millis() { return latency.getPercentileNanos(50) / 1e6; }
+
+    @Override
+    public double getP95Millis() { return latency.getPercentileNanos(95) / 1e6; }
+
+    @Override
+    public double getP99Millis() { return latency.getPercentileNanos(99) / 1e6; }
+
+    @Override
+    public double getP999Millis() { return latency.getPercentileNanos(99.9) / 1e6; }
+
+    @Override
+    public double getMaxMillis() { return latency.getMaxNanos() / 1e6; }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        latency.reset();
+    }
+
+    /**
+     * Provides a one-line summary.
+     *
+     * @return the name, counts and latency percentiles in milliseconds.
+     */
+    @Override
+    public String toString() {
+        return String.format("%-26s calls=%d errors=%d mean=%.3f p50=%.3f p95=%.3f p99=%.3f max=%.3f ms",
+                name, getCalls(), getErrors(), getMeanMillis(), getP50Millis(), getP95Millis(), getP99Millis(),
+                getMaxMillis());
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.metrics;
+
+/**
+ * Management view of one instrumented operation, published under
+ * {@code com.ecommerce:type=Operation,name=<operation>}.
+ */
+public interface OperationMetricsMXBean {
+
+    /** @return the operation name, e.g. {@code product.getById}. */
+    String getName();
+
+    /** @return completed calls, successful or not. */
+    long getCalls();
+
+    /** @return calls that failed. */
+    long getErrors();
+
+    /** @return the mean latency in milliseconds. */
+    double getMeanMillis();
+
+    /** @return the median latency in milliseconds. */
+    double getP50Millis();
+
+    /** @return the 95th percentile latency in milliseconds. */
+    double getP95Millis();
+
+    /** @return the 99th percentile latency in milliseconds. */
+    double getP99Millis();
+
+    /** @return the 99.9th percentile latency in milliseconds. */
+    double getP999Millis();
+
+    /** @return the largest latency in milliseconds. */
+    double getMaxMillis();
+
+    /**
+     * Clears the counters and the histogram.
+     */
+    void reset();
+}
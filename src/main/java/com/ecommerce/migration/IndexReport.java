@@ -0,0 +1,102 @@
+package com.ecommerce.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lists indexes that are probably unused and indexes that are probably missing, from PostgreSQL's
+ * statistics views for the current schema.
+ * <p>
+ * An index is reported as unused when it has never been scanned since statistics were last reset and does not
+ * enforce a primary key or uniqueness. An index is reported as missing when a single-column foreign key has no
+ * index leading with its column, which makes deletes of the referenced row scan the referencing table, or when a
+ * table with at least {@code ecommerce.migrations.report.minRows} rows (10,000 by default) is read by
+ * sequential scans more often than through indexes. Both are hints: statistics are per server and reset
+ * with it, so check them against a representative workload before dropping or adding anything.
+ */
+public class IndexReport {
+    private static final long MIN_ROWS = Long.getLong("ecommerce.migrations.report.minRows", 10_000);
+
+    private final List<String> unused;
+    private final List<String> missing;
+
+    private IndexReport(List<String> unused, List<String> missing) {
+        this.unused = unused;
+        this.missing = missing;
+    }
+
+    /**
+     * Reads the statistics and builds a report.
+     *
+     * @param conn the connection to read with.
+     * @return the report.
+     * @throws SQLException if the statistics cannot be read.
+     */
+    public static IndexReport generate(Connection conn) throws SQLException {
+        List<String> unused = new ArrayList<>();
+        String unusedSql = "SELECT s.relname, s.indexrelname, pg_size_pretty(pg_relation_size(s.indexrelid)) "
+                + "FROM pg_stat_user_indexes s JOIN pg_index i ON i.indexrelid = s.indexrelid "
+                + "WHERE s.schemaname = current_schema() AND s.idx_scan = 0 AND NOT i.indisunique AND NOT i.indisprimary "
+                + "ORDER BY pg_relation_size(s.indexrelid) DESC";
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(unusedSql)) {
+            while (rs.next()) {
+                unused.add(rs.getString(2) + " on " + rs.getString(1) + " (" + rs.getString(3) + ", never scanned)");
+            }
+        }
+
+        List<String> missing = new ArrayList<>();
+        String foreignKeySql = "SELECT c.conrelid::regclass::text, a.attname, c.confrelid::regclass::text "
+                + "FROM pg_constraint c JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1] "
+                + "WHERE c.contype = 'f' AND cardinality(c.conkey) = 1 "
+                + "AND c.connamespace = current_schema()::regnamespace "
+                + "AND NOT EXISTS (SELECT 1 FROM pg_index i WHERE i.indrelid = c.conrelid AND i.indkey[0] = c.conkey[1]) "
+                + "ORDER BY 1, 2";
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(foreignKeySql)) {
+            while (rs.next()) {
+                missing.add(rs.getString(1) + " (" + rs.getString(2) + "): foreign key to " + rs.getString(3)
+                        + " has no index, so deleting from " + rs.getString(3) + " scans " + rs.getString(1));
+            }
+        }
+        String seqScanSql = "SELECT relname, seq_scan, seq_tup_read, coalesce(idx_scan, 0), n_live_tup "
+                + "FROM pg_stat_user_tables WHERE schemaname = current_schema() AND n_live_tup >= ? "
+                + "AND seq_scan > coalesce(idx_scan, 0) ORDER BY seq_tup_read DESC";
+        try (PreparedStatement stmt = conn.prepareStatement(seqScanSql)) {
+            stmt.setLong(1, MIN_ROWS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    missing.add(rs.getString(1) + ": " + rs.getLong(2) + " sequential scans reading " + rs.getLong(3)
+                            + " rows vs " + rs.getLong(4) + " index scans over " + rs.getLong(5) + " rows");
+                }
+            }
+        }
+        return new IndexReport(unused, missing);
+    }
+
+    /** @return one line per index that has never been scanned. */
+    public List<String> getUnused() { return unused; }
+    /** @return one line per foreign key without an index and per table read mostly by sequential scans. */
+    public List<String> getMissing() { return missing; }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("Unused indexes:");
+        appendLines(text, unused);
+        text.append("\nMissing indexes:");
+        appendLines(text, missing);
+        return text.toString();
+    }
+
+    private static void appendLines(StringBuilder text, List<String> lines) {
+        if (lines.isEmpty()) {
+            text.append("\n  (none)");
+        }
+        for (String line : lines) {
+            text.append("\n  ").append(line);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecommerce.migration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One versioned SQL script from {@code db/migration}, named {@code V<version>__<description>.sql}.
+ * <p>
+ * A script runs in a single transaction unless its first line is {@code -- migration:no-transaction}, which
+ * statements such as {@code CREATE INDEX CONCURRENTLY} require; such scripts run one auto-committed
+ * statement at a time and should be idempotent, since a failure can leave them half applied.
+ * The checksum is the SHA-256 of the script with line endings normalized, so a checkout with CRLF
+ * line endings does not count as a change.
+ */
+public class Migration {
+    private static final Pattern NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String NO_TRANSACTION = "-- migration:no-transaction";
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "(?:\\s*(?:--[^\\n]*|/\\*.*?\\*/))*\\s*CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:CONCURRENTLY\\s+)?(?:IF\\s+NOT\\s+EXISTS\\s+)?(\"[^\"]+\"|[\\w$]+)\\s+ON\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final int version;
+    private final String description;
+    private final String script;
+    private final String sql;
+    private final String checksum;
+    private final boolean transactional;
+
+    /**
+     * Creates a migration from a script's name and text.
+     *
+     * @param script the file name, e.g. {@code V2__query_indexes.sql}.
+     * @param sql    the script text.
+     * @throws IllegalArgumentException if the name does not follow the naming scheme.
+     */
+    public Migration(String script, String sql) {
+        Matcher matcher = NAME.matcher(script);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Migration script name must look like V1__description.sql: " + script);
+        }
+        this.version = Integer.parseInt(matcher.group(1));
+        this.description = matcher.group(2).replace('_', ' ');
+        this.script = script;
+        this.sql = sql.replace("\r\n", "\n");
+        this.checksum = sha256(this.sql);
+        this.transactional = !this.sql.stripLeading().startsWith(NO_TRANSACTION);
+    }
+
+    /**
+     * Loads a script from the classpath.
+     *
+     * @param directory the classpath directory, e.g. {@code db/migration}.
+     * @param script    the file name.
+     * @return the migration.
+     * @throws MigrationException if the script is missing or unreadable.
+     */
+    static Migration load(String directory, String script) {
+        try (InputStream in = Migration.class.getClassLoader().getResourceAsStream(directory + "/" + script)) {
+            if (in == null) {
+                throw new MigrationException("Migration script not found on the classpath: " + directory + "/" + script);
+            }
+            return new Migration(script, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new MigrationException("Could not read migration script " + script, e);
+        }
+    }
+
+    /** @return the version number. */
+    public int getVersion() { return version; }
+    /** @return the description taken from the file name, with underscores as spaces. */
+    public String getDescription() { return description; }
+    /** @return the file name. */
+    public String getScript() { return script; }
+    /** @return the script text, with LF line endings. */
+    public String getSql() { return sql; }
+    /** @return the SHA-256 of the script as 64 hex digits. */
+    public String getChecksum() { return checksum; }
+    /** @return whether the script runs in a single transaction. */
+    public boolean isTransactional() { return transactional; }
+
+    /**
+     * Splits the script into statements at semicolons, ignoring those inside quotes, dollar-quoted bodies
+     * and comments. Comment-only statements are dropped.
+     *
+     * @return the statements, without their terminating semicolons.
+     */
+    public List<String> getStatements() {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean hasCode = false;
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            int end;
+            if (c == '-' && sql.startsWith("--", i)) {
+                end = sql.indexOf('\n', i);
+                end = end < 0 ? sql.length() : end;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                end = sql.indexOf("*/", i + 2);
+                end = end < 0 ? sql.length() : end + 2;
+            } else if (c == '\'' || c == '"') {
+                end = sql.indexOf(c, i + 1);
+                // A doubled quote escapes itself; skipping to the next quote handles it as two adjacent strings.
+                end = end < 0 ? sql.length() : end + 1;
+                hasCode = true;
+            } else if (c == '$' && dollarTagEnd(i) > 0) {
+                String tag = sql.substring(i, dollarTagEnd(i));
+                end = sql.indexOf(tag, i + tag.length());
+                end = end < 0 ? sql.length() : end + tag.length();
+                hasCode = true;
+            } else if (c == ';') {
+                if (hasCode) {
+                    statements.add(current.toString().strip());
+                }
+                current.setLength(0);
+                hasCode = false;
+                i++;
+                continue;
+            } else {
+                end = i + 1;
+                hasCode |= !Character.isWhitespace(c);
+            }
+            current.append(sql, i, end);
+            i = end;
+        }
+        if (hasCode) {
+            statements.add(current.toString().strip());
+        }
+        return statements;
+    }
+
+    /**
+     * Lists the indexes the script creates by name, looking past comments before each statement, as PostgreSQL stores them: unquoted names in lower case,
+     * quoted names as written. Indexes created without a name are not listed.
+     *
+     * @return the index names, in script order.
+     */
+    public List<String> getIndexNames() {
+        List<String> names = new ArrayList<>();
+        for (String statement : getStatements()) {
+            Matcher matcher = CREATE_INDEX.matcher(statement);
+            if (matcher.lookingAt()) {
+                String name = matcher.group(1);
+                names.add(name.startsWith("\"") ? name.substring(1, name.length() - 1) : name.toLowerCase(Locale.ROOT));
+            }
+        }
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+
+    /**
+     * Finds the end of a dollar-quote tag such as {@code $$} or {@code $body$} starting at {@code start}.
+     *
+     * @return the index after the closing {@code $} of the tag, or -1 if there is no tag here.
+     */
+    private int dollarTagEnd(int start) {
+        int i = start + 1;
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+            i++;
+        }
+        return i < sql.length() && sql.charAt(i) == '$' && (i == start + 1 || !Character.isDigit(sql.charAt(start + 1)))
+                ? i + 1 : -1;
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
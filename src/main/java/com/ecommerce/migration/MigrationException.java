@@ -0,0 +1,27 @@
+package com.ecommerce.migration;
+
+/**
+ * Thrown when the schema cannot be brought up to date: a script failed, an applied script was changed
+ * afterwards, or the migration lock could not be taken in time.
+ */
+public class MigrationException extends RuntimeException {
+
+    /**
+     * Creates an exception.
+     *
+     * @param message the detail message.
+     */
+    public MigrationException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates an exception with a cause.
+     *
+     * @param message the detail message.
+     * @param cause   the underlying failure.
+     */
+    public MigrationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,346 @@
+package com.ecommerce.migration;
+
+import com.ecommerce.util.Database;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brings the database schema up to date by applying the versioned scripts listed in
+ * {@code db/migration/migrations.txt}, in version order.
+ * <p>
+ * Applied versions and their checksums are recorded in {@code schema_migrations}. A script whose checksum
+ * differs from the recorded one stops the run, since the database no longer matches what the code expects.
+ * <p>
+ * Concurrent starts are serialized through a single row in {@code schema_migrations_lock} rather than an
+ * advisory lock, because {@code CREATE INDEX CONCURRENTLY} cannot run inside the transaction that would hold one.
+ * While it runs, the holder refreshes the row from a heartbeat thread, so long index builds keep the lock;
+ * a row not refreshed for {@code ecommerce.migrations.lockTimeoutSeconds} (600 by default) is treated as left
+ * behind by a crashed process and taken over. Other processes wait up to
+ * {@code ecommerce.migrations.lockWaitSeconds} (300 by default) for the lock.
+ * <p>
+ * Migrations run on a dedicated connection outside the pool, so index builds neither hold a pool permit nor
+ * trip the slow-query log.
+ */
+public class MigrationRunner {
+    private static final String DIRECTORY = "db/migration";
+    private static final String INDEX = "migrations.txt";
+    private static final long LOCK_TIMEOUT_SECONDS = Long.getLong("ecommerce.migrations.lockTimeoutSeconds", 600);
+    private static final long LOCK_WAIT_SECONDS = Long.getLong("ecommerce.migrations.lockWaitSeconds", 300);
+    private static final long LOCK_POLL_MILLIS = 1_000;
+    private static final long HEARTBEAT_SECONDS = Math.max(1, LOCK_TIMEOUT_SECONDS / 4);
+
+    private final List<Migration> migrations;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+
+    /**
+     * Creates a runner for the scripts on the classpath.
+     *
+     * @throws MigrationException if the script list or a script cannot be read, or two scripts share a version.
+     */
+    public MigrationRunner() {
+        this(loadAll());
+    }
+
+    /**
+     * Creates a runner for the given migrations.
+     *
+     * @param migrations the migrations, in any order.
+     * @throws MigrationException if two migrations share a version.
+     */
+    public MigrationRunner(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new MigrationException("Duplicate migration version " + sorted.get(i).getVersion()
+                        + ": " + sorted.get(i - 1).getScript() + " and " + sorted.get(i).getScript());
+            }
+        }
+        this.migrations = List.copyOf(sorted);
+    }
+
+    /**
+     * Gets the known migrations.
+     *
+     * @return the migrations, in version order.
+     */
+    public List<Migration> getMigrations() {
+        return migrations;
+    }
+
+    /**
+     * Applies every migration that has not been applied yet.
+     *
+     * @return the migrations applied by this call, in order; empty if the schema was already current.
+     * @throws MigrationException if the lock cannot be taken, an applied script was changed, or a script fails.
+     *         Migrations applied before the failure stay applied.
+     */
+    public List<Migration> migrate() {
+        try (Connection conn = Database.openDirectConnection()) {
+            conn.setAutoCommit(true);
+            createTables(conn);
+            acquireLock(conn);
+            ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "schema-migration-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+            heartbeat.scheduleWithFixedDelay(this::refreshLock, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+            try {
+                Map<Integer, String> applied = appliedChecksums(conn);
+                for (Migration migration : migrations) {
+                    String checksum = applied.get(migration.getVersion());
+                    if (checksum != null && !checksum.equals(migration.getChecksum())) {
+                        throw new MigrationException("Migration " + migration.getScript()
+                                + " was changed after it was applied; add a new migration instead");
+                    }
+                }
+                int latest = migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+                for (int version : applied.keySet()) {
+                    if (version > latest) {
+                        System.err.println("Database has migration V" + version + ", which this build does not know about");
+                    }
+                }
+                List<Migration> done = new ArrayList<>();
+                for (Migration migration : migrations) {
+                    if (!applied.containsKey(migration.getVersion())) {
+                        apply(conn, migration);
+                        done.add(migration);
+                    }
+                }
+                return done;
+            } finally {
+                heartbeat.shutdownNow();
+                releaseLock(conn);
+            }
+        } catch (SQLException e) {
+            throw new MigrationException("Schema migration failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the migrations not yet applied, without taking the lock or changing anything.
+     *
+     * @return the pending migrations, in version order.
+     * @throws MigrationException if the database cannot be read.
+     */
+    public List<Migration> pending() {
+        try (Connection conn = Database.openDirectConnection()) {
+            Map<Integer, String> applied = historyExists(conn) ? appliedChecksums(conn) : Map.of();
+            List<Migration> pending = new ArrayList<>();
+            for (Migration migration : migrations) {
+                if (!applied.containsKey(migration.getVersion())) {
+                    pending.add(migration);
+                }
+            }
+            return pending;
+        } catch (SQLException e) {
+            throw new MigrationException("Could not read the migration history: " + e.getMessage(), e);
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        System.out.println("Applying migration " + migration + "...");
+        try {
+            if (migration.isTransactional()) {
+                conn.setAutoCommit(false);
+                try {
+                    execute(conn, migration);
+                    record(conn, migration, start);
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } else {
+                // An interrupted concurrent build leaves an invalid index behind that IF NOT EXISTS would keep.
+                dropInvalidIndexes(conn, migration.getIndexNames());
+                execute(conn, migration);
+                record(conn, migration, start);
+            }
+        } catch (SQLException e) {
+            throw new MigrationException("Migration " + migration.getScript() + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void execute(Connection conn, Migration migration) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : migration.getStatements()) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    private void record(Connection conn, Migration migration, long startNanos) throws SQLException {
+        String sql = "INSERT INTO schema_migrations (version, description, script, checksum, execution_millis) "
+                + "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setString(3, migration.getScript());
+            stmt.setString(4, migration.getChecksum());
+            stmt.setLong(5, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Drops the invalid copies of the given indexes only. Other invalid indexes in the schema may be
+     * concurrent builds still running in another session, and dropping those would cancel them.
+     */
+    private static void dropInvalidIndexes(Connection conn, List<String> indexNames) throws SQLException {
+        if (indexNames.isEmpty()) {
+            return;
+        }
+        String sql = "SELECT quote_ident(n.nspname) || '.' || quote_ident(c.relname) FROM pg_index i "
+                + "JOIN pg_class c ON c.oid = i.indexrelid JOIN pg_namespace n ON n.oid = c.relnamespace "
+                + "WHERE NOT i.indisvalid AND n.nspname = current_schema() AND c.relname = ANY(?)";
+        List<String> invalid = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setArray(1, conn.createArrayOf("text", indexNames.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    invalid.add(rs.getString(1));
+                }
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String index : invalid) {
+                System.out.println("Dropping invalid index " + index + " left by an interrupted build");
+                stmt.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+            }
+        }
+    }
+
+    private static void createTables(Connection conn) throws SQLException {
+        String history = "CREATE TABLE IF NOT EXISTS schema_migrations ("
+                + "version INT PRIMARY KEY, description VARCHAR(200) NOT NULL, script VARCHAR(200) NOT NULL, "
+                + "checksum CHAR(64) NOT NULL, applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                + "execution_millis BIGINT NOT NULL)";
+        String lock = "CREATE TABLE IF NOT EXISTS schema_migrations_lock ("
+                + "id INT PRIMARY KEY CHECK (id = 1), locked_by VARCHAR(255) NOT NULL, "
+                + "locked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(history);
+            stmt.execute(lock);
+        } catch (SQLException e) {
+            // Two processes creating the same table at once can both pass IF NOT EXISTS; one of them then fails.
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(history);
+                stmt.execute(lock);
+            }
+        }
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LOCK_WAIT_SECONDS);
+        String takeOver = "DELETE FROM schema_migrations_lock WHERE locked_at < CURRENT_TIMESTAMP - make_interval(secs => ?)";
+        String take = "INSERT INTO schema_migrations_lock (id, locked_by) VALUES (1, ?) ON CONFLICT (id) DO NOTHING";
+        while (true) {
+            try (PreparedStatement stale = conn.prepareStatement(takeOver); PreparedStatement stmt = conn.prepareStatement(take)) {
+                stale.setLong(1, LOCK_TIMEOUT_SECONDS);
+                if (stale.executeUpdate() > 0) {
+                    System.err.println("Took over a stale schema migration lock");
+                }
+                stmt.setString(1, owner);
+                if (stmt.executeUpdate() > 0) {
+                    return;
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                throw new MigrationException("Timed out after " + LOCK_WAIT_SECONDS
+                        + "s waiting for another process to finish migrating the schema");
+            }
+            try {
+                Thread.sleep(LOCK_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MigrationException("Interrupted while waiting for the schema migration lock", e);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the lock row on a connection of its own, since the migration connection may be busy
+     * building an index for a long time.
+     */
+    private void refreshLock() {
+        String sql = "UPDATE schema_migrations_lock SET locked_at = CURRENT_TIMESTAMP WHERE id = 1 AND locked_by = ?";
+        try (Connection conn = Database.openDirectConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, owner);
+            if (stmt.executeUpdate() == 0) {
+                System.err.println("Lost the schema migration lock to another process");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error refreshing the schema migration lock: " + e.getMessage());
+        }
+    }
+
+    private void releaseLock(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM schema_migrations_lock WHERE id = 1 AND locked_by = ?")) {
+            stmt.setString(1, owner);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error releasing the schema migration lock: " + e.getMessage());
+        }
+    }
+
+    private static boolean historyExists(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT to_regclass('schema_migrations') IS NOT NULL")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static Map<Integer, String> appliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return applied;
+    }
+
+    private static List<Migration> loadAll() {
+        List<Migration> migrations = new ArrayList<>();
+        try (InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(DIRECTORY + "/" + INDEX)) {
+            if (in == null) {
+                throw new MigrationException("Migration list not found on the classpath: " + DIRECTORY + "/" + INDEX);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    migrations.add(Migration.load(DIRECTORY, line));
+                }
+            }
+        } catch (IOException e) {
+            throw new MigrationException("Could not read the migration list", e);
+        }
+        return migrations;
+    }
+}
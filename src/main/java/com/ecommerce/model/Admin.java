@@ -31,7 +31,8 @@ public class Admin extends User {
         System.out.println("1. View All Users");
         System.out.println("2. Delete User");
         System.out.println("3. View All Products");
-        System.out.println("4. Logout");
+        System.out.println("4. Seller Report");
+        System.out.println("5. Logout");
     }
 }
 
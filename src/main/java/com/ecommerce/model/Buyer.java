@@ -1,7 +1,7 @@
 package com.ecommerce.model;
 
 /**
- * Represents a buyer user who can browse, search, and view products.
+ * Represents a buyer user who can browse, search, view and purchase products.
  */
 public class Buyer extends User {
 
@@ -31,7 +31,9 @@ public class Buyer extends User {
         System.out.println("1. Browse Products");
         System.out.println("2. Search for a Product");
         System.out.println("3. View Product Details");
-        System.out.println("4. Logout");
+        System.out.println("4. Purchase a Product");
+        System.out.println("5. View My Orders");
+        System.out.println("6. Logout");
     }
 
 }
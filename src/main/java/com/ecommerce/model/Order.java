@@ -0,0 +1,116 @@
+package com.ecommerce.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a buyer's order with its lines, total and status.
+ */
+
+public class Order {
+    /** Status of an order whose stock has been reserved and which has been stored. */
+    public static final String STATUS_PLACED = "PLACED";
+
+    private int id;
+    private int buyerId;
+    private BigDecimal total = BigDecimal.ZERO;
+    private String status = STATUS_PLACED;
+    private LocalDateTime createdAt;
+    private List<OrderItem> items = new ArrayList<>();
+
+    /**
+     * Gets the order ID.
+     *
+     * @return The order ID, or 0 if the order has not been stored.
+     */
+    public int getId() { return id; }
+
+    /**
+     * Sets the order ID.
+     *
+     * @param id The order ID.
+     */
+    public void setId(int id) { this.id = id; }
+
+    /**
+     * Gets the ID of the buyer who placed the order.
+     *
+     * @return The buyer ID, or 0 if the buyer's account has been deleted.
+     */
+    public int getBuyerId() { return buyerId; }
+
+    /**
+     * Sets the ID of the buyer who placed the order.
+     *
+     * @param buyerId The buyer ID.
+     */
+    public void setBuyerId(int buyerId) { this.buyerId = buyerId; }
+
+    /**
+     * Gets the order total.
+     *
+     * @return The sum of the line totals.
+     */
+    public BigDecimal getTotal() { return total; }
+
+    /**
+     * Sets the order total.
+     *
+     * @param total The order total.
+     */
+    public void setTotal(BigDecimal total) { this.total = total; }
+
+    /**
+     * Gets the order status.
+     *
+     * @return The status, e.g. {@link #STATUS_PLACED}.
+     */
+    public String getStatus() { return status; }
+
+    /**
+     * Sets the order status.
+     *
+     * @param status The status.
+     */
+    public void setStatus(String status) { this.status = status; }
+
+    /**
+     * Gets when the order was placed.
+     *
+     * @return The creation time.
+     */
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    /**
+     * Sets when the order was placed.
+     *
+     * @param createdAt The creation time.
+     */
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    /**
+     * Gets the order lines.
+     *
+     * @return The lines, in the order they were added.
+     */
+    public List<OrderItem> getItems() { return items; }
+
+    /**
+     * Sets the order lines.
+     *
+     * @param items The lines.
+     */
+    public void setItems(List<OrderItem> items) { this.items = items; }
+
+    /**
+     * Adds a line and includes it in the total.
+     *
+     * @param item The line to add.
+     */
+    public void addItem(OrderItem item) {
+        items.add(item);
+        total = total.add(item.getLineTotal());
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Represents one line of an order: a product, the price it was bought at, and the quantity.
+ * The product's name and price are copied when the order is placed, so later edits do not change the order.
+ */
+
+public class OrderItem {
+    private int productId;
+    private String productName;
+    private BigDecimal unitPrice;
+    private int quantity;
+
+    /**
+     * Default constructor for the OrderItem class.
+     */
+    public OrderItem() {}
+
+    /**
+     * Constructs an OrderItem with specified details.
+     *
+     * @param productId   The ID of the product bought.
+     * @param productName The product name at the time of the order.
+     * @param unitPrice   The product price at the time of the order.
+     * @param quantity    The number of units bought.
+     */
+    public OrderItem(int productId, String productName, BigDecimal unitPrice, int quantity) {
+        this.productId = productId;
+        this.productName = productName;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+    }
+
+    /**
+     * Gets the product ID.
+     *
+     * @return The product ID.
+     */
+    public int getProductId() { return productId; }
+
+    /**
+     * Sets the product ID.
+     *
+     * @param productId The product ID.
+     */
+    public void setProductId(int productId) { this.productId = productId; }
+
+    /**
+     * Gets the product name at the time of the order.
+     *
+     * @return The product name.
+     */
+    public String getProductName() { return productName; }
+
+    /**
+     * Sets the product name at the time of the order.
+     *
+     * @param productName The product name.
+     */
+    public void setProductName(String productName) { this.productName = productName; }
+
+    /**
+     * Gets the unit price at the time of the order.
+     *
+     * @return The unit price.
+     */
+    public BigDecimal getUnitPrice() { return unitPrice; }
+
+    /**
+     * Sets the unit price at the time of the order.
+     *
+     * @param unitPrice The unit price.
+     */
+    public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+
+    /**
+     * Gets the number of units bought.
+     *
+     * @return The quantity.
+     */
+    public int getQuantity() { return quantity; }
+
+    /**
+     * Sets the number of units bought.
+     *
+     * @param quantity The quantity.
+     */
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    /**
+     * Calculates the price of this line.
+     *
+     * @return The unit price times the quantity.
+     */
+    public BigDecimal getLineTotal() { return unitPrice.multiply(BigDecimal.valueOf(quantity)); }
+}
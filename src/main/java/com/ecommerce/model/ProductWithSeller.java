@@ -0,0 +1,83 @@
+package com.ecommerce.model;
+
+/**
+ * A product together with the seller's name and email, as read by a single join for catalog listings.
+ */
+
+public class ProductWithSeller {
+    private Product product;
+    private String sellerUsername;
+    private String sellerEmail;
+
+    /**
+     * Default constructor for the ProductWithSeller class.
+     */
+    public ProductWithSeller() {}
+
+    /**
+     * Constructs a ProductWithSeller with specified details.
+     *
+     * @param product        The product.
+     * @param sellerUsername The seller's username, or null if the seller no longer exists.
+     * @param sellerEmail    The seller's email address, or null if the seller no longer exists.
+     */
+    public ProductWithSeller(Product product, String sellerUsername, String sellerEmail) {
+        this.product = product;
+        this.sellerUsername = sellerUsername;
+        this.sellerEmail = sellerEmail;
+    }
+
+    /**
+     * Gets the product.
+     *
+     * @return The product.
+     */
+    public Product getProduct() {
+        return product;
+    }
+
+    /**
+     * Sets the product.
+     *
+     * @param product The product.
+     */
+    public void setProduct(Product product) {
+        this.product = product;
+    }
+
+    /**
+     * Gets the seller's username.
+     *
+     * @return The username, or null if the seller no longer exists.
+     */
+    public String getSellerUsername() {
+        return sellerUsername;
+    }
+
+    /**
+     * Sets the seller's username.
+     *
+     * @param sellerUsername The username.
+     */
+    public void setSellerUsername(String sellerUsername) {
+        this.sellerUsername = sellerUsername;
+    }
+
+    /**
+     * Gets the seller's email address.
+     *
+     * @return The email address, or null if the seller no longer exists.
+     */
+    public String getSellerEmail() {
+        return sellerEmail;
+    }
+
+    /**
+     * Sets the seller's email address.
+     *
+     * @param sellerEmail The email address.
+     */
+    public void setSellerEmail(String sellerEmail) {
+        this.sellerEmail = sellerEmail;
+    }
+}
@@ -33,7 +33,8 @@ public class Seller extends User {
         System.out.println("2. Update Product");
         System.out.println("3. Delete Product");
         System.out.println("4. View My Products");
-        System.out.println("5. Logout");
+        System.out.println("5. View My Sales Summary");
+        System.out.println("6. Logout");
     }
 
 }
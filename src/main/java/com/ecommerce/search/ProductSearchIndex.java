@@ -0,0 +1,810 @@
+package com.ecommerce.search;
+
+import com.ecommerce.dao.CatalogEvents;
+import com.ecommerce.dao.CatalogListener;
+import com.ecommerce.dao.ProductRepository;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.IntObjectMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product names.
+ * Names are split into lowercase alphanumeric terms; each term maps to a sorted posting list of product IDs
+ * held in primitive arrays. A product matches when its name contains every query term, with the last term
+ * also matching as a prefix so partially typed words work. Matches are ranked with BM25.
+ * The index follows catalog changes through {@link CatalogEvents}.
+ */
+public class ProductSearchIndex implements CatalogListener {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, PostingList> terms = new TreeMap<>();
+    private final IntObjectMap<Doc> docs = new IntObjectMap<>();
+    private long totalLength;
+
+    // Guarded by lock: IDs deleted while attach() is streaming rows, so the stale rows are not re-added.
+    private IntObjectMap<Boolean> deletedDuringBuild;
+
+    /**
+     * Subscribes the index to catalog changes and fills it from a repository.
+     * Changes that arrive while the repository is being read are applied and take precedence over the rows read.
+     *
+     * @param repository the product source to index.
+     */
+    public void attach(ProductRepository repository) {
+        CatalogEvents.register(this);
+        lock.writeLock().lock();
+        try {
+            deletedDuringBuild = new IntObjectMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        repository.forEachProduct(product -> {
+            lock.writeLock().lock();
+            try {
+                if (!docs.containsKey(product.getId()) && !deletedDuringBuild.containsKey(product.getId())) {
+                    add(product);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            deletedDuringBuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds products whose names contain all query words, best matches first.
+     * The final word also matches any indexed word it is a prefix of, at a reduced weight;
+     * a product is credited for its best-matching completion only.
+     *
+     * @param query the free-text query.
+     * @param limit the maximum number of results.
+     * @return the matching products, ranked by relevance.
+     */
+    public List<Product> search(String query, int limit) {
+        String[] queryTerms = tokenize(query);
+        if (queryTerms.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            int n = docs.size();
+            double avgLength = n == 0 ? 1 : (double) totalLength / n;
+
+            // Every term but the last must match exactly.
+            int required = queryTerms.length - 1;
+            PostingList[] exact = new PostingList[required];
+            for (int i = 0; i < required; i++) {
+                exact[i] = terms.get(queryTerms[i]);
+                if (exact[i] == null) {
+                    return new ArrayList<>();
+                }
+            }
+            // The last term matches itself fully or any longer term as a prefix.
+            String last = queryTerms[required];
+            List<PostingList> lastGroup = new ArrayList<>();
+            List<Double> lastWeights = new ArrayList<>();
+            for (Map.Entry<String, PostingList> entry : terms.tailMap(last, true).entrySet()) {
+                if (!entry.getKey().startsWith(last) || lastGroup.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                lastGroup.add(entry.getValue());
+                lastWeights.add(entry.getKey().equals(last) ? 1.0 : PREFIX_WEIGHT);
+            }
+            if (lastGroup.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            TopHits top = new TopHits(limit);
+            if (required == 0) {
+                scoreUnion(lastGroup, lastWeights, n, avgLength, top);
+            } else {
+                scoreIntersection(exact, lastGroup, lastWeights, n, avgLength, top);
+            }
+            return top.toProducts();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completes a partial word from the indexed terms, most common terms first.
+     *
+     * @param prefix the partial word typed so far.
+     * @param limit  the maximum number of suggestions.
+     * @return the suggested terms.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String[] prefixTerms = tokenize(prefix);
+        List<String> suggestions = new ArrayList<>();
+        if (prefixTerms.length == 0 || limit <= 0) {
+            return suggestions;
+        }
+        String last = prefixTerms[prefixTerms.length - 1];
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<String, PostingList>> candidates = new ArrayList<>();
+            for (Map.Entry<String, PostingList> entry : terms.tailMap(last, true).entrySet()) {
+                if (!entry.getKey().startsWith(last) || candidates.size() >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                candidates.add(entry);
+            }
+            candidates.sort(Comparator.comparingInt((Map.Entry<String, PostingList> e) -> e.getValue().size).reversed());
+            for (int i = 0; i < candidates.size() && i < limit; i++) {
+                suggestions.add(candidates.get(i).getKey());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed products.
+     *
+     * @return the document count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void productUpdated(Product product) {
+        lock.writeLock().lock();
+        try {
+            Doc previous = remove(product.getId());
+            // An update for a product we do not hold, e.g. one hidden while its seller is deleted, must not create one.
+            if (previous == null) {
+                return;
+            }
+            Product copy = copyOf(product);
+            // Updates only carry name, price and quantity; keep the seller we already know.
+            copy.setSellerId(previous.product.getSellerId());
+            add(copy);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void stockChanged(int productId, int quantity) {
+        lock.writeLock().lock();
+        try {
+            Doc doc = docs.get(productId);
+            if (doc != null) {
+                doc.product.setQuantity(quantity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void productDeleted(int productId) {
+        lock.writeLock().lock();
+        try {
+            remove(productId);
+            if (deletedDuringBuild != null) {
+                deletedDuringBuild.put(productId, Boolean.TRUE);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void sellerProductsDeleted(int sellerId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> ids = new ArrayList<>();
+            docs.forEach((id, doc) -> {
+                if (doc.product.getSellerId() == sellerId) {
+                    ids.add(id);
+                }
+            });
+            for (int id : ids) {
+                remove(id);
+                if (deletedDuringBuild != null) {
+                    deletedDuringBuild.put(id, Boolean.TRUE);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lowercase terms of letters and digits.
+     *
+     * @param text the text to split.
+     * @return the terms in order of appearance; empty if there are none.
+     */
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        List<String> tokens = new ArrayList<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    // A partial word matches one word of the name, so a product scores by its best-matching expansion.
+    // Merging the expansions' impact-ordered lists highest-first means the first time a product is seen
+    // is its final score, and the walk can stop as soon as no unseen product can enter the top results.
+    // Common words therefore cost O(limit) rather than O(document frequency).
+    private void scoreUnion(List<PostingList> group, List<Double> weights, int n, double avgLength, TopHits top) {
+        int lists = group.size();
+        ImpactCursor[] cursors = new ImpactCursor[lists];
+        double[] factors = new double[lists];
+        for (int g = 0; g < lists; g++) {
+            cursors[g] = new ImpactCursor(group.get(g).impactOrder(avgLength), group.get(g));
+            factors[g] = weights.get(g) * idf(n, group.get(g).size);
+        }
+        ScoreAccumulator seen = lists > 1 ? new ScoreAccumulator() : null;
+        while (true) {
+            int best = -1;
+            double bestScore = 0;
+            for (int g = 0; g < lists; g++) {
+                if (cursors[g].hasNext()) {
+                    double score = factors[g] * cursors[g].currentImpact();
+                    if (best < 0 || score > bestScore) {
+                        best = g;
+                        bestScore = score;
+                    }
+                }
+            }
+            if (best < 0 || (top.isFull() && top.lowestScore() >= bestScore)) {
+                return;
+            }
+            int id = cursors[best].currentId();
+            cursors[best].advance();
+            if (seen == null || seen.mark(id)) {
+                top.offer(id, bestScore);
+            }
+        }
+    }
+
+    // Drives from the rarest required term and probes the others by binary search.
+    private void scoreIntersection(PostingList[] exact, List<PostingList> lastGroup, List<Double> lastWeights,
+                                   int n, double avgLength, TopHits top) {
+        PostingList driver = exact[0];
+        for (PostingList postings : exact) {
+            if (postings.size < driver.size) {
+                driver = postings;
+            }
+        }
+        double[] idfs = new double[exact.length];
+        for (int t = 0; t < exact.length; t++) {
+            idfs[t] = idf(n, exact[t].size);
+        }
+        double[] lastIdfs = new double[lastGroup.size()];
+        for (int g = 0; g < lastGroup.size(); g++) {
+            lastIdfs[g] = idf(n, lastGroup.get(g).size);
+        }
+
+        candidates:
+        for (int i = 0; i < driver.size; i++) {
+            int id = driver.ids[i];
+            int length = driver.lengths[i];
+            double score = 0;
+            for (int t = 0; t < exact.length; t++) {
+                int at = exact[t] == driver ? i : exact[t].indexOf(id);
+                if (at < 0) {
+                    continue candidates;
+                }
+                score += bm25(idfs[t], exact[t].freqs[at], length, avgLength);
+            }
+            double lastScore = -1;
+            for (int g = 0; g < lastGroup.size(); g++) {
+                int at = lastGroup.get(g).indexOf(id);
+                if (at >= 0) {
+                    lastScore = Math.max(lastScore, lastWeights.get(g) * bm25(lastIdfs[g], lastGroup.get(g).freqs[at], length, avgLength));
+                }
+            }
+            if (lastScore >= 0) {
+                top.offer(id, score + lastScore);
+            }
+        }
+    }
+
+    private static double idf(int n, int documentFrequency) {
+        return Math.log(1 + (n - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static double bm25(double idf, int tf, int length, double avgLength) {
+        return idf * impact(tf, length, avgLength);
+    }
+
+    private static double impact(int tf, int length, double avgLength) {
+        return tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+    }
+
+    private void add(Product product) {
+        String[] docTerms = tokenize(product.getName());
+        Arrays.sort(docTerms);
+        int i = 0;
+        while (i < docTerms.length) {
+            int j = i;
+            while (j < docTerms.length && docTerms[j].equals(docTerms[i])) {
+                j++;
+            }
+            terms.computeIfAbsent(docTerms[i], key -> new PostingList()).add(product.getId(), j - i, docTerms.length);
+            i = j;
+        }
+        docs.put(product.getId(), new Doc(copyOf(product), docTerms));
+        totalLength += docTerms.length;
+    }
+
+    private Doc remove(int productId) {
+        Doc doc = docs.remove(productId);
+        if (doc == null) {
+            return null;
+        }
+        String previous = null;
+        for (String term : doc.terms) {
+            if (term.equals(previous)) {
+                continue;
+            }
+            PostingList postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(productId);
+                if (postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+            previous = term;
+        }
+        totalLength -= doc.terms.length;
+        return doc;
+    }
+
+    private static Product copyOf(Product source) {
+        Product copy = new Product();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setPrice(source.getPrice());
+        copy.setQuantity(source.getQuantity());
+        copy.setSellerId(source.getSellerId());
+        return copy;
+    }
+
+    /**
+     * An indexed product and its sorted name terms.
+     */
+    private static final class Doc {
+        private final Product product;
+        private final String[] terms;
+
+        private Doc(Product product, String[] terms) {
+            this.product = product;
+            this.terms = terms;
+        }
+    }
+
+    /**
+     * Sorted product IDs containing a term, with the term frequency and name length for each,
+     * so scoring never has to look the product up. IDs usually arrive in increasing order, which makes adds an append.
+     * <p>
+     * The impact order is not thrown away on writes. Changed IDs are appended to {@code recent}, and queries
+     * merge them with the older order through an {@link ImpactCursor}. Once more than {@link #deltaLimit()}
+     * IDs have piled up, the writer folds them into a new order in one linear pass.
+     */
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int[] freqs = new int[4];
+        private int[] lengths = new int[4];
+        private int size;
+        // Built lazily by readers, replaced by writers when the delta is folded in.
+        private volatile ImpactOrder impactOrder;
+        // Guarded by the index lock: IDs added, changed or removed, in arrival order.
+        private int[] recent = new int[8];
+        private int recentCount;
+
+        private ImpactOrder impactOrder(double avgLength) {
+            ImpactOrder order = impactOrder;
+            if (order == null || Math.abs(order.avgLength - avgLength) > avgLength * 0.05) {
+                order = new ImpactOrder(this, avgLength);
+                impactOrder = order;
+            }
+            return order;
+        }
+
+        /**
+         * Records a changed ID and folds the delta into the impact order once it is too long to merge per query.
+         */
+        private void changed(int id) {
+            if (recentCount == recent.length) {
+                recent = Arrays.copyOf(recent, recentCount * 2);
+            }
+            recent[recentCount++] = id;
+            ImpactOrder order = impactOrder;
+            if (order == null) {
+                // Nothing to apply the delta to; the next full build covers every change.
+                if (recentCount > deltaLimit()) {
+                    recentCount = 0;
+                }
+            } else if (recentCount - order.recentFrom > deltaLimit()) {
+                ImpactOrder folded = new ImpactCursor(order, this).drain();
+                recentCount = 0;
+                impactOrder = folded;
+            }
+        }
+
+        private int deltaLimit() {
+            return Math.max(64, Math.min(1024, size >>> 6));
+        }
+
+        private int indexOf(int id) {
+            if (size == 0 || id < ids[0] || id > ids[size - 1]) {
+                return -1;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            return at < 0 ? -1 : at;
+        }
+
+        private void add(int id, int freq, int length) {
+            int at = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                freqs[at] = freq;
+                lengths[at] = length;
+                changed(id);
+                return;
+            }
+            int insert = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            System.arraycopy(freqs, insert, freqs, insert + 1, size - insert);
+            System.arraycopy(lengths, insert, lengths, insert + 1, size - insert);
+            ids[insert] = id;
+            freqs[insert] = freq;
+            lengths[insert] = length;
+            size++;
+            changed(id);
+        }
+
+        private void remove(int id) {
+            int at = indexOf(id);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(freqs, at + 1, freqs, at, size - at - 1);
+            System.arraycopy(lengths, at + 1, lengths, at, size - at - 1);
+            size--;
+            if (size > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+                freqs = Arrays.copyOf(freqs, freqs.length / 2);
+                lengths = Arrays.copyOf(lengths, lengths.length / 2);
+            }
+            changed(id);
+        }
+    }
+
+    /**
+     * A posting list's IDs re-sorted by descending BM25 term impact (ties by ascending ID).
+     * Immutable, so readers can share it without locking. It reflects the list as of {@code recentFrom}
+     * changes; later ones are merged in by {@link ImpactCursor}. It is rebuilt from scratch only when
+     * the average name length drifts by more than 5%.
+     */
+    private static final class ImpactOrder {
+        private final double avgLength;
+        private final int[] ids;
+        private final double[] impacts;
+        private final int recentFrom;
+
+        private ImpactOrder(double avgLength, int[] ids, double[] impacts, int recentFrom) {
+            this.avgLength = avgLength;
+            this.ids = ids;
+            this.impacts = impacts;
+            this.recentFrom = recentFrom;
+        }
+
+        private ImpactOrder(PostingList postings, double avgLength) {
+            this.avgLength = avgLength;
+            this.recentFrom = postings.recentCount;
+            int size = postings.size;
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                float value = (float) impact(postings.freqs[i], postings.lengths[i], avgLength);
+                // Higher impact first, then posting position, which is ascending ID.
+                keys[i] = ((long) (Integer.MAX_VALUE - Float.floatToIntBits(value)) << 32) | i;
+            }
+            Arrays.sort(keys);
+            ids = new int[size];
+            impacts = new double[size];
+            for (int i = 0; i < size; i++) {
+                int position = (int) keys[i];
+                ids[i] = postings.ids[position];
+                impacts[i] = impact(postings.freqs[position], postings.lengths[position], avgLength);
+            }
+        }
+    }
+
+    /**
+     * Walks an impact order merged with the posting list's changes since it was built: entries of changed
+     * IDs are skipped in the order and taken from a small, freshly sorted delta instead, so removed products
+     * disappear and updated ones appear at their current impact.
+     */
+    private static final class ImpactCursor {
+        private final ImpactOrder order;
+        private final int[] changed;
+        private final int[] deltaIds;
+        private final double[] deltaImpacts;
+        private int inOrder;
+        private int inDelta;
+
+        private ImpactCursor(ImpactOrder order, PostingList postings) {
+            this.order = order;
+            int[] ids = Arrays.copyOfRange(postings.recent, order.recentFrom, postings.recentCount);
+            Arrays.sort(ids);
+            int distinct = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            changed = Arrays.copyOf(ids, distinct);
+            long[] keys = new long[distinct];
+            int live = 0;
+            for (int id : changed) {
+                int at = postings.indexOf(id);
+                if (at >= 0) {
+                    float value = (float) impact(postings.freqs[at], postings.lengths[at], order.avgLength);
+                    keys[live++] = ((long) (Integer.MAX_VALUE - Float.floatToIntBits(value)) << 32) | at;
+                }
+            }
+            Arrays.sort(keys, 0, live);
+            deltaIds = new int[live];
+            deltaImpacts = new double[live];
+            for (int i = 0; i < live; i++) {
+                int position = (int) keys[i];
+                deltaIds[i] = postings.ids[position];
+                deltaImpacts[i] = impact(postings.freqs[position], postings.lengths[position], order.avgLength);
+            }
+            skipChanged();
+        }
+
+        private boolean hasNext() {
+            return inOrder < order.ids.length || inDelta < deltaIds.length;
+        }
+
+        private boolean fromDelta() {
+            if (inOrder == order.ids.length) {
+                return true;
+            }
+            if (inDelta == deltaIds.length) {
+                return false;
+            }
+            double a = deltaImpacts[inDelta];
+            double b = order.impacts[inOrder];
+            return a > b || (a == b && deltaIds[inDelta] < order.ids[inOrder]);
+        }
+
+        private int currentId() {
+            return fromDelta() ? deltaIds[inDelta] : order.ids[inOrder];
+        }
+
+        private double currentImpact() {
+            return fromDelta() ? deltaImpacts[inDelta] : order.impacts[inOrder];
+        }
+
+        private void advance() {
+            if (fromDelta()) {
+                inDelta++;
+            } else {
+                inOrder++;
+                skipChanged();
+            }
+        }
+
+        private void skipChanged() {
+            while (inOrder < order.ids.length && Arrays.binarySearch(changed, order.ids[inOrder]) >= 0) {
+                inOrder++;
+            }
+        }
+
+        /**
+         * Collects the rest of the walk into a new order that reflects every change so far.
+         */
+        private ImpactOrder drain() {
+            int capacity = order.ids.length + deltaIds.length;
+            int[] ids = new int[capacity];
+            double[] impacts = new double[capacity];
+            int n = 0;
+            while (hasNext()) {
+                ids[n] = currentId();
+                impacts[n] = currentImpact();
+                n++;
+                advance();
+            }
+            return new ImpactOrder(order.avgLength, Arrays.copyOf(ids, n), Arrays.copyOf(impacts, n), 0);
+        }
+    }
+
+    /**
+     * Open-addressing map from product ID to accumulated score, local to one query.
+     * Also used as a set of IDs already visited.
+     */
+    private static final class ScoreAccumulator {
+        private int[] keys = new int[64];
+        private double[] values = new double[64];
+        private boolean[] used = new boolean[64];
+        private int size;
+
+        private void add(int key, double score) {
+            int mask = keys.length - 1;
+            int h = key * 0x9E3779B9;
+            int slot = (h ^ (h >>> 16)) & mask;
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    values[slot] += score;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            values[slot] = score;
+            if (++size > keys.length / 2) {
+                grow();
+            }
+        }
+
+        // Returns true if the ID was not seen before.
+        private boolean mark(int key) {
+            int before = size;
+            add(key, 0);
+            return size != before;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            double[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new int[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    add(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best-scoring IDs seen so far, kept in parallel primitive arrays.
+     * Ties are broken in favour of the lower product ID.
+     */
+    private final class TopHits {
+        private final int[] ids;
+        private final double[] scores;
+        private int size;
+
+        private TopHits(int limit) {
+            ids = new int[limit];
+            scores = new double[limit];
+        }
+
+        private void offer(int id, double score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (worse(0, id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        private boolean isFull() {
+            return size == ids.length;
+        }
+
+        private double lowestScore() {
+            return scores[0];
+        }
+
+        private List<Product> toProducts() {
+            Product[] ranked = new Product[size];
+            while (size > 0) {
+                int id = ids[0];
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+                ranked[size] = copyOf(docs.get(id).product);
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        }
+
+        // True if the entry at slot ranks below (id, score).
+        private boolean worse(int slot, int id, double score) {
+            return scores[slot] < score || (scores[slot] == score && ids[slot] > id);
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (!worse(slot, ids[parent], scores[parent])) {
+                    break;
+                }
+                swap(slot, parent);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int smallest = slot;
+                for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                    if (worse(child, ids[smallest], scores[smallest])) {
+                        smallest = child;
+                    }
+                }
+                if (smallest == slot) {
+                    return;
+                }
+                swap(slot, smallest);
+                slot = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
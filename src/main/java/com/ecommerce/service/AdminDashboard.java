@@ -0,0 +1,42 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the admin overview shows, gathered by {@link DashboardService} in one parallel fan-out.
+ */
+
+public class AdminDashboard {
+    private final List<User> users;
+    private final List<Product> products;
+    private final Map<Integer, List<Product>> productsBySeller;
+
+    AdminDashboard(List<User> users, List<Product> products, Map<Integer, List<Product>> productsBySeller) {
+        this.users = users;
+        this.products = products;
+        this.productsBySeller = productsBySeller;
+    }
+
+    /** @return every user. */
+    public List<User> getUsers() { return users; }
+    /** @return every product. */
+    public List<Product> getProducts() { return products; }
+    /** @return each seller's products, keyed by seller ID; sellers without products map to an empty list. */
+    public Map<Integer, List<Product>> getProductsBySeller() { return productsBySeller; }
+
+    /**
+     * Adds up the stock of all products.
+     *
+     * @return the total number of units in stock.
+     */
+    public long getTotalStock() {
+        long total = 0;
+        for (Product product : products) {
+            total += product.getQuantity();
+        }
+        return total;
+    }
+}
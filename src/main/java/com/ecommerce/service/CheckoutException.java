@@ -0,0 +1,36 @@
+package com.ecommerce.service;
+
+/**
+ * Thrown when an order cannot be placed. Any stock reserved for it has been, or is being, returned.
+ */
+public class CheckoutException extends RuntimeException {
+    private final ReservationStatus status;
+    private final int productId;
+
+    /**
+     * Creates an exception.
+     *
+     * @param message   the detail message.
+     * @param status    why the order failed; {@link ReservationStatus#FAILED} if it could not be stored.
+     * @param productId the product that could not be reserved, or 0 if the failure is not about one product.
+     */
+    public CheckoutException(String message, ReservationStatus status, int productId) {
+        super(message);
+        this.status = status;
+        this.productId = productId;
+    }
+
+    /**
+     * Gets why the order failed.
+     *
+     * @return the status.
+     */
+    public ReservationStatus getStatus() { return status; }
+
+    /**
+     * Gets the product that could not be reserved.
+     *
+     * @return the product ID, or 0 if the failure is not about one product.
+     */
+    public int getProductId() { return productId; }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dao.AsyncProductRepository;
+import com.ecommerce.dao.AsyncUserRepository;
+import com.ecommerce.dao.Repositories;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.Seller;
+import com.ecommerce.model.User;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds composite views from several repository queries issued in parallel.
+ * The queries go through the asynchronous repository facades, so they run concurrently up to the connection
+ * pool's capacity, and the view is ready after the slowest of them rather than after their sum.
+ * Every view has one deadline shared by all of its queries; when it passes, the view fails and the queries
+ * still running are cancelled.
+ */
+
+public class DashboardService {
+    private final AsyncUserRepository users;
+    private final AsyncProductRepository products;
+
+    /**
+     * Creates a service backed by the shared asynchronous repositories.
+     */
+
+    public DashboardService() {
+        this(Repositories.asyncUsers(), Repositories.asyncProducts());
+    }
+
+    /**
+     * Creates a service backed by the given asynchronous repositories.
+     *
+     * @param users    the user queries.
+     * @param products the product queries.
+     */
+
+    public DashboardService(AsyncUserRepository users, AsyncProductRepository products) {
+        this.users = users;
+        this.products = products;
+    }
+
+    /**
+     * Loads the admin overview: all users, all products and each seller's products.
+     * The user and product lists are fetched together; as soon as the users arrive, one query per seller is
+     * issued in parallel.
+     *
+     * @param timeoutMillis the deadline for the whole view.
+     * @return a future completed with the view, or exceptionally with a {@code TimeoutException} if the
+     *         deadline passes. Cancelling it cancels the outstanding queries.
+     */
+
+    public CompletableFuture<AdminDashboard> loadAdminDashboard(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        CompletableFuture<AdminDashboard> result = new CompletableFuture<>();
+        Queue<CompletableFuture<?>> queries = new ConcurrentLinkedQueue<>();
+
+        CompletableFuture<List<User>> allUsers = track(users.withTimeout(remainingMillis(deadline)).getAllUsers(), queries, result);
+        CompletableFuture<List<Product>> allProducts = track(products.withTimeout(remainingMillis(deadline)).getAllProducts(), queries, result);
+        CompletableFuture<Map<Integer, List<Product>>> bySeller = allUsers.thenCompose(userList -> {
+            AsyncProductRepository sellerQueries = products.withTimeout(remainingMillis(deadline));
+            Map<Integer, CompletableFuture<List<Product>>> pending = new LinkedHashMap<>();
+            for (User user : userList) {
+                if (user instanceof Seller) {
+                    pending.put(user.getId(), track(sellerQueries.getProductsBySellerId(user.getId()), queries, result));
+                }
+            }
+            return CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                Map<Integer, List<Product>> lists = new LinkedHashMap<>();
+                pending.forEach((sellerId, future) -> lists.put(sellerId, future.join()));
+                return lists;
+            });
+        });
+
+        allProducts.thenCombine(bySeller, (productList, lists) -> new AdminDashboard(allUsers.join(), productList, lists))
+                .whenComplete((dashboard, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(failure);
+                    } else {
+                        result.complete(dashboard);
+                    }
+                });
+        result.orTimeout(Math.max(1, remainingMillis(deadline)), TimeUnit.MILLISECONDS);
+        result.whenComplete((dashboard, failure) -> {
+            if (failure != null) {
+                queries.forEach(query -> query.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Registers a query so a failed view can cancel it; a query issued after the view already failed is
+     * cancelled straight away.
+     */
+    private static <T> CompletableFuture<T> track(CompletableFuture<T> query, Queue<CompletableFuture<?>> queries,
+                                                  CompletableFuture<?> view) {
+        queries.add(query);
+        if (view.isCompletedExceptionally()) {
+            query.cancel(true);
+        }
+        return query;
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+}
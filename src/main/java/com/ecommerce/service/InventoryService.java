@@ -0,0 +1,228 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dao.ProductRepository;
+import com.ecommerce.dao.Repositories;
+import com.ecommerce.model.Product;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserves stock for purchases without ever overselling.
+ * <p>
+ * Every reservation ends in {@link ProductRepository#reserveStock(int, int)}, a conditional decrement, so the
+ * stored quantity cannot go below zero however many processes buy at once. To keep a flash sale on one hot
+ * product from serializing thousands of buyers on a single database row, concurrent reservations for the same
+ * product are coalesced in-process: callers queue their request, one of them takes the product's combiner lock
+ * and reserves the sum of up to {@code ecommerce.inventory.maxBatch} queued requests in one call, and the
+ * others wait for their outcome. If the combined amount is not available, requests are granted in arrival
+ * order as far as the current stock covers them, again with one conditional call.
+ */
+public class InventoryService {
+    private static final int MAX_BATCH = Math.max(1, Integer.getInteger("ecommerce.inventory.maxBatch", 256));
+    private static final int PARTIAL_ATTEMPTS = 3;
+    private static final long WAIT_MILLIS = 10;
+
+    private final ProductRepository products;
+    private final ConcurrentHashMap<Integer, Combiner> combiners = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder storeCalls = new LongAdder();
+
+    /**
+     * Creates a service backed by the configured storage engine.
+     */
+    public InventoryService() {
+        this(Repositories.products());
+    }
+
+    /**
+     * Creates a service backed by the given repository.
+     *
+     * @param products the product storage to reserve stock in.
+     */
+    public InventoryService(ProductRepository products) {
+        this.products = products;
+    }
+
+    /**
+     * Takes units of a product from stock, waiting while a concurrent caller reserves on this request's behalf.
+     *
+     * @param productId the product to buy.
+     * @param quantity  the number of units; must be positive.
+     * @return the outcome; stock was only taken if it is {@link ReservationStatus#RESERVED}.
+     * @throws IllegalArgumentException if {@code quantity} is not positive.
+     */
+    public ReservationStatus reserve(int productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        requests.increment();
+        Combiner combiner = combiners.computeIfAbsent(productId, id -> new Combiner());
+        Request request = new Request(quantity);
+        combiner.queue.add(request);
+        boolean interrupted = false;
+        do {
+            if (combiner.lock.tryLock()) {
+                try {
+                    combine(productId, combiner);
+                } finally {
+                    combiner.lock.unlock();
+                }
+            } else {
+                interrupted |= request.await();
+            }
+            // Help out if requests arrived while the lock was being released and nobody has picked them up.
+        } while (request.status == null || (!combiner.queue.isEmpty() && !combiner.lock.isLocked()));
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return request.status;
+    }
+
+    /**
+     * Gets the number of reservations requested.
+     *
+     * @return the count since startup.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of reservation calls made to storage; the lower it is relative to
+     * {@link #getRequestCount()}, the more requests were coalesced.
+     *
+     * @return the count since startup.
+     */
+    public long getStoreCallCount() {
+        return storeCalls.sum();
+    }
+
+    /**
+     * Takes one batch off the queue and settles it. Runs with the combiner lock held.
+     */
+    private void combine(int productId, Combiner combiner) {
+        List<Request> batch = new ArrayList<>();
+        long total = 0;
+        Request next;
+        while (batch.size() < MAX_BATCH && (next = combiner.queue.peek()) != null && total + next.quantity <= Integer.MAX_VALUE) {
+            combiner.queue.poll();
+            batch.add(next);
+            total += next.quantity;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            settle(productId, batch, (int) total);
+        } catch (RuntimeException e) {
+            System.err.println("Error reserving stock for product " + productId + ": " + e.getMessage());
+            for (Request request : batch) {
+                request.complete(ReservationStatus.FAILED);
+            }
+        }
+        if (combiner.queue.isEmpty()) {
+            // A caller still holding this combiner keeps using it; the next arrival starts a fresh one.
+            combiners.remove(productId, combiner);
+        }
+    }
+
+    private void settle(int productId, List<Request> batch, int total) {
+        storeCalls.increment();
+        if (products.reserveStock(productId, total) >= 0) {
+            completeAll(batch, ReservationStatus.RESERVED);
+            return;
+        }
+        // Not enough for everyone: grant in arrival order what the current stock covers.
+        for (int attempt = 0; attempt < PARTIAL_ATTEMPTS; attempt++) {
+            Product product = products.getProductById(productId);
+            if (product == null) {
+                completeAll(batch, ReservationStatus.NOT_FOUND);
+                return;
+            }
+            List<Request> granted = new ArrayList<>();
+            int sum = 0;
+            for (Request request : batch) {
+                if (request.quantity <= product.getQuantity() - sum) {
+                    granted.add(request);
+                    sum += request.quantity;
+                }
+            }
+            if (granted.isEmpty()) {
+                completeAll(batch, ReservationStatus.INSUFFICIENT_STOCK);
+                return;
+            }
+            storeCalls.increment();
+            if (products.reserveStock(productId, sum) >= 0) {
+                completeAll(granted, ReservationStatus.RESERVED);
+                completeAll(batch, ReservationStatus.INSUFFICIENT_STOCK);
+                return;
+            }
+            // The stock changed since it was read, e.g. a seller edit or another process; read it again.
+        }
+        for (Request request : batch) {
+            if (request.status == null) {
+                storeCalls.increment();
+                request.complete(products.reserveStock(productId, request.quantity) >= 0
+                        ? ReservationStatus.RESERVED : ReservationStatus.INSUFFICIENT_STOCK);
+            }
+        }
+    }
+
+    /**
+     * Completes every request in the list that has no outcome yet.
+     */
+    private static void completeAll(List<Request> requests, ReservationStatus status) {
+        for (Request request : requests) {
+            if (request.status == null) {
+                request.complete(status);
+            }
+        }
+    }
+
+    /**
+     * The queue and lock through which one product's reservations are coalesced.
+     */
+    private static final class Combiner {
+        private final ConcurrentLinkedQueue<Request> queue = new ConcurrentLinkedQueue<>();
+        private final ReentrantLock lock = new ReentrantLock();
+    }
+
+    /**
+     * One caller's reservation and its outcome.
+     */
+    private static final class Request {
+        private final int quantity;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile ReservationStatus status;
+
+        private Request(int quantity) {
+            this.quantity = quantity;
+        }
+
+        private void complete(ReservationStatus status) {
+            this.status = status;
+            done.countDown();
+        }
+
+        /**
+         * Waits briefly for the outcome; the caller re-checks whether it should combine instead.
+         * An interrupt does not abandon the request, since another thread may reserve it at any moment.
+         *
+         * @return {@code true} if the thread was interrupted while waiting.
+         */
+        private boolean await() {
+            try {
+                done.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                return false;
+            } catch (InterruptedException e) {
+                return true;
+            }
+        }
+    }
+}
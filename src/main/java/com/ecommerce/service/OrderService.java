@@ -0,0 +1,201 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dao.OrderRepository;
+import com.ecommerce.dao.Repositories;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.GroupCommitWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Service class for placing and viewing orders.
+ * <p>
+ * Checkout reserves stock for every line through {@link ProductService#reserveStock(int, int)}, then hands the
+ * order to a {@link GroupCommitWriter}, which stores the orders of many concurrent checkouts in one transaction.
+ * Batching is tuned with {@code ecommerce.orders.maxBatch} (256), {@code ecommerce.orders.maxLingerMicros}
+ * (1000) and {@code ecommerce.orders.queueCapacity} (10000). If an order cannot be stored, its reserved stock
+ * is returned.
+ */
+
+public class OrderService implements AutoCloseable {
+    private final ProductService productService;
+    private final OrderRepository orders;
+    private final GroupCommitWriter<Order> writer;
+
+    /**
+     * Creates a service backed by the configured storage engine.
+     *
+     * @param productService the product operations used to look up and reserve products.
+     */
+
+    public OrderService(ProductService productService) {
+        this(productService, Repositories.orders());
+    }
+
+    /**
+     * Creates a service backed by the given repository.
+     *
+     * @param productService the product operations used to look up and reserve products.
+     * @param orders         the order storage to use.
+     */
+
+    public OrderService(ProductService productService, OrderRepository orders) {
+        this.productService = productService;
+        this.orders = orders;
+        this.writer = new GroupCommitWriter<>("orders", orders::addOrders,
+                Integer.getInteger("ecommerce.orders.maxBatch", 256),
+                Long.getLong("ecommerce.orders.maxLingerMicros", 1_000L),
+                Integer.getInteger("ecommerce.orders.queueCapacity", 10_000));
+    }
+
+    /**
+     * Reserves stock for an order and queues it for storage.
+     *
+     * @param buyerId    the buyer placing the order.
+     * @param quantities the number of units per product ID, in the order the lines should appear.
+     * @return a future completing with the stored order, or exceptionally with a {@link CheckoutException},
+     *         or with an {@link IllegalArgumentException} if there are no lines or a quantity is not positive.
+     */
+
+    public CompletableFuture<Order> checkout(int buyerId, Map<Integer, Integer> quantities) {
+        Order order = new Order();
+        order.setBuyerId(buyerId);
+        try {
+            if (quantities.isEmpty()) {
+                throw new IllegalArgumentException("An order needs at least one item");
+            }
+            // Look every line's product up in one round trip before reserving stock line by line.
+            Map<Integer, Product> products = new HashMap<>();
+            for (Product product : productService.getProducts(quantities.keySet().stream().mapToInt(Integer::intValue).toArray())) {
+                products.put(product.getId(), product);
+            }
+            for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                order.addItem(reserve(products.get(line.getKey()), line.getKey(), line.getValue()));
+            }
+        } catch (CheckoutException | IllegalArgumentException e) {
+            release(order);
+            return CompletableFuture.failedFuture(e);
+        }
+        return writer.submit(order).handle((stored, error) -> {
+            if (error == null) {
+                return order;
+            }
+            // The writer thread completes this future; give the stock back off that thread.
+            Thread.startVirtualThread(() -> release(order));
+            throw new CheckoutException("The order could not be saved", ReservationStatus.FAILED, 0);
+        });
+    }
+
+    /**
+     * Places an order and waits until it has been stored.
+     *
+     * @param buyerId    the buyer placing the order.
+     * @param quantities the number of units per product ID.
+     * @return the stored order.
+     * @throws CheckoutException        if a product is unavailable or the order could not be stored.
+     * @throws IllegalArgumentException if there are no lines or a quantity is not positive.
+     */
+
+    public Order placeOrder(int buyerId, Map<Integer, Integer> quantities) {
+        try {
+            return checkout(buyerId, quantities).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets a buyer's orders, newest first.
+     *
+     * @param buyerId of the buyer.
+     * @return the orders, or an empty list if there are none.
+     */
+
+    public List<Order> getBuyerOrders(int buyerId) {
+        return orders.getOrdersByBuyerId(buyerId);
+    }
+
+    /**
+     * Buys units of one product and reports the outcome.
+     *
+     * @param buyerId   of the buyer.
+     * @param productId of the product to buy.
+     * @param quantity  the number of units.
+     */
+
+    public void purchaseProduct(int buyerId, int productId, int quantity) {
+        if (quantity <= 0) {
+            System.out.println("Quantity must be at least 1.");
+            return;
+        }
+        try {
+            Order order = placeOrder(buyerId, Map.of(productId, quantity));
+            System.out.println("Order " + order.getId() + " placed. Total: $" + order.getTotal());
+        } catch (CheckoutException | IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * view a buyer's orders and displays them if found.
+     *
+     * @param buyerId of the buyer.
+     */
+
+    public void viewBuyerOrders(int buyerId) {
+        List<Order> buyerOrders = getBuyerOrders(buyerId);
+        if (buyerOrders.isEmpty()) {
+            System.out.println("No orders found.");
+            return;
+        }
+        for (Order order : buyerOrders) {
+            System.out.println("Order " + order.getId() + " (" + order.getCreatedAt() + ", " + order.getStatus() + ") - $" + order.getTotal());
+            for (OrderItem item : order.getItems()) {
+                System.out.println("  " + item.getQuantity() + " x " + item.getProductName() + " @ $" + item.getUnitPrice());
+            }
+        }
+    }
+
+    /**
+     * Stores any queued orders and stops the writer.
+     */
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    private OrderItem reserve(Product product, int productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be at least 1");
+        }
+        if (product == null) {
+            throw new CheckoutException("Product " + productId + " not found.", ReservationStatus.NOT_FOUND, productId);
+        }
+        ReservationStatus status = productService.reserveStock(productId, quantity);
+        return switch (status) {
+            case RESERVED -> new OrderItem(productId, product.getName(), product.getPrice(), quantity);
+            case INSUFFICIENT_STOCK -> throw new CheckoutException("Not enough stock for " + product.getName() + ".", status, productId);
+            case NOT_FOUND -> throw new CheckoutException("Product " + productId + " not found.", status, productId);
+            case FAILED -> throw new CheckoutException("Purchase failed. Please try again.", status, productId);
+        };
+    }
+
+    /**
+     * Returns the stock reserved for an order's lines.
+     */
+    private void release(Order order) {
+        for (OrderItem item : order.getItems()) {
+            if (!productService.releaseStock(item.getProductId(), item.getQuantity())) {
+                System.err.println("Could not return " + item.getQuantity() + " units of product " + item.getProductId() + " to stock");
+            }
+        }
+    }
+}
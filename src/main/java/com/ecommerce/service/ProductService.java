@@ -1,8 +1,24 @@
 package com.ecommerce.service;
 
-import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.analytics.SellerAggregates;
+import com.ecommerce.analytics.SellerStats;
+import com.ecommerce.catalog.CatalogSnapshot;
+import com.ecommerce.catalog.CatalogSnapshotManager;
+import com.ecommerce.catalog.ListingWriter;
+import com.ecommerce.catalog.ProductQuery;
+import com.ecommerce.catalog.ProductSort;
+import com.ecommerce.catalog.SellerDirectory;
+import com.ecommerce.dao.ProductRepository;
+import com.ecommerce.dao.Repositories;
+import com.ecommerce.dao.UserRepository;
 import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductWithSeller;
+import com.ecommerce.search.ProductSearchIndex;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class for managing products in the system.
@@ -10,34 +26,374 @@ import java.util.List;
  */
 
 public class ProductService {
-    private final ProductDAO productDAO = new ProductDAO();
+    private static final int PAGE_SIZE = Integer.getInteger("ecommerce.browse.pageSize", 100);
+    private static final int SEARCH_LIMIT = Integer.getInteger("ecommerce.search.limit", 10);
+
+    private final ProductRepository productDAO;
+    private final ProductSearchIndex searchIndex;
+    private final InventoryService inventory;
+    private final CatalogSnapshotManager snapshots;
+    private final SellerAggregates sellerAggregates;
+    private final SellerDirectory sellers;
+
+    /**
+     * Creates a service backed by the configured storage engine.
+     */
+
+    public ProductService() {
+        this(Repositories.products(), Repositories.users());
+    }
+
+    /**
+     * Creates a service backed by the given repository.
+     * Unless {@code ecommerce.search.enabled} is {@code false}, the product search index is built from it here;
+     * likewise the columnar catalog snapshot unless {@code ecommerce.snapshot.enabled} is {@code false},
+     * and the per-seller totals unless {@code ecommerce.analytics.enabled} is {@code false}.
+     *
+     * Without a user repository, seller listings show seller IDs only.
+     *
+     * @param productDAO the product storage to use.
+     */
+
+    public ProductService(ProductRepository productDAO) {
+        this(productDAO, null);
+    }
+
+    /**
+     * Creates a service backed by the given repositories.
+     * With a user repository and the catalog snapshot enabled, a seller directory is loaded from it here too,
+     * unless {@code ecommerce.sellerDirectory.enabled} is {@code false}, so seller listings can show names.
+     *
+     * @param productDAO the product storage to use.
+     * @param users      the user storage to take seller names from, or null.
+     */
+
+    public ProductService(ProductRepository productDAO, UserRepository users) {
+        this.productDAO = productDAO;
+        this.inventory = new InventoryService(productDAO);
+        if (Boolean.parseBoolean(System.getProperty("ecommerce.search.enabled", "true"))) {
+            this.searchIndex = new ProductSearchIndex();
+            this.searchIndex.attach(productDAO);
+        } else {
+            this.searchIndex = null;
+        }
+        if (Boolean.parseBoolean(System.getProperty("ecommerce.snapshot.enabled", "true"))) {
+            this.snapshots = new CatalogSnapshotManager();
+            this.snapshots.attach(productDAO);
+        } else {
+            this.snapshots = null;
+        }
+        if (Boolean.parseBoolean(System.getProperty("ecommerce.analytics.enabled", "true"))) {
+            this.sellerAggregates = new SellerAggregates();
+            if (snapshots != null) {
+                this.sellerAggregates.attach(snapshots);
+            } else {
+                this.sellerAggregates.attach(productDAO);
+            }
+        } else {
+            this.sellerAggregates = null;
+        }
+        if (users != null && snapshots != null
+                && Boolean.parseBoolean(System.getProperty("ecommerce.sellerDirectory.enabled", "true"))) {
+            this.sellers = new SellerDirectory();
+            this.sellers.attach(users);
+        } else {
+            this.sellers = null;
+        }
+    }
 
     /**
      * Displays a list of all available products.
+     * With the catalog snapshot enabled the listing is printed straight from it; otherwise products are
+     * fetched and printed one keyset page at a time, so memory use does not grow with the catalog.
      */
 
     public void browseProducts() {
-        List<Product> products = productDAO.getAllProducts();
-        if (products.isEmpty()) {
+        if (snapshots != null) {
+            printSnapshot(false);
+            return;
+        }
+        int afterId = 0;
+        boolean any = false;
+        List<Product> page;
+        do {
+            page = productDAO.getProductsPage(afterId, PAGE_SIZE);
+            for (Product product : page) {
+                System.out.println(product.getId() + ": " + product.getName() + " - $" + product.getPrice());
+                afterId = product.getId();
+                any = true;
+            }
+        } while (page.size() == PAGE_SIZE);
+        if (!any) {
             System.out.println("No products available.");
-        } else {
-            products.forEach(product -> System.out.println(product.getId() + ": " + product.getName() + " - $" + product.getPrice()));
         }
     }
 
     /**
-     * Searches for a product by name and displays it if found.
+     * Searches for products by name and displays the best matches.
+     * The query may contain several words and partial words; matching is case-insensitive.
      *
      * @param name the name of the product to search for.
      */
 
     public void searchProduct(String name) {
-        Product product = productDAO.getProductByName(name);
-        if (product != null) {
-            System.out.println("Found Product: " + product.getName() + " - $" + product.getPrice());
+        List<Product> products = findProducts(name, SEARCH_LIMIT);
+        if (products.isEmpty()) {
+            System.out.println("Product not found.");
         } else {
+            products.forEach(product -> System.out.println("Found Product: " + product.getName() + " - $" + product.getPrice() + " (ID: " + product.getId() + ")"));
+        }
+    }
+
+    /**
+     * Finds products matching a free-text query, ranked by relevance.
+     * Falls back to an exact name lookup when the search index is disabled.
+     *
+     * @param query the words to search for.
+     * @param limit the maximum number of results.
+     * @return the matching products, best match first.
+     */
+
+    public List<Product> findProducts(String query, int limit) {
+        if (searchIndex != null) {
+            return searchIndex.search(query, limit);
+        }
+        Product product = productDAO.getProductByName(query);
+        return product == null ? List.of() : List.of(product);
+    }
+
+    /**
+     * Suggests completions for a partially typed product search.
+     *
+     * @param prefix the text typed so far.
+     * @param limit  the maximum number of suggestions.
+     * @return the suggested words, most common first.
+     */
+
+    public List<String> suggestSearchTerms(String prefix, int limit) {
+        return searchIndex == null ? List.of() : searchIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * Gets one page of the catalog in ID order.
+     *
+     * @param afterId the last ID of the previous page, or 0 for the first page.
+     * @param limit   the maximum page size; capped at the configured browse page size.
+     * @return the products on the page.
+     */
+
+    public List<Product> getProductsPage(int afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, PAGE_SIZE));
+        if (snapshots != null) {
+            return snapshots.current().page(afterId, pageSize);
+        }
+        return productDAO.getProductsPage(afterId, pageSize);
+    }
+
+    /**
+     * Filters and sorts the catalog by price, seller and stock.
+     * Served from the catalog snapshot, which may lag the latest writes by its refresh interval;
+     * when the snapshot is disabled, a temporary one is built from the repository for this query.
+     *
+     * @param query the filters, ordering and limit.
+     * @return the matching products in the requested order.
+     */
+
+    public List<Product> queryProducts(ProductQuery query) {
+        CatalogSnapshot snapshot = snapshots != null ? snapshots.current() : CatalogSnapshot.load(productDAO);
+        int[] positions = snapshot.query(query);
+        List<Product> products = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            products.add(snapshot.toProduct(position));
+        }
+        return products;
+    }
+
+    /**
+     * Gets the products priced within a range, cheapest first.
+     * The range is located by binary search on the snapshot's price index.
+     *
+     * @param minPrice the lowest price, inclusive, or null for no lower bound.
+     * @param maxPrice the highest price, inclusive, or null for no upper bound.
+     * @param limit    the maximum number of products.
+     * @return the products in price order, ties in ID order.
+     */
+
+    public List<Product> getProductsInPriceRange(BigDecimal minPrice, BigDecimal maxPrice, int limit) {
+        ProductQuery query = new ProductQuery();
+        query.setMinPriceCents(minPrice == null ? 0 : CatalogSnapshot.toCents(minPrice));
+        query.setMaxPriceCents(maxPrice == null ? Long.MAX_VALUE : CatalogSnapshot.toCents(maxPrice));
+        query.setSort(ProductSort.PRICE_ASC);
+        query.setLimit(limit);
+        return queryProducts(query);
+    }
+
+    /**
+     * Gets the cheapest products that are in stock.
+     *
+     * @param limit the number of products.
+     * @return up to {@code limit} products, cheapest first.
+     */
+
+    public List<Product> getCheapestProducts(int limit) {
+        ProductQuery query = new ProductQuery();
+        query.setInStockOnly(true);
+        query.setSort(ProductSort.PRICE_ASC);
+        query.setLimit(limit);
+        return queryProducts(query);
+    }
+
+    /**
+     * Gets the products with the most units in stock.
+     *
+     * @param limit the number of products.
+     * @return up to {@code limit} products, highest stock first.
+     */
+
+    public List<Product> getMostStockedProducts(int limit) {
+        ProductQuery query = new ProductQuery();
+        query.setSort(ProductSort.QUANTITY_DESC);
+        query.setLimit(limit);
+        return queryProducts(query);
+    }
+
+    /**
+     * Gets a product by its ID.
+     *
+     * @param productId of the product.
+     * @return the product, or null if not found.
+     */
+
+    public Product getProduct(int productId) {
+        return productDAO.getProductById(productId);
+    }
+
+    /**
+     * Gets several products at once, e.g. to show the lines of a cart or an order.
+     * Cached products are served from the cache and the rest are fetched in a single query.
+     *
+     * @param productIds the IDs of the products.
+     * @return the products found, in the order their IDs first appear; unknown IDs are skipped.
+     */
+
+    public List<Product> getProducts(int[] productIds) {
+        return productDAO.getProductsByIds(productIds);
+    }
+
+    /**
+     * view the details of several products, fetched together.
+     *
+     * @param productIds of the products to view.
+     */
+
+    public void viewProductsDetails(int[] productIds) {
+        List<Product> products = getProducts(productIds);
+        if (products.isEmpty()) {
             System.out.println("Product not found.");
         }
+        for (Product product : products) {
+            System.out.println(product.getId() + ": " + product.getName() + " - $" + product.getPrice() + " (" + product.getQuantity() + " in stock)");
+        }
+    }
+
+    /**
+     * Gets the products offered by a seller.
+     *
+     * @param sellerId of the seller.
+     * @return the seller's products, or an empty list if there are none.
+     */
+
+    public List<Product> getSellerProducts(int sellerId) {
+        return productDAO.getProductsBySellerId(sellerId);
+    }
+
+    /**
+     * Streams every product with its seller ID to a consumer without holding the catalog in memory.
+     *
+     * @param consumer receives each product in ID order.
+     */
+
+    public void forEachProduct(Consumer<Product> consumer) {
+        productDAO.forEachProduct(consumer);
+    }
+
+    /**
+     * Streams every product in ID order together with its seller's username and email, read by a single join.
+     *
+     * @param consumer receives each product and seller.
+     */
+
+    public void forEachProductWithSeller(Consumer<ProductWithSeller> consumer) {
+        productDAO.forEachProductWithSeller(consumer);
+    }
+
+    /**
+     * Adds a product without printing anything.
+     *
+     * @param product details to add; its ID is set on success.
+     * @return {@code true} if the product was added.
+     */
+
+    public boolean createProduct(Product product) {
+        productDAO.addProduct(product);
+        return product.getId() > 0;
+    }
+
+    /**
+     * Updates a product without printing anything.
+     *
+     * @param product the new details, identified by its ID.
+     * @return {@code true} if the product existed and was updated.
+     */
+
+    public boolean changeProduct(Product product) {
+        return productDAO.updateProduct(product);
+    }
+
+    /**
+     * Reserves units of a product for a purchase without printing anything.
+     * Concurrent purchases of the same product are coalesced; stock is never oversold.
+     *
+     * @param productId of the product to buy.
+     * @param quantity  the number of units; must be positive.
+     * @return the outcome of the reservation.
+     */
+
+    public ReservationStatus reserveStock(int productId, int quantity) {
+        return inventory.reserve(productId, quantity);
+    }
+
+    /**
+     * Returns reserved units to stock without printing anything, e.g. when an order is abandoned.
+     *
+     * @param productId of the product.
+     * @param quantity  the number of units to return.
+     * @return {@code true} if the stock was updated.
+     */
+
+    public boolean releaseStock(int productId, int quantity) {
+        return productDAO.releaseStock(productId, quantity) >= 0;
+    }
+
+    /**
+     * Gets the inventory service reservations go through, e.g. to read its coalescing counters.
+     *
+     * @return the inventory service.
+     */
+
+    public InventoryService getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Deletes a product without printing anything.
+     *
+     * @param productId of the product to delete.
+     * @return {@code true} if the product existed and was deleted.
+     */
+
+    public boolean removeProduct(int productId) {
+        return productDAO.deleteProduct(productId);
     }
 
     /**
@@ -70,6 +426,23 @@ public class ProductService {
         System.out.println("Product added successfully.");
     }
 
+    /**
+     * add many products to the products database in one batch.
+     *
+     * @param products the products to add.
+     * @return the generated product IDs, or an empty array if the batch failed.
+     */
+
+    public int[] addProducts(Collection<Product> products) {
+        int[] ids = productDAO.addProducts(products);
+        if (ids.length == products.size()) {
+            System.out.println(ids.length + " products added successfully.");
+        } else {
+            System.out.println("Failed to add products.");
+        }
+        return ids;
+    }
+
     /**
      * update product if found.
      *
@@ -114,18 +487,94 @@ public class ProductService {
             products.forEach(product -> System.out.println(product.getId() + ": " + product.getName() + " - $" + product.getPrice()));
         }
     }
+    /**
+     * Gets one seller's product count, stock, inventory value and price range.
+     * Served from the materialized totals; computed from the catalog when they are disabled.
+     *
+     * @param sellerId of the seller.
+     * @return the seller's totals.
+     */
+
+    public SellerStats getSellerStats(int sellerId) {
+        return aggregates().getStats(sellerId);
+    }
+
+    /**
+     * Gets the totals of every seller with products, for the admin report.
+     *
+     * @return the totals, highest inventory value first.
+     */
+
+    public List<SellerStats> getSellerReport() {
+        return aggregates().getAllStats();
+    }
+
+    /**
+     * view a seller's totals.
+     *
+     * @param sellerId of the seller.
+     */
+
+    public void viewSellerStats(int sellerId) {
+        System.out.println(getSellerStats(sellerId));
+    }
+
+    /**
+     * view the totals of all sellers, highest inventory value first.
+     */
+
+    public void viewSellerReport() {
+        List<SellerStats> report = getSellerReport();
+        if (report.isEmpty()) {
+            System.out.println("No sellers have products.");
+        } else {
+            report.forEach(System.out::println);
+        }
+    }
+
+    private SellerAggregates aggregates() {
+        return sellerAggregates != null ? sellerAggregates : SellerAggregates.compute(productDAO);
+    }
+
     /**
      * view all products with sellers.
+     * Printed from the catalog snapshot with names from the seller directory when both are enabled;
+     * otherwise products and seller names are streamed from a single join and printed as they arrive.
      *
      */
 
     public void viewAllProductsWithSellers() {
-        List<Product> products = productDAO.getAllProducts();
-        if (products.isEmpty()) {
+        if (snapshots != null && sellers != null) {
+            printSnapshot(true);
+            return;
+        }
+        int[] count = {0};
+        productDAO.forEachProductWithSeller(row -> {
+            Product product = row.getProduct();
+            String seller = row.getSellerUsername() == null ? "Seller ID: " + product.getSellerId()
+                    : "Seller: " + row.getSellerUsername() + ", ID: " + product.getSellerId();
+            System.out.println(product.getId() + ": " + product.getName() + " - $" + product.getPrice() + " (" + seller + ")");
+            count[0]++;
+        });
+        if (count[0] == 0) {
             System.out.println("No products available.");
-        } else {
-            products.forEach(product -> System.out.println(product.getId() + ": " + product.getName() + " - $" + product.getPrice() + " (Seller ID: " + product.getSellerId() + ")"));
         }
     }
-}
 
+    private void printSnapshot(boolean withSeller) {
+        CatalogSnapshot snapshot = snapshots.current();
+        if (snapshot.size() == 0) {
+            System.out.println("No products available.");
+            return;
+        }
+        ListingWriter writer = new ListingWriter(System.out);
+        for (int position = 0; position < snapshot.size(); position++) {
+            if (withSeller && sellers != null) {
+                writer.write(snapshot, position, sellers);
+            } else {
+                writer.write(snapshot, position, withSeller);
+            }
+        }
+        writer.flush();
+    }
+}
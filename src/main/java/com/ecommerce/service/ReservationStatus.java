@@ -0,0 +1,15 @@
+package com.ecommerce.service;
+
+/**
+ * Outcome of a stock reservation made through {@link InventoryService}.
+ */
+public enum ReservationStatus {
+    /** The units were taken from stock. */
+    RESERVED,
+    /** Too few units remain; nothing was taken. */
+    INSUFFICIENT_STOCK,
+    /** The product does not exist. */
+    NOT_FOUND,
+    /** Storage failed; nothing was taken. */
+    FAILED
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.service;
+
+/**
+ * The progress of one background seller deletion run by {@link SellerDeletionService}.
+ * Updated by the deletion thread and safe to read from any thread.
+ */
+
+public class SellerDeletionJob {
+
+    /**
+     * Where a deletion stands.
+     */
+    public enum Status {
+        /** Waiting for earlier deletions to finish. */
+        QUEUED,
+        /** Deleting products chunk by chunk. */
+        RUNNING,
+        /** All products and the user have been deleted. */
+        COMPLETED,
+        /** Gave up; the user stays marked and hidden, and the deletion resumes on the next start. */
+        FAILED
+    }
+
+    private final int sellerId;
+    private final long queuedAtMillis = System.currentTimeMillis();
+    private volatile Status status = Status.QUEUED;
+    private volatile long deletedProducts;
+    private volatile int chunks;
+    private volatile long finishedAtMillis;
+    private volatile String error;
+
+    SellerDeletionJob(int sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    /** @return the ID of the seller being deleted. */
+    public int getSellerId() { return sellerId; }
+    /** @return the current status. */
+    public Status getStatus() { return status; }
+    /** @return the number of products deleted so far. */
+    public long getDeletedProducts() { return deletedProducts; }
+    /** @return the number of chunks deleted so far. */
+    public int getChunks() { return chunks; }
+    /** @return when the job was queued, in epoch milliseconds. */
+    public long getQueuedAtMillis() { return queuedAtMillis; }
+    /** @return when the job completed or failed, in epoch milliseconds, or 0 while it is pending. */
+    public long getFinishedAtMillis() { return finishedAtMillis; }
+    /** @return why the job failed, or null. */
+    public String getError() { return error; }
+
+    /**
+     * Checks whether the job has completed or failed.
+     *
+     * @return {@code true} once the job will make no more progress.
+     */
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void started() {
+        status = Status.RUNNING;
+    }
+
+    void chunkDeleted(int products) {
+        deletedProducts += products;
+        chunks++;
+    }
+
+    void completed() {
+        finishedAtMillis = System.currentTimeMillis();
+        status = Status.COMPLETED;
+    }
+
+    void failed(String reason) {
+        error = reason;
+        finishedAtMillis = System.currentTimeMillis();
+        status = Status.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "Seller " + sellerId + ": " + status + ", " + deletedProducts + " products deleted in " + chunks + " chunks"
+                + (error == null ? "" : " (" + error + ")");
+    }
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dao.UserRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Deletes users, moving sellers with large catalogs to a background job.
+ * <p>
+ * Users with at most {@code ecommerce.users.syncDeleteLimit} products (1,000 by default) are deleted in one
+ * transaction as before. Larger sellers are first marked for deletion, which hides their products from every
+ * read at once; a single background thread then deletes the products in chunks of
+ * {@code ecommerce.users.deleteChunk} rows (1,000 by default), each in its own short transaction, pausing
+ * {@code ecommerce.users.deletePauseMillis} (100 by default) between chunks so buyer traffic is not starved
+ * of locks or WAL bandwidth. The user row goes last. Deletions interrupted by a restart are resumed by
+ * {@link #resumePending()}.
+ */
+
+public class SellerDeletionService implements AutoCloseable {
+    private static final int SYNC_DELETE_LIMIT = Integer.getInteger("ecommerce.users.syncDeleteLimit", 1_000);
+    private static final int CHUNK_SIZE = Math.max(1, Integer.getInteger("ecommerce.users.deleteChunk", 1_000));
+    private static final long PAUSE_MILLIS = Long.getLong("ecommerce.users.deletePauseMillis", 100);
+    private static final int MAX_CONSECUTIVE_FAILURES = 5;
+
+    private final UserRepository users;
+    private final ConcurrentHashMap<Integer, SellerDeletionJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "seller-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a service deleting from the given repository.
+     *
+     * @param users the user storage.
+     */
+
+    public SellerDeletionService(UserRepository users) {
+        this.users = users;
+    }
+
+    /**
+     * Deletes a user, in the background if they sell more than the synchronous limit.
+     *
+     * @param userId the ID of the user.
+     * @return {@code true} if the user was deleted or their deletion has been scheduled.
+     */
+
+    public boolean delete(int userId) {
+        SellerDeletionJob existing = jobs.get(userId);
+        if (existing != null && !existing.isFinished()) {
+            return true;
+        }
+        // A failed count (-1) is treated as a large catalog, never as a licence for the single-transaction delete.
+        int products = users.countSellerProducts(userId, SYNC_DELETE_LIMIT + 1);
+        if (products >= 0 && products <= SYNC_DELETE_LIMIT) {
+            return users.deleteUser(userId);
+        }
+        if (!users.markForDeletion(userId)) {
+            return false;
+        }
+        schedule(userId);
+        return true;
+    }
+
+    /**
+     * Schedules the deletions left unfinished by a previous run.
+     *
+     * @return the number of deletions resumed.
+     */
+
+    public int resumePending() {
+        int[] pending = users.getUsersPendingDeletion();
+        for (int userId : pending) {
+            SellerDeletionJob existing = jobs.get(userId);
+            if (existing == null || existing.isFinished()) {
+                schedule(userId);
+            }
+        }
+        return pending.length;
+    }
+
+    /**
+     * Gets the progress of the latest background deletion of a user.
+     *
+     * @param userId the ID of the user.
+     * @return the job, or null if the user was never deleted in the background by this process.
+     */
+
+    public SellerDeletionJob getJob(int userId) {
+        return jobs.get(userId);
+    }
+
+    /**
+     * Gets the progress of every background deletion started by this process.
+     *
+     * @return the jobs, in no particular order.
+     */
+
+    public List<SellerDeletionJob> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * Stops the deletion thread. A running deletion stops after its current chunk and resumes on the next start.
+     */
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+
+    private void schedule(int userId) {
+        SellerDeletionJob job = new SellerDeletionJob(userId);
+        jobs.put(userId, job);
+        try {
+            worker.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.failed("Deletion service is shut down");
+        }
+    }
+
+    private void run(SellerDeletionJob job) {
+        job.started();
+        int failures = 0;
+        try {
+            while (true) {
+                int deleted = users.deleteSellerProducts(job.getSellerId(), CHUNK_SIZE);
+                if (deleted < 0) {
+                    if (++failures >= MAX_CONSECUTIVE_FAILURES) {
+                        job.failed("Deleting products failed " + failures + " times in a row");
+                        return;
+                    }
+                    Thread.sleep(PAUSE_MILLIS * (1L << failures));
+                    continue;
+                }
+                failures = 0;
+                if (deleted == 0) {
+                    break;
+                }
+                job.chunkDeleted(deleted);
+                if (PAUSE_MILLIS > 0) {
+                    Thread.sleep(PAUSE_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.failed("Interrupted");
+            return;
+        }
+        if (users.deleteUser(job.getSellerId())) {
+            job.completed();
+        } else {
+            job.failed("Deleting the user failed");
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.ecommerce.service;
 
-import com.ecommerce.dao.UserDAO;
+import com.ecommerce.dao.Repositories;
+import com.ecommerce.dao.UserRepository;
 import com.ecommerce.model.Admin;
 import com.ecommerce.model.Buyer;
 import com.ecommerce.model.Seller;
 import com.ecommerce.model.User;
+import com.ecommerce.session.Session;
+import com.ecommerce.session.SessionManager;
+import com.ecommerce.util.BloomFilter;
+import com.ecommerce.util.PasswordHashingRejectedException;
 import com.ecommerce.util.PasswordUtil;
 
 
@@ -16,7 +21,58 @@ import java.util.List;
  */
 
 public class UserService {
-    private final UserDAO userDAO = new UserDAO();
+    private final UserRepository userDAO;
+    private final SessionManager sessions;
+    private final BloomFilter knownEmails;
+    private final SellerDeletionService deletions;
+
+    /**
+     * Creates a service backed by the configured storage engine and the shared session store.
+     */
+
+    public UserService() {
+        this(Repositories.users(), SessionManager.getDefault());
+    }
+
+    /**
+     * Creates a service backed by the given repository and the shared session store.
+     *
+     * @param userDAO the user storage to use.
+     */
+
+    public UserService(UserRepository userDAO) {
+        this(userDAO, SessionManager.getDefault());
+    }
+
+    /**
+     * Creates a service backed by the given repository and session store.
+     * Unless {@code ecommerce.users.emailFilter.enabled} is {@code false}, a Bloom filter of the registered
+     * email addresses is filled from the repository here. It is sized for
+     * {@code ecommerce.users.emailFilter.expectedEmails} addresses (one million by default).
+     * Unless {@code ecommerce.users.backgroundDelete.enabled} is {@code false}, sellers with large catalogs are
+     * deleted in the background (see {@link SellerDeletionService}), and deletions left unfinished by an
+     * earlier run are resumed here.
+     *
+     * @param userDAO  the user storage to use.
+     * @param sessions the session store to use.
+     */
+
+    public UserService(UserRepository userDAO, SessionManager sessions) {
+        this.userDAO = userDAO;
+        this.sessions = sessions;
+        if (Boolean.parseBoolean(System.getProperty("ecommerce.users.emailFilter.enabled", "true"))) {
+            this.knownEmails = new BloomFilter(Long.getLong("ecommerce.users.emailFilter.expectedEmails", 1_000_000), 0.01);
+            userDAO.forEachEmail(knownEmails::add);
+        } else {
+            this.knownEmails = null;
+        }
+        if (Boolean.parseBoolean(System.getProperty("ecommerce.users.backgroundDelete.enabled", "true"))) {
+            this.deletions = new SellerDeletionService(userDAO);
+            this.deletions.resumePending();
+        } else {
+            this.deletions = null;
+        }
+    }
 
     /**
      * Registers a new user in the system.
@@ -25,11 +81,14 @@ public class UserService {
      * @param email    the email address of the new user.
      * @param password the plain-text password of the new user.
      * @param role     the role of the new user (e.g., admin, buyer, seller).
-     * @return {@code true} if registration is successful, {@code false} otherwise.
+     * @return {@code true} if registration is successful, {@code false} if the email is taken or the user
+     *         could not be stored.
+     * @throws PasswordHashingRejectedException if password hashing is overloaded.
      */
 
     public boolean registerUser(String username, String email, String password, String role) {
-        if (userDAO.getUserByEmail(email) != null) {
+        // Hashing costs far more than a lookup, so skip it for addresses that are probably taken.
+        if (mightBeRegistered(email) && userDAO.getUserByEmail(email) != null) {
             return false; // User already exists
         }
 
@@ -44,25 +103,52 @@ public class UserService {
         user.setEmail(email);
         user.setPassword(hashedPassword);
         user.setRole(role);
-        userDAO.registerUser(user);
-        return true;
+        // The insert itself rejects a taken address, so a concurrent registration cannot slip in between.
+        boolean registered = userDAO.registerUser(user);
+        if (knownEmails != null) {
+            knownEmails.add(email);
+        }
+        return registered;
+    }
+
+    /**
+     * Checks whether an email address is already registered, e.g. while a sign-up form is being filled in.
+     * Addresses the email filter has never seen are answered without the database.
+     * The filter knows the addresses present at startup and those registered through this service since;
+     * registration itself does not depend on it.
+     *
+     * @param email the email address.
+     * @return {@code true} if a user with this address exists.
+     */
+
+    public boolean isEmailRegistered(String email) {
+        return mightBeRegistered(email) && userDAO.getUserByEmail(email) != null;
+    }
+
+    private boolean mightBeRegistered(String email) {
+        return knownEmails == null || knownEmails.mightContain(email);
     }
 
     /**
      * login in by already registered user in the system.
+     * If the stored hash was made at a different BCrypt cost than the current one, it is transparently
+     * replaced with a hash at the current cost.
      * @param email    the email address of the user.
      * @param password the plain-text password of the new user.
+     * @throws PasswordHashingRejectedException if password verification is overloaded.
      */
 
     public User login(String email, String password) {
-        UserDAO userDAO = new UserDAO();
         User user = userDAO.getUserByEmail(email);
 
         if (user != null && PasswordUtil.checkPassword(password, user.getPassword())) {
+            if (PasswordUtil.needsRehash(user.getPassword())) {
+                rehash(user, password);
+            }
             return switch (user.getRole().toLowerCase()) {
-                case "buyer" -> new Buyer(user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
-                case "seller" -> new Seller(user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
-                case "admin" -> new Admin(user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
+                case "buyer" -> new Buyer(user.getId(), user.getUsername(), user.getPassword(), user.getEmail());
+                case "seller" -> new Seller(user.getId(), user.getUsername(), user.getPassword(), user.getEmail());
+                case "admin" -> new Admin(user.getId(), user.getUsername(), user.getPassword(), user.getEmail());
                 default -> null;
             };
         }
@@ -70,14 +156,113 @@ public class UserService {
     }
 
     /**
-     * delete a user if found.
+     * Logs a user in and opens a session, so later requests can present the token instead of the password.
+     *
+     * @param email    the email address of the user.
+     * @param password the plain-text password of the user.
+     * @return the new session, or null if the credentials are invalid.
+     * @throws PasswordHashingRejectedException if password verification is overloaded.
+     */
+
+    public Session startSession(String email, String password) {
+        User user = login(email, password);
+        return user == null ? null : sessions.create(user);
+    }
+
+    /**
+     * Resolves a session token to its user without touching the database or the password hash.
+     *
+     * @param token the session token.
+     * @return the logged-in user, or null if the session is unknown, expired or revoked.
+     */
+
+    public User resolveSession(String token) {
+        Session session = sessions.resolve(token);
+        return session == null ? null : session.getUser();
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token.
+     * @return {@code true} if a live session was ended.
+     */
+
+    public boolean logout(String token) {
+        return sessions.invalidate(token);
+    }
+
+    private void rehash(User user, String password) {
+        try {
+            String hashedPassword = PasswordUtil.hashPassword(password);
+            if (userDAO.updatePassword(user.getId(), hashedPassword)) {
+                user.setPassword(hashedPassword);
+            }
+        } catch (PasswordHashingRejectedException e) {
+            // The login already succeeded; the rehash is retried on the next login.
+        }
+    }
+
+    /**
+     * Deletes a user and their products, and ends all of their sessions, without printing anything.
+     * A seller with a large catalog is deleted in the background: their products are hidden at once,
+     * and {@link #getDeletionJob(int)} reports the progress.
      *
      * @param userId of the user to delete.
+     * @return {@code true} if the user existed and was deleted or their deletion has been scheduled.
      */
 
-    public void deleteUser(int userId) {
-        boolean isDeleted = userDAO.deleteUser(userId);
+    public boolean removeUser(int userId) {
+        boolean isDeleted = deletions != null ? deletions.delete(userId) : userDAO.deleteUser(userId);
         if (isDeleted) {
+            sessions.revokeUser(userId);
+        }
+        return isDeleted;
+    }
+
+    /**
+     * Gets the progress of a user's background deletion.
+     *
+     * @param userId of the user.
+     * @return the job, or null if the user was not deleted in the background.
+     */
+
+    public SellerDeletionJob getDeletionJob(int userId) {
+        return deletions == null ? null : deletions.getJob(userId);
+    }
+
+    /**
+     * Gets the progress of every background deletion.
+     *
+     * @return the jobs, in no particular order.
+     */
+
+    public List<SellerDeletionJob> getDeletionJobs() {
+        return deletions == null ? List.of() : deletions.getJobs();
+    }
+
+    /**
+     * Gets all registered users.
+     *
+     * @return the users, or an empty list if there are none.
+     */
+
+    public List<User> getAllUsers() {
+        return userDAO.getAllUsers();
+    }
+
+    /**
+     * delete a user if found, and end all of their sessions.
+     *
+     * @param userId of the user to delete.
+     */
+
+    public void deleteUser(int userId) {
+        boolean isDeleted = removeUser(userId);
+        SellerDeletionJob job = getDeletionJob(userId);
+        if (isDeleted && job != null && !job.isFinished()) {
+            System.out.println("User with ID " + userId + " is being deleted in the background; their products are hidden.");
+        } else if (isDeleted) {
             System.out.println("User with ID " + userId + " has been successfully deleted.");
         } else {
             System.out.println("Failed to delete user. User with ID " + userId + " may not exist.");
@@ -0,0 +1,41 @@
+package com.ecommerce.session;
+
+import com.ecommerce.model.User;
+
+/**
+ * An authenticated session, identified by an opaque token.
+ * The session expires after a period without use and, regardless of use, after a maximum lifetime.
+ */
+public class Session {
+    private final String token;
+    private final User user;
+    private final long createdNanos;
+    private volatile long lastAccessNanos;
+
+    Session(String token, User user, long nowNanos) {
+        this.token = token;
+        this.user = user;
+        this.createdNanos = nowNanos;
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * Gets the opaque token that identifies this session to clients.
+     *
+     * @return the token.
+     */
+    public String getToken() { return token; }
+
+    /**
+     * Gets the user who authenticated.
+     *
+     * @return the user, as returned by the login.
+     */
+    public User getUser() { return user; }
+
+    long getCreatedNanos() { return createdNanos; }
+
+    long getLastAccessNanos() { return lastAccessNanos; }
+
+    void touch(long nowNanos) { lastAccessNanos = nowNanos; }
+}
@@ -0,0 +1,213 @@
+package com.ecommerce.session;
+
+import com.ecommerce.model.User;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory store of authenticated sessions.
+ * <p>
+ * Tokens are 256-bit values from {@link SecureRandom}, so resolving one is a single hash lookup and never
+ * repeats the password check. A session expires once unused for {@code ecommerce.session.idleMinutes}
+ * (each successful lookup extends it) or after {@code ecommerce.session.maxLifetimeMinutes} in total.
+ * At most {@code ecommerce.session.maxSessions} are kept; beyond that the oldest sessions are evicted first.
+ * Expired sessions are removed lazily on lookup and by a periodic sweep.
+ */
+public class SessionManager {
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final long idleNanos;
+    private final long maxLifetimeNanos;
+    private final int maxSessions;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    // Tokens in creation order, for evicting the oldest session. May hold tokens that are already gone.
+    private final ConcurrentLinkedQueue<String> creationOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a session store.
+     *
+     * @param idleTimeout  how long a session may go unused before it expires.
+     * @param maxLifetime  how long a session may live in total.
+     * @param maxSessions  the maximum number of live sessions.
+     * @param unit         the unit of both durations.
+     */
+    public SessionManager(long idleTimeout, long maxLifetime, int maxSessions, TimeUnit unit) {
+        this.idleNanos = unit.toNanos(idleTimeout);
+        this.maxLifetimeNanos = unit.toNanos(maxLifetime);
+        this.maxSessions = Math.max(1, maxSessions);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(idleNanos) / 2);
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gets the process-wide session store, configured from the {@code ecommerce.session.*} system properties.
+     *
+     * @return the shared store.
+     */
+    public static SessionManager getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Opens a session for an authenticated user.
+     *
+     * @param user the user who has just logged in.
+     * @return the new session.
+     */
+    public Session create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        Session session = new Session(ENCODER.encodeToString(bytes), user, System.nanoTime());
+        sessions.put(session.getToken(), session);
+        // compute() keeps this atomic with the empty-set cleanup in remove().
+        tokensByUser.compute(user.getId(), (id, tokens) -> {
+            Set<String> userTokens = tokens == null ? ConcurrentHashMap.newKeySet() : tokens;
+            userTokens.add(session.getToken());
+            return userTokens;
+        });
+        creationOrder.add(session.getToken());
+        if (size.incrementAndGet() > maxSessions) {
+            evictOldest();
+        }
+        return session;
+    }
+
+    /**
+     * Looks up a live session and extends its idle timeout.
+     *
+     * @param token the token presented by the client.
+     * @return the session, or null if the token is unknown, expired or revoked.
+     */
+    public Session resolve(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (isExpired(session, now)) {
+            if (remove(token)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token.
+     * @return true if a live session was ended.
+     */
+    public boolean invalidate(String token) {
+        return token != null && remove(token);
+    }
+
+    /**
+     * Ends every session belonging to a user, e.g. when the user is deleted.
+     *
+     * @param userId the user's ID.
+     * @return the number of sessions ended.
+     */
+    public int revokeUser(int userId) {
+        Set<String> tokens = tokensByUser.remove(userId);
+        if (tokens == null) {
+            return 0;
+        }
+        int revoked = 0;
+        for (String token : tokens) {
+            if (remove(token)) {
+                revoked++;
+            }
+        }
+        return revoked;
+    }
+
+    /**
+     * Gets the number of live sessions, including expired ones not yet swept.
+     *
+     * @return the session count.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /** @return sessions evicted because the store was full. */
+    public long getEvictionCount() { return evictions.sum(); }
+
+    /** @return sessions removed because they expired. */
+    public long getExpirationCount() { return expirations.sum(); }
+
+    private boolean isExpired(Session session, long now) {
+        return now - session.getLastAccessNanos() > idleNanos || now - session.getCreatedNanos() > maxLifetimeNanos;
+    }
+
+    private boolean remove(String token) {
+        Session removed = sessions.remove(token);
+        if (removed == null) {
+            return false;
+        }
+        size.decrementAndGet();
+        tokensByUser.computeIfPresent(removed.getUser().getId(), (id, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+        return true;
+    }
+
+    private void evictOldest() {
+        while (size.get() > maxSessions) {
+            String oldest = creationOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            if (remove(oldest)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Session session : sessions.values()) {
+            if (isExpired(session, now) && remove(session.getToken())) {
+                expirations.increment();
+            }
+        }
+        // Drop queue entries for sessions that ended some other way, so the queue stays proportional.
+        creationOrder.removeIf(token -> !sessions.containsKey(token));
+    }
+
+    private static final class Holder {
+        private static final SessionManager INSTANCE = new SessionManager(
+                Long.getLong("ecommerce.session.idleMinutes", 30L),
+                Long.getLong("ecommerce.session.maxLifetimeMinutes", 720L),
+                Integer.getInteger("ecommerce.session.maxSessions", 100_000),
+                TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.tools;
+
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.model.Product;
+import com.ecommerce.util.Database;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares product insert throughput of the single-row path, JDBC batching and COPY against the live database.
+ * Inserted rows are deleted again after each run.
+ *
+ * <pre>
+ * java com.ecommerce.tools.BulkInsertBenchmark &lt;sellerId&gt; [rows=20000] [batchSize=500]
+ * </pre>
+ * The seller must exist because {@code products.seller_id} references {@code users.id}.
+ */
+
+public class BulkInsertBenchmark {
+
+    /**
+     * Runs the comparison and prints rows per second for each insert path.
+     *
+     * @param args the seller ID, optionally followed by the row count and batch size.
+     */
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: BulkInsertBenchmark <sellerId> [rows] [batchSize]");
+            return;
+        }
+        int sellerId = Integer.parseInt(args[0]);
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        ProductDAO productDAO = new ProductDAO();
+
+        // The single-row path is much slower, so it gets a smaller sample.
+        int singleRows = Math.min(rows, 2_000);
+        List<Product> single = generate(sellerId, singleRows, "single");
+        long start = System.nanoTime();
+        for (Product product : single) {
+            productDAO.addProduct(product);
+        }
+        report("addProduct (one row per call)", singleRows, System.nanoTime() - start);
+        cleanup(single.stream().mapToInt(Product::getId).toArray());
+
+        List<Product> batched = generate(sellerId, rows, "batch");
+        start = System.nanoTime();
+        int[] ids = productDAO.addProducts(batched, batchSize);
+        report("addProducts (batch size " + batchSize + ")", ids.length, System.nanoTime() - start);
+        cleanup(ids);
+
+        List<Product> copied = generate(sellerId, rows, "copy");
+        start = System.nanoTime();
+        ids = productDAO.copyProducts(copied);
+        report("copyProducts (COPY FROM STDIN)", ids.length, System.nanoTime() - start);
+        cleanup(ids);
+
+        System.out.println(Database.getPoolStats());
+    }
+
+    private static List<Product> generate(int sellerId, int rows, String label) {
+        List<Product> products = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Product product = new Product();
+            product.setName("bulk-" + label + "-" + i);
+            product.setPrice(BigDecimal.valueOf(100 + i % 10_000, 2));
+            product.setQuantity(i % 100);
+            product.setSellerId(sellerId);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static void report(String path, int rows, long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        System.out.printf("%-36s %8d rows in %8.3f s = %,12.0f rows/s%n", path, rows, seconds, rows / seconds);
+    }
+
+    private static void cleanup(int[] ids) {
+        if (ids.length == 0) {
+            return;
+        }
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            boxed[i] = ids[i];
+        }
+        try (Connection conn = Database.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("DELETE FROM products WHERE id = ANY(?)")) {
+            Array array = conn.createArrayOf("integer", boxed);
+            stmt.setArray(1, array);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error cleaning up benchmark rows: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ * {@link #mightContain(String)} never returns {@code false} for a string that was added, and returns
+ * {@code true} for one that was not with roughly the configured false-positive rate while no more than the
+ * expected number of strings have been added. Strings cannot be removed.
+ * <p>
+ * Bits live in an {@link AtomicLongArray} so adds and lookups need no lock. The bit positions are derived
+ * from two 64-bit hashes of the string (double hashing), so each operation hashes the string only once.
+ */
+
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder added = new LongAdder();
+
+    /**
+     * Creates an empty filter sized for the expected number of strings.
+     *
+     * @param expectedInsertions the number of strings the false-positive rate is planned for.
+     * @param falsePositiveRate  the target false-positive rate, between 0 and 1 exclusive.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * Adds a string.
+     *
+     * @param value the string.
+     */
+    public void add(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            // Skip the write when the bit is already set; re-adding known strings is the common case.
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+        added.increment();
+    }
+
+    /**
+     * Checks whether a string may have been added.
+     *
+     * @param value the string.
+     * @return {@code false} if the string was definitely never added; {@code true} if it probably was.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of {@link #add(String)} calls, including repeated strings.
+     *
+     * @return the add count.
+     */
+    public long getAddCount() {
+        return added.sum();
+    }
+
+    /**
+     * Gets the size of the bit array.
+     *
+     * @return the number of bits.
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    private static long hash(String value) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer: spreads every input bit over the whole result.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE66BA0ADL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,445 @@
+package com.ecommerce.util;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Size- and TTL-bounded cache with W-TinyLFU admission.
+ * New entries land in a small LRU window; when the window overflows, its oldest entry competes with the
+ * main region's LRU victim and the one a count-min sketch says is used more often stays. This keeps
+ * one-off lookups from flushing out popular entries.
+ * <p>
+ * Lookups read a concurrent map and never wait for the policy lock. Each lookup is recorded in a small
+ * per-thread-stripe ring buffer instead, and whoever finds a buffer half full drains it into the sketch and the
+ * LRU lists if the lock is free right now. Writes drain too before they evict. A full buffer drops further
+ * records: losing a few recency updates only makes eviction slightly less precise, never wrong.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+
+public class BoundedCache<K, V> {
+    private final int maxSize;
+    private final int windowMax;
+    private final long ttlNanos;
+    // Guards the LRU lists, the window size, the sketch and draining the read buffers.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<K, Node<K, V>> nodes;
+    private final ReadBuffer[] readBuffers;
+    private final Node<K, V> window = new Node<>(null, null, 0);
+    private final Node<K, V> main = new Node<>(null, null, 0);
+    private final FrequencySketch sketch;
+    private int windowSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize the maximum number of entries.
+     * @param ttl     how long an entry stays valid after it is written; zero or less disables expiry.
+     * @param unit    the unit of {@code ttl}.
+     */
+    public BoundedCache(int maxSize, long ttl, TimeUnit unit) {
+        this.maxSize = Math.max(2, maxSize);
+        this.windowMax = Math.max(1, this.maxSize / 100);
+        this.ttlNanos = ttl <= 0 ? Long.MAX_VALUE : unit.toNanos(ttl);
+        this.nodes = new ConcurrentHashMap<>(this.maxSize * 4 / 3 + 1);
+        this.sketch = new FrequencySketch(this.maxSize);
+        this.readBuffers = new ReadBuffer[Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1];
+        for (int i = 0; i < readBuffers.length; i++) {
+            readBuffers[i] = new ReadBuffer();
+        }
+        link(window);
+        link(main);
+    }
+
+    /**
+     * Looks up a value.
+     *
+     * @param key the key.
+     * @return the cached value, or null on a miss.
+     */
+    public V get(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            // Misses count towards the key's frequency too, so a key that keeps missing can win admission.
+            recordRead(key);
+            misses.increment();
+            return null;
+        }
+        if (System.nanoTime() - node.writtenAt > ttlNanos) {
+            lock.lock();
+            try {
+                if (nodes.get(key) == node) {
+                    removeNode(node);
+                    expirations.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            misses.increment();
+            return null;
+        }
+        V value = node.value;
+        recordRead(node);
+        hits.increment();
+        return value;
+    }
+
+    /**
+     * Inserts or replaces a value, evicting as needed to stay within the size bound.
+     *
+     * @param key   the key.
+     * @param value the value.
+     */
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            Node<K, V> existing = nodes.get(key);
+            if (existing != null) {
+                existing.value = value;
+                existing.writtenAt = System.nanoTime();
+                moveToHead(existing, existing.inWindow ? window : main);
+                return;
+            }
+            Node<K, V> node = new Node<>(key, value, System.nanoTime());
+            node.inWindow = true;
+            nodes.put(key, node);
+            insertAtHead(node, window);
+            windowSize++;
+            if (windowSize > windowMax) {
+                admitFromWindow();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a single entry.
+     *
+     * @param key the key.
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            Node<K, V> node = nodes.get(key);
+            if (node != null) {
+                removeNode(node);
+                invalidations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every entry whose value matches a predicate. This scans the whole cache.
+     *
+     * @param filter the predicate selecting values to remove.
+     */
+    public void invalidateIf(Predicate<? super V> filter) {
+        lock.lock();
+        try {
+            Iterator<Node<K, V>> it = nodes.values().iterator();
+            while (it.hasNext()) {
+                Node<K, V> node = it.next();
+                if (filter.test(node.value)) {
+                    it.remove();
+                    unlinkNode(node);
+                    invalidations.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidations.add(nodes.size());
+            nodes.clear();
+            link(window);
+            link(main);
+            windowSize = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of cached entries, including any that expired but were not yet looked up.
+     *
+     * @return the cache size.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /** @return lookups that found a live entry. */
+    public long getHitCount() { return hits.sum(); }
+    /** @return lookups that found nothing or an expired entry. */
+    public long getMissCount() { return misses.sum(); }
+    /** @return entries dropped to stay within the size bound. */
+    public long getEvictionCount() { return evictions.sum(); }
+    /** @return entries dropped because their TTL elapsed. */
+    public long getExpirationCount() { return expirations.sum(); }
+    /** @return entries removed explicitly. */
+    public long getInvalidationCount() { return invalidations.sum(); }
+
+    /**
+     * Gets the fraction of lookups served from the cache.
+     *
+     * @return the hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Provides a summary of the cache counters.
+     *
+     * @return a string with size, hits, misses, evictions and hit rate.
+     */
+    @Override
+    public String toString() {
+        return String.format("size=%d/%d hits=%d misses=%d evictions=%d expirations=%d invalidations=%d hitRate=%.3f",
+                size(), maxSize, getHitCount(), getMissCount(), getEvictionCount(), getExpirationCount(),
+                getInvalidationCount(), getHitRate());
+    }
+
+    /**
+     * Records a lookup of a cached node, or of a missing key, in the calling thread's read buffer, and drains
+     * the buffers if this one is half full and nobody holds the lock.
+     */
+    private void recordRead(Object read) {
+        ReadBuffer buffer = readBuffers[(int) Thread.currentThread().threadId() & (readBuffers.length - 1)];
+        if (buffer.offer(read) >= ReadBuffer.SIZE / 2 && lock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays the recorded lookups into the sketch and the LRU lists. Called with the lock held.
+     */
+    @SuppressWarnings("unchecked")
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : readBuffers) {
+            buffer.drain(read -> {
+                if (read instanceof Node<?, ?> n) {
+                    Node<K, V> node = (Node<K, V>) n;
+                    sketch.increment(node.key.hashCode());
+                    // Skip nodes evicted, invalidated or replaced since the lookup.
+                    if (nodes.get(node.key) == node) {
+                        moveToHead(node, node.inWindow ? window : main);
+                    }
+                } else {
+                    sketch.increment(read.hashCode());
+                }
+            });
+        }
+    }
+
+    private void admitFromWindow() {
+        Node<K, V> candidate = window.prev;
+        unlinkNode(candidate);
+        candidate.inWindow = false;
+        if (nodes.size() <= maxSize) {
+            insertAtHead(candidate, main);
+            return;
+        }
+        Node<K, V> victim = main.prev;
+        if (victim == main) {
+            insertAtHead(candidate, main);
+            return;
+        }
+        if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+            removeNode(victim);
+            insertAtHead(candidate, main);
+        } else {
+            nodes.remove(candidate.key);
+        }
+        evictions.increment();
+    }
+
+    private void removeNode(Node<K, V> node) {
+        nodes.remove(node.key);
+        unlinkNode(node);
+    }
+
+    private void unlinkNode(Node<K, V> node) {
+        if (node.prev == null) {
+            return;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+        if (node.inWindow) {
+            windowSize--;
+        }
+    }
+
+    private void moveToHead(Node<K, V> node, Node<K, V> list) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        insertAtHead(node, list);
+    }
+
+    private static <K, V> void insertAtHead(Node<K, V> node, Node<K, V> list) {
+        node.next = list.next;
+        node.prev = list;
+        list.next.prev = node;
+        list.next = node;
+    }
+
+    private static <K, V> void link(Node<K, V> sentinel) {
+        sentinel.next = sentinel;
+        sentinel.prev = sentinel;
+    }
+
+    /**
+     * Cache entry, also serving as a node of the window or main LRU list.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        // Written under the lock, read by lock-free lookups.
+        private volatile V value;
+        private volatile long writtenAt;
+        // Guarded by the cache lock.
+        private boolean inWindow;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long writtenAt) {
+            this.key = key;
+            this.value = value;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    /**
+     * Lossy ring buffer of recorded lookups. Any thread may add; only the lock holder drains. When the buffer
+     * is full, or another thread wins the race for a slot, the record is dropped.
+     */
+    private static final class ReadBuffer {
+        private static final int SIZE = 16;
+
+        private final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(SIZE);
+        private final AtomicLong tail = new AtomicLong();
+        // Written only by the lock holder.
+        private volatile long head;
+
+        /**
+         * Adds a record unless the buffer is full.
+         *
+         * @return the number of records waiting after this call.
+         */
+        private long offer(Object read) {
+            long t = tail.get();
+            long pending = t - head;
+            if (pending < SIZE && tail.compareAndSet(t, t + 1)) {
+                slots.lazySet((int) t & (SIZE - 1), read);
+                return pending + 1;
+            }
+            return pending;
+        }
+
+        private void drain(Consumer<Object> action) {
+            long h = head;
+            long t = tail.get();
+            while (h < t) {
+                int index = (int) h & (SIZE - 1);
+                Object read = slots.get(index);
+                if (read == null) {
+                    // Claimed but not yet written; pick it up on the next drain.
+                    break;
+                }
+                slots.lazySet(index, null);
+                action.accept(read);
+                h++;
+            }
+            head = h;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters that estimates how often a key was requested recently.
+     * All counters are halved periodically so the estimate follows changes in popularity.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maxSize) {
+            int length = Math.max(8, Integer.highestOneBit(Math.max(1, maxSize) - 1) << 1);
+            this.table = new long[length];
+            this.sampleSize = 10 * Math.max(1, maxSize);
+        }
+
+        private int frequency(int hash) {
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = counterOffset(hash, i);
+                frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xFL));
+            }
+            return frequency;
+        }
+
+        private void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = counterOffset(hash, i);
+                if (((table[index] >>> offset) & 0xFL) != 0xFL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions >>>= 1;
+            }
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & (table.length - 1);
+        }
+
+        private static int counterOffset(int hash, int row) {
+            return (((hash >>> (row * 8)) & 3) << 2) + (row << 4);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs blocking tasks on virtual threads, at most {@code maxConcurrency} at a time, and hands back
+ * {@link CompletableFuture}s.
+ * <p>
+ * Each task may have a timeout. It covers the wait for a slot as well as the run, and is also installed as a
+ * {@link QueryDeadline} so database calls inside the task are cut short by the pool and the server. When the
+ * timeout passes or the caller cancels the future, the task's thread is interrupted and the future completes
+ * at once with a {@link TimeoutException} or {@link CancellationException}.
+ */
+
+public class BoundedVirtualExecutor implements AutoCloseable {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder cancellations = new LongAdder();
+
+    /**
+     * Creates an executor.
+     *
+     * @param name           the prefix of the virtual threads' names.
+     * @param maxConcurrency the maximum number of tasks running at once; at least 1.
+     */
+    public BoundedVirtualExecutor(String name, int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.permits = new Semaphore(this.maxConcurrency, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+
+    /**
+     * Submits a task.
+     *
+     * @param task    the blocking work.
+     * @param timeout how long the caller is willing to wait, including queueing; zero or less for no limit.
+     * @param unit    the unit of {@code timeout}.
+     * @param <T>     the result type.
+     * @return a future completed with the task's result or failure.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task, long timeout, TimeUnit unit) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long deadline = timeout > 0 ? System.nanoTime() + unit.toNanos(timeout) : QueryDeadline.NONE;
+        Future<?> running;
+        try {
+            running = executor.submit(() -> run(task, deadline, result));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        if (timeout > 0) {
+            result.orTimeout(timeout, unit);
+        }
+        result.whenComplete((value, failure) -> {
+            if (failure != null && !running.isDone()) {
+                if (failure instanceof TimeoutException) {
+                    timeouts.increment();
+                } else if (failure instanceof CancellationException) {
+                    cancellations.increment();
+                }
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> void run(Callable<T> task, long deadline, CompletableFuture<T> result) {
+        boolean acquired = false;
+        try {
+            if (deadline == QueryDeadline.NONE) {
+                permits.acquire();
+                acquired = true;
+            } else {
+                acquired = permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                result.completeExceptionally(new TimeoutException("No free slot before the deadline"));
+            } else if (!result.isDone()) {
+                result.complete(QueryDeadline.call(deadline, task));
+            }
+        } catch (InterruptedException e) {
+            result.completeExceptionally(new CancellationException("Interrupted"));
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        } finally {
+            if (acquired) {
+                permits.release();
+            }
+        }
+    }
+
+    /** @return the maximum number of tasks running at once. */
+    public int getMaxConcurrency() { return maxConcurrency; }
+
+    /** @return the number of tasks running now. */
+    public int getActive() { return maxConcurrency - permits.availablePermits(); }
+
+    /** @return the number of tasks abandoned because their timeout passed. */
+    public long getTimeouts() { return timeouts.sum(); }
+
+    /** @return the number of tasks cancelled by their callers. */
+    public long getCancellations() { return cancellations.sum(); }
+
+    /**
+     * Stops accepting tasks and waits for the running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
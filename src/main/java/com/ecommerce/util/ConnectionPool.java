@@ -0,0 +1,367 @@
+package com.ecommerce.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded JDBC connection pool.
+ * Connections are validated when borrowed after sitting idle, evicted once they have been idle too long,
+ * and, with leak detection enabled, reported when a caller holds one past the leak threshold. Callers get a proxy whose
+ * {@code close()} returns the physical connection to the pool instead of closing it.
+ * <p>
+ * Unless {@link PoolConfig#isStatementTracing()} is off, the statements created through those proxies are
+ * traced: each execution emits a {@link SqlStatementEvent} and slow ones go to the slow-query log
+ * (see {@link SlowQueryLog}).
+ * <p>
+ * Inside a {@link QueryDeadline}, borrowing waits no longer than the time left, and every statement gets a
+ * query timeout of the time left rounded up to whole seconds, the finest granularity JDBC offers.
+ */
+
+public class ConnectionPool implements AutoCloseable {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolConfig config;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final ScheduledExecutorService housekeeper;
+    private final SlowQueryLog slowQueryLog;
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a pool. No connection is opened until the first one is requested.
+     *
+     * @param url      the JDBC URL.
+     * @param user     the database user.
+     * @param password the database password.
+     * @param config   the pool settings.
+     */
+    public ConnectionPool(String url, String user, String password, PoolConfig config) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.slowQueryLog = config.isStatementTracing() ? new SlowQueryLog(config, this::openSideConnection) : null;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured acquire timeout.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @return a pooled {@link Connection}.
+     * @throws SQLException if the pool is exhausted for longer than the timeout or a connection cannot be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        long start = System.nanoTime();
+        long timeoutMillis = Math.min(config.getAcquireTimeoutMillis(), QueryDeadline.remaining(TimeUnit.MILLISECONDS));
+        if (timeoutMillis <= 0) {
+            throw new SQLTimeoutException("Deadline passed before a database connection was requested");
+        }
+        boolean acquired;
+        waiters.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException("Timed out after " + timeoutMillis +
+                    "ms waiting for a database connection (active=" + borrowed.size() + ", max=" + config.getMaxSize() + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = open();
+            }
+            pooled.borrowedAt = System.nanoTime();
+            pooled.borrowSite = config.getLeakThresholdMillis() > 0 ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            acquireLatency.recordSince(start);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a snapshot of the pool counters and acquire-latency percentiles.
+     *
+     * @return the current {@link PoolStats}.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(borrowed.size(), idle.size(), waiters.get(), config.getMaxSize(),
+                created.sum(), closed.sum(), timeouts.sum(), leaks.sum(), acquireLatency);
+    }
+
+    /**
+     * Gets the settings this pool was created with.
+     *
+     * @return the pool configuration.
+     */
+    public PoolConfig getConfig() { return config; }
+
+    /**
+     * Gets the number of statements written to the slow-query log.
+     *
+     * @return the count since startup, or 0 if statement tracing is off.
+     */
+    public long getSlowQueryCount() {
+        return slowQueryLog == null ? 0 : slowQueryLog.getLogged();
+    }
+
+    /**
+     * Closes all idle connections and stops housekeeping.
+     * Borrowed connections are closed when their holders return them.
+     */
+    @Override
+    public void close() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.lastReturnedAt);
+        if (idleMillis < config.getValidationIntervalMillis()) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        created.increment();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Opens an unpooled, untraced connection for the slow-query log's EXPLAIN runs,
+     * so plan capture neither competes for pool permits nor traces itself.
+     */
+    private Connection openSideConnection() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    /**
+     * Gives a new statement a query timeout matching the calling thread's {@link QueryDeadline}, if any.
+     */
+    private static void applyDeadline(Statement statement) throws SQLException {
+        long remainingMillis = QueryDeadline.remaining(TimeUnit.MILLISECONDS);
+        if (remainingMillis != Long.MAX_VALUE) {
+            statement.setQueryTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, (remainingMillis + 999) / 1000)));
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            boolean reusable = !shutdown && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                pooled.lastReturnedAt = System.nanoTime();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+        closed.increment();
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        // Oldest connections sit at the tail because returns go to the head.
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > config.getMinIdle()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturnedAt > timeoutNanos && idle.removeFirstOccurrence(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PooledConnection pooled : borrowed) {
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt);
+            if (!pooled.leakReported && heldMillis > threshold) {
+                pooled.leakReported = true;
+                leaks.increment();
+                System.err.println("Possible connection leak: connection held for " + heldMillis + "ms");
+                if (pooled.borrowSite != null) {
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * A physical connection together with its pool bookkeeping.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.nanoTime();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the handle is closed.
+     * A fresh handle is issued per borrow so a stale reference cannot touch a connection lent to someone else.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean closed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pooled.physical + (closed ? ", closed]" : "]");
+                }
+                default -> {
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement statement) {
+                applyDeadline(statement);
+            }
+            if (slowQueryLog != null && result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return StatementTracer.wrap(method.getReturnType(), statement, sql, slowQueryLog);
+            }
+            return result;
+        }
+    }
+}
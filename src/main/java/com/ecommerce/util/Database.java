@@ -6,20 +6,55 @@ import java.sql.SQLException;
 
 /**
  * Utility class for managing database connections.
+ * Connections are served from a shared {@link ConnectionPool} sized through the
+ * {@code ecommerce.db.pool.*} system properties (see {@link PoolConfig}).
  */
 
 public class Database {
-    private static final String URL = "jdbc:postgresql://localhost:5432/postgres";
+    // reWriteBatchedInserts lets the driver collapse JDBC insert batches into multi-row INSERTs.
+    private static final String URL = "jdbc:postgresql://localhost:5432/postgres?reWriteBatchedInserts=true";
     private static final String USER = "postgres";
     private static final String PASSWORD = "Walexsai.00";
 
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD, PoolConfig.fromSystemProperties());
+
     /**
-     * Retrieves a connection to the database.
+     * Retrieves a pooled connection to the database.
+     * Closing the connection returns it to the pool.
      *
      * @return a {@link Connection} object for the database.
-     * @throws SQLException if a database access error occurs.
+     * @throws SQLException if a database access error occurs or no connection becomes available in time.
      */
     public static Connection getConnection() throws SQLException {
+        return POOL.getConnection();
+    }
+
+    /**
+     * Opens a connection outside the pool. It holds no pool permit and its statements are neither traced nor
+     * given deadlines, which suits long-running maintenance such as schema migrations. The caller must close it.
+     *
+     * @return a new physical {@link Connection}.
+     * @throws SQLException if the connection cannot be opened.
+     */
+    public static Connection openDirectConnection() throws SQLException {
         return DriverManager.getConnection(URL, USER, PASSWORD);
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the shared connection pool, e.g. to read its statistics.
+     *
+     * @return the {@link ConnectionPool} behind {@link #getConnection()}.
+     */
+    public static ConnectionPool getPool() {
+        return POOL;
+    }
+
+    /**
+     * Gets live statistics for the shared connection pool.
+     *
+     * @return the current {@link PoolStats}.
+     */
+    public static PoolStats getPoolStats() {
+        return POOL.getStats();
+    }
+}
@@ -0,0 +1,207 @@
+package com.ecommerce.util;
+
+import com.ecommerce.metrics.Metrics;
+import com.ecommerce.metrics.OperationMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Funnels writes from many threads through one writer thread that stores them in batches, so many
+ * callers share one transaction and one commit instead of paying for a commit each (group commit).
+ * <p>
+ * The writer takes the first queued item, then keeps collecting until it has {@code maxBatch} items or
+ * {@code maxLingerMicros} have passed since it started collecting, whichever comes first, and hands the
+ * batch to the store function. Under light load a batch is a single item and waits at most the linger
+ * time; under heavy load batches fill up without waiting. A caller's future completes only after the
+ * batch holding its item has been stored. If a batch fails as a whole, its items are retried one at a time
+ * so a single bad item fails alone.
+ *
+ * @param <T> the type of item written.
+ */
+public class GroupCommitWriter<T> implements AutoCloseable {
+    private final Predicate<List<T>> store;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final BlockingQueue<Pending<T>> queue;
+    private final OperationMetrics commits;
+    private final LatencyHistogram batchSizes = new LatencyHistogram();
+    private final LongAdder items = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Creates a writer and starts its thread.
+     *
+     * @param name            the name of the writer thread and of its commit metrics ({@code <name>.commit}).
+     * @param store           stores one batch atomically and returns {@code true} on success.
+     * @param maxBatch        the most items stored together.
+     * @param maxLingerMicros how long to wait for more items once the first one has arrived; 0 never waits.
+     * @param queueCapacity   the most items waiting for the writer; further submissions are rejected.
+     */
+    public GroupCommitWriter(String name, Predicate<List<T>> store, int maxBatch, long maxLingerMicros, int queueCapacity) {
+        this.store = store;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, maxLingerMicros));
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.commits = Metrics.operation(name + ".commit");
+        this.writer = new Thread(this::run, name + "-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues an item for the next batch.
+     *
+     * @param item the item to store.
+     * @return a future that completes when the item has been stored, or completes exceptionally with
+     *         {@link RejectedExecutionException} if the queue is full or the writer is closed, or with
+     *         {@link IllegalStateException} if the item could not be stored.
+     */
+    public CompletableFuture<Void> submit(T item) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Pending<T> pending = new Pending<>(item, future);
+        if (closed) {
+            future.completeExceptionally(new RejectedExecutionException("Writer has been closed"));
+        } else if (!queue.offer(pending)) {
+            future.completeExceptionally(new RejectedExecutionException("Write queue is full"));
+        } else if (closed && queue.remove(pending)) {
+            // close() may have drained the queue before the offer landed; nobody else will complete it now.
+            future.completeExceptionally(new RejectedExecutionException("Writer has been closed"));
+        }
+        return future;
+    }
+
+    /**
+     * Gets the number of items stored or failed so far.
+     *
+     * @return the item count.
+     */
+    public long getItemCount() {
+        return items.sum();
+    }
+
+    /**
+     * Gets the distribution of batch sizes, recorded as item counts rather than nanoseconds.
+     *
+     * @return the live histogram.
+     */
+    public LatencyHistogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    /**
+     * Gets the number of items waiting for the writer.
+     *
+     * @return the queue length.
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting items, stores everything already queued, and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Items offered while the writer was finishing would otherwise never complete.
+        Pending<T> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Writer has been closed"));
+        }
+    }
+
+    private void run() {
+        List<Pending<T>> batch = new ArrayList<>(maxBatch);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Only close() stops the writer; finish whatever was collected.
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending<T>> batch) {
+        batchSizes.record(batch.size());
+        items.add(batch.size());
+        List<T> values = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            values.add(pending.item);
+        }
+        if (write(values)) {
+            for (Pending<T> pending : batch) {
+                pending.future.complete(null);
+            }
+            return;
+        }
+        for (Pending<T> pending : batch) {
+            if (batch.size() > 1 && write(List.of(pending.item))) {
+                pending.future.complete(null);
+            } else {
+                pending.future.completeExceptionally(new IllegalStateException("Write failed"));
+            }
+        }
+    }
+
+    private boolean write(List<T> values) {
+        long start = commits.start();
+        try {
+            if (store.test(values)) {
+                return true;
+            }
+            commits.failed();
+            return false;
+        } catch (RuntimeException e) {
+            commits.failed();
+            System.err.println("Group commit failed: " + e.getMessage());
+            return false;
+        } finally {
+            commits.stop(start);
+        }
+    }
+
+    /**
+     * A queued item and the future of the caller waiting for it.
+     */
+    private static final class Pending<T> {
+        private final T item;
+        private final CompletableFuture<Void> future;
+
+        private Pending(T item, CompletableFuture<Void> future) {
+            this.item = item;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.ecommerce.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Open-addressing hash map keyed by primitive {@code int}s.
+ * Avoids the boxing and per-entry node allocation of {@code HashMap<Integer, V>}.
+ * This class is not thread-safe; callers must guard it with their own lock.
+ *
+ * @param <V> the value type.
+ */
+
+public class IntObjectMap<V> {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Creates an empty map with room for a few entries.
+     */
+    public IntObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map sized for the expected number of entries.
+     *
+     * @param expectedSize the number of entries the map should hold without resizing.
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(4, expectedSize) / LOAD_FACTOR)));
+    }
+
+    /**
+     * Gets the value mapped to a key.
+     *
+     * @param key the key.
+     * @return the value, or null if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key the key.
+     * @return {@code true} if the map contains the key.
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous mapping.
+     *
+     * @param key   the key.
+     * @param value the value.
+     * @return the previous value, or null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the mapping for a key.
+     *
+     * @param key the key.
+     * @return the removed value, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        shiftBack(slot);
+        size--;
+        return previous;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the map size.
+     */
+    public int size() { return size; }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return {@code true} if there are no entries.
+     */
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Copies the values into a new list, in no particular order.
+     *
+     * @return the values.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result.add((V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies up to {@code limit} keys into a new array, in no particular order.
+     *
+     * @param limit the maximum number of keys to copy.
+     * @return the keys.
+     */
+    public int[] keys(int limit) {
+        int[] result = new int[Math.max(0, Math.min(limit, size))];
+        int n = 0;
+        for (int i = 0; i < keys.length && n < result.length; i++) {
+            if (used[i]) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visits every entry, in no particular order.
+     *
+     * @param action the callback receiving each key and value.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * Callback for {@link #forEach(EntryConsumer)}.
+     *
+     * @param <V> the value type.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Receives one entry.
+         *
+         * @param key   the entry key.
+         * @param value the entry value.
+         */
+        void accept(int key, V value);
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones.
+    private void shiftBack(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (used[next]) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[gap] = false;
+        values[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int n) {
+        return Math.max(8, Integer.highestOneBit(n - 1) << 1);
+    }
+
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.util;
+
+/**
+ * Thrown when a password cannot be hashed or verified because the hashing executor is saturated.
+ * Callers should treat this as a temporary condition and ask the user to try again.
+ */
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message why the request was rejected.
+     */
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
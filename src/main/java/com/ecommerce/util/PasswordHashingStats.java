@@ -0,0 +1,80 @@
+package com.ecommerce.util;
+
+/**
+ * Point-in-time view of the password hashing executor and its latencies.
+ * Service latencies cover the BCrypt work only; queue wait is reported separately.
+ */
+
+public class PasswordHashingStats {
+    private final int cost;
+    private final int threads;
+    private final int active;
+    private final int queued;
+    private final int queueCapacity;
+    private final long rejected;
+    private final long hashCount;
+    private final long hashP50Nanos;
+    private final long hashP99Nanos;
+    private final long verifyCount;
+    private final long verifyP50Nanos;
+    private final long verifyP99Nanos;
+    private final long queueWaitP99Nanos;
+
+    PasswordHashingStats(int cost, int threads, int active, int queued, int queueCapacity, long rejected,
+                         LatencyHistogram hashLatency, LatencyHistogram verifyLatency, LatencyHistogram queueWait) {
+        this.cost = cost;
+        this.threads = threads;
+        this.active = active;
+        this.queued = queued;
+        this.queueCapacity = queueCapacity;
+        this.rejected = rejected;
+        this.hashCount = hashLatency.getCount();
+        this.hashP50Nanos = hashLatency.getPercentileNanos(50);
+        this.hashP99Nanos = hashLatency.getPercentileNanos(99);
+        this.verifyCount = verifyLatency.getCount();
+        this.verifyP50Nanos = verifyLatency.getPercentileNanos(50);
+        this.verifyP99Nanos = verifyLatency.getPercentileNanos(99);
+        this.queueWaitP99Nanos = queueWait.getPercentileNanos(99);
+    }
+
+    /** @return the BCrypt cost used for new hashes. */
+    public int getCost() { return cost; }
+    /** @return the number of hashing threads. */
+    public int getThreads() { return threads; }
+    /** @return hashing threads currently busy. */
+    public int getActive() { return active; }
+    /** @return requests waiting for a hashing thread. */
+    public int getQueued() { return queued; }
+    /** @return the maximum number of waiting requests before new ones are rejected. */
+    public int getQueueCapacity() { return queueCapacity; }
+    /** @return requests rejected because the queue was full or the wait timed out. */
+    public long getRejected() { return rejected; }
+    /** @return passwords hashed since startup. */
+    public long getHashCount() { return hashCount; }
+    /** @return median hash latency in nanoseconds. */
+    public long getHashP50Nanos() { return hashP50Nanos; }
+    /** @return 99th percentile hash latency in nanoseconds. */
+    public long getHashP99Nanos() { return hashP99Nanos; }
+    /** @return passwords verified since startup. */
+    public long getVerifyCount() { return verifyCount; }
+    /** @return median verify latency in nanoseconds. */
+    public long getVerifyP50Nanos() { return verifyP50Nanos; }
+    /** @return 99th percentile verify latency in nanoseconds. */
+    public long getVerifyP99Nanos() { return verifyP99Nanos; }
+    /** @return 99th percentile time spent queued before a hashing thread picked the request up, in nanoseconds. */
+    public long getQueueWaitP99Nanos() { return queueWaitP99Nanos; }
+
+    /**
+     * Provides a one-line summary of the statistics.
+     *
+     * @return the summary, with latencies in milliseconds.
+     */
+    @Override
+    public String toString() {
+        return String.format("PasswordHashing[cost=%d, threads=%d, active=%d, queued=%d/%d, rejected=%d, "
+                        + "hash n=%d p50=%.1fms p99=%.1fms, verify n=%d p50=%.1fms p99=%.1fms, queueWait p99=%.1fms]",
+                cost, threads, active, queued, queueCapacity, rejected,
+                hashCount, hashP50Nanos / 1e6, hashP99Nanos / 1e6,
+                verifyCount, verifyP50Nanos / 1e6, verifyP99Nanos / 1e6, queueWaitP99Nanos / 1e6);
+    }
+}
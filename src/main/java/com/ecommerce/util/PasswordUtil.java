@@ -1,22 +1,64 @@
 package com.ecommerce.util;
 
+import com.ecommerce.metrics.Metrics;
+import com.ecommerce.metrics.OperationMetrics;
 import org.mindrot.jbcrypt.BCrypt;
 
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Utility class for handling password hashing and validation.
+ * <p>
+ * BCrypt runs on a dedicated pool of {@code ecommerce.bcrypt.threads} threads (default: half the cores) with
+ * a queue of at most {@code ecommerce.bcrypt.queueCapacity} waiting requests, so a login storm cannot occupy
+ * every core. Requests beyond that, or that wait longer than {@code ecommerce.bcrypt.timeoutMillis}, fail fast
+ * with {@link PasswordHashingRejectedException}.
+ * <p>
+ * The cost for new hashes is calibrated when the class is loaded so that one hash takes about
+ * {@code ecommerce.bcrypt.targetMillis} on this machine, clamped to {@code ecommerce.bcrypt.minCost} and
+ * {@code ecommerce.bcrypt.maxCost}. Setting {@code ecommerce.bcrypt.cost} skips calibration.
+ * <p>
+ * Caller-observed latency, queueing included, and failures are recorded under {@code password.hash} and
+ * {@code password.verify} in {@link Metrics}; {@link #getStats()} reports the BCrypt service time alone.
  */
 
 public class PasswordUtil {
+    private static final int CALIBRATION_COST = 8;
+    private static final int DEFAULT_COST = 10;
+
+    private static final int THREADS = Math.max(1,
+            Integer.getInteger("ecommerce.bcrypt.threads", Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE_CAPACITY = Math.max(1, Integer.getInteger("ecommerce.bcrypt.queueCapacity", 64));
+    private static final long TIMEOUT_MILLIS = Long.getLong("ecommerce.bcrypt.timeoutMillis", 5_000L);
+
+    private static final LatencyHistogram HASH_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram VERIFY_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram QUEUE_WAIT = new LatencyHistogram();
+    private static final LongAdder REJECTED = new LongAdder();
+    private static final OperationMetrics HASH_METRICS = Metrics.operation("password.hash");
+    private static final OperationMetrics VERIFY_METRICS = Metrics.operation("password.verify");
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+    private static final int COST = resolveCost();
 
     /**
-     * Hashes a plain-text password using BCrypt.
+     * Hashes a plain-text password using BCrypt at the calibrated cost.
      *
      * @param plainTextPassword the plain-text password to hash.
      * @return the hashed password.
+     * @throws PasswordHashingRejectedException if the hashing executor is saturated.
      */
 
     public static String hashPassword(String plainTextPassword) {
-        return BCrypt.hashpw(plainTextPassword, BCrypt.gensalt());
+        return run(() -> BCrypt.hashpw(plainTextPassword, BCrypt.gensalt(COST)), HASH_LATENCY, HASH_METRICS);
     }
 
     /**
@@ -25,9 +67,155 @@ public class PasswordUtil {
      * @param plainTextPassword the plain-text password.
      * @param hashedPassword    the hashed password to compare against.
      * @return {@code true} if the password matches, {@code false} otherwise.
+     * @throws PasswordHashingRejectedException if the hashing executor is saturated.
      */
 
     public static boolean checkPassword(String plainTextPassword, String hashedPassword) {
-        return BCrypt.checkpw(plainTextPassword, hashedPassword);
+        return run(() -> BCrypt.checkpw(plainTextPassword, hashedPassword), VERIFY_LATENCY, VERIFY_METRICS);
+    }
+
+    /**
+     * Checks whether a stored hash was made with a different cost than the current one and should be
+     * replaced the next time the plain-text password is available.
+     *
+     * @param hashedPassword the stored hash.
+     * @return {@code true} if the hash should be regenerated.
+     */
+
+    public static boolean needsRehash(String hashedPassword) {
+        return costOf(hashedPassword) != COST;
+    }
+
+    /**
+     * Gets the BCrypt cost used for new hashes.
+     *
+     * @return the cost (log2 of the number of rounds).
+     */
+
+    public static int getCost() {
+        return COST;
+    }
+
+    /**
+     * Gets a snapshot of the hashing executor and its latencies.
+     *
+     * @return the current statistics.
+     */
+
+    public static PasswordHashingStats getStats() {
+        return new PasswordHashingStats(COST, THREADS, EXECUTOR.getActiveCount(), EXECUTOR.getQueue().size(),
+                QUEUE_CAPACITY, REJECTED.sum(), HASH_LATENCY, VERIFY_LATENCY, QUEUE_WAIT);
+    }
+
+    private static <T> T run(Callable<T> work, LatencyHistogram latency, OperationMetrics metrics) {
+        long submitted = metrics.start();
+        try {
+            return submitAndWait(work, latency, submitted);
+        } catch (RuntimeException e) {
+            metrics.failed();
+            throw e;
+        } finally {
+            metrics.stop(submitted);
+        }
+    }
+
+    private static <T> T submitAndWait(Callable<T> work, LatencyHistogram latency, long submitted) {
+        Future<T> future;
+        try {
+            future = EXECUTOR.submit(() -> {
+                long start = System.nanoTime();
+                QUEUE_WAIT.record(start - submitted);
+                try {
+                    return work.call();
+                } finally {
+                    latency.recordSince(start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            REJECTED.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+
+        try {
+            return future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drop the request if it is still queued; a hash already in progress runs to completion.
+            future.cancel(false);
+            REJECTED.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out after " + TIMEOUT_MILLIS + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+        return executor;
+    }
+
+    /**
+     * Picks the highest cost whose estimated hash time fits the target.
+     * Each cost step doubles the work, so one measurement at a cheap cost is enough to extrapolate.
+     */
+    private static int resolveCost() {
+        Integer fixed = Integer.getInteger("ecommerce.bcrypt.cost");
+        if (fixed != null) {
+            return fixed;
+        }
+        long targetNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("ecommerce.bcrypt.targetMillis", 100L));
+        int minCost = Integer.getInteger("ecommerce.bcrypt.minCost", DEFAULT_COST);
+        int maxCost = Integer.getInteger("ecommerce.bcrypt.maxCost", 14);
+
+        String salt = BCrypt.gensalt(CALIBRATION_COST);
+        long best = Long.MAX_VALUE;
+        // The first runs include JIT warm-up; keep the fastest.
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int cost = CALIBRATION_COST;
+        long estimate = Math.max(1, best);
+        while (cost < maxCost && estimate * 2 <= targetNanos) {
+            estimate *= 2;
+            cost++;
+        }
+        return Math.max(minCost, Math.min(maxCost, cost));
+    }
+
+    /**
+     * Reads the cost from a modular crypt hash such as {@code $2a$10$...}.
+     *
+     * @return the cost, or -1 if the hash is not in that format.
+     */
+    private static int costOf(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int end = hashedPassword.indexOf('$', 1);
+        if (end < 0 || hashedPassword.length() < end + 3) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hashedPassword.substring(end + 1, end + 3));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 }
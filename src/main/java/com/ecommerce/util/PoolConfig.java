@@ -0,0 +1,105 @@
+package com.ecommerce.util;
+
+/**
+ * Settings for a {@link ConnectionPool}.
+ * Every value can be overridden with a system property, e.g. {@code -Decommerce.db.pool.maxSize=20};
+ * statement tracing settings use the {@code ecommerce.db.trace.*} properties.
+ */
+
+public class PoolConfig {
+    private int maxSize = 10;
+    private int minIdle = 2;
+    private long acquireTimeoutMillis = 5_000;
+    private long idleTimeoutMillis = 600_000;
+    private long validationIntervalMillis = 500;
+    private int validationTimeoutSeconds = 2;
+    private long leakThresholdMillis;
+    private long housekeepingIntervalMillis = 30_000;
+    private boolean statementTracing = true;
+    private long slowQueryMillis = 500;
+    private String slowQueryLog;
+    private boolean explainSlowQueries;
+
+    /**
+     * Creates a configuration from the {@code ecommerce.db.pool.*} system properties,
+     * falling back to the defaults for anything that is not set.
+     *
+     * @return the resolved configuration.
+     */
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig config = new PoolConfig();
+        config.setMaxSize(Integer.getInteger("ecommerce.db.pool.maxSize", config.maxSize));
+        config.setMinIdle(Integer.getInteger("ecommerce.db.pool.minIdle", config.minIdle));
+        config.setAcquireTimeoutMillis(Long.getLong("ecommerce.db.pool.acquireTimeoutMillis", config.acquireTimeoutMillis));
+        config.setIdleTimeoutMillis(Long.getLong("ecommerce.db.pool.idleTimeoutMillis", config.idleTimeoutMillis));
+        config.setValidationIntervalMillis(Long.getLong("ecommerce.db.pool.validationIntervalMillis", config.validationIntervalMillis));
+        config.setValidationTimeoutSeconds(Integer.getInteger("ecommerce.db.pool.validationTimeoutSeconds", config.validationTimeoutSeconds));
+        config.setLeakThresholdMillis(Long.getLong("ecommerce.db.pool.leakThresholdMillis", config.leakThresholdMillis));
+        config.setHousekeepingIntervalMillis(Long.getLong("ecommerce.db.pool.housekeepingIntervalMillis", config.housekeepingIntervalMillis));
+        config.setStatementTracing(Boolean.parseBoolean(System.getProperty("ecommerce.db.trace.enabled", "true")));
+        config.setSlowQueryMillis(Long.getLong("ecommerce.db.trace.slowQueryMillis", config.slowQueryMillis));
+        config.setSlowQueryLog(System.getProperty("ecommerce.db.trace.slowQueryLog"));
+        config.setExplainSlowQueries(Boolean.parseBoolean(System.getProperty("ecommerce.db.trace.explain", "false")));
+        return config;
+    }
+
+    /** @return the maximum number of open connections. */
+    public int getMaxSize() { return maxSize; }
+    /** @param maxSize the maximum number of open connections. */
+    public void setMaxSize(int maxSize) { this.maxSize = Math.max(1, maxSize); }
+
+    /** @return the number of idle connections kept open by idle eviction. */
+    public int getMinIdle() { return minIdle; }
+    /** @param minIdle the number of idle connections kept open by idle eviction. */
+    public void setMinIdle(int minIdle) { this.minIdle = Math.max(0, minIdle); }
+
+    /** @return how long a caller waits for a connection before failing. */
+    public long getAcquireTimeoutMillis() { return acquireTimeoutMillis; }
+    /** @param acquireTimeoutMillis how long a caller waits for a connection before failing. */
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) { this.acquireTimeoutMillis = acquireTimeoutMillis; }
+
+    /** @return how long a connection may sit idle before it is closed. */
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+    /** @param idleTimeoutMillis how long a connection may sit idle before it is closed. */
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) { this.idleTimeoutMillis = idleTimeoutMillis; }
+
+    /** @return idle time after which a connection is validated before being handed out. */
+    public long getValidationIntervalMillis() { return validationIntervalMillis; }
+    /** @param validationIntervalMillis idle time after which a connection is validated before being handed out. */
+    public void setValidationIntervalMillis(long validationIntervalMillis) { this.validationIntervalMillis = validationIntervalMillis; }
+
+    /** @return the timeout passed to {@link java.sql.Connection#isValid(int)}. */
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+    /** @param validationTimeoutSeconds the timeout passed to {@link java.sql.Connection#isValid(int)}. */
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; }
+
+    /** @return how long a connection may be held before it is reported as a leak; 0 (the default) disables detection and its per-borrow stack capture. */
+    public long getLeakThresholdMillis() { return leakThresholdMillis; }
+    /** @param leakThresholdMillis how long a connection may be held before it is reported as a leak; 0 disables detection. */
+    public void setLeakThresholdMillis(long leakThresholdMillis) { this.leakThresholdMillis = leakThresholdMillis; }
+
+    /** @return the period of the idle-eviction and leak-detection task. */
+    public long getHousekeepingIntervalMillis() { return housekeepingIntervalMillis; }
+    /** @param housekeepingIntervalMillis the period of the idle-eviction and leak-detection task. */
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) { this.housekeepingIntervalMillis = Math.max(100, housekeepingIntervalMillis); }
+
+    /** @return whether statements are traced with JFR events and checked against the slow-query threshold. */
+    public boolean isStatementTracing() { return statementTracing; }
+    /** @param statementTracing whether statements are traced with JFR events and checked against the slow-query threshold. */
+    public void setStatementTracing(boolean statementTracing) { this.statementTracing = statementTracing; }
+
+    /** @return the duration from which a statement is written to the slow-query log; negative disables the log. */
+    public long getSlowQueryMillis() { return slowQueryMillis; }
+    /** @param slowQueryMillis the duration from which a statement is written to the slow-query log; negative disables the log. */
+    public void setSlowQueryMillis(long slowQueryMillis) { this.slowQueryMillis = slowQueryMillis; }
+
+    /** @return the file the slow-query log is appended to, or null for standard error. */
+    public String getSlowQueryLog() { return slowQueryLog; }
+    /** @param slowQueryLog the file the slow-query log is appended to, or null for standard error. */
+    public void setSlowQueryLog(String slowQueryLog) { this.slowQueryLog = slowQueryLog; }
+
+    /** @return whether slow statements are explained, read-only ones under {@code EXPLAIN (ANALYZE, BUFFERS)}, and the plan logged. */
+    public boolean isExplainSlowQueries() { return explainSlowQueries; }
+    /** @param explainSlowQueries whether slow statements are explained, read-only ones under {@code EXPLAIN (ANALYZE, BUFFERS)}, and the plan logged. */
+    public void setExplainSlowQueries(boolean explainSlowQueries) { this.explainSlowQueries = explainSlowQueries; }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.util;
+
+/**
+ * Point-in-time view of a {@link ConnectionPool}, used to size the pool from live data.
+ */
+
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final int maxSize;
+    private final long created;
+    private final long closed;
+    private final long timeouts;
+    private final long leaks;
+    private final long acquireCount;
+    private final long acquireP50Nanos;
+    private final long acquireP95Nanos;
+    private final long acquireP99Nanos;
+    private final long acquireMaxNanos;
+
+    PoolStats(int active, int idle, int waiters, int maxSize, long created, long closed, long timeouts, long leaks,
+              LatencyHistogram acquireLatency) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.maxSize = maxSize;
+        this.created = created;
+        this.closed = closed;
+        this.timeouts = timeouts;
+        this.leaks = leaks;
+        this.acquireCount = acquireLatency.getCount();
+        this.acquireP50Nanos = acquireLatency.getPercentileNanos(50);
+        this.acquireP95Nanos = acquireLatency.getPercentileNanos(95);
+        this.acquireP99Nanos = acquireLatency.getPercentileNanos(99);
+        this.acquireMaxNanos = acquireLatency.getMaxNanos();
+    }
+
+    /** @return connections currently borrowed by callers. */
+    public int getActive() { return active; }
+    /** @return open connections waiting in the pool. */
+    public int getIdle() { return idle; }
+    /** @return callers currently blocked waiting for a connection. */
+    public int getWaiters() { return waiters; }
+    /** @return the configured maximum pool size. */
+    public int getMaxSize() { return maxSize; }
+    /** @return physical connections opened since startup. */
+    public long getCreated() { return created; }
+    /** @return physical connections closed since startup. */
+    public long getClosed() { return closed; }
+    /** @return acquisitions that failed because the acquire timeout elapsed. */
+    public long getTimeouts() { return timeouts; }
+    /** @return connections reported as leaked. */
+    public long getLeaks() { return leaks; }
+    /** @return successful acquisitions since startup. */
+    public long getAcquireCount() { return acquireCount; }
+    /** @return median acquire latency in nanoseconds. */
+    public long getAcquireP50Nanos() { return acquireP50Nanos; }
+    /** @return 95th percentile acquire latency in nanoseconds. */
+    public long getAcquireP95Nanos() { return acquireP95Nanos; }
+    /** @return 99th percentile acquire latency in nanoseconds. */
+    public long getAcquireP99Nanos() { return acquireP99Nanos; }
+    /** @return worst acquire latency in nanoseconds. */
+    public long getAcquireMaxNanos() { return acquireMaxNanos; }
+
+    /**
+     * Provides a string representation of the pool statistics.
+     *
+     * @return a one-line summary with acquire latencies in microseconds.
+     */
+    @Override
+    public String toString() {
+        return "PoolStats [active=" + active + ", idle=" + idle + ", waiters=" + waiters + ", max=" + maxSize +
+                ", created=" + created + ", closed=" + closed + ", timeouts=" + timeouts + ", leaks=" + leaks +
+                ", acquires=" + acquireCount + ", p50=" + acquireP50Nanos / 1_000 + "us, p95=" + acquireP95Nanos / 1_000 +
+                "us, p99=" + acquireP99Nanos / 1_000 + "us, max=" + acquireMaxNanos / 1_000 + "us]";
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A per-thread deadline for database work.
+ * While code runs inside {@link #call(long, Callable)}, {@link ConnectionPool} waits no longer than the time
+ * left for a connection and gives every statement a matching query timeout, so the server cancels a query
+ * that would outlive its caller instead of finishing it for nobody.
+ */
+
+public final class QueryDeadline {
+    /** Marks the absence of a deadline. */
+    public static final long NONE = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private QueryDeadline() {}
+
+    /**
+     * Runs a task with a deadline for the database work it does on this thread.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} by which the work must finish, or {@link #NONE}.
+     * @param task          the task.
+     * @param <T>           the result type.
+     * @return the task's result.
+     * @throws Exception whatever the task throws.
+     */
+    public static <T> T call(long deadlineNanos, Callable<T> task) throws Exception {
+        if (deadlineNanos == NONE) {
+            return task.call();
+        }
+        Long previous = DEADLINE.get();
+        // A nested deadline can only shorten the outer one.
+        DEADLINE.set(previous == null ? deadlineNanos : Math.min(previous, deadlineNanos));
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Gets the time left before this thread's deadline.
+     *
+     * @param unit the unit of the result.
+     * @return the time left, at most zero once it has passed, or {@link Long#MAX_VALUE} if there is no deadline.
+     */
+    public static long remaining(TimeUnit unit) {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+}
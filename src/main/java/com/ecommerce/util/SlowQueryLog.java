@@ -0,0 +1,209 @@
+package com.ecommerce.util;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Writes statements slower than {@link PoolConfig#getSlowQueryMillis()} to a log, and optionally their plans.
+ * <p>
+ * With {@link PoolConfig#isExplainSlowQueries()} set, a slow read-only query is re-run as
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} with the same parameters on a dedicated side connection, inside a
+ * transaction that is always rolled back. Inserts, updates, deletes, data-modifying {@code WITH} queries and
+ * locking reads only get a plain {@code EXPLAIN}: executing them again would take the same row locks as the
+ * original, held for up to the EXPLAIN timeout, just to collect a plan. Plans are captured
+ * on one background thread with a short queue; when it is busy, further requests are dropped, and each distinct
+ * statement is explained at most once per {@code EXPLAIN_INTERVAL_MILLIS}.
+ */
+final class SlowQueryLog implements AutoCloseable {
+    private static final long EXPLAIN_INTERVAL_MILLIS = 60_000;
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 30;
+    // Words that make a SELECT or WITH write or lock rows; a column of the same name merely skips ANALYZE.
+    private static final Pattern WRITES_OR_LOCKS = Pattern.compile("\\b(insert|update|delete|merge|share)\\b");
+
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final Callable<Connection> sideConnectionFactory;
+    private final PrintStream out;
+    private final ThreadPoolExecutor explainer;
+    private final ConcurrentHashMap<String, Long> lastExplained = new ConcurrentHashMap<>();
+    private final LongAdder logged = new LongAdder();
+    private Connection sideConnection;
+
+    /**
+     * Creates a log from the pool settings.
+     *
+     * @param config                the pool settings.
+     * @param sideConnectionFactory opens the unpooled connection used for EXPLAIN.
+     */
+    SlowQueryLog(PoolConfig config, Callable<Connection> sideConnectionFactory) {
+        this.thresholdNanos = config.getSlowQueryMillis() < 0 ? Long.MAX_VALUE
+                : TimeUnit.MILLISECONDS.toNanos(config.getSlowQueryMillis());
+        this.explain = config.isExplainSlowQueries();
+        this.sideConnectionFactory = sideConnectionFactory;
+        this.out = openLog(config.getSlowQueryLog());
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explainer");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Checks whether a duration is over the threshold.
+     *
+     * @param durationNanos the statement duration.
+     * @return {@code true} if the statement should be logged.
+     */
+    boolean isSlow(long durationNanos) {
+        return durationNanos >= thresholdNanos;
+    }
+
+    /**
+     * Gets the number of statements logged as slow.
+     *
+     * @return the count since startup.
+     */
+    long getLogged() {
+        return logged.sum();
+    }
+
+    /**
+     * Logs a slow statement and, if enabled, schedules its plan capture.
+     *
+     * @param sql           the statement text.
+     * @param parameters    the bound values, unredacted, for re-running it; null for a batch, which is not explained.
+     * @param redacted      the parameters as they may be written out.
+     * @param rows          rows read or affected, or -1.
+     * @param durationNanos how long it took.
+     */
+    void log(String sql, Object[] parameters, String redacted, long rows, long durationNanos) {
+        logged.increment();
+        synchronized (out) {
+            out.printf(Locale.ROOT, "%s SLOW %.1f ms rows=%d sql=%s params=%s%n",
+                    LocalDateTime.now(), durationNanos / 1e6, rows, sql, redacted);
+            out.flush();
+        }
+        if (explain && parameters != null && isExplainable(sql) && shouldExplain(sql)) {
+            try {
+                explainer.execute(() -> capturePlan(sql, parameters));
+            } catch (RejectedExecutionException e) {
+                // The explainer is busy; this plan is skipped rather than queued without bound.
+            }
+        }
+    }
+
+    /**
+     * Stops the explainer and closes the side connection.
+     */
+    @Override
+    public void close() {
+        explainer.shutdownNow();
+        synchronized (this) {
+            closeSideConnection();
+        }
+        if (out != System.err) {
+            out.close();
+        }
+    }
+
+    private boolean shouldExplain(String sql) {
+        long now = System.currentTimeMillis();
+        Long previous = lastExplained.get(sql);
+        if (previous != null && now - previous < EXPLAIN_INTERVAL_MILLIS) {
+            return false;
+        }
+        if (lastExplained.size() > 1_000) {
+            lastExplained.clear();
+        }
+        return previous == null ? lastExplained.putIfAbsent(sql, now) == null
+                : lastExplained.replace(sql, previous, now);
+    }
+
+    private static boolean isExplainable(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return head.startsWith("select") || head.startsWith("with") || head.startsWith("update")
+                || head.startsWith("delete") || head.startsWith("insert");
+    }
+
+    /**
+     * Tells whether a statement only reads, so executing it under {@code EXPLAIN ANALYZE} takes no row locks.
+     */
+    private static boolean isReadOnly(String sql) {
+        String head = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return (head.startsWith("select") || head.startsWith("with")) && !WRITES_OR_LOCKS.matcher(head).find();
+    }
+
+    private synchronized void capturePlan(String sql, Object[] parameters) {
+        StringBuilder plan = new StringBuilder();
+        try {
+            if (sideConnection == null || sideConnection.isClosed()) {
+                sideConnection = sideConnectionFactory.call();
+                sideConnection.setAutoCommit(false);
+            }
+            try (PreparedStatement stmt = sideConnection.prepareStatement(
+                    (isReadOnly(sql) ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ") + sql)) {
+                stmt.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+                if (parameters != null) {
+                    for (int i = 0; i < parameters.length; i++) {
+                        stmt.setObject(i + 1, parameters[i]);
+                    }
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append("    ").append(rs.getString(1)).append(System.lineSeparator());
+                    }
+                }
+            } finally {
+                sideConnection.rollback();
+            }
+        } catch (Exception e) {
+            System.err.println("Error explaining slow query: " + e.getMessage());
+            closeSideConnection();
+            return;
+        }
+        synchronized (out) {
+            out.println(LocalDateTime.now() + " PLAN sql=" + sql);
+            out.print(plan);
+            out.flush();
+        }
+    }
+
+    private void closeSideConnection() {
+        if (sideConnection != null) {
+            try {
+                sideConnection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing EXPLAIN connection: " + e.getMessage());
+            }
+            sideConnection = null;
+        }
+    }
+
+    private static PrintStream openLog(String file) {
+        if (file == null || file.isBlank()) {
+            return System.err;
+        }
+        try {
+            return new PrintStream(new FileOutputStream(file, true), false, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Cannot open slow-query log " + file + ", using standard error: " + e.getMessage());
+            return System.err;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one SQL statement executed through the {@link ConnectionPool}.
+ * For queries the event spans execution and reading the result set, so a slow cursor shows up as one long event.
+ * The stack trace identifies the DAO method that issued the statement.
+ * <p>
+ * Record with e.g. {@code -XX:StartFlightRecording:filename=app.jfr} and look for {@code com.ecommerce.SqlStatement}.
+ */
+@Name("com.ecommerce.SqlStatement")
+@Label("SQL Statement")
+@Category({"E-Commerce", "Database"})
+@Description("A SQL statement executed through the connection pool")
+public class SqlStatementEvent extends jdk.jfr.Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Parameters")
+    @Description("Bound parameters; text values are redacted to their length")
+    String parameters;
+
+    @Label("Rows")
+    @Description("Rows read or affected, or -1 if unknown")
+    long rows;
+
+    @Label("Batch Size")
+    @Description("Parameter sets in an executed batch, or 0 for a single execution")
+    int batchSize;
+
+    @Label("Failed")
+    boolean failed;
+}
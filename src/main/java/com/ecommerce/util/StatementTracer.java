@@ -0,0 +1,251 @@
+package com.ecommerce.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Wraps a statement handed out by the {@link ConnectionPool} so that every execution emits a
+ * {@link SqlStatementEvent} and, past the threshold, an entry in the {@link SlowQueryLog}.
+ * <p>
+ * Bound parameters are remembered so a slow statement can be explained with the same values, but only ever
+ * written out in redacted form: numbers, booleans, dates and nulls as they are, text and binary values as their
+ * length. A query is timed until its result set is exhausted or closed, which covers cursor fetches as well.
+ */
+final class StatementTracer implements InvocationHandler {
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private final Statement target;
+    private final String preparedSql;
+    private final SlowQueryLog slowQueryLog;
+    private Object[] parameters = NO_PARAMETERS;
+    private int parameterCount;
+    private int batchSize;
+    private String batchSql;
+    private QueryTrace openQuery;
+
+    private StatementTracer(Statement target, String preparedSql, SlowQueryLog slowQueryLog) {
+        this.target = target;
+        this.preparedSql = preparedSql;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Wraps a statement.
+     *
+     * @param type         the statement interface to expose, e.g. {@link java.sql.PreparedStatement}.
+     * @param statement    the driver's statement.
+     * @param preparedSql  the SQL it was prepared with, or null for a plain statement.
+     * @param slowQueryLog where slow executions are reported.
+     * @return the traced statement.
+     */
+    static Object wrap(Class<?> type, Statement statement, String preparedSql, SlowQueryLog slowQueryLog) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new StatementTracer(statement, preparedSql, slowQueryLog));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "executeQuery", "executeUpdate", "executeLargeUpdate", "execute", "executeBatch", "executeLargeBatch" -> {
+                return execute(method, args, name);
+            }
+            case "addBatch" -> {
+                batchSize++;
+                if (args != null && args.length == 1) {
+                    batchSql = (String) args[0];
+                }
+            }
+            case "clearBatch" -> batchSize = 0;
+            case "clearParameters" -> parameterCount = 0;
+            case "close" -> finishOpenQuery();
+            default -> {
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    bind(index, name.equals("setNull") ? null : args[1]);
+                }
+            }
+        }
+        return forward(target, method, args);
+    }
+
+    private Object execute(Method method, Object[] args, String name) throws Throwable {
+        finishOpenQuery();
+        boolean batch = name.endsWith("Batch");
+        String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                : batch && preparedSql == null ? batchSql : preparedSql;
+        int executedBatch = batch ? batchSize : 0;
+        SqlStatementEvent event = new SqlStatementEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = forward(target, method, args);
+        } catch (Throwable e) {
+            finish(event, sql, snapshot(batch), executedBatch, -1, start, true);
+            throw e;
+        } finally {
+            if (batch) {
+                batchSize = 0;
+            }
+        }
+        switch (result) {
+            case ResultSet rs -> {
+                QueryTrace trace = new QueryTrace(rs, event, sql, snapshot(false), start);
+                openQuery = trace;
+                return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, trace);
+            }
+            case Integer rows -> finish(event, sql, snapshot(false), 0, rows, start, false);
+            case Long rows -> finish(event, sql, snapshot(false), 0, rows, start, false);
+            case int[] counts -> finish(event, sql, snapshot(true), executedBatch, sum(counts), start, false);
+            case long[] counts -> finish(event, sql, snapshot(true), executedBatch, Arrays.stream(counts).filter(c -> c >= 0).sum(), start, false);
+            default -> finish(event, sql, snapshot(false), 0, -1, start, false);
+        }
+        return result;
+    }
+
+    private void finish(SqlStatementEvent event, String sql, Object[] values, int executedBatch, long rows, long start, boolean failed) {
+        long duration = System.nanoTime() - start;
+        event.end();
+        boolean slow = slowQueryLog.isSlow(duration);
+        if (!event.shouldCommit() && !slow) {
+            return;
+        }
+        String redacted = redact(values == null ? Arrays.copyOf(parameters, parameterCount) : values);
+        if (event.shouldCommit()) {
+            event.sql = sql;
+            event.parameters = redacted;
+            event.rows = rows;
+            event.batchSize = executedBatch;
+            event.failed = failed;
+            event.commit();
+        }
+        if (slow) {
+            slowQueryLog.log(sql, values, redacted, rows, duration);
+        }
+    }
+
+    /**
+     * Copies the bound parameters for later use, or returns null for a batch, whose parameter sets are gone.
+     */
+    private Object[] snapshot(boolean batch) {
+        return batch ? null : parameterCount == 0 ? NO_PARAMETERS : Arrays.copyOf(parameters, parameterCount);
+    }
+
+    private void bind(int index, Object value) {
+        if (index < 1) {
+            return;
+        }
+        if (index > parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+        }
+        parameters[index - 1] = value;
+        parameterCount = Math.max(parameterCount, index);
+    }
+
+    private void finishOpenQuery() {
+        if (openQuery != null) {
+            openQuery.finish();
+            openQuery = null;
+        }
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            // Statement.SUCCESS_NO_INFO and EXECUTE_FAILED are negative.
+            if (count >= 0) {
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    private static String redact(Object[] values) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            Object value = values[i];
+            if (value == null || value instanceof Number || value instanceof Boolean || value instanceof java.util.Date
+                    || value instanceof java.time.temporal.Temporal) {
+                out.append(value instanceof BigDecimal decimal ? decimal.toPlainString() : value);
+            } else if (value instanceof CharSequence text) {
+                out.append("<text ").append(text.length()).append(" chars>");
+            } else if (value instanceof byte[] bytes) {
+                out.append("<binary ").append(bytes.length).append(" bytes>");
+            } else {
+                out.append('<').append(value.getClass().getSimpleName()).append('>');
+            }
+        }
+        return out.append(']').toString();
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Counts the rows read from a result set and completes the statement's event when it is exhausted or closed.
+     */
+    private final class QueryTrace implements InvocationHandler {
+        private final ResultSet rs;
+        private final SqlStatementEvent event;
+        private final String sql;
+        private final Object[] values;
+        private final long start;
+        private long rows;
+        private boolean finished;
+
+        private QueryTrace(ResultSet rs, SqlStatementEvent event, String sql, Object[] values, long start) {
+            this.rs = rs;
+            this.event = event;
+            this.sql = sql;
+            this.values = values;
+            this.start = start;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next" -> {
+                    boolean more;
+                    try {
+                        more = (Boolean) forward(rs, method, args);
+                    } catch (Throwable e) {
+                        finished = true;
+                        StatementTracer.this.finish(event, sql, values, 0, rows, start, true);
+                        throw e;
+                    }
+                    if (more) {
+                        rows++;
+                    } else {
+                        finish();
+                    }
+                    return more;
+                }
+                case "close" -> finish();
+                default -> {
+                }
+            }
+            return forward(rs, method, args);
+        }
+
+        private void finish() {
+            if (!finished) {
+                finished = true;
+                StatementTracer.this.finish(event, sql, values, 0, rows, start, false);
+            }
+        }
+    }
+}
@@ -1,15 +1,45 @@
-CREATE TABLE Users (
+-- The schema for a fresh database. Every statement is idempotent, so running the file against an existing
+-- database adds what it lacks. The application brings it up to date at startup by applying the
+-- versioned scripts in db/migration; add schema changes there as a new script.
+CREATE TABLE IF NOT EXISTS Users (
     id SERIAL PRIMARY KEY,
     username VARCHAR(50) NOT NULL,
     password VARCHAR(255) NOT NULL,
     email VARCHAR(100) UNIQUE NOT NULL,
-    role VARCHAR(20) NOT NULL
+    role VARCHAR(20) NOT NULL,
+    -- Set while a seller's products are being deleted in the background; their products are hidden meanwhile.
+    deleting BOOLEAN NOT NULL DEFAULT FALSE
 );
 
-CREATE TABLE Products (
+-- Databases created before the flag existed.
+ALTER TABLE Users ADD COLUMN IF NOT EXISTS deleting BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE TABLE IF NOT EXISTS Products (
     id SERIAL PRIMARY KEY,
     name VARCHAR(100) NOT NULL,
     price DECIMAL(10, 2) NOT NULL,
     quantity INT NOT NULL,
     seller_id INT REFERENCES Users(id)
-);
\ No newline at end of file
+);
+
+-- Orders keep the buyer reference only while the account exists, and copy each product's name and price,
+-- so order history survives product and user deletion.
+CREATE TABLE IF NOT EXISTS Orders (
+    id SERIAL PRIMARY KEY,
+    buyer_id INT REFERENCES Users(id) ON DELETE SET NULL,
+    total DECIMAL(12, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS Order_Items (
+    order_id INT NOT NULL REFERENCES Orders(id) ON DELETE CASCADE,
+    line_no INT NOT NULL,
+    product_id INT NOT NULL,
+    product_name VARCHAR(100) NOT NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    quantity INT NOT NULL CHECK (quantity > 0),
+    PRIMARY KEY (order_id, line_no)
+);
+
+CREATE INDEX IF NOT EXISTS orders_buyer_id_idx ON Orders (buyer_id);
@@ -0,0 +1,18 @@
+-- migration:no-transaction
+-- Built concurrently so buyer traffic keeps writing to the tables while the indexes are created.
+
+-- getProductsBySellerId, the seller-product counts and chunked deletes, and the foreign key check
+-- when a user is deleted.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_seller_id_idx ON Products (seller_id);
+
+-- getProductByName.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_name_idx ON Products (name);
+
+-- Case-insensitive exact name matches.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_lower_name_idx ON Products (lower(name));
+
+-- Price-range scans, cheapest first, with ties in ID order.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_price_idx ON Products (price, id);
+
+-- The visibility check of every product read and the lookup of unfinished seller deletions.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS users_deleting_idx ON Users (id) WHERE deleting;
@@ -0,0 +1,6 @@
+-- migration:no-transaction
+-- Kept apart from V2 because creating the extension needs extra privileges on some servers.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Case-insensitive substring matches, e.g. lower(name) LIKE '%lamp%'.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_name_trgm_idx ON Products USING gin (lower(name) gin_trgm_ops);